@@ -0,0 +1,61 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu;
+
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameBuffer;
+import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 8086 CPU Execution Benchmark; runs each {@link X86InstructionMixes instruction mix}
+ * through {@link I8086#execute(IbmPcSystem, ProgramContext)}, both an instruction at a
+ * time and a basic block at a time. The score is the time per pass through the loop
+ * body; see {@link X86InstructionMixes#getInstructionCount(int)} for the number of
+ * instructions executed per pass.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class I8086Benchmark {
+    private static final int SEGMENT = 0x13F0;
+    private static final int ITERATIONS = 1000;
+
+    @Param({"ALU", "MEMORY", "BRANCH"})
+    public X86InstructionMixes mix;
+
+    @Param({"false", "true"})
+    public boolean blockExecution;
+
+    private IbmPcSystem system;
+    private ProgramContext context;
+    private I8086 cpu;
+
+    @Setup
+    public void setup() {
+        system = IbmPcSystemFactory.getHeadlessIBMPCjr(new IbmPcFrameBuffer());
+        cpu = system.getCPU();
+        cpu.setBlockExecutionMode(blockExecution);
+
+        // load the program
+        final byte[] code = mix.createProgram(ITERATIONS);
+        system.getRandomAccessMemory().setBytes(SEGMENT, 0x100, code, code.length);
+        context = new ProgramContext(SEGMENT, SEGMENT, 0x100, new ProgramArguments[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public int execute() throws X86AssemblyException {
+        // the program halts the CPU (INT 20h) when it terminates
+        cpu.resume();
+        cpu.execute(system, context);
+        return cpu.AX.get();
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Canned 8086 instruction mixes for the CPU and decoder benchmarks; each mix is a
+ * .COM-style program which executes a loop body a given number of times, then terminates.
+ * The programs are hand-assembled, since the assembler does not yet encode the
+ * register/memory (ModR/M) forms of the arithmetic instructions.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public enum X86InstructionMixes {
+
+    /**
+     * Register-to-register arithmetic and logic
+     */
+    ALU(new byte[]{
+            0x01, (byte) 0xD8,          // ADD AX,BX
+            0x29, (byte) 0xCA,          // SUB DX,CX
+            0x31, (byte) 0xC3,          // XOR BX,AX
+            0x21, (byte) 0xD0,          // AND AX,DX
+            0x09, (byte) 0xC2,          // OR DX,AX
+            0x40,                       // INC AX
+            0x4A,                       // DEC DX
+            0x39, (byte) 0xD8,          // CMP AX,BX
+            (byte) 0xD1, (byte) 0xE0    // SHL AX,1
+    }, 36),
+
+    /**
+     * Loads and stores through the ModR/M addressing forms, and the stack
+     */
+    MEMORY(new byte[]{
+            (byte) 0x89, 0x07,              // MOV [BX],AX
+            (byte) 0x8B, 0x57, 0x02,        // MOV DX,[BX+02]
+            0x01, 0x47, 0x04,               // ADD [BX+04],AX
+            (byte) 0x8B, 0x42, (byte) 0xFE, // MOV AX,[BP+SI-02]
+            (byte) 0x89, 0x10,              // MOV [BX+SI],DX
+            0x50,                           // PUSH AX
+            0x58                            // POP AX
+    }, 28),
+
+    /**
+     * Conditional branches (taken every other iteration)
+     */
+    BRANCH(new byte[]{
+            0x40,                       // INC AX
+            (byte) 0xA8, 0x01,          // TEST AL,01
+            0x74, 0x01,                 // JZ +1
+            0x43,                       // INC BX
+            0x4A                        // DEC DX
+    }, 18);
+
+    // the number of times the loop body is repeated (unrolled) within the loop
+    private static final int UNROLL = 4;
+
+    private final byte[] body;
+    private final int instructions;
+
+    /**
+     * Creates a new instruction mix
+     *
+     * @param body         the given machine code of the loop body
+     * @param instructions the number of instructions executed per pass through the (unrolled) loop body
+     */
+    X86InstructionMixes(final byte[] body, final int instructions) {
+        this.body = body;
+        this.instructions = instructions;
+    }
+
+    /**
+     * Returns the machine code of the loop body repeated end-to-end (without the loop);
+     * i.e. a straight-line run of instructions
+     *
+     * @return the machine code
+     */
+    public byte[] getStraightLineCode() {
+        final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        for (int n = 0; n < UNROLL; n++) {
+            code.write(body, 0, body.length);
+        }
+        return code.toByteArray();
+    }
+
+    /**
+     * Creates a program which executes the loop body the given number of times
+     * (<tt>MOV CX,iterations / body / LOOP / INT 20h</tt>)
+     *
+     * @param iterations the given number of iterations (1 to 65535)
+     * @return the program's machine code
+     */
+    public byte[] createProgram(final int iterations) {
+        final byte[] loopBody = getStraightLineCode();
+        final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        write(code, new byte[]{
+                (byte) 0xB9, (byte) iterations, (byte) (iterations >> 8),   // MOV CX,iterations
+                (byte) 0xBB, 0x00, 0x04,                                    // MOV BX,0400
+                (byte) 0xBE, 0x10, 0x00,                                    // MOV SI,0010
+                (byte) 0xBD, 0x00, 0x08                                     // MOV BP,0800
+        });
+        write(code, loopBody);
+        write(code, new byte[]{(byte) 0xE2, (byte) -(loopBody.length + 2)});  // LOOP body
+        write(code, new byte[]{(byte) 0xCD, 0x20});                           // INT 20h
+        return code.toByteArray();
+    }
+
+    /**
+     * Returns the number of instructions executed by a program created with
+     * the given number of iterations (excluding its setup)
+     *
+     * @param iterations the given number of iterations
+     * @return the number of instructions
+     */
+    public int getInstructionCount(final int iterations) {
+        return iterations * (instructions + 1);
+    }
+
+    private static void write(final ByteArrayOutputStream out, final byte[] bytes) {
+        out.write(bytes, 0, bytes.length);
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.decoders;
+
+import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.OpCode;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.X86InstructionMixes;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameBuffer;
+import org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryProxy;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instruction Decoder Benchmark; decodes a straight-line run of each
+ * {@link X86InstructionMixes instruction mix} via {@link DecodeProcessor#decodeNext()};
+ * both uncached ({@link DecodeProcessorImpl}) and cached ({@link CachedDecodeProcessor}).
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodeProcessorBenchmark {
+    private static final int SEGMENT = 0x13F0;
+    private static final int OFFSET = 0x0100;
+
+    @Param({"ALU", "MEMORY", "BRANCH"})
+    public X86InstructionMixes mix;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private DecodeProcessor decoder;
+    private int endOffset;
+    private X86MemoryProxy proxy;
+
+    @Setup
+    public void setup() {
+        final IbmPcSystem system = IbmPcSystemFactory.getHeadlessIBMPCjr(new IbmPcFrameBuffer());
+        final I8086 cpu = system.getCPU();
+        proxy = system.getMemoryProxy();
+
+        // load the straight-line code
+        final byte[] code = mix.getStraightLineCode();
+        system.getRandomAccessMemory().setBytes(SEGMENT, OFFSET, code, code.length);
+        endOffset = OFFSET + code.length;
+
+        // create the decoder
+        final DecodeProcessor processor = new DecodeProcessorImpl(cpu, proxy);
+        decoder = cached ? new CachedDecodeProcessor(processor, proxy) : processor;
+    }
+
+    @Benchmark
+    public void decode(final Blackhole blackhole) {
+        decoder.redirect(SEGMENT, OFFSET);
+        while (proxy.getOffset() < endOffset) {
+            final OpCode opCode = decoder.decodeNext();
+            blackhole.consume(opCode);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.string;
+
+import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.OpCode;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameBuffer;
+import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repeated String Instruction (REPZ/REPNZ) Benchmark; each benchmark
+ * processes a 4K block of bytes (or words) per invocation.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class REPBenchmark {
+    private static final int SEGMENT = 0x2000;
+    private static final int COUNT = 4096;
+    private final OpCode repMOVSB = new REPZ(MOVSB.getInstance());
+    private final OpCode repSTOSW = new REPZ(STOSW.getInstance());
+    private final OpCode repCMPSB = new REPZ(CMPSB.getInstance());
+    private final OpCode repnzSCASB = new REPNZ(SCASB.getInstance());
+    private IbmPcSystem system;
+    private I8086 cpu;
+
+    @Setup
+    public void setup() {
+        system = IbmPcSystemFactory.getHeadlessIBMPCjr(new IbmPcFrameBuffer());
+        cpu = system.getCPU();
+        cpu.DS.set(SEGMENT);
+        cpu.ES.set(SEGMENT);
+        cpu.FLAGS.setDF(false);
+
+        // the source and comparison blocks are equal, and contain no zero bytes
+        system.getRandomAccessMemory().fill(SEGMENT, 0x0000, COUNT, (byte) 0x55);
+        system.getRandomAccessMemory().fill(SEGMENT, 0x8000, COUNT, (byte) 0x55);
+    }
+
+    @Benchmark
+    public int moveBytes() throws X86AssemblyException {
+        return execute(repMOVSB, 0x0000, 0x4000);
+    }
+
+    @Benchmark
+    public int storeWords() throws X86AssemblyException {
+        cpu.AX.set(0x0720);
+        return execute(repSTOSW, 0x0000, 0x4000);
+    }
+
+    @Benchmark
+    public int compareBytes() throws X86AssemblyException {
+        return execute(repCMPSB, 0x0000, 0x8000);
+    }
+
+    @Benchmark
+    public int scanBytes() throws X86AssemblyException {
+        // scan for a terminator that does not occur
+        cpu.AL.set(0x00);
+        return execute(repnzSCASB, 0x0000, 0x0000);
+    }
+
+    private int execute(final OpCode opCode, final int source, final int destination) throws X86AssemblyException {
+        cpu.SI.set(source);
+        cpu.DI.set(destination);
+        cpu.CX.set(COUNT);
+        opCode.execute(system, cpu);
+        return cpu.DI.get();
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.operands.memory;
+
+import org.ldaniels528.javapc.ibmpc.devices.cpu.registers.X86RegisterSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Effective Address Benchmark; computes the offsets of all 24 ModR/M
+ * memory reference forms per invocation.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EffectiveAddressBenchmark {
+    private final EffectiveAddress[] calculators = EffectiveAddress.values();
+    private X86RegisterSet registers;
+
+    @Setup
+    public void setup() {
+        registers = new X86RegisterSet();
+        registers.BX.set(0x1000);
+        registers.BP.set(0xFFF0);
+        registers.SI.set(0x0020);
+        registers.DI.set(0x0004);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(24)
+    public int computeOffsets() {
+        int sum = 0;
+        for (final EffectiveAddress calculator : calculators) {
+            sum += calculator.getOffset(registers, 0x00FE);
+        }
+        return sum;
+    }
+
+}
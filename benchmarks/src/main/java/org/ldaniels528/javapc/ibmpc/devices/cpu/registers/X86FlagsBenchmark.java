@@ -0,0 +1,68 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.registers;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 8086 Flags (FLAGS) Register Benchmark; measures the cost of updating the
+ * flags (which is deferred), and of evaluating the flags once they are read.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class X86FlagsBenchmark {
+    private X86RegisterSet registers;
+    private X86Flags flags;
+
+    @Setup
+    public void setup() {
+        registers = new X86RegisterSet();
+        registers.AX.set(0x7FF0);
+        registers.BX.set(0x0123);
+        registers.CL.set(0x80);
+        registers.DL.set(0x81);
+        flags = registers.FLAGS;
+    }
+
+    @Benchmark
+    public int updateADD() {
+        return flags.updateADD(registers.AX, registers.BX);
+    }
+
+    @Benchmark
+    public int updateSUB() {
+        return flags.updateSUB(registers.AX, registers.BX);
+    }
+
+    @Benchmark
+    public int updateLogic() {
+        return flags.updateAND(registers.AX, registers.BX)
+                ^ flags.updateOR(registers.AX, registers.BX)
+                ^ flags.updateXOR(registers.AX, registers.BX);
+    }
+
+    @Benchmark
+    public int updateINCandDEC() {
+        return flags.updateINC(registers.CL) ^ flags.updateDEC(registers.DL);
+    }
+
+    @Benchmark
+    public boolean updateADDandReadFlags() {
+        // reading the flags forces the deferred evaluation
+        flags.updateADD(registers.CL, registers.DL);
+        return flags.isCF() ^ flags.isOF() ^ flags.isZF() ^ flags.isSF() ^ flags.isPF() ^ flags.isAF();
+    }
+
+    @Benchmark
+    public int updateSUBandReadFlagsWord() {
+        flags.updateSUB(registers.AX, registers.BX);
+        return flags.get();
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.ldaniels528.javapc.ibmpc.devices.display;
+
+import org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayMode;
+import org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayModes;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Video Display Rendering Benchmark; renders text and graphics modes into a
+ * headless {@link IbmPcFrameBuffer frame buffer}, both the full screen (e.g. after a
+ * mode change) and a single modified line (e.g. the typical frame while typing).
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IbmPcVideoDisplayBenchmark {
+
+    @Param({"CGA_80X25X16", "CGA_40X25X16", "CGA_320X200X4", "CGA_640X200X2", "EGA_640X350X16", "VGA_320X200X256"})
+    public String displayMode;
+
+    private IbmPcVideoDisplay display;
+    private IbmPcDisplayMode mode;
+    private int counter;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        final IbmPcFrameBuffer frameBuffer = new IbmPcFrameBuffer();
+        display = (IbmPcVideoDisplay) IbmPcSystemFactory.getHeadlessIBMPCjr(frameBuffer).getDisplay();
+        mode = (IbmPcDisplayMode) IbmPcDisplayModes.class.getField(displayMode).get(null);
+        display.setDisplayMode(mode);
+
+        // fill the screen with content
+        if (mode.getDisplayLines() <= 25) {
+            final StringBuilder line = new StringBuilder();
+            for (int n = 0; n < 38; n++) line.append((char) ('A' + (n % 26)));
+            for (int row = 0; row < 24; row++) display.writeLine(line.toString());
+        } else {
+            for (int y = 0; y < 200; y++) {
+                for (int x = 0; x < 320; x += 3) display.writePixel(x, y, (x + y) & 0x03);
+            }
+        }
+        display.update();
+    }
+
+    @Benchmark
+    public boolean renderFullScreen() {
+        display.invalidate();
+        return display.refresh();
+    }
+
+    @Benchmark
+    public boolean renderModifiedLine() {
+        if (mode.getDisplayLines() <= 25) {
+            display.writeXY(0, 10, (counter++ & 1) == 0 ? "X" : "O");
+        } else {
+            display.writePixel(100, 100, counter++ & 0x03);
+        }
+        return display.refresh();
+    }
+
+}
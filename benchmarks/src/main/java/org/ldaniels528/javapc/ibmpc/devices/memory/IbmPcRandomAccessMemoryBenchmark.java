@@ -0,0 +1,91 @@
+package org.ldaniels528.javapc.ibmpc.devices.memory;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random Access Memory Benchmark; sequential and random byte/word reads and writes
+ * (within a 64K segment), block copies, and stores to observed (video) memory.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IbmPcRandomAccessMemoryBenchmark {
+    private static final int SEGMENT = 0x2000;
+    private static final int VIDEO_SEGMENT = 0xB800;
+    private static final int COUNT = 4096;
+    private final int[] randomOffsets = new int[COUNT];
+    private IbmPcRandomAccessMemory memory;
+
+    @Setup
+    public void setup() {
+        memory = new IbmPcRandomAccessMemory();
+
+        // observe video memory (as the display does)
+        memory.add(VIDEO_SEGMENT << 4, (VIDEO_SEGMENT << 4) + 0x7FFF, (fromAddress, toAddress) -> {
+        });
+
+        // generate reproducible random offsets
+        final Random random = new Random(0x8086);
+        for (int n = 0; n < COUNT; n++) {
+            randomOffsets[n] = random.nextInt(0xFFFE);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int readBytesSequentially() {
+        int sum = 0;
+        for (int offset = 0; offset < COUNT; offset++) {
+            sum += memory.getByte(SEGMENT, offset);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int readWordsRandomly() {
+        int sum = 0;
+        for (final int offset : randomOffsets) {
+            sum += memory.getWord(SEGMENT, offset);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void writeBytesSequentially() {
+        for (int offset = 0; offset < COUNT; offset++) {
+            memory.setByte(SEGMENT, offset, offset);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void writeWordsRandomly() {
+        for (final int offset : randomOffsets) {
+            memory.setWord(SEGMENT, offset, offset);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void writeObservedWords() {
+        for (int offset = 0; offset < COUNT; offset += 2) {
+            memory.setWord(VIDEO_SEGMENT, offset, 0x0741);
+        }
+    }
+
+    @Benchmark
+    public void copyBlock() {
+        memory.copyBytes(SEGMENT, 0x0000, SEGMENT, 0x8000, COUNT);
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.ldaniels528.javapc.jbasic.gwbasic.program;
+
+import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicTestPrograms.createProgram;
+
+/**
+ * GWBASIC Program Execution Benchmark; compiles each program once, then measures
+ * {@link GwBasicCompiledCode#execute()}, and separately compilation plus execution
+ * (i.e. the cost of <tt>RUN</tt>).
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GwBasicCompiledCodeBenchmark {
+
+    @Param({"ARITHMETIC", "STRINGS", "SUBROUTINES"})
+    public String program;
+
+    private GwBasicProgram source;
+    private GwBasicCompiledCode compiledCode;
+
+    @Setup
+    public void setup() throws JBasicException {
+        source = createProgram(getSourceCode(program));
+        compiledCode = (GwBasicCompiledCode) GwBasicCompiler.getInstance().compile(source);
+    }
+
+    @Benchmark
+    public void execute() throws JBasicException {
+        compiledCode.execute();
+    }
+
+    @Benchmark
+    public void compileAndExecute() throws JBasicException {
+        GwBasicCompiler.getInstance().compile(source).execute();
+    }
+
+    /**
+     * Returns the source code of the given benchmark program
+     *
+     * @param name the given program name
+     * @return the lines of source code
+     */
+    private static String[] getSourceCode(final String name) {
+        switch (name) {
+            case "ARITHMETIC":
+                return new String[]{
+                        "10 S = 0",
+                        "20 FOR I = 1 TO 1000",
+                        "30 S = S + I * 2 - (I / 4)",
+                        "40 NEXT I"
+                };
+            case "STRINGS":
+                return new String[]{
+                        "10 A$ = \"\"",
+                        "20 FOR I = 1 TO 200",
+                        "30 A$ = LEFT$(A$ + CHR$(65 + I MOD 26), 40)",
+                        "40 NEXT I",
+                        "50 L = LEN(A$)"
+                };
+            case "SUBROUTINES":
+                return new String[]{
+                        "10 S = 0",
+                        "20 FOR I = 1 TO 500",
+                        "30 GOSUB 100",
+                        "40 NEXT I",
+                        "50 END",
+                        "100 S = S + I",
+                        "110 RETURN"
+                };
+            default:
+                throw new IllegalArgumentException("Unknown program: " + name);
+        }
+    }
+
+}
@@ -4,17 +4,26 @@ import org.ldaniels528.javapc.JavaPCConstants;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramArguments;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramContext;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.X86Profiler;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplay;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayFrame;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameBuffer;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameSink;
 import org.ldaniels528.javapc.ibmpc.devices.keyboard.IbmPcKeyboard;
 import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryProxy;
+import org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcDiskException;
+import org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcDiskImage;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
 
+import java.awt.GraphicsEnvironment;
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.util.TimeZone;
 
 import static java.lang.String.format;
 import static org.ldaniels528.javapc.util.ResourceHelper.getBinaryContents;
@@ -25,7 +34,6 @@ import static org.ldaniels528.javapc.util.ResourceHelper.getBinaryContents;
  * @author lawrence.daniels@gmail.com
  */
 public class IbmPcEmulator implements JavaPCConstants {
-    private final IbmPcDisplayFrame frame;
     private final IbmPcSystem system;
     private final IbmPcRandomAccessMemory memory;
     private final X86MemoryProxy proxy;
@@ -37,8 +45,25 @@ public class IbmPcEmulator implements JavaPCConstants {
      * Default constructor
      */
     public IbmPcEmulator() {
-        this.frame = new IbmPcDisplayFrame(String.format("JavaPC - IBM PC Emulation Mode v%s", VERSION));
-        this.system = IbmPcSystemFactory.getIBMPCjr(frame);
+        this(IbmPcSystemFactory.getIBMPCjr(new IbmPcDisplayFrame(String.format("JavaPC - IBM PC Emulation Mode v%s", VERSION))));
+    }
+
+    /**
+     * Creates a headless emulator; the display renders to the given sink
+     *
+     * @param sink the given {@link IbmPcFrameSink display target} (e.g. an in-memory frame buffer)
+     */
+    public IbmPcEmulator(final IbmPcFrameSink sink) {
+        this(IbmPcSystemFactory.getHeadlessIBMPCjr(sink));
+    }
+
+    /**
+     * Creates an emulator for the given system
+     *
+     * @param system the given {@link IbmPcSystem IBM PC system}
+     */
+    private IbmPcEmulator(final IbmPcSystem system) {
+        this.system = system;
 
         // get references to all devices
         this.cpu = system.getCPU();
@@ -46,6 +71,14 @@ public class IbmPcEmulator implements JavaPCConstants {
         this.display = system.getDisplay();
         this.keyboard = system.getKeyboard();
 
+        // execute code a basic block at a time
+        cpu.setBlockExecutionMode(true);
+
+        // start the virtual clock at the host's (local) time of day, and keep it from running ahead of the host's clock
+        final long now = System.currentTimeMillis();
+        cpu.getClock().setTimeMillis(now + TimeZone.getDefault().getOffset(now));
+        cpu.getClock().setRealTimePacing(true);
+
         // create debug helper objects
         this.proxy = system.getMemoryProxy();
         proxy.setSegment(0x13F0);
@@ -53,7 +86,8 @@ public class IbmPcEmulator implements JavaPCConstants {
     }
 
     /**
-     * IBM PC Emulator application
+     * IBM PC Emulator application; when a profile file is given, the guest code is
+     * profiled, and its collapsed stacks (for flame graphs) are written to the file.
      *
      * @param args the given command line arguments
      * @throws Throwable
@@ -61,12 +95,73 @@ public class IbmPcEmulator implements JavaPCConstants {
     public static void main(final String[] args) throws Throwable {
         // check the command line arguments
         if (args.length < 1) {
-            throw new IllegalArgumentException(format("%s <binary.com>", IbmPcEmulator.class.getName()));
+            throw new IllegalArgumentException(format("%s <binary.com|disk.img> [profile.txt]", IbmPcEmulator.class.getName()));
+        }
+
+        // without a display, render to an in-memory frame buffer
+        final IbmPcFrameBuffer frameBuffer = GraphicsEnvironment.isHeadless() ? new IbmPcFrameBuffer() : null;
+        final IbmPcEmulator ibmPC = (frameBuffer != null) ? new IbmPcEmulator(frameBuffer) : new IbmPcEmulator();
+
+        // sample the guest code every 1000 instructions?
+        final X86Profiler profiler = (args.length > 1) ? new X86Profiler(1000) : null;
+        ibmPC.cpu.setProfiler(profiler);
+
+        // boot the disk image or load the .COM executable
+        final File file = new File(args[0]);
+        final String name = file.getName().toLowerCase();
+        try {
+            if (name.endsWith(".img") || name.endsWith(".ima")) {
+                ibmPC.boot(file);
+            } else {
+                ibmPC.execute(file);
+            }
+        } finally {
+            // show the final contents of the (text mode) screen
+            if (frameBuffer != null) {
+                for (final char[] row : frameBuffer.getText()) {
+                    System.out.println(new String(row));
+                }
+            }
+
+            // write the profile
+            if (profiler != null) {
+                try (final Writer out = new FileWriter(args[1])) {
+                    profiler.writeCollapsedStacks(out);
+                }
+            }
         }
+    }
+
+    /**
+     * @return the emulated {@link IbmPcSystem IBM PC system}
+     */
+    public IbmPcSystem getSystem() {
+        return system;
+    }
 
-        // load the .COM executable
-        final IbmPcEmulator ibmPC = new IbmPcEmulator();
-        ibmPC.execute(new File(args[0]));
+    /**
+     * Mounts the given disk image as drive A: and boots from it; the boot
+     * sector (cylinder 0, head 0, sector 1) is loaded at 0000:7C00 and executed
+     * with DL containing the boot drive.
+     *
+     * @param imageFile the given raw disk image file
+     */
+    public void boot(final File imageFile) throws IOException, IbmPcDiskException, X86AssemblyException {
+        // mount the disk image and load its boot sector
+        final int drive = 0x00;
+        final IbmPcDiskImage disk = system.getDiskController().mount(drive, imageFile, false);
+        disk.read(0, 0, 1, 1, memory, 0x7C00);
+
+        // update the display
+        display.update();
+
+        // execute the boot sector
+        cpu.DL.set(drive);
+        try {
+            cpu.execute(system, new ProgramContext(0x0000, 0x0000, 0x7C00, new ProgramArguments[0]));
+        } finally {
+            system.getDiskController().flush();
+        }
     }
 
     /**
@@ -9,6 +9,7 @@ import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayContext;
 import org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayMode;
 import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcMetrics;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemInfo;
 import org.ldaniels528.javapc.msdos.services.MsDosSystemServices;
@@ -197,6 +198,25 @@ public class IbmPcBIOS {
         return memory;
     }
 
+    /**
+     * Returns a copy of the mapping of interrupt vector addresses to system handlers
+     *
+     * @return the mapping of {@link MemoryAddressFAR32 vector addresses} to {@link InterruptHandler handlers}
+     */
+    public Map<MemoryAddressFAR32, InterruptHandler> getHandlers() {
+        return new HashMap<>(handlers);
+    }
+
+    /**
+     * Replaces the mapping of interrupt vector addresses to system handlers (e.g. when
+     * restoring a snapshot); the interrupt vector table itself resides within memory
+     *
+     * @param handlers the mapping of {@link MemoryAddressFAR32 vector addresses} to {@link InterruptHandler handlers}
+     */
+    public void setHandlers(final Map<MemoryAddressFAR32, InterruptHandler> handlers) {
+        this.handlers = new HashMap<>(handlers);
+    }
+
     /**
      * Handles the given interrupt number
      *
@@ -207,6 +227,7 @@ public class IbmPcBIOS {
     public void invoke(final IbmPcSystem system, final I8086 cpu, final INT interrupt) throws X86AssemblyException {
         // get the interrupt #
         final int interruptNo = interrupt.getInterruptNumber();
+        IbmPcMetrics.getInstance().recordInterrupt(interruptNo);
 
         // get the vector address
         final MemoryAddressFAR32 address = getVectorAddress(interruptNo);
@@ -1,11 +1,21 @@
 package org.ldaniels528.javapc.ibmpc.devices.bios.services;
 
 import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcDiskController;
+import org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcDiskException;
+import org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcDiskGeometry;
+import org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcDiskImage;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 
+import static org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory.SYSTEM_MEMORY_SIZE;
+import static org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryUtil.computePhysicalAddress;
+import static org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcDiskGeometry.SECTOR_SIZE;
+
 /**
- * BIOS Disk Services (Interrupt 13h)
+ * BIOS Disk Services (Interrupt 13h); sectors are transferred to and from
+ * the {@link IbmPcDiskImage disk images} mounted in the system's 
+ * {@link IbmPcDiskController disk controller}
  * @author lawrence.daniels@gmail.com
  */
 public class DiskServices implements InterruptHandler {
@@ -34,27 +44,27 @@ public class DiskServices implements InterruptHandler {
 	throws X86AssemblyException {
 		// determine what to do
 		switch( cpu.AH.get() ) {
-			case 0x00: resetDiskSystem( cpu ); break;
-			case 0x01: getDiskStatus( cpu ); break;
-			case 0x02: readDiskSectors( cpu ); break;
-			case 0x03: writeDiskSectors( cpu ); break;
-			case 0x04: verifySectors( cpu ); break;
+			case 0x00: resetDiskSystem( system, cpu ); break;
+			case 0x01: getDiskStatus( system, cpu ); break;
+			case 0x02: readDiskSectors( system, cpu ); break;
+			case 0x03: writeDiskSectors( system, cpu ); break;
+			case 0x04: verifySectors( system, cpu ); break;
 			case 0x05: formatTrack( cpu ); break;
 			case 0x06: formatTrackAndSetBadSectors( cpu ); break;
 			case 0x07: formatDriveStartingAtSpecifiedTrack( cpu ); break;
-			case 0x08: getCurrentDriveAndParameters( cpu ); break;
+			case 0x08: getCurrentDriveAndParameters( system, cpu ); break;
 			case 0x0A: readLongSector( cpu ); break;
 			case 0x0B: writeLongSectors( cpu ); break;
-			case 0x0C: seekToCylinder( cpu ); break;
-			case 0x0D: alternateDiskReset( cpu ); break;
+			case 0x0C: seekToCylinder( system, cpu ); break;
+			case 0x0D: alternateDiskReset( system, cpu ); break;
 			case 0x0E: readSectorBuffer( cpu ); break;
 			case 0x0F: writeSectorBuffer( cpu ); break;
-			case 0x10: testForDriveReady( cpu ); break;
-			case 0x11: recalibrateDrive( cpu ); break;
+			case 0x10: testForDriveReady( system, cpu ); break;
+			case 0x11: recalibrateDrive( system, cpu ); break;
 			case 0x12: controllerRamDiagnostic( cpu ); break;
 			case 0x13: driveDiagnostic( cpu ); break;
 			case 0x14: controllerInternalDiagnostic( cpu ); break;
-			case 0x15: readDasdType( cpu ); break;
+			case 0x15: readDasdType( system, cpu ); break;
 			case 0x16: ChangeOfDiskStatus( cpu ); break;
 			case 0x17: setDasdType( cpu ); break;
 			case 0x18: setMediaTypeForFormat( cpu ); break;
@@ -75,9 +85,8 @@ public class DiskServices implements InterruptHandler {
 	 *	CF 	= 0 if successful
 	 *		= 1 if error
 	 */
-	private void resetDiskSystem( I8086 cpu ) {
-		cpu.AH.set( 0 );
-		cpu.FLAGS.setCF( false );
+	private void resetDiskSystem( final IbmPcSystem system, final I8086 cpu ) {
+		success( system.getDiskController(), cpu );
 	}
 	
 	/**
@@ -115,8 +124,11 @@ public class DiskServices implements InterruptHandler {
 	 *		FF sense operation failed
 	 * </pre>
 	 */
-	private void getDiskStatus( I8086 cpu ) {
-		cpu.AL.set( 0x00 );
+	private void getDiskStatus( final IbmPcSystem system, final I8086 cpu ) {
+		final int status = system.getDiskController().getLastStatus();
+		cpu.AL.set( status );
+		cpu.AH.set( status );
+		cpu.FLAGS.setCF( status != 0 );
 	}
 	
 	/**
@@ -140,10 +152,19 @@ public class DiskServices implements InterruptHandler {
 	 *	CF 	= 0 if successful
 	 *		= 1 if error
 	 */
-	private void readDiskSectors( I8086 cpu ) {
-		cpu.AH.set( 0 );
-		cpu.AL.set( 1 );
-		cpu.FLAGS.setCF( false );
+	private void readDiskSectors( final IbmPcSystem system, final I8086 cpu ) {
+		final IbmPcDiskController controller = system.getDiskController();
+		try {
+			final IbmPcDiskImage disk = controller.getDrive( cpu.DL.get() );
+			final int count = getSectorCount( cpu );
+			disk.read( getCylinder( cpu ), cpu.DH.get(), getSector( cpu ), count, 
+					system.getRandomAccessMemory(), getBufferAddress( cpu, count ) );
+			success( controller, cpu );
+			cpu.AL.set( count );
+		}
+		catch( final IbmPcDiskException e ) {
+			failure( controller, cpu, e );
+		}
 	}
 
 	/**
@@ -167,10 +188,19 @@ public class DiskServices implements InterruptHandler {
 	 * 	CF 	= 0 if successful
 	 * 		= 1 if error
 	 */
-	private void writeDiskSectors( I8086 cpu ) {
-		cpu.AH.set( 0 );
-		cpu.AL.set( 1 );
-		cpu.FLAGS.setCF( false );
+	private void writeDiskSectors( final IbmPcSystem system, final I8086 cpu ) {
+		final IbmPcDiskController controller = system.getDiskController();
+		try {
+			final IbmPcDiskImage disk = controller.getDrive( cpu.DL.get() );
+			final int count = getSectorCount( cpu );
+			disk.write( getCylinder( cpu ), cpu.DH.get(), getSector( cpu ), count, 
+					system.getRandomAccessMemory(), getBufferAddress( cpu, count ) );
+			success( controller, cpu );
+			cpu.AL.set( count );
+		}
+		catch( final IbmPcDiskException e ) {
+			failure( controller, cpu, e );
+		}
 	}
 	
 	/**
@@ -194,10 +224,18 @@ public class DiskServices implements InterruptHandler {
 	 * 	CF 	= 0 if successful
 	 * 		= 1 if error
 	 */
-	private void verifySectors( I8086 cpu ) {
-		cpu.AH.set( 0 );
-		cpu.AL.set( 1 );
-		cpu.FLAGS.setCF( false );
+	private void verifySectors( final IbmPcSystem system, final I8086 cpu ) {
+		final IbmPcDiskController controller = system.getDiskController();
+		try {
+			final IbmPcDiskImage disk = controller.getDrive( cpu.DL.get() );
+			final int count = getSectorCount( cpu );
+			disk.verify( getCylinder( cpu ), cpu.DH.get(), getSector( cpu ), count );
+			success( controller, cpu );
+			cpu.AL.set( count );
+		}
+		catch( final IbmPcDiskException e ) {
+			failure( controller, cpu, e );
+		}
 	}
 	
 	/** 
@@ -290,8 +328,22 @@ public class DiskServices implements InterruptHandler {
 	 *	CF 	= 0 if successful
 	 *		= 1 if error
 	 */
-	private void getCurrentDriveAndParameters( I8086 cpu ) {
-		cpu.FLAGS.setCF( false );
+	private void getCurrentDriveAndParameters( final IbmPcSystem system, final I8086 cpu ) {
+		final IbmPcDiskController controller = system.getDiskController();
+		try {
+			final int drive = cpu.DL.get();
+			final IbmPcDiskGeometry geometry = controller.getDrive( drive ).getGeometry();
+			final int maxCylinder = geometry.getCylinders() - 1;
+			cpu.BL.set( geometry.getDriveType() );
+			cpu.CH.set( maxCylinder & 0xFF );
+			cpu.CL.set( ( ( maxCylinder >> 2 ) & 0xC0 ) | ( geometry.getSectorsPerTrack() & 0x3F ) );
+			cpu.DH.set( geometry.getHeads() - 1 );
+			cpu.DL.set( controller.getDriveCount( ( drive & 0x80 ) != 0 ) );
+			success( controller, cpu );
+		}
+		catch( final IbmPcDiskException e ) {
+			failure( controller, cpu, e );
+		}
 	}
 	
 	/** 
@@ -349,9 +401,15 @@ public class DiskServices implements InterruptHandler {
 	 *	CF 	= 0 if successful
 	 *		= 1 if error
 	 */
-	private void seekToCylinder( I8086 cpu ) {
-		cpu.AH.set( 0 );
-		cpu.FLAGS.setCF( false );
+	private void seekToCylinder( final IbmPcSystem system, final I8086 cpu ) {
+		final IbmPcDiskController controller = system.getDiskController();
+		try {
+			controller.getDrive( cpu.DL.get() ).verify( getCylinder( cpu ), cpu.DH.get(), 1, 1 );
+			success( controller, cpu );
+		}
+		catch( final IbmPcDiskException e ) {
+			failure( controller, cpu, e );
+		}
 	}
 	
 	/** 
@@ -371,9 +429,8 @@ public class DiskServices implements InterruptHandler {
 	 *	CF 	= 0 if successful
 	 *		= 1 if error
 	 */
-	private void alternateDiskReset( I8086 cpu ) {
-		cpu.AH.set( 0 );
-		cpu.FLAGS.setCF( false );
+	private void alternateDiskReset( final IbmPcSystem system, final I8086 cpu ) {
+		success( system.getDiskController(), cpu );
 	}
 	
 	/**
@@ -420,8 +477,15 @@ public class DiskServices implements InterruptHandler {
 	 * 	CF 	= 0 if successful
 	 * 		= 1 if error
 	 */
-	private void testForDriveReady( I8086 cpu ) {
-		// TODO finish this method
+	private void testForDriveReady( final IbmPcSystem system, final I8086 cpu ) {
+		final IbmPcDiskController controller = system.getDiskController();
+		try {
+			controller.getDrive( cpu.DL.get() );
+			success( controller, cpu );
+		}
+		catch( final IbmPcDiskException e ) {
+			failure( controller, cpu, e );
+		}
 	}
 	
 	/**
@@ -439,8 +503,8 @@ public class DiskServices implements InterruptHandler {
 	 *	CF 	= 0 if successful
 	 *		= 1 if error
 	 */
-	private void recalibrateDrive( I8086 cpu ) {
-		// TODO finish this method
+	private void recalibrateDrive( final IbmPcSystem system, final I8086 cpu ) {
+		testForDriveReady( system, cpu );
 	}
 	
 	/**
@@ -509,8 +573,25 @@ public class DiskServices implements InterruptHandler {
 	 *		= 1 if error
 	 * </pre>
 	 */
-	private void readDasdType( I8086 cpu ) {
-		// TODO finish this method
+	private void readDasdType( final IbmPcSystem system, final I8086 cpu ) {
+		final IbmPcDiskController controller = system.getDiskController();
+		try {
+			final IbmPcDiskGeometry geometry = controller.getDrive( cpu.DL.get() ).getGeometry();
+			if( geometry.isFixed() ) {
+				final int sectors = geometry.getTotalSectors();
+				cpu.CX.set( sectors >> 16 );
+				cpu.DX.set( sectors & 0xFFFF );
+				cpu.AH.set( 0x03 );
+			}
+			else {
+				cpu.AH.set( 0x01 );
+			}
+		}
+		catch( final IbmPcDiskException e ) {
+			// drive not present
+			cpu.AH.set( 0x00 );
+		}
+		cpu.FLAGS.setCF( false );
 	}
 	
 	/**
@@ -609,4 +690,78 @@ public class DiskServices implements InterruptHandler {
 		// TODO finish this method
 	}
 	
+	/**
+	 * Decodes the 10-bit cylinder number from CH (low 8 bits) and 
+	 * bits 6-7 of CL (high 2 bits)
+	 * @param cpu the given {@link I8086 CPU}
+	 * @return the cylinder number
+	 */
+	private int getCylinder( final I8086 cpu ) {
+		return cpu.CH.get() | ( ( cpu.CL.get() & 0xC0 ) << 2 );
+	}
+	
+	/**
+	 * Decodes the sector number from bits 0-5 of CL
+	 * @param cpu the given {@link I8086 CPU}
+	 * @return the sector number (1-based)
+	 */
+	private int getSector( final I8086 cpu ) {
+		return cpu.CL.get() & 0x3F;
+	}
+	
+	/**
+	 * Returns the number of sectors to transfer (AL)
+	 * @param cpu the given {@link I8086 CPU}
+	 * @return the number of sectors 
+	 * @throws IbmPcDiskException if no sectors were requested
+	 */
+	private int getSectorCount( final I8086 cpu ) 
+	throws IbmPcDiskException {
+		final int count = cpu.AL.get();
+		if( count == 0 ) {
+			throw new IbmPcDiskException( IbmPcDiskException.BAD_COMMAND, "No sectors requested" );
+		}
+		return count;
+	}
+	
+	/**
+	 * Returns the physical address of the transfer buffer (ES:BX)
+	 * @param cpu the given {@link I8086 CPU}
+	 * @param count the given number of sectors to transfer
+	 * @return the physical address of the buffer
+	 * @throws IbmPcDiskException if the buffer extends beyond the end of memory
+	 */
+	private int getBufferAddress( final I8086 cpu, final int count ) 
+	throws IbmPcDiskException {
+		final int address = computePhysicalAddress( cpu.ES.get(), cpu.BX.get() );
+		if( address + count * SECTOR_SIZE > SYSTEM_MEMORY_SIZE ) {
+			throw new IbmPcDiskException( IbmPcDiskException.DMA_BOUNDARY, "Transfer buffer extends beyond the end of memory" );
+		}
+		return address;
+	}
+	
+	/**
+	 * Indicates the successful completion of a disk operation (AH=0, CF=0)
+	 * @param controller the given {@link IbmPcDiskController disk controller}
+	 * @param cpu the given {@link I8086 CPU}
+	 */
+	private void success( final IbmPcDiskController controller, final I8086 cpu ) {
+		controller.setLastStatus( 0 );
+		cpu.AH.set( 0 );
+		cpu.FLAGS.setCF( false );
+	}
+	
+	/**
+	 * Indicates the failure of a disk operation (AH=status, AL=0, CF=1)
+	 * @param controller the given {@link IbmPcDiskController disk controller}
+	 * @param cpu the given {@link I8086 CPU}
+	 * @param cause the given {@link IbmPcDiskException cause} of the failure
+	 */
+	private void failure( final IbmPcDiskController controller, final I8086 cpu, final IbmPcDiskException cause ) {
+		controller.setLastStatus( cause.getStatus() );
+		cpu.AH.set( cause.getStatus() );
+		cpu.AL.set( 0 );
+		cpu.FLAGS.setCF( true );
+	}
+	
 }
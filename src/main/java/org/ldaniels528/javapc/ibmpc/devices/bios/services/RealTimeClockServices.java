@@ -1,26 +1,27 @@
 package org.ldaniels528.javapc.ibmpc.devices.bios.services;
 
 import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 
-import java.util.Calendar;
-
 /**
- * BIOS Time Services
+ * BIOS Time Services; the time of day is kept by the CPU's 
+ * {@link org.ldaniels528.javapc.ibmpc.devices.cpu.X86VirtualClock virtual clock}
  * @author lawrence.daniels@gmail.com
  */
 public class RealTimeClockServices implements InterruptHandler {
 	private static final RealTimeClockServices instance = new RealTimeClockServices();
-	private long lastChangedTime;
-	private long virtualTime;
+	
+	// BIOS data area: 24 hr overflow flag (0040:0070)
+	private static final int SEGMENT 					= 0x0040;
+	private static final int OFFSET_24_HR_OVERFLOW_FLAG	= 0x0070;
 	
 	/**
 	 * Private constructor
 	 */
 	private RealTimeClockServices() {
-		this.lastChangedTime	= System.currentTimeMillis();
-		this.virtualTime		= 0;
+		super();
 	}
 	
 	/**
@@ -61,23 +62,18 @@ public class RealTimeClockServices implements InterruptHandler {
 	 * @param cpu the given {@link org.ldaniels528.javapc.ibmpc.devices.cpu.I8086 CPU} instance
 	 */
 	private void readSystemClockCounter( final I8086 cpu ) {
-		// get midnight in milliseconds
-		final long midnightMillis = getMidnightTimeInMillis();
-		
-		// get the current time in milliseconds
-		final long currentTimeMillis = System.currentTimeMillis();
-	
-		// how long since midnight?
-		final int sinceMidNight = (int)( currentTimeMillis - midnightMillis );
+		// get the number of ticks since midnight
+		final int ticks = cpu.getClock().getTicksSinceMidnight();
 		
-		// get the high and low portions
-		final int timeHi = ( sinceMidNight & 0xFFFF0000 ) >> 16;
-		final int timeLo = ( sinceMidNight & 0x0000FFFF );
+		// read (and reset) the midnight flag
+		final IbmPcRandomAccessMemory memory = cpu.getRandomAccessMemory();
+		final int midnightFlag = memory.getByte( SEGMENT, OFFSET_24_HR_OVERFLOW_FLAG );
+		memory.setByte( SEGMENT, OFFSET_24_HR_OVERFLOW_FLAG, 0 );
 	
 		// set registers
-		cpu.AL.set( 1 );
-		cpu.CX.set( timeHi );
-		cpu.DX.set( timeLo );
+		cpu.AL.set( midnightFlag );
+		cpu.CX.set( ( ticks >> 16 ) & 0xFFFF );
+		cpu.DX.set( ticks & 0xFFFF );
 	}
 	
 	/** 
@@ -95,48 +91,11 @@ public class RealTimeClockServices implements InterruptHandler {
 	 * @param cpu the given {@link org.ldaniels528.javapc.ibmpc.devices.cpu.I8086 CPU} instance
 	 */
 	private void setSystemClockCounter( final I8086 cpu ) {
-		// get the time since midnight from CX:DX
-		final int timeSinceMidnight = ( cpu.CX.get() << 16 ) | cpu.DX.get();
-		
-		// get the time at midnight (in milliseconds)
-		final long midnightMillis = getMidnightTimeInMillis();
-		
-		// set the new virtual time
-		virtualTime = midnightMillis + timeSinceMidnight;
-		
-		// set the time of the last update of the virtual clock
-		lastChangedTime = System.currentTimeMillis();
-	}
-	
-	/**
-	 * Returns the time in milliseconds for midnight of the 
-	 * current date.
-	 * @return the time in milliseconds for midnight of the 
-	 * current date.
-	 */
-	private long getMidnightTimeInMillis() {
-		// get the calendar instance 
-		final Calendar midnight = Calendar.getInstance();
-		midnight.setTimeInMillis( System.currentTimeMillis() );
-		midnight.set( Calendar.HOUR, 0 );
-		midnight.set( Calendar.MINUTE, 0 );
-		midnight.set( Calendar.SECOND, 0 );
-		midnight.set( Calendar.MILLISECOND, 0 );
-		
-		// return the date
-		return midnight.getTimeInMillis();
-	}
-	
-	/**
-	 * Returns the current "virtual" time (in milliseconds)
-	 * @return the current "virtual" time
-	 */
-	private long getCurrentVirtualTime() {
-		// get the time since the mask was set
-		final long timeDiff = System.currentTimeMillis() - lastChangedTime;
+		// get the ticks since midnight from CX:DX
+		final int ticks = ( cpu.CX.get() << 16 ) | cpu.DX.get();
 		
-		// return the "virtual" time
-		return timeDiff + virtualTime;
+		// set the virtual time of day
+		cpu.getClock().setTicksSinceMidnight( ticks );
 	}
  	
 }
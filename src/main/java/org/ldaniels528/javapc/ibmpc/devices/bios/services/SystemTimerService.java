@@ -37,9 +37,6 @@ public class SystemTimerService implements InterruptHandler {
 	private static final int OFFSET_DAY_COUNTER				= 0x0067;
 	private static final int OFFSET_MOTOR_SHUTOFF_COUNTER	= 0x0040;
 	
-	// time/date computation values
-	private static final int TICKS_PER_DAY = (int)( 24 /* hours */ * 60 /* mins */ * 60 /* secs */ * 18.2 /* ticks/sec */ );
-	
 	// define internal fields
 	private int timerCounter;
 	private int dayCounter;
@@ -72,15 +69,15 @@ public class SystemTimerService implements InterruptHandler {
 		// get the memory instance
 		final IbmPcRandomAccessMemory memory = cpu.getRandomAccessMemory();
 		
-		// count this tick
-		timerCounter++;
+		// get the tick count from the virtual clock's time of day
+		final int ticks = cpu.getClock().getTicksSinceMidnight();
 		
-		// has a day elapsed
-		if( timerCounter >= TICKS_PER_DAY ) {
-			timerCounter = 0;
+		// has a day elapsed?
+		if( ticks < timerCounter ) {
 			dayCounter++;
 			overFlow24Hours = 1;
 		}
+		timerCounter = ticks;
 		
 		// is there a motor shut-off count down?
 		if( motorShutOffCounter > 0 ) {
@@ -91,9 +88,14 @@ public class SystemTimerService implements InterruptHandler {
 		
 		// populate related memory
 		memory.setWord( SEGMENT, OFFSET_DAY_COUNTER, dayCounter );
-		memory.setWord( SEGMENT, OFFSET_24_HR_OVERFLOW_FLAG, overFlow24Hours );
-		memory.setWord( SEGMENT, OFFSET_DAILY_TIMER_COUNTER, timerCounter );
-		memory.setWord( SEGMENT, OFFSET_MOTOR_SHUTOFF_COUNTER, timerCounter );
+		memory.setDoubleWord( SEGMENT, OFFSET_DAILY_TIMER_COUNTER, timerCounter );
+		memory.setByte( SEGMENT, OFFSET_MOTOR_SHUTOFF_COUNTER, motorShutOffCounter );
+		
+		// the overflow flag is cleared by its reader (see INT 1A,0)
+		if( overFlow24Hours != 0 ) {
+			memory.setByte( SEGMENT, OFFSET_24_HR_OVERFLOW_FLAG, overFlow24Hours );
+			overFlow24Hours = 0;
+		}
 	}
 
 }
@@ -4,6 +4,7 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcColorSet;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplay;
 import org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayMode;
+import org.ldaniels528.javapc.ibmpc.devices.display.modes.cga.CGAGraphicsMode320x200;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 import org.apache.log4j.Logger;
@@ -217,7 +218,6 @@ public class VideoServices implements InterruptHandler {
 
         // scroll the video
         display.scroll(nLines);
-        display.update();
     }
 
     /**
@@ -361,7 +361,12 @@ public class VideoServices implements InterruptHandler {
 
             // set palette?
             case 1:
-                display.setColor(new IbmPcColorSet(-1, -1, color));
+                if (display.getDisplayMode() instanceof CGAGraphicsMode320x200) {
+                    ((CGAGraphicsMode320x200) display.getDisplayMode()).selectPalette(display.getContext(), color);
+                    display.update();
+                } else {
+                    display.setColor(new IbmPcColorSet(-1, -1, color));
+                }
                 break;
 
             // unrecognized
@@ -5,14 +5,20 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.operands.Operand;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.operands.memory.MemoryAddressFAR32;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.registers.X86Register16bit;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.registers.X86RegisterSet;
-import org.ldaniels528.javapc.ibmpc.devices.cpu.decoders.DecodeProcessor;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.decoders.BasicBlock;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.decoders.BasicBlockTranslator;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.decoders.CachedDecodeProcessor;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.decoders.DecodeProcessorImpl;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.X86InstructionClass;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.system.INT;
 import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryProxy;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcMetrics;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 
+import java.util.Arrays;
+
 import static java.lang.String.format;
 import static org.ldaniels528.javapc.ibmpc.devices.cpu.operands.Operand.SIZE_16BIT;
 import static org.ldaniels528.javapc.ibmpc.devices.cpu.operands.Operand.SIZE_32BIT;
@@ -24,17 +30,21 @@ import static org.ldaniels528.javapc.ibmpc.devices.cpu.operands.Operand.SIZE_8BI
  * @author lawrence.daniels@gmail.com
  */
 public class I8086 extends X86RegisterSet {
-    // system timer frequency
-    private static final long SYSTEM_TIMER_FREQ = 1000 / 18; // 18 times/sec
-
     // internal fields
     private final Logger logger = Logger.getLogger(getClass());
     private final X86MemoryProxy proxy;
     private final IbmPcRandomAccessMemory memory;
-    private final DecodeProcessor decoder;
+    private final CachedDecodeProcessor decoder;
     private final X86Stack stack;
+    private final X86VirtualClock clock;
+    private final IbmPcMetrics metrics;
+    private final long[] instructionMix;
+    private long metricsNanos;
+    private BasicBlockTranslator translator;
+    private X86Profiler profiler;
+    private X86VirtualClock.ScheduledEvent profilerEvent;
     private X86Register16bit XDS; // 16-bit data segment override register
-    private long lastTimerUpdate;
+    private boolean timerPending;
     private boolean ipChanged;
     private boolean active;
     private boolean debugMode = false;
@@ -54,9 +64,17 @@ public class I8086 extends X86RegisterSet {
         this.memory = proxy.getMemory();
         this.active = true;
         this.stack = new X86Stack(memory, this);
-        this.decoder = new DecodeProcessorImpl(this, proxy);
-        this.lastTimerUpdate = System.currentTimeMillis();
+        this.decoder = new CachedDecodeProcessor(new DecodeProcessorImpl(this, proxy), proxy);
+        this.clock = new X86VirtualClock();
+        this.metrics = IbmPcMetrics.getInstance();
+        this.instructionMix = new long[X86InstructionClass.values().length];
         this.ipChanged = false;
+
+        // raise the system timer interrupt (IRQ0) every 65536 PIT clocks
+        clock.schedule(X86VirtualClock.TIMER_TICK_CYCLES, X86VirtualClock.TIMER_TICK_CYCLES, cycle -> timerPending = true);
+
+        // publish the instruction counts to the runtime metrics at the same rate
+        clock.schedule(X86VirtualClock.TIMER_TICK_CYCLES, X86VirtualClock.TIMER_TICK_CYCLES, cycle -> publishMetrics());
     }
 
     /////////////////////////////////////////////////////////
@@ -70,6 +88,63 @@ public class I8086 extends X86RegisterSet {
         return stack;
     }
 
+    /**
+     * @return the {@link X86VirtualClock virtual system clock}
+     */
+    public X86VirtualClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Indicates whether the CPU executes code a basic block at a time
+     *
+     * @return true, if basic block execution is enabled
+     */
+    public boolean isBlockExecutionMode() {
+        return translator != null;
+    }
+
+    /**
+     * Enables or disables basic block execution; when enabled, straight-line runs of
+     * instructions are translated into cached {@link BasicBlock blocks} which are executed
+     * (and chained together) without returning to the main decode loop.
+     *
+     * @param enabled indicates whether basic block execution should be enabled
+     */
+    public void setBlockExecutionMode(final boolean enabled) {
+        if (enabled && (translator == null)) {
+            translator = new BasicBlockTranslator(decoder, proxy);
+        } else if (!enabled && (translator != null)) {
+            translator.invalidate();
+            translator = null;
+        }
+    }
+
+    /**
+     * @return the attached {@link X86Profiler profiler}, or <tt>null</tt> if profiling is disabled
+     */
+    public X86Profiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Attaches the given profiler; which samples the code position (CS:IP) once every
+     * {@link X86Profiler#getInterval() interval} instructions, and tracks calls and returns.
+     *
+     * @param profiler the given {@link X86Profiler profiler}, or <tt>null</tt> to disable profiling
+     */
+    public void setProfiler(final X86Profiler profiler) {
+        if (profilerEvent != null) {
+            profilerEvent.cancel();
+            profilerEvent = null;
+        }
+        this.profiler = profiler;
+        if (profiler != null) {
+            final long period = (long) profiler.getInterval() * X86VirtualClock.CYCLES_PER_INSTRUCTION;
+            profilerEvent = clock.schedule(period, period, cycle -> profiler.sample(CS.get(), IP.get()));
+        }
+    }
+
     /////////////////////////////////////////////////////////
     //		CPU Execution Method(s)
     /////////////////////////////////////////////////////////
@@ -103,11 +178,89 @@ public class I8086 extends X86RegisterSet {
         decoder.redirect(context.getCodeSegment(), context.getCodeOffset());
 
         // continue to decode and execute while active
-        while (isActive()) {
-            execute(system, getNextOpCode());
+        metricsNanos = System.nanoTime();
+        if (profiler != null) {
+            profiler.begin(CS.get(), IP.get());
+        }
+        try {
+            if (translator != null) {
+                BasicBlock block = null;
+                while (isActive()) {
+                    block = translator.nextBlock(block);
+                    execute(system, block);
+                }
+            } else {
+                while (isActive()) {
+                    final OpCode opCode = getNextOpCode();
+                    execute(system, opCode, decoder.getInstructionClass());
+                }
+            }
+        } finally {
+            publishMetrics();
+            metricsNanos = 0;
+            if (profiler != null) {
+                profiler.end();
+            }
         }
     }
 
+    /**
+     * Executes the given basic block
+     *
+     * @param system the given {@link IbmPcSystem IBM PC system}
+     * @param block  the given {@link BasicBlock basic block}
+     * @throws X86AssemblyException
+     */
+    public void execute(final IbmPcSystem system, final BasicBlock block) throws X86AssemblyException {
+        // dispatch any clock events that are due
+        updateSystemTimer(system);
+
+        // point the decoder past the end of the block
+        final int segment = block.getSegment();
+        final int exitOffset = block.getExitOffset();
+        decoder.redirect(segment, exitOffset);
+
+        // execute the instructions
+        final OpCode[] opCodes = block.getOpCodes();
+        final byte[] instructionClasses = block.getInstructionClasses();
+        int n = 0;
+        for (; n < opCodes.length; n++) {
+            final OpCode opCode = opCodes[n];
+
+            // display the instruction information
+            if (debugMode) {
+                logger.info(format("E [%04X:%04X] %10X[%d] %s", CS.get(), IP.get(), opCode.getInstructionCode(), opCode.getLength(), opCode));
+            }
+
+            // execute the instruction
+            opCode.execute(system, this);
+            instructionMix[instructionClasses[n]]++;
+
+            // advance the instruction pointer
+            if (!ipChanged) {
+                IP.add(opCode.getLength());
+            } else {
+                ipChanged = false;
+            }
+
+            // stop if the CPU halted or the code flow was redirected
+            if (!active || (proxy.getOffset() != exitOffset) || (proxy.getSegment() != segment)) {
+                break;
+            }
+
+            // stop if the block itself was modified
+            if (!block.isValid()) {
+                if (n + 1 < opCodes.length) {
+                    decoder.redirect(segment, block.getOffset(n + 1));
+                }
+                break;
+            }
+        }
+
+        // advance the virtual clock by the number of instructions executed
+        clock.advance(Math.min(n + 1, opCodes.length));
+    }
+
     /**
      * Executes the given opCode
      *
@@ -116,7 +269,19 @@ public class I8086 extends X86RegisterSet {
      * @throws X86AssemblyException
      */
     public void execute(final IbmPcSystem system, final OpCode opCode) throws X86AssemblyException {
-        // update the system timer
+        execute(system, opCode, X86InstructionClass.of(opCode).ordinal());
+    }
+
+    /**
+     * Executes the given opCode
+     *
+     * @param system           the given {@link IbmPcSystem IBM PC system}
+     * @param opCode           the given {@link OpCode opCode}
+     * @param instructionClass the given {@link X86InstructionClass instruction class} ordinal of the opCode
+     * @throws X86AssemblyException
+     */
+    private void execute(final IbmPcSystem system, final OpCode opCode, final int instructionClass) throws X86AssemblyException {
+        // dispatch any clock events that are due
         updateSystemTimer(system);
 
         // display the instruction information
@@ -126,6 +291,7 @@ public class I8086 extends X86RegisterSet {
 
         // execute the instruction
         opCode.execute(system, this);
+        instructionMix[instructionClass]++;
 
         // advance the instruction pointer
         if (!ipChanged) {
@@ -133,6 +299,9 @@ public class I8086 extends X86RegisterSet {
         } else {
             ipChanged = false;
         }
+
+        // advance the virtual clock
+        clock.advance(1);
     }
 
     /**
@@ -311,6 +480,11 @@ public class I8086 extends X86RegisterSet {
 
                 // jump to the offset in memory
                 IP.set(pointer);
+
+                // track the call
+                if (savePoint && (profiler != null)) {
+                    profiler.enter(CS.get(), pointer);
+                }
                 break;
             case SIZE_32BIT:
                 /*
@@ -379,6 +553,9 @@ public class I8086 extends X86RegisterSet {
         if (debugMode) {
             logger.info(format("Returning NEAR to %04X:%04X", CS.get(), offset));
         }
+        if (profiler != null) {
+            profiler.exit();
+        }
 
         // jump to the offset in memory
         IP.set(offset);
@@ -411,6 +588,9 @@ public class I8086 extends X86RegisterSet {
         if (debugMode) {
             logger.info(format("Returning FAR to %04X:%04X", segment, offset));
         }
+        if (profiler != null) {
+            profiler.exit();
+        }
 
         // jump to the offset in memory
         CS.set(segment);
@@ -418,20 +598,46 @@ public class I8086 extends X86RegisterSet {
     }
 
     /**
-     * Updates the system timer (every 55 milliseconds ~ 18 times/sec)
+     * Publishes the locally accumulated instruction counts (and the execution time
+     * since the last publication) to the {@link IbmPcMetrics runtime metrics}
+     */
+    private void publishMetrics() {
+        // measure the execution time since the last publication (while executing a program)
+        final long nanos;
+        if (metricsNanos != 0) {
+            final long now = System.nanoTime();
+            nanos = now - metricsNanos;
+            metricsNanos = now;
+        } else {
+            nanos = 0;
+        }
+
+        // publish the instruction mix and decode cache statistics
+        metrics.recordInstructions(instructionMix, nanos);
+        Arrays.fill(instructionMix, 0);
+        decoder.publishMetrics(metrics);
+    }
+
+    /**
+     * Dispatches the virtual clock's due events, and invokes the system timer
+     * (every 65536 PIT clocks ~ 18.2 times/sec) once interrupts are enabled
      *
      * @param system the given {@link IbmPcSystem IBM PC system}
      * @throws X86AssemblyException
      */
     private void updateSystemTimer(final IbmPcSystem system) throws X86AssemblyException {
+        // are any clock events due?
+        if (clock.isEventDue()) {
+            clock.dispatch();
+        }
+
         // is it time to invoke the system timer?
-        final long elapsedSinceUpdate = System.currentTimeMillis() - lastTimerUpdate;
-        if ((elapsedSinceUpdate >= SYSTEM_TIMER_FREQ) && FLAGS.isIF()) {
+        if (timerPending && FLAGS.isIF()) {
+            timerPending = false;
             if (debugMode) {
-                logger.info(format("SYSTIMR timer last update %d msec ago", elapsedSinceUpdate));
+                logger.info(format("SYSTIMR timer tick %d", clock.getTicks()));
             }
             INT.SYSTIMR.execute(system, this);
-            lastTimerUpdate = System.currentTimeMillis();
         }
     }
 
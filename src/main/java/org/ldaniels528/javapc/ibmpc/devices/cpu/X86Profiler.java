@@ -0,0 +1,345 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Sampling profiler for guest (8086) code; the CPU samples CS:IP once every given number
+ * of instructions (via the {@link X86VirtualClock virtual clock}, so that profiling adds
+ * nothing to the per-instruction path), and tracks the guest's call stack through the
+ * CALL and RET instructions. The samples are accumulated into a flat profile (samples
+ * per CS:IP) and a call tree (samples per call path), which is written as collapsed stacks
+ * (e.g. <tt>BASIC 100;13F0:0100;13F0:0200 42</tt>) suitable for flame graphs.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class X86Profiler {
+    // the maximum tracked call depth (deeper calls are attributed to their deepest tracked caller)
+    private static final int MAX_DEPTH = 256;
+    private final Map<String, Frame> origins = new LinkedHashMap<>();
+    private final AddressHistogram histogram = new AddressHistogram();
+    private final int interval;
+    private String origin;
+    private Frame current;
+    private int depth;
+    private int untrackedDepth;
+    private long samples;
+
+    /**
+     * Creates a new profiler
+     *
+     * @param interval the given sampling interval (in instructions)
+     */
+    public X86Profiler(final int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException(format("Invalid sampling interval: %d", interval));
+        }
+        this.interval = interval;
+    }
+
+    /**
+     * @return the sampling interval (in instructions)
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return the total number of samples taken
+     */
+    public long getSampleCount() {
+        return samples;
+    }
+
+    /**
+     * Sets the origin of the next program executed; e.g. the BASIC statement (line number)
+     * that invoked the machine code. The origin becomes the root frame of its call paths.
+     *
+     * @param origin the given origin (e.g. "BASIC 100"), or <tt>null</tt> for none
+     */
+    public void setOrigin(final String origin) {
+        this.origin = origin;
+    }
+
+    /**
+     * Discards all samples
+     */
+    public void reset() {
+        origins.clear();
+        histogram.clear();
+        samples = 0;
+        current = null;
+        depth = untrackedDepth = 0;
+    }
+
+    /////////////////////////////////////////////////////////
+    //		CPU Callback Method(s)
+    /////////////////////////////////////////////////////////
+
+    /**
+     * Invoked when the CPU begins executing a program at the given entry point
+     *
+     * @param segment the given code segment
+     * @param offset  the given code offset
+     */
+    void begin(final int segment, final int offset) {
+        final String name = (origin != null) ? origin : "";
+        Frame root = origins.get(name);
+        if (root == null) {
+            origins.put(name, root = new Frame(null, -1));
+        }
+        current = root.getChild(toAddress(segment, offset));
+        depth = untrackedDepth = 0;
+    }
+
+    /**
+     * Invoked when the CPU stops executing a program
+     */
+    void end() {
+        current = null;
+        origin = null;
+    }
+
+    /**
+     * Invoked when a routine is called
+     *
+     * @param segment the given segment of the called routine
+     * @param offset  the given offset of the called routine
+     */
+    void enter(final int segment, final int offset) {
+        if ((current == null) || (depth >= MAX_DEPTH)) {
+            untrackedDepth++;
+        } else {
+            current = current.getChild(toAddress(segment, offset));
+            depth++;
+        }
+    }
+
+    /**
+     * Invoked when a routine returns
+     */
+    void exit() {
+        if (untrackedDepth > 0) {
+            untrackedDepth--;
+        } else if ((current != null) && (depth > 0)) {
+            current = current.parent;
+            depth--;
+        }
+    }
+
+    /**
+     * Records a sample of the given code position
+     *
+     * @param segment the given code segment
+     * @param offset  the given code offset
+     */
+    void sample(final int segment, final int offset) {
+        histogram.increment(toAddress(segment, offset));
+        if (current != null) {
+            current.samples++;
+        }
+        samples++;
+    }
+
+    /////////////////////////////////////////////////////////
+    //		Report Method(s)
+    /////////////////////////////////////////////////////////
+
+    /**
+     * Returns the number of samples taken at the given code position
+     *
+     * @param segment the given code segment
+     * @param offset  the given code offset
+     * @return the number of samples
+     */
+    public long getSampleCount(final int segment, final int offset) {
+        return histogram.get(toAddress(segment, offset));
+    }
+
+    /**
+     * Writes the flat profile; the code positions (CS:IP) ordered by the number
+     * of samples taken (e.g. <tt>13F0:0106 1234 45.67%</tt>)
+     *
+     * @param out the given {@link Appendable output}
+     * @throws IOException
+     */
+    public void writeFlatProfile(final Appendable out) throws IOException {
+        for (final long[] entry : histogram.getEntries()) {
+            final double percent = (samples > 0) ? entry[1] * 100d / samples : 0d;
+            out.append(format("%s %d %.2f%%%n", toString((int) entry[0]), entry[1], percent));
+        }
+    }
+
+    /**
+     * Writes the call tree as collapsed stacks; one line per call path, listing the
+     * frames (origin and routine entry points) from the root, followed by the number of
+     * samples taken within the path's innermost routine (e.g. <tt>13F0:0100;13F0:0200 42</tt>)
+     *
+     * @param out the given {@link Appendable output}
+     * @throws IOException
+     */
+    public void writeCollapsedStacks(final Appendable out) throws IOException {
+        final StringBuilder path = new StringBuilder();
+        for (final Map.Entry<String, Frame> entry : origins.entrySet()) {
+            path.setLength(0);
+            path.append(entry.getKey());
+            for (Frame child = entry.getValue().firstChild; child != null; child = child.nextSibling) {
+                writeCollapsedStacks(out, path, child);
+            }
+        }
+    }
+
+    private void writeCollapsedStacks(final Appendable out, final StringBuilder path, final Frame frame) throws IOException {
+        // append the frame to the path
+        final int length = path.length();
+        if (length > 0) path.append(';');
+        path.append(toString(frame.address));
+
+        // write the path, and the paths of its callees
+        if (frame.samples > 0) {
+            out.append(path).append(' ').append(String.valueOf(frame.samples)).append(System.lineSeparator());
+        }
+        for (Frame child = frame.firstChild; child != null; child = child.nextSibling) {
+            writeCollapsedStacks(out, path, child);
+        }
+        path.setLength(length);
+    }
+
+    private static int toAddress(final int segment, final int offset) {
+        return (segment << 16) | (offset & 0xFFFF);
+    }
+
+    private static String toString(final int address) {
+        return format("%04X:%04X", address >>> 16, address & 0xFFFF);
+    }
+
+    /**
+     * Represents a routine within the call tree
+     */
+    private static class Frame {
+        private final Frame parent;
+        private final int address;
+        private Frame firstChild;
+        private Frame nextSibling;
+        private long samples;
+
+        Frame(final Frame parent, final int address) {
+            this.parent = parent;
+            this.address = address;
+        }
+
+        /**
+         * Returns the callee at the given address; creating it if necessary
+         *
+         * @param address the given routine address (CS:IP)
+         * @return the callee {@link Frame frame}
+         */
+        Frame getChild(final int address) {
+            for (Frame child = firstChild; child != null; child = child.nextSibling) {
+                if (child.address == address) return child;
+            }
+            final Frame child = new Frame(this, address);
+            child.nextSibling = firstChild;
+            firstChild = child;
+            return child;
+        }
+    }
+
+    /**
+     * Represents a histogram of code positions (CS:IP); an open-addressing
+     * hash table of primitive keys and counts
+     */
+    private static class AddressHistogram {
+        private static final long EMPTY = -1L;
+        private long[] keys = newKeys(1024);
+        private long[] counts = new long[1024];
+        private int size;
+
+        /**
+         * Increments the count of the given address
+         *
+         * @param address the given address (CS:IP)
+         */
+        void increment(final int address) {
+            final int index = indexOf(keys, address);
+            if (keys[index] == EMPTY) {
+                keys[index] = address & 0xFFFFFFFFL;
+                if (++size * 2 > keys.length) {
+                    counts[index]++;
+                    grow();
+                    return;
+                }
+            }
+            counts[index]++;
+        }
+
+        /**
+         * Returns the count of the given address
+         *
+         * @param address the given address (CS:IP)
+         * @return the count
+         */
+        long get(final int address) {
+            final int index = indexOf(keys, address);
+            return (keys[index] != EMPTY) ? counts[index] : 0L;
+        }
+
+        /**
+         * @return the (address, count) entries; ordered by count (highest first)
+         */
+        List<long[]> getEntries() {
+            final List<long[]> entries = new ArrayList<>(size);
+            for (int n = 0; n < keys.length; n++) {
+                if (keys[n] != EMPTY) {
+                    entries.add(new long[]{keys[n], counts[n]});
+                }
+            }
+            entries.sort((a, b) -> (a[1] != b[1]) ? Long.compare(b[1], a[1]) : Long.compare(a[0], b[0]));
+            return entries;
+        }
+
+        void clear() {
+            Arrays.fill(keys, EMPTY);
+            Arrays.fill(counts, 0L);
+            size = 0;
+        }
+
+        private void grow() {
+            final long[] oldKeys = keys;
+            final long[] oldCounts = counts;
+            keys = newKeys(oldKeys.length * 2);
+            counts = new long[keys.length];
+            for (int n = 0; n < oldKeys.length; n++) {
+                if (oldKeys[n] != EMPTY) {
+                    final int index = indexOf(keys, (int) oldKeys[n]);
+                    keys[index] = oldKeys[n];
+                    counts[index] = oldCounts[n];
+                }
+            }
+        }
+
+        private static int indexOf(final long[] keys, final int address) {
+            final long key = address & 0xFFFFFFFFL;
+            final int mask = keys.length - 1;
+            final int hash = address * 0x9E3779B9;
+            int index = (hash ^ (hash >>> 16)) & mask;
+            while ((keys[index] != EMPTY) && (keys[index] != key)) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        private static long[] newKeys(final int length) {
+            final long[] keys = new long[length];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+
+}
@@ -50,6 +50,22 @@ public class X86Stack implements Operand {
         return SIZE_16BIT;
     }
 
+    /**
+     * @return the number of elements currently on the stack
+     */
+    public int getElementCount() {
+        return elements;
+    }
+
+    /**
+     * Sets the number of elements currently on the stack (e.g. when restoring a snapshot)
+     *
+     * @param elements the given number of elements
+     */
+    public void setElementCount(final int elements) {
+        this.elements = elements;
+    }
+
     /**
      * Indicates whether there is currently something on the stack
      *
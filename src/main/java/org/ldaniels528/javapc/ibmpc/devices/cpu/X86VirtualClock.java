@@ -0,0 +1,323 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents the virtual system clock; time is measured in CPU cycles (estimated
+ * from the number of instructions executed) rather than read from the host, so
+ * that program runs are reproducible. Devices schedule {@link EventListener events}
+ * against the clock, and the CPU dispatches the events that are due between
+ * blocks of instructions. When real-time pacing is enabled, the clock periodically
+ * waits for the host clock to catch up with it.
+ * <p/>
+ * The time of day is zone-less: days (and thus the ticks since midnight reported by
+ * INT 1Ah and kept at 0040:006C) are measured in UTC, so that it doesn't depend on the host.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class X86VirtualClock {
+    // the 8086 CPU (4.77 MHz) and 8253 PIT (1.19 MHz) frequencies
+    public static final long CPU_FREQUENCY = 4772727;
+    public static final long PIT_FREQUENCY = 1193182;
+
+    // the average number of cycles per 8086 instruction
+    public static final int CYCLES_PER_INSTRUCTION = 8;
+
+    // the system timer (IRQ0) period: 65536 PIT clocks (~18.2 times/sec)
+    public static final long TIMER_TICK_CYCLES = 65536L * CPU_FREQUENCY / PIT_FREQUENCY;
+
+    // the default time of day at cycle zero: 1980-01-01 00:00:00 (the PC's default date)
+    public static final long DEFAULT_EPOCH_MILLIS = 315532800000L;
+
+    // the number of milliseconds per day
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    // the maximum amount of time the clock may fall behind the host before re-syncing
+    private static final long MAX_LAG_NANOS = 100000000L;
+
+    // internal fields
+    private final PriorityQueue<ScheduledEvent> events;
+    private long cycles;
+    private long nextEventCycle;
+    private long sequence;
+    private long epochMillis;
+    private boolean realTimePacing;
+    private long pacingStartCycles;
+    private long pacingStartNanos;
+
+    /**
+     * Creates a new virtual clock; the time of day begins at {@link #DEFAULT_EPOCH_MILLIS}
+     */
+    public X86VirtualClock() {
+        this(DEFAULT_EPOCH_MILLIS);
+    }
+
+    /**
+     * Creates a new virtual clock
+     *
+     * @param epochMillis the time of day (in milliseconds since 1970) at cycle zero
+     */
+    public X86VirtualClock(final long epochMillis) {
+        this.events = new PriorityQueue<>();
+        this.epochMillis = epochMillis;
+        this.nextEventCycle = Long.MAX_VALUE;
+
+        // periodically sync to the host clock (when pacing is enabled)
+        schedule(TIMER_TICK_CYCLES, TIMER_TICK_CYCLES, cycle -> pace());
+    }
+
+    /**
+     * Advances the clock by the given number of instructions
+     *
+     * @param instructions the given number of executed instructions
+     */
+    public void advance(final int instructions) {
+        cycles += (long) instructions * CYCLES_PER_INSTRUCTION;
+    }
+
+    /**
+     * @return true, if at least one scheduled event is due
+     */
+    public boolean isEventDue() {
+        return cycles >= nextEventCycle;
+    }
+
+    /**
+     * Fires all events that are due; in order of their due cycle (and the order
+     * in which they were scheduled)
+     */
+    public void dispatch() {
+        ScheduledEvent event;
+        while (((event = events.peek()) != null) && (event.dueCycle <= cycles)) {
+            events.poll();
+            if (!event.cancelled) {
+                final long dueCycle = event.dueCycle;
+
+                // re-schedule periodic events
+                if (event.period > 0) {
+                    event.dueCycle += event.period;
+                    event.sequence = sequence++;
+                    events.add(event);
+                }
+                event.listener.eventDue(dueCycle);
+            }
+        }
+        updateNextEventCycle();
+    }
+
+    /**
+     * Schedules the given listener to be notified after the given number of cycles
+     *
+     * @param delay    the given delay (in cycles)
+     * @param period   the given period (in cycles) for a recurring event, or zero for a one-shot event
+     * @param listener the given {@link EventListener listener}
+     * @return the {@link ScheduledEvent scheduled event}
+     */
+    public ScheduledEvent schedule(final long delay, final long period, final EventListener listener) {
+        final ScheduledEvent event = new ScheduledEvent(cycles + delay, period, sequence++, listener);
+        events.add(event);
+        updateNextEventCycle();
+        return event;
+    }
+
+    /**
+     * @return the number of elapsed CPU cycles
+     */
+    public long getCycles() {
+        return cycles;
+    }
+
+    /**
+     * Sets the number of elapsed CPU cycles and the time of day at cycle zero (e.g. when
+     * restoring a snapshot); pending events remain due at the same distance from the present
+     *
+     * @param cycles      the given number of elapsed CPU cycles
+     * @param epochMillis the given time of day (in milliseconds since 1970) at cycle zero
+     */
+    public void setCycles(final long cycles, final long epochMillis) {
+        // shifting every event by the same amount preserves the ordering of the queue
+        final long delta = cycles - this.cycles;
+        for (final ScheduledEvent event : events) {
+            event.dueCycle += delta;
+        }
+        this.cycles = cycles;
+        this.epochMillis = epochMillis;
+        updateNextEventCycle();
+        resync();
+    }
+
+    /**
+     * @return the time of day (in milliseconds since 1970) at cycle zero
+     */
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    /**
+     * @return the number of elapsed system timer ticks
+     */
+    public long getTicks() {
+        return cycles / TIMER_TICK_CYCLES;
+    }
+
+    /**
+     * @return the elapsed virtual time (in milliseconds)
+     */
+    public long getElapsedMillis() {
+        return toNanos(cycles) / 1000000L;
+    }
+
+    /**
+     * @return the current time of day (in milliseconds since 1970)
+     */
+    public long getTimeMillis() {
+        return epochMillis + getElapsedMillis();
+    }
+
+    /**
+     * Sets the current time of day
+     *
+     * @param timeMillis the given time of day (in milliseconds since 1970)
+     */
+    public void setTimeMillis(final long timeMillis) {
+        this.epochMillis = timeMillis - getElapsedMillis();
+    }
+
+    /**
+     * @return the number of system timer ticks since midnight (of the virtual time of day)
+     */
+    public int getTicksSinceMidnight() {
+        final long timeMillis = getTimeMillis();
+        return (int) ((timeMillis - getMidnight(timeMillis)) * PIT_FREQUENCY / (65536L * 1000L));
+    }
+
+    /**
+     * Sets the time of day to the given number of system timer ticks since midnight
+     *
+     * @param ticks the given number of ticks since midnight
+     */
+    public void setTicksSinceMidnight(final int ticks) {
+        setTimeMillis(getMidnight(getTimeMillis()) + (ticks * 65536L * 1000L) / PIT_FREQUENCY);
+    }
+
+    /**
+     * @return true, if the clock is paced to the host's clock
+     */
+    public boolean isRealTimePacing() {
+        return realTimePacing;
+    }
+
+    /**
+     * Enables or disables real-time pacing; when enabled, the clock is kept
+     * from running ahead of the host's clock
+     *
+     * @param enabled indicates whether real-time pacing should be enabled
+     */
+    public void setRealTimePacing(final boolean enabled) {
+        this.realTimePacing = enabled;
+        resync();
+    }
+
+    /**
+     * Waits for the host's clock to catch up with the virtual clock
+     */
+    private void pace() {
+        if (realTimePacing) {
+            final long virtualNanos = toNanos(cycles - pacingStartCycles);
+            final long hostNanos = System.nanoTime() - pacingStartNanos;
+            final long ahead = virtualNanos - hostNanos;
+            if (ahead > 0) {
+                LockSupport.parkNanos(ahead);
+            } else if (ahead < -MAX_LAG_NANOS) {
+                // too far behind (e.g. a blocking call); don't try to catch up
+                resync();
+            }
+        }
+    }
+
+    /**
+     * Re-synchronizes the virtual clock with the host's clock
+     */
+    private void resync() {
+        pacingStartCycles = cycles;
+        pacingStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns midnight (UTC) of the day containing the given time
+     *
+     * @param timeMillis the given time (in milliseconds since 1970)
+     * @return midnight (in milliseconds since 1970)
+     */
+    private static long getMidnight(final long timeMillis) {
+        return timeMillis - Math.floorMod(timeMillis, MILLIS_PER_DAY);
+    }
+
+    /**
+     * Converts the given number of cycles to nanoseconds
+     *
+     * @param cycleCount the given number of cycles
+     * @return the number of nanoseconds
+     */
+    private static long toNanos(final long cycleCount) {
+        return (cycleCount / CPU_FREQUENCY) * 1000000000L + ((cycleCount % CPU_FREQUENCY) * 1000000000L) / CPU_FREQUENCY;
+    }
+
+    /**
+     * Caches the due cycle of the earliest event; keeping {@link #isEventDue()} to a single comparison
+     */
+    private void updateNextEventCycle() {
+        final ScheduledEvent event = events.peek();
+        nextEventCycle = (event != null) ? event.dueCycle : Long.MAX_VALUE;
+    }
+
+    /**
+     * Represents a virtual clock event listener
+     */
+    public interface EventListener {
+
+        /**
+         * Invoked when a scheduled event is due
+         *
+         * @param cycle the cycle at which the event was due
+         */
+        void eventDue(long cycle);
+
+    }
+
+    /**
+     * Represents an event scheduled against the virtual clock
+     */
+    public static class ScheduledEvent implements Comparable<ScheduledEvent> {
+        private final EventListener listener;
+        private final long period;
+        private long dueCycle;
+        private long sequence;
+        private boolean cancelled;
+
+        private ScheduledEvent(final long dueCycle, final long period, final long sequence, final EventListener listener) {
+            this.dueCycle = dueCycle;
+            this.period = period;
+            this.sequence = sequence;
+            this.listener = listener;
+        }
+
+        /**
+         * Cancels the event
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int compareTo(final ScheduledEvent other) {
+            final int result = Long.compare(dueCycle, other.dueCycle);
+            return (result != 0) ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+
+}
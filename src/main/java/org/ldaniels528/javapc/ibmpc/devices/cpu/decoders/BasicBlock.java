@@ -0,0 +1,189 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.decoders;
+
+import org.ldaniels528.javapc.ibmpc.devices.cpu.OpCode;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.X86InstructionClass;
+
+/**
+ * Represents a Basic Block; a run of straight-line 8086 instructions ending
+ * with (and including) the next branching instruction. Blocks are linked to
+ * their successors so that subsequent executions can bypass the block lookup.
+ *
+ * @author lawrence.daniels@gmail.com
+ * @see BasicBlockTranslator
+ */
+public class BasicBlock {
+    private final OpCode[] opCodes;
+    private final byte[] instructionClasses;
+    private final int[] offsets;
+    private final int segment;
+    private final int exitOffset;
+    private final int startAddress;
+    private final int endAddress;
+    private BasicBlock fallThrough;
+    private BasicBlock branch;
+    private boolean valid;
+
+    /**
+     * Creates a new basic block
+     *
+     * @param segment      the code segment of the block
+     * @param opCodes      the {@link OpCode opCodes} that make up the block
+     * @param offsets      the code offset of each opCode
+     * @param exitOffset   the code offset at which decoding continues after the block
+     * @param startAddress the physical address of the first instruction
+     * @param endAddress   the physical address immediately following the last instruction
+     */
+    public BasicBlock(final int segment,
+                      final OpCode[] opCodes,
+                      final int[] offsets,
+                      final int exitOffset,
+                      final int startAddress,
+                      final int endAddress) {
+        this.segment = segment;
+        this.opCodes = opCodes;
+        this.instructionClasses = new byte[opCodes.length];
+        this.offsets = offsets;
+        this.exitOffset = exitOffset;
+        this.startAddress = startAddress;
+        this.endAddress = endAddress;
+        this.valid = true;
+
+        // classify the instructions once, rather than each time they are executed
+        for (int n = 0; n < opCodes.length; n++) {
+            instructionClasses[n] = (byte) X86InstructionClass.of(opCodes[n]).ordinal();
+        }
+    }
+
+    /**
+     * @return the {@link OpCode opCodes} that make up the block
+     */
+    public OpCode[] getOpCodes() {
+        return opCodes;
+    }
+
+    /**
+     * @return the {@link X86InstructionClass instruction class} ordinal of each opCode
+     */
+    public byte[] getInstructionClasses() {
+        return instructionClasses;
+    }
+
+    /**
+     * Returns the code offset of the opCode at the given index
+     *
+     * @param index the given opCode index
+     * @return the code offset of the opCode
+     */
+    public int getOffset(final int index) {
+        return offsets[index];
+    }
+
+    /**
+     * @return the code segment of the block
+     */
+    public int getSegment() {
+        return segment;
+    }
+
+    /**
+     * @return the code offset of the block's first instruction
+     */
+    public int getOffset() {
+        return offsets[0];
+    }
+
+    /**
+     * @return the code offset at which decoding continues after the block
+     */
+    public int getExitOffset() {
+        return exitOffset;
+    }
+
+    /**
+     * @return the physical address of the first instruction
+     */
+    public int getStartAddress() {
+        return startAddress;
+    }
+
+    /**
+     * @return the physical address immediately following the last instruction
+     */
+    public int getEndAddress() {
+        return endAddress;
+    }
+
+    /**
+     * Indicates whether the block contains the given code position
+     *
+     * @param segment the given code segment
+     * @param offset  the given code offset
+     * @return true, if the block begins at the given code position
+     */
+    public boolean startsAt(final int segment, final int offset) {
+        return (this.segment == segment) && (offsets[0] == offset);
+    }
+
+    /**
+     * Indicates whether the block overlaps the given range of physical addresses
+     *
+     * @param fromAddress the given starting address (inclusive)
+     * @param toAddress   the given ending address (inclusive)
+     * @return true, if the block overlaps the range
+     */
+    public boolean overlaps(final int fromAddress, final int toAddress) {
+        return (fromAddress < endAddress) && (toAddress >= startAddress);
+    }
+
+    /**
+     * @return the successor block reached by falling through the final instruction
+     */
+    public BasicBlock getFallThrough() {
+        return fallThrough;
+    }
+
+    /**
+     * @return the successor block reached by taking the final instruction's branch
+     */
+    public BasicBlock getBranch() {
+        return branch;
+    }
+
+    /**
+     * Links the given successor block to this block
+     *
+     * @param successor the given successor {@link BasicBlock block}
+     */
+    public void link(final BasicBlock successor) {
+        if ((successor.segment == segment) && (successor.getOffset() == exitOffset)) {
+            fallThrough = successor;
+        } else {
+            branch = successor;
+        }
+    }
+
+    /**
+     * @return true, if the memory the block was decoded from has not been modified
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Invalidates the block; releasing its successor links
+     */
+    public void invalidate() {
+        valid = false;
+        fallThrough = null;
+        branch = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("%04X:%04X [%d]", segment, offsets[0], opCodes.length);
+    }
+
+}
@@ -0,0 +1,208 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.decoders;
+
+import org.ldaniels528.javapc.ibmpc.devices.cpu.OpCode;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory.MemorySegmentListener;
+import org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryProxy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory.SYSTEM_MEMORY_SIZE;
+import static org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryUtil.computePhysicalAddress;
+
+/**
+ * 8086 Basic Block Translator; groups decoded instructions into
+ * {@link BasicBlock basic blocks}, caches them by their code position
+ * and chains them together along the edges taken at runtime. Blocks are
+ * invalidated whenever the memory they were decoded from is written to.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class BasicBlockTranslator implements MemorySegmentListener {
+    // define the cache page constants (4K pages)
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int PAGE_COUNT = SYSTEM_MEMORY_SIZE >> PAGE_BITS;
+
+    // the maximum number of instructions per block
+    private static final int MAX_BLOCK_LENGTH = 64;
+
+    // internal fields
+    private final DecodeProcessor decoder;
+    private final X86MemoryProxy proxy;
+    private final IbmPcRandomAccessMemory memory;
+    private final BasicBlock[][] blockPages;
+    private final List<List<BasicBlock>> pageResidents;
+
+    /**
+     * Creates a new basic block translator
+     *
+     * @param decoder the given {@link DecodeProcessor decode processor}
+     * @param proxy   the given {@link X86MemoryProxy memory proxy}
+     */
+    public BasicBlockTranslator(final DecodeProcessor decoder, final X86MemoryProxy proxy) {
+        this.decoder = decoder;
+        this.proxy = proxy;
+        this.memory = proxy.getMemory();
+        this.blockPages = new BasicBlock[PAGE_COUNT][];
+        this.pageResidents = new ArrayList<>(PAGE_COUNT);
+        for (int n = 0; n < PAGE_COUNT; n++) {
+            pageResidents.add(null);
+        }
+    }
+
+    /**
+     * Returns the block beginning at the decoder's current code position;
+     * following the links of the previously executed block when possible.
+     *
+     * @param previous the previously executed {@link BasicBlock block} or <tt>null</tt>
+     * @return the next {@link BasicBlock block} to execute
+     */
+    public BasicBlock nextBlock(final BasicBlock previous) {
+        // get the decoder's current code position
+        final int segment = proxy.getSegment();
+        final int offset = proxy.getOffset();
+
+        // can a chained successor be used?
+        if ((previous != null) && previous.isValid()) {
+            final BasicBlock branch = previous.getBranch();
+            if ((branch != null) && branch.isValid() && branch.startsAt(segment, offset)) {
+                return branch;
+            }
+            final BasicBlock fallThrough = previous.getFallThrough();
+            if ((fallThrough != null) && fallThrough.isValid() && fallThrough.startsAt(segment, offset)) {
+                return fallThrough;
+            }
+        }
+
+        // lookup (or translate) the block and chain it to its predecessor
+        final BasicBlock block = lookup(segment, offset);
+        if ((previous != null) && previous.isValid()) {
+            previous.link(block);
+        }
+        return block;
+    }
+
+    /**
+     * Returns the block beginning at the given code position; translating it if necessary.
+     *
+     * @param segment the given code segment
+     * @param offset  the given code offset
+     * @return the {@link BasicBlock block}
+     */
+    public BasicBlock lookup(final int segment, final int offset) {
+        final int address = computePhysicalAddress(segment, offset);
+        if ((address < 0) || (address >= SYSTEM_MEMORY_SIZE)) {
+            return translate(segment, offset);
+        }
+
+        // is the block already cached?
+        final int page = address >> PAGE_BITS;
+        final int index = address & PAGE_MASK;
+        BasicBlock[] blocks = blockPages[page];
+        if (blocks != null) {
+            final BasicBlock block = blocks[index];
+            if ((block != null) && block.isValid() && block.startsAt(segment, offset)) {
+                return block;
+            }
+        }
+
+        // translate and cache the block
+        final BasicBlock block = translate(segment, offset);
+        if (blocks == null) {
+            blocks = blockPages[page] = new BasicBlock[PAGE_SIZE];
+        }
+        blocks[index] = block;
+
+        // track the block in each page it resides in
+        final int lastPage = Math.min(PAGE_COUNT - 1, (block.getEndAddress() - 1) >> PAGE_BITS);
+        for (int n = page; n <= lastPage; n++) {
+            List<BasicBlock> residents = pageResidents.get(n);
+            if (residents == null) {
+                residents = new ArrayList<>();
+                pageResidents.set(n, residents);
+
+                // invalidate the page's blocks whenever it is modified
+                final int pageStart = n << PAGE_BITS;
+                memory.add(pageStart, pageStart + PAGE_MASK, this);
+            }
+            residents.add(block);
+        }
+        return block;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void segmentUpdated(final int fromAddress, final int toAddress) {
+        final int lastPage = Math.min(PAGE_COUNT - 1, toAddress >> PAGE_BITS);
+        for (int page = fromAddress >> PAGE_BITS; page <= lastPage; page++) {
+            final List<BasicBlock> residents = pageResidents.get(page);
+            if ((residents != null) && !residents.isEmpty()) {
+                for (final Iterator<BasicBlock> it = residents.iterator(); it.hasNext(); ) {
+                    final BasicBlock block = it.next();
+                    if (!block.isValid()) {
+                        it.remove();
+                    } else if (block.overlaps(fromAddress, toAddress)) {
+                        block.invalidate();
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards all translated blocks
+     */
+    public void invalidate() {
+        for (int page = 0; page < PAGE_COUNT; page++) {
+            final List<BasicBlock> residents = pageResidents.get(page);
+            if (residents != null) {
+                residents.forEach(BasicBlock::invalidate);
+                residents.clear();
+            }
+        }
+        Arrays.fill(blockPages, null);
+    }
+
+    /**
+     * Decodes the instructions up to (and including) the next branching instruction
+     *
+     * @param segment the given code segment
+     * @param offset  the given code offset
+     * @return a new {@link BasicBlock block}
+     */
+    private BasicBlock translate(final int segment, final int offset) {
+        final List<OpCode> opCodes = new ArrayList<>();
+        final int[] offsets = new int[MAX_BLOCK_LENGTH];
+        int endOffset = offset;
+
+        // decode instructions until a branch is reached
+        decoder.redirect(segment, offset);
+        OpCode opCode;
+        do {
+            final int offset0 = proxy.getOffset();
+            opCode = decoder.decodeNext();
+            offsets[opCodes.size()] = offset0;
+            opCodes.add(opCode);
+            endOffset = Math.max(endOffset, offset0 + opCode.getLength());
+        } while (!opCode.isConditional() && !opCode.isForcedRedirect()
+                && (opCodes.size() < MAX_BLOCK_LENGTH) && (proxy.getSegment() == segment));
+
+        // capture the position at which decoding continues
+        final int exitOffset = proxy.getOffset();
+
+        // create the block
+        final int startAddress = computePhysicalAddress(segment, offset);
+        final int endAddress = computePhysicalAddress(segment, endOffset);
+        return new BasicBlock(segment, opCodes.toArray(new OpCode[opCodes.size()]),
+                Arrays.copyOf(offsets, opCodes.size()), exitOffset, startAddress, endAddress);
+    }
+
+}
@@ -0,0 +1,209 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.decoders;
+
+import org.ldaniels528.javapc.ibmpc.devices.cpu.OpCode;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.X86InstructionClass;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.flow.AbstractForcedRedirectOpCode;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory.MemorySegmentListener;
+import org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryProxy;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcMetrics;
+
+import java.util.Arrays;
+
+import static org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory.SYSTEM_MEMORY_SIZE;
+import static org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryUtil.computePhysicalAddress;
+
+/**
+ * 8086 Caching Decode Processor; sits in front of a host {@link DecodeProcessor decode processor}
+ * and re-uses previously decoded {@link OpCode opCodes} keyed by their physical address. Cached
+ * opCodes are invalidated whenever the memory they were decoded from is written to, so
+ * self-modifying code and freshly loaded programs are decoded anew.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class CachedDecodeProcessor implements DecodeProcessor, MemorySegmentListener {
+    // define the cache page constants (4K pages)
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int PAGE_COUNT = SYSTEM_MEMORY_SIZE >> PAGE_BITS;
+
+    // the longest possible instruction (including prefixes)
+    private static final int MAX_INSTRUCTION_LENGTH = 15;
+
+    // internal fields
+    private final DecodeProcessor processor;
+    private final X86MemoryProxy proxy;
+    private final IbmPcRandomAccessMemory memory;
+    private final boolean[] watchedPages;
+    private final OpCode[][] opCodePages;
+    private final int[][] segmentPages;
+    private final byte[][] classPages;
+    private int instructionClass;
+    private long hits;
+    private long misses;
+    private long publishedHits;
+    private long publishedMisses;
+
+    /**
+     * Creates a new caching decode processor
+     *
+     * @param processor the given host {@link DecodeProcessor decode processor}
+     * @param proxy     the given {@link X86MemoryProxy memory proxy}
+     */
+    public CachedDecodeProcessor(final DecodeProcessor processor, final X86MemoryProxy proxy) {
+        this.processor = processor;
+        this.proxy = proxy;
+        this.opCodePages = new OpCode[PAGE_COUNT][];
+        this.segmentPages = new int[PAGE_COUNT][];
+        this.classPages = new byte[PAGE_COUNT][];
+        this.memory = proxy.getMemory();
+        this.watchedPages = new boolean[PAGE_COUNT];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OpCode decodeNext() {
+        // compute the physical address of the next instruction
+        final int segment = proxy.getSegment();
+        final int offset = proxy.getOffset();
+        final int address = computePhysicalAddress(segment, offset);
+
+        // is the address outside of the cacheable range?
+        if ((address < 0) || (address >= SYSTEM_MEMORY_SIZE)) {
+            final OpCode opCode = processor.decodeNext();
+            instructionClass = X86InstructionClass.of(opCode).ordinal();
+            return opCode;
+        }
+
+        // is the opCode already cached?
+        final int page = address >> PAGE_BITS;
+        final int index = address & PAGE_MASK;
+        OpCode[] opCodes = opCodePages[page];
+        if (opCodes != null) {
+            final OpCode opCode = opCodes[index];
+
+            // relative branch targets are offsets, so the segment must match as well
+            if ((opCode != null) && (segmentPages[page][index] == segment)) {
+                hits++;
+                instructionClass = classPages[page][index];
+
+                // advance the decoder past the instruction
+                proxy.setOffset(offset + opCode.getLength());
+
+                // is it a forced redirect?
+                if (opCode.isForcedRedirect()) {
+                    proxy.setDestination(((AbstractForcedRedirectOpCode) opCode).getDestination());
+                }
+                return opCode;
+            }
+        }
+
+        // decode the instruction
+        misses++;
+        final OpCode opCode = processor.decodeNext();
+
+        // cache the opCode
+        if (opCodes == null) {
+            opCodes = opCodePages[page] = new OpCode[PAGE_SIZE];
+            segmentPages[page] = new int[PAGE_SIZE];
+            classPages[page] = new byte[PAGE_SIZE];
+            watch(page);
+        }
+        instructionClass = X86InstructionClass.of(opCode).ordinal();
+        opCodes[index] = opCode;
+        segmentPages[page][index] = segment;
+        classPages[page][index] = (byte) instructionClass;
+        return opCode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void redirect(final int segment, final int offset) {
+        processor.redirect(segment, offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void segmentUpdated(final int fromAddress, final int toAddress) {
+        // any instruction starting up to MAX_INSTRUCTION_LENGTH-1 bytes before the write may overlap it
+        final int start = Math.max(0, fromAddress - (MAX_INSTRUCTION_LENGTH - 1));
+        final int end = Math.min(SYSTEM_MEMORY_SIZE - 1, toAddress);
+
+        // invalidate the affected entries of each cached page
+        for (int page = start >> PAGE_BITS; page <= (end >> PAGE_BITS); page++) {
+            final OpCode[] opCodes = opCodePages[page];
+            if (opCodes != null) {
+                final int pageStart = page << PAGE_BITS;
+                final int from = Math.max(start, pageStart) & PAGE_MASK;
+                final int to = Math.min(end, pageStart + PAGE_MASK) & PAGE_MASK;
+                Arrays.fill(opCodes, from, to + 1, null);
+            }
+        }
+    }
+
+    /**
+     * Discards all cached opCodes
+     */
+    public void invalidate() {
+        Arrays.fill(opCodePages, null);
+        Arrays.fill(segmentPages, null);
+        Arrays.fill(classPages, null);
+    }
+
+    /**
+     * Returns the instruction class of the most recently decoded opCode; which is
+     * classified once, when it is first decoded, and cached along with the opCode
+     *
+     * @return the {@link X86InstructionClass instruction class} ordinal
+     */
+    public int getInstructionClass() {
+        return instructionClass;
+    }
+
+    /**
+     * Invalidates cached opCodes whenever memory within the given page is modified;
+     * including the head of the next page, which an instruction may straddle
+     *
+     * @param page the given page
+     */
+    private void watch(final int page) {
+        if (!watchedPages[page]) {
+            watchedPages[page] = true;
+            final int pageStart = page << PAGE_BITS;
+            memory.add(pageStart, pageStart + PAGE_SIZE + MAX_INSTRUCTION_LENGTH - 2, this);
+        }
+    }
+
+    /**
+     * Publishes the hits and misses since the last publication to the given runtime metrics
+     *
+     * @param metrics the given {@link IbmPcMetrics runtime metrics}
+     */
+    public void publishMetrics(final IbmPcMetrics metrics) {
+        metrics.recordDecodes(hits - publishedHits, misses - publishedMisses);
+        publishedHits = hits;
+        publishedMisses = misses;
+    }
+
+    /**
+     * @return the number of instructions served from the cache
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return the number of instructions that had to be decoded
+     */
+    public long getMissCount() {
+        return misses;
+    }
+
+}
@@ -79,10 +79,10 @@ public class DecoderA0 implements Decoder {
                 return CMPSW.getInstance();
             // TEST AL,nn
             case 0xA8:
-                return new TEST(cpu.AL, DecoderUtil.nextAddressByte(cpu, proxy));
+                return new TEST(cpu.AL, DecoderUtil.nextValue8(proxy));
             // TEST AX,nnnn
             case 0xA9:
-                return new TEST(cpu.AX, DecoderUtil.nextAddressWord(cpu, proxy));
+                return new TEST(cpu.AX, DecoderUtil.nextValue16(proxy));
             // STOSB
             case 0xAA:
                 return STOSB.getInstance();
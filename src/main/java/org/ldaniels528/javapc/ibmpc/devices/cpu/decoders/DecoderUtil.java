@@ -7,7 +7,6 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.registers.X86Register;
 import org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryProxy;
 
 import static org.ldaniels528.javapc.ibmpc.devices.cpu.operands.Operand.*;
-import static org.ldaniels528.javapc.ibmpc.devices.cpu.operands.memory.MemoryReference.*;
 
 /**
  * 8086 Instruction Interpret Utility
@@ -416,40 +415,21 @@ public class DecoderUtil {
     public static MemoryReference lookupReferencedAddress(final I8086 cpu,
                                                           final X86MemoryProxy proxy,
                                                           final int compCode) {
-        // make sure the composite code is valid
-        if (!REFERENCE_MAPPING.containsKey(compCode)) {
+        // lookup the effective address calculator
+        final EffectiveAddress ea = EffectiveAddress.lookup(compCode);
+        if (ea == null) {
             throw new IllegalStateException(String.format("Invalid reference code (code = %02X)", compCode));
         }
 
-        // is an offset required?
+        // is a displacement required?
         final int offset;
-        switch (compCode) {
-            // 16-bit offsets
-            case REF_CONST_BX_SI_NNNN:
-            case REF_CONST_BX_DI_NNNN:
-            case REF_CONST_BP_SI_NNNN:
-            case REF_CONST_BP_DI_NNNN:
-            case REF_CONST_SI_NNNN:
-            case REF_CONST_DI_NNNN:
-            case REF_CONST_BP_NNNN:
-            case REF_CONST_BX_NNNN:
-            case REF_CONST_NNNN:
+        switch (ea.getDisplacementSize()) {
+            case SIZE_16BIT:
                 offset = proxy.nextWord();
                 break;
-
-            // 8-bit offsets
-            case REF_CONST_BX_SI_NN:
-            case REF_CONST_BX_DI_NN:
-            case REF_CONST_BP_SI_NN:
-            case REF_CONST_BP_DI_NN:
-            case REF_CONST_SI_NN:
-            case REF_CONST_DI_NN:
-            case REF_CONST_BP_NN:
-            case REF_CONST_BX_NN:
+            case SIZE_8BIT:
                 offset = proxy.nextByte();
                 break;
-
-            // No offset
             default:
                 offset = 0;
         }
@@ -0,0 +1,74 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes;
+
+import org.ldaniels528.javapc.ibmpc.devices.cpu.OpCode;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.decoders.FlowControlCallBackOpCode;
+
+/**
+ * Represents the class (e.g. arithmetic, control flow or string) of an 8086 instruction;
+ * an {@link OpCode opCode}'s class is derived from the package in which it resides.
+ * (Conditional flow control opCodes are wrapped by the decoder, and are classified as such.)
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public enum X86InstructionClass {
+    ADDRESSING, ARITHMETIC, DATA, FLAGS, FLOW, IO, LOGIC, STACK, STRING, SYSTEM, OTHER;
+
+    private static final String PACKAGE_PREFIX = X86InstructionClass.class.getPackage().getName() + ".";
+
+    // caches the instruction class of each opCode class
+    private static final ClassValue<X86InstructionClass> CLASSES = new ClassValue<X86InstructionClass>() {
+        @Override
+        protected X86InstructionClass computeValue(final Class<?> type) {
+            return (type == FlowControlCallBackOpCode.class) ? FLOW : classify(type.getName());
+        }
+    };
+
+    /**
+     * Returns the instruction class of the given opCode
+     *
+     * @param opCode the given {@link OpCode opCode}
+     * @return the {@link X86InstructionClass instruction class}
+     */
+    public static X86InstructionClass of(final OpCode opCode) {
+        return CLASSES.get(opCode.getClass());
+    }
+
+    /**
+     * Returns the instruction class of the given opCode class name
+     *
+     * @param className the given opCode class name (e.g. "org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.math.ADD")
+     * @return the {@link X86InstructionClass instruction class}
+     */
+    private static X86InstructionClass classify(final String className) {
+        if (!className.startsWith(PACKAGE_PREFIX)) return OTHER;
+
+        // get the top-level sub-package (e.g. "math")
+        final String subPackage = className.substring(PACKAGE_PREFIX.length());
+        final int index = subPackage.indexOf('.');
+        switch (index != -1 ? subPackage.substring(0, index) : "") {
+            case "addressing":
+                return ADDRESSING;
+            case "bitwise":
+                return LOGIC;
+            case "data":
+                return DATA;
+            case "flags":
+                return FLAGS;
+            case "flow":
+                return FLOW;
+            case "io":
+                return IO;
+            case "math":
+                return ARITHMETIC;
+            case "stack":
+                return STACK;
+            case "string":
+                return STRING;
+            case "system":
+                return SYSTEM;
+            default:
+                return OTHER;
+        }
+    }
+
+}
@@ -8,6 +8,9 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.operands.Operand;
 import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 
+import static org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.string.MassDataOpCode.isWithinSegment;
+import static org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryUtil.computePhysicalAddress;
+
 /**
  * Compare String Byte
  * <pre>
@@ -38,7 +41,7 @@ import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
  */
 @FlagsAffected({"AF", "CF", "OF", "PF", "SF", "ZF"})
 @RegistersAffected({"DS", "SI", "ES", "DI"})
-public class CMPSB extends AbstractOpCode {
+public class CMPSB extends AbstractOpCode implements MassComparisonOpCode {
     private static final CMPSB instance = new CMPSB();
 
     /**
@@ -78,4 +81,39 @@ public class CMPSB extends AbstractOpCode {
         cpu.DI.add(delta);
     }
 
-}
\ No newline at end of file
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareEnMass(final IbmPcSystem system, final I8086 cpu, final int count, final boolean whileEqual) {
+        // get the RAM instance
+        final IbmPcRandomAccessMemory memory = cpu.getRandomAccessMemory();
+
+        // determine direction
+        final boolean backward = cpu.FLAGS.isDF();
+
+        // if SI or DI would wrap around within its segment, compare the bytes one at a time
+        if (!isWithinSegment(cpu.SI.get(), count, 1, backward) || !isWithinSegment(cpu.DI.get(), count, 1, backward)) {
+            int n = 0;
+            do {
+                execute(system, cpu);
+                n++;
+            } while (n < count && cpu.FLAGS.isZF() == whileEqual);
+            return n;
+        }
+
+        // compare DS:[SI] to ES:[DI] up to the first pair of bytes that ends the repeat
+        final int compared = memory.compareElements(
+                computePhysicalAddress(cpu.DS.get(), cpu.SI.get()),
+                computePhysicalAddress(cpu.ES.get(), cpu.DI.get()),
+                count, 1, backward, whileEqual);
+
+        // compare the last pair of bytes (updating the flags, SI and DI)
+        final int delta = (compared - 1) * (backward ? -1 : 1);
+        cpu.SI.add(delta);
+        cpu.DI.add(delta);
+        execute(system, cpu);
+        return compared;
+    }
+
+}
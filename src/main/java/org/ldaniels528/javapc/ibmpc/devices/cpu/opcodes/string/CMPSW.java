@@ -8,6 +8,9 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.operands.Operand;
 import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 
+import static org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.string.MassDataOpCode.isWithinSegment;
+import static org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryUtil.computePhysicalAddress;
+
 /**
  * Compare String Word
  * <pre>
@@ -38,7 +41,7 @@ import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
  */
 @FlagsAffected({"AF", "CF", "OF", "PF", "SF", "ZF"})
 @RegistersAffected({"DS", "SI", "ES", "DI"})
-public class CMPSW extends AbstractOpCode {
+public class CMPSW extends AbstractOpCode implements MassComparisonOpCode {
     private static CMPSW instance = new CMPSW();
 
     /**
@@ -63,12 +66,12 @@ public class CMPSW extends AbstractOpCode {
         // get the RAM instance
         final IbmPcRandomAccessMemory memory = cpu.getRandomAccessMemory();
 
-        // compare byte from DS:[SI] to ES:[DI]
+        // compare word from DS:[SI] to ES:[DI]
         final Operand src = memory.getWord(cpu.DS, cpu.SI);
         final Operand dst = memory.getWord(cpu.ES, cpu.DI);
 
         // perform the comparison (update flags)
-        cpu.FLAGS.updateAND(dst, src);
+        cpu.FLAGS.updateSUB(dst, src);
 
         // setup increment/decrement value
         final int delta = cpu.FLAGS.isDF() ? -2 : 2;
@@ -78,4 +81,39 @@ public class CMPSW extends AbstractOpCode {
         cpu.DI.add(delta);
     }
 
-}
\ No newline at end of file
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareEnMass(final IbmPcSystem system, final I8086 cpu, final int count, final boolean whileEqual) {
+        // get the RAM instance
+        final IbmPcRandomAccessMemory memory = cpu.getRandomAccessMemory();
+
+        // determine direction
+        final boolean backward = cpu.FLAGS.isDF();
+
+        // if SI or DI would wrap around within its segment, compare the words one at a time
+        if (!isWithinSegment(cpu.SI.get(), count, 2, backward) || !isWithinSegment(cpu.DI.get(), count, 2, backward)) {
+            int n = 0;
+            do {
+                execute(system, cpu);
+                n++;
+            } while (n < count && cpu.FLAGS.isZF() == whileEqual);
+            return n;
+        }
+
+        // compare DS:[SI] to ES:[DI] up to the first pair of words that ends the repeat
+        final int compared = memory.compareElements(
+                computePhysicalAddress(cpu.DS.get(), cpu.SI.get()),
+                computePhysicalAddress(cpu.ES.get(), cpu.DI.get()),
+                count, 2, backward, whileEqual);
+
+        // compare the last pair of words (updating the flags, SI and DI)
+        final int delta = (compared - 1) * (backward ? -2 : 2);
+        cpu.SI.add(delta);
+        cpu.DI.add(delta);
+        execute(system, cpu);
+        return compared;
+    }
+
+}
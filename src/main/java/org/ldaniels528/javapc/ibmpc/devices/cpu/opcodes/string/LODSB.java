@@ -28,7 +28,7 @@ import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
  * @see REPZ
  */
 @RegistersAffected({"DS", "SI"})
-public class LODSB extends AbstractOpCode {
+public class LODSB extends AbstractOpCode implements MassDataOpCode {
     private static final LODSB instance = new LODSB();
 
     /**
@@ -63,4 +63,15 @@ public class LODSB extends AbstractOpCode {
         cpu.SI.add(delta);
     }
 
-}
\ No newline at end of file
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void executeEnMass(final IbmPcSystem system, final I8086 cpu, final int count) {
+        // only the last byte loaded remains in AL; so skip directly to it
+        final int delta = cpu.FLAGS.isDF() ? -1 : 1;
+        cpu.SI.add((count - 1) * delta);
+        execute(system, cpu);
+    }
+
+}
@@ -28,7 +28,7 @@ import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
  * @see REPZ
  */
 @RegistersAffected({"ES", "DI"})
-public class LODSW extends AbstractOpCode {
+public class LODSW extends AbstractOpCode implements MassDataOpCode {
     private static final LODSW instance = new LODSW();
 
     /**
@@ -63,4 +63,15 @@ public class LODSW extends AbstractOpCode {
         cpu.SI.add(delta);
     }
 
-}
\ No newline at end of file
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void executeEnMass(final IbmPcSystem system, final I8086 cpu, final int count) {
+        // only the last word loaded remains in AX; so skip directly to it
+        final int delta = cpu.FLAGS.isDF() ? -2 : 2;
+        cpu.SI.add((count - 1) * delta);
+        execute(system, cpu);
+    }
+
+}
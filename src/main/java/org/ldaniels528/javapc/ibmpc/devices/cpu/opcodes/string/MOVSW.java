@@ -6,8 +6,8 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.RegistersAffected;
 import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 
+import static org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.string.MassDataOpCode.isWithinSegment;
 import static org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryUtil.computePhysicalAddress;
-import static org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryUtil.reverseBlock;
 
 /**
  * <pre>
@@ -66,42 +66,29 @@ public class MOVSW extends AbstractOpCode  implements MassDataOpCode {
      * {@inheritDoc}
      */
     @Override
-    public void executeEnMass(final I8086 cpu, final int wordCount) {
+    public void executeEnMass(final IbmPcSystem system, final I8086 cpu, final int count) {
         // get the register collection and memory instances
         final IbmPcRandomAccessMemory memory = cpu.getRandomAccessMemory();
 
         // determine direction
         final boolean backward = cpu.FLAGS.isDF();
 
-        // two bytes per word
-        final int count = wordCount * 2;
-
-        // setup increment/decrement value
-        final int delta = count * (backward ? -1 : 1);
-
-        // if the direction is backwards ...
-        if (backward) {
-            // determine the source and destination addresses
-            final int sourceAddress = computePhysicalAddress(cpu.DS.get(), cpu.SI.get()) + delta;
-            final int destinationAddress = computePhysicalAddress(cpu.ES.get(), cpu.DI.get()) + delta;
-
-            // get the source block from DS:[SI]
-            final byte[] srcBlock = memory.getBytes(sourceAddress, count);
-
-            // reverse the bytes in the memory block
-            final byte[] dstBlock = reverseBlock(srcBlock);
-
-            // copy the source block into ES:[DI]
-            memory.setBytes(destinationAddress, dstBlock, count);
+        // if SI or DI would wrap around within its segment, move the words one at a time
+        if (!isWithinSegment(cpu.SI.get(), count, 2, backward) || !isWithinSegment(cpu.DI.get(), count, 2, backward)) {
+            for (int n = 0; n < count; n++) {
+                execute(system, cpu);
+            }
+            return;
         }
 
-        // must be forward
-        else {
-            // move "count" bytes of data from DS:[SI] to ES:[DI]
-            memory.copyBytes(cpu.DS.get(), cpu.SI.get(), cpu.ES.get(), cpu.DI.get(), count);
-        }
+        // move "count" words of data from DS:[SI] to ES:[DI]
+        memory.moveElements(
+                computePhysicalAddress(cpu.DS.get(), cpu.SI.get()),
+                computePhysicalAddress(cpu.ES.get(), cpu.DI.get()),
+                count, 2, backward);
 
         // increment/decrement SI and DI
+        final int delta = count * (backward ? -2 : 2);
         cpu.SI.add(delta);
         cpu.DI.add(delta);
     }
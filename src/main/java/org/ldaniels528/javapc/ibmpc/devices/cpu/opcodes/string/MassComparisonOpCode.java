@@ -0,0 +1,28 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.string;
+
+import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
+
+/**
+ * Represents an opCode that is capable of being used in conjunction
+ * with conditional repeat instructions (REPZ/REPNZ) to compare or scan
+ * mass amounts of data; stopping when the Zero Flag no longer matches
+ * the repeat condition.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public interface MassComparisonOpCode {
+
+    /**
+     * Executes the mass comparison opCode
+     *
+     * @param system     the given {@link IbmPcSystem system} instance
+     * @param cpu        the {@link org.ldaniels528.javapc.ibmpc.devices.cpu.I8086 Intel 8086} instance
+     * @param count      the maximum number of data elements to operate upon
+     * @param whileEqual indicates whether to continue while the elements are equal (REPZ),
+     *                   or while they are not equal (REPNZ)
+     * @return the number of data elements operated upon
+     */
+    int compareEnMass(IbmPcSystem system, I8086 cpu, int count, boolean whileEqual);
+
+}
@@ -1,6 +1,7 @@
 package org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.string;
 
 import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 
 /**
  * Represents an opCode that is capable of being used
@@ -14,9 +15,26 @@ public interface MassDataOpCode {
     /**
      * Executes the mass data opCode
      *
-     * @param cpu   the {@link org.ldaniels528.javapc.ibmpc.devices.cpu.I8086 Intel 8086} instance
-     * @param count the number of data elements to operate upon
+     * @param system the given {@link IbmPcSystem system} instance
+     * @param cpu    the {@link org.ldaniels528.javapc.ibmpc.devices.cpu.I8086 Intel 8086} instance
+     * @param count  the number of data elements to operate upon
      */
-    void executeEnMass(I8086 cpu, int count);
+    void executeEnMass(IbmPcSystem system, I8086 cpu, int count);
+
+    /**
+     * Indicates whether the given number of elements lies within a single segment;
+     * when it doesn't, the index register wraps around and the elements must be
+     * processed one at a time.
+     *
+     * @param offset      the offset of the first element
+     * @param count       the number of elements
+     * @param elementSize the size (in bytes) of each element
+     * @param backward    indicates whether the elements are processed from higher to lower addresses
+     * @return true, if the elements lie within the segment
+     */
+    static boolean isWithinSegment(final int offset, final int count, final int elementSize, final boolean backward) {
+        final int length = count * elementSize;
+        return backward ? (offset + elementSize - length >= 0) : (offset + length <= 0x10000);
+    }
 
 }
@@ -5,7 +5,6 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.OpCode;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.AbstractOpCode;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.FlagsAffected;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.RegistersAffected;
-import org.ldaniels528.javapc.ibmpc.devices.cpu.registers.X86Flags;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.registers.X86Register;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
@@ -51,16 +50,33 @@ public class REPNZ extends AbstractOpCode {
      * {@inheritDoc}
      */
     @Override
-    public void execute(IbmPcSystem system, final I8086 cpu) throws X86AssemblyException {
-        // cache CX and FLAGS
+    public void execute(final IbmPcSystem system, final I8086 cpu) throws X86AssemblyException {
+        // cache CX
         final X86Register CX = cpu.CX;
-        final X86Flags FLAGS = cpu.FLAGS;
+        final int count = CX.get();
+        if (count == 0) return;
 
-        // while the CX != 0 and ZF=1
-        while ((CX.get() != 0) && FLAGS.isZF()) {
-            // execute the instruction
-            cpu.execute(system, opCode);
-            CX.add(-1);
+        // is it a comparison instruction? (repeat while not equal)
+        if (opCode instanceof MassComparisonOpCode) {
+            final MassComparisonOpCode comparisonOpCode = (MassComparisonOpCode) opCode;
+            CX.set(count - comparisonOpCode.compareEnMass(system, cpu, count, false));
+        }
+
+        // is it a mass data instruction?
+        else if (opCode instanceof MassDataOpCode) {
+            final MassDataOpCode massDataOpCode = (MassDataOpCode) opCode;
+            massDataOpCode.executeEnMass(system, cpu, count);
+            CX.set(0);
+        }
+
+        // execute normally
+        else {
+            // while the CX != 0
+            while (CX.get() != 0) {
+                // execute the instruction
+                cpu.execute(system, opCode);
+                CX.add(-1);
+            }
         }
     }
 
@@ -5,7 +5,6 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.OpCode;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.AbstractOpCode;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.FlagsAffected;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.RegistersAffected;
-import org.ldaniels528.javapc.ibmpc.devices.cpu.registers.X86Flags;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.registers.X86Register;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
@@ -52,31 +51,33 @@ public class REPZ extends AbstractOpCode {
      */
     @Override
     public void execute(final IbmPcSystem system, final I8086 cpu) throws X86AssemblyException {
-        // cache CX and FLAGS
+        // cache CX
         final X86Register CX = cpu.CX;
-        final X86Flags FLAGS = cpu.FLAGS;
+        final int count = CX.get();
+        if (count == 0) return;
+
+        // is it a comparison instruction? (repeat while equal)
+        if (opCode instanceof MassComparisonOpCode) {
+            final MassComparisonOpCode comparisonOpCode = (MassComparisonOpCode) opCode;
+            CX.set(count - comparisonOpCode.compareEnMass(system, cpu, count, true));
+        }
 
         // is it a mass data instruction?
-        if (opCode instanceof MassDataOpCode) {
-            if ((CX.get() != 0) && !FLAGS.isZF()) {
-                final MassDataOpCode massDataOpCode = (MassDataOpCode) opCode;
-                massDataOpCode.executeEnMass(cpu, CX.get());
-                CX.set(0);
-            }
+        else if (opCode instanceof MassDataOpCode) {
+            final MassDataOpCode massDataOpCode = (MassDataOpCode) opCode;
+            massDataOpCode.executeEnMass(system, cpu, count);
+            CX.set(0);
         }
 
         // execute normally
         else {
-            // while the CX != 0 and ZF=0
-            while ((CX.get() != 0) && !FLAGS.isZF()) {
+            // while the CX != 0
+            while (CX.get() != 0) {
                 // execute the instruction
                 cpu.execute(system, opCode);
                 CX.add(-1);
             }
         }
-
-        // set the Zero Flag (ZF)
-        FLAGS.setZF(true);
     }
 
     /**
@@ -7,6 +7,9 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.RegistersAffected;
 import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 
+import static org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.string.MassDataOpCode.isWithinSegment;
+import static org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryUtil.computePhysicalAddress;
+
 /**
  * Scan String Byte
  * <pre>
@@ -25,7 +28,7 @@ import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
  */
 @FlagsAffected({"AF", "CF", "OF", "PF", "SF", "ZF"})
 @RegistersAffected({"ES", "DI"})
-public class SCASB extends AbstractOpCode {
+public class SCASB extends AbstractOpCode implements MassComparisonOpCode {
     private static final SCASB instance = new SCASB();
 
     /**
@@ -60,4 +63,35 @@ public class SCASB extends AbstractOpCode {
         cpu.DI.add(delta);
     }
 
-}
\ No newline at end of file
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareEnMass(final IbmPcSystem system, final I8086 cpu, final int count, final boolean whileEqual) {
+        // get the memory instance
+        final IbmPcRandomAccessMemory memory = cpu.getRandomAccessMemory();
+
+        // determine direction
+        final boolean backward = cpu.FLAGS.isDF();
+
+        // if DI would wrap around within its segment, scan the bytes one at a time
+        if (!isWithinSegment(cpu.DI.get(), count, 1, backward)) {
+            int n = 0;
+            do {
+                execute(system, cpu);
+                n++;
+            } while (n < count && cpu.FLAGS.isZF() == whileEqual);
+            return n;
+        }
+
+        // scan ES:[DI] for the first byte that ends the repeat
+        final int scanned = memory.scanElements(
+                computePhysicalAddress(cpu.ES.get(), cpu.DI.get()), count, 1, backward, cpu.AL.get(), whileEqual);
+
+        // compare the last byte scanned (updating the flags and DI)
+        cpu.DI.add((scanned - 1) * (backward ? -1 : 1));
+        execute(system, cpu);
+        return scanned;
+    }
+
+}
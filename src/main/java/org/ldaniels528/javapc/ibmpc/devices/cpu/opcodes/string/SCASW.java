@@ -7,6 +7,9 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.RegistersAffected;
 import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 
+import static org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.string.MassDataOpCode.isWithinSegment;
+import static org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryUtil.computePhysicalAddress;
+
 /**
  * Scan String Word
  * <pre>
@@ -25,7 +28,7 @@ import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
  */
 @FlagsAffected({"AF", "CF", "OF", "PF", "SF", "ZF"})
 @RegistersAffected({"ES", "DI"})
-public class SCASW extends AbstractOpCode {
+public class SCASW extends AbstractOpCode implements MassComparisonOpCode {
     private static final SCASW instance = new SCASW();
 
     /**
@@ -54,10 +57,41 @@ public class SCASW extends AbstractOpCode {
         cpu.FLAGS.updateSUB(memory.getWord(cpu.ES, cpu.DI), cpu.AX);
 
         // setup increment/decrement value
-        final int delta = cpu.FLAGS.isDF() ? 2 : -2;
+        final int delta = cpu.FLAGS.isDF() ? -2 : 2;
 
         // increment/decrement pointer
         cpu.DI.add(delta);
     }
 
-}
\ No newline at end of file
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareEnMass(final IbmPcSystem system, final I8086 cpu, final int count, final boolean whileEqual) {
+        // get the memory instance
+        final IbmPcRandomAccessMemory memory = cpu.getRandomAccessMemory();
+
+        // determine direction
+        final boolean backward = cpu.FLAGS.isDF();
+
+        // if DI would wrap around within its segment, scan the words one at a time
+        if (!isWithinSegment(cpu.DI.get(), count, 2, backward)) {
+            int n = 0;
+            do {
+                execute(system, cpu);
+                n++;
+            } while (n < count && cpu.FLAGS.isZF() == whileEqual);
+            return n;
+        }
+
+        // scan ES:[DI] for the first word that ends the repeat
+        final int scanned = memory.scanElements(
+                computePhysicalAddress(cpu.ES.get(), cpu.DI.get()), count, 2, backward, cpu.AX.get(), whileEqual);
+
+        // compare the last word scanned (updating the flags and DI)
+        cpu.DI.add((scanned - 1) * (backward ? -2 : 2));
+        execute(system, cpu);
+        return scanned;
+    }
+
+}
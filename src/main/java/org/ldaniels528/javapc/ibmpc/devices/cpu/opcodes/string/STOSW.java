@@ -6,6 +6,9 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.RegistersAffected;
 import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 
+import static org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.string.MassDataOpCode.isWithinSegment;
+import static org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryUtil.computePhysicalAddress;
+
 /**
  * <pre>
  * 	Usage:  STOS    dest
@@ -30,7 +33,7 @@ import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
  * @see REPNZ
  */
 @RegistersAffected({"ES", "DI"})
-public class STOSW extends AbstractOpCode {
+public class STOSW extends AbstractOpCode implements MassDataOpCode {
     private static final STOSW instance = new STOSW();
 
     /**
@@ -65,4 +68,33 @@ public class STOSW extends AbstractOpCode {
         cpu.DI.add(delta);
     }
 
-}
\ No newline at end of file
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void executeEnMass(final IbmPcSystem system, final I8086 cpu, final int count) {
+        // get the RAM instance
+        final IbmPcRandomAccessMemory memory = cpu.getRandomAccessMemory();
+
+        // determine direction
+        final boolean backward = cpu.FLAGS.isDF();
+
+        // if DI would wrap around within its segment, store the words one at a time
+        if (!isWithinSegment(cpu.DI.get(), count, 2, backward)) {
+            for (int n = 0; n < count; n++) {
+                execute(system, cpu);
+            }
+            return;
+        }
+
+        // determine the lowest offset of the block
+        final int offset = backward ? cpu.DI.get() - (count - 1) * 2 : cpu.DI.get();
+
+        // fill the block at ES:[DI] with AX
+        memory.fillWords(computePhysicalAddress(cpu.ES.get(), offset), count, cpu.AX.get());
+
+        // increment/decrement DI
+        cpu.DI.add(count * (backward ? -2 : 2));
+    }
+
+}
@@ -9,6 +9,8 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
  */
 public class BytePtr implements MemoryPointer {
     private final MemoryReference memoryRef;
+    private final EffectiveAddress effectiveAddress;
+    private final int displacement;
     private final I8086 cpu;
 
     /**
@@ -18,6 +20,8 @@ public class BytePtr implements MemoryPointer {
      */
     public BytePtr(final MemoryReference memoryRef) {
         this.memoryRef = memoryRef;
+        this.effectiveAddress = memoryRef.getEffectiveAddress();
+        this.displacement = memoryRef.getDisplacement();
         this.cpu = memoryRef.getCPU();
     }
 
@@ -26,7 +30,7 @@ public class BytePtr implements MemoryPointer {
      */
     @Override
     public int get() {
-        return cpu.getByte(memoryRef.getOffset());
+        return cpu.getByte(effectiveAddress.getOffset(cpu, displacement));
     }
 
     /**
@@ -35,7 +39,7 @@ public class BytePtr implements MemoryPointer {
     @Override
     public void set(final int value) {
         // get the offset of the memory reference
-        final int offset = memoryRef.getOffset();
+        final int offset = effectiveAddress.getOffset(cpu, displacement);
 
         // set the value
         cpu.setByte(offset, value);
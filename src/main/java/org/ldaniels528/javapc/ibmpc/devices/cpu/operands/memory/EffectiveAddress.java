@@ -0,0 +1,229 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.operands.memory;
+
+import org.ldaniels528.javapc.ibmpc.devices.cpu.registers.X86RegisterSet;
+
+import static org.ldaniels528.javapc.ibmpc.devices.cpu.operands.memory.MemoryReference.*;
+
+/**
+ * Represents an 8086 effective address calculation; one stateless calculator
+ * exists for each of the 24 ModR/M memory reference forms (e.g. [BX+SI+nn]),
+ * so that the form is resolved once (when the instruction is decoded) rather
+ * than each time the memory operand is accessed. 8-bit displacements are
+ * sign-extended, and the resulting offset wraps within the 64K segment.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public enum EffectiveAddress {
+    // no displacement
+    BX_SI(REF_CONST_BX_SI, 0) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BX.get() + cpu.SI.get()) & 0xFFFF;
+        }
+    },
+    BX_DI(REF_CONST_BX_DI, 0) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BX.get() + cpu.DI.get()) & 0xFFFF;
+        }
+    },
+    BP_SI(REF_CONST_BP_SI, 0) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BP.get() + cpu.SI.get()) & 0xFFFF;
+        }
+    },
+    BP_DI(REF_CONST_BP_DI, 0) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BP.get() + cpu.DI.get()) & 0xFFFF;
+        }
+    },
+    SI(REF_CONST_SI, 0) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return cpu.SI.get();
+        }
+    },
+    DI(REF_CONST_DI, 0) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return cpu.DI.get();
+        }
+    },
+    NNNN(REF_CONST_NNNN, 16) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return displacement;
+        }
+    },
+    BX(REF_CONST_BX, 0) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return cpu.BX.get();
+        }
+    },
+
+    // 8-bit (sign-extended) displacement
+    BX_SI_NN(REF_CONST_BX_SI_NN, 8) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BX.get() + cpu.SI.get() + (byte) displacement) & 0xFFFF;
+        }
+    },
+    BX_DI_NN(REF_CONST_BX_DI_NN, 8) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BX.get() + cpu.DI.get() + (byte) displacement) & 0xFFFF;
+        }
+    },
+    BP_SI_NN(REF_CONST_BP_SI_NN, 8) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BP.get() + cpu.SI.get() + (byte) displacement) & 0xFFFF;
+        }
+    },
+    BP_DI_NN(REF_CONST_BP_DI_NN, 8) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BP.get() + cpu.DI.get() + (byte) displacement) & 0xFFFF;
+        }
+    },
+    SI_NN(REF_CONST_SI_NN, 8) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.SI.get() + (byte) displacement) & 0xFFFF;
+        }
+    },
+    DI_NN(REF_CONST_DI_NN, 8) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.DI.get() + (byte) displacement) & 0xFFFF;
+        }
+    },
+    BP_NN(REF_CONST_BP_NN, 8) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BP.get() + (byte) displacement) & 0xFFFF;
+        }
+    },
+    BX_NN(REF_CONST_BX_NN, 8) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BX.get() + (byte) displacement) & 0xFFFF;
+        }
+    },
+
+    // 16-bit displacement
+    BX_SI_NNNN(REF_CONST_BX_SI_NNNN, 16) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BX.get() + cpu.SI.get() + displacement) & 0xFFFF;
+        }
+    },
+    BX_DI_NNNN(REF_CONST_BX_DI_NNNN, 16) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BX.get() + cpu.DI.get() + displacement) & 0xFFFF;
+        }
+    },
+    BP_SI_NNNN(REF_CONST_BP_SI_NNNN, 16) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BP.get() + cpu.SI.get() + displacement) & 0xFFFF;
+        }
+    },
+    BP_DI_NNNN(REF_CONST_BP_DI_NNNN, 16) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BP.get() + cpu.DI.get() + displacement) & 0xFFFF;
+        }
+    },
+    SI_NNNN(REF_CONST_SI_NNNN, 16) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.SI.get() + displacement) & 0xFFFF;
+        }
+    },
+    DI_NNNN(REF_CONST_DI_NNNN, 16) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.DI.get() + displacement) & 0xFFFF;
+        }
+    },
+    BP_NNNN(REF_CONST_BP_NNNN, 16) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BP.get() + displacement) & 0xFFFF;
+        }
+    },
+    BX_NNNN(REF_CONST_BX_NNNN, 16) {
+        @Override
+        public int getOffset(final X86RegisterSet cpu, final int displacement) {
+            return (cpu.BX.get() + displacement) & 0xFFFF;
+        }
+    };
+
+    // the calculators indexed by composite element/reference code
+    private static final EffectiveAddress[] CALCULATORS = createCalculators();
+    private final int refCode;
+    private final int displacementSize;
+
+    /**
+     * Creates a new effective address calculator
+     *
+     * @param refCode          the given composite element and reference code
+     * @param displacementSize the size (in bits) of the displacement that follows the ModR/M byte
+     */
+    EffectiveAddress(final int refCode, final int displacementSize) {
+        this.refCode = refCode;
+        this.displacementSize = displacementSize;
+    }
+
+    /**
+     * Computes the effective address
+     *
+     * @param cpu          the given {@link X86RegisterSet register set}
+     * @param displacement the given displacement (as decoded)
+     * @return the effective address (offset within the segment)
+     */
+    public abstract int getOffset(X86RegisterSet cpu, int displacement);
+
+    /**
+     * @return the composite element and reference code (e.g. 42h -> '[BP+SI+nn]')
+     */
+    public int getReferenceCode() {
+        return refCode;
+    }
+
+    /**
+     * @return the size (in bits) of the displacement; 0, 8 or 16
+     */
+    public int getDisplacementSize() {
+        return displacementSize;
+    }
+
+    /**
+     * Returns the calculator for the given composite element and reference code
+     *
+     * @param compCode the given composite element and reference code (e.g. 03h -> '[BP+DI]')
+     * @return the {@link EffectiveAddress calculator} or <tt>null</tt> if the code is invalid
+     */
+    public static EffectiveAddress lookup(final int compCode) {
+        return (compCode >= 0 && compCode < CALCULATORS.length) ? CALCULATORS[compCode] : null;
+    }
+
+    /**
+     * Builds the calculator lookup table
+     *
+     * @return the calculators indexed by composite element/reference code
+     */
+    private static EffectiveAddress[] createCalculators() {
+        final EffectiveAddress[] calculators = new EffectiveAddress[0x88];
+        for (final EffectiveAddress calculator : values()) {
+            calculators[calculator.refCode] = calculator;
+        }
+        return calculators;
+    }
+
+}
@@ -88,6 +88,7 @@ public class MemoryReference {
     // fields
     private final I8086 cpu;
     private final X86MemoryProxy proxy;
+    private final EffectiveAddress effectiveAddress;
     private final int refCode;
     private final int relOffset;
 
@@ -97,6 +98,7 @@ public class MemoryReference {
      * @param proxy the given {@link org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryProxy memory proxy}
      * @param refCode   the given composite element code and reference code
      * @param relOffset the relative offset
+     * @throws IllegalStateException if the reference code is invalid
      */
     public MemoryReference(final I8086 cpu,
                            final X86MemoryProxy proxy,
@@ -106,6 +108,10 @@ public class MemoryReference {
         this.proxy = proxy;
         this.refCode = refCode;
         this.relOffset = relOffset;
+        this.effectiveAddress = EffectiveAddress.lookup(refCode);
+        if (effectiveAddress == null) {
+            throw new IllegalStateException(String.format("Invalid memory reference code (code=%02X)", refCode));
+        }
     }
 
     /**
@@ -141,104 +147,33 @@ public class MemoryReference {
      * @return the "effective" offset
      */
     public int getOffset() {
-        return getReferencedAddress(refCode, relOffset);
+        return effectiveAddress.getOffset(cpu, relOffset);
     }
 
     /**
-     * {@inheritDoc}
+     * Returns the effective address calculator of this reference
+     *
+     * @return the {@link EffectiveAddress effective address} calculator
      */
-    @Override
-    public String toString() {
-        return String.format(REFERENCE_MAPPING.get(refCode), relOffset);
+    public EffectiveAddress getEffectiveAddress() {
+        return effectiveAddress;
     }
 
     /**
-     * Returns the offset for the "referenced" address represented
-     * by the given code
+     * Returns the displacement (as decoded) of this reference
      *
-     * @param refCode   the given "referenced" address code
-     * @param relOffset the given relative offset
-     * @return the offset for the "referenced" address
-     * @throws IllegalStateException if the reference code is invalid
+     * @return the displacement
      */
-    private int getReferencedAddress(final int refCode, final int relOffset) {
-        switch (refCode) {
-            // [bx+si]
-            case REF_CONST_BX_SI:
-                return cpu.BX.get() + cpu.SI.get();
-            // [bx+di]
-            case REF_CONST_BX_DI:
-                return cpu.BX.get() + cpu.DI.get();
-            // [bp+si]
-            case REF_CONST_BP_SI:
-                return cpu.BP.get() + cpu.SI.get();
-            // [bp+di]
-            case REF_CONST_BP_DI:
-                return cpu.BP.get() + cpu.DI.get();
-            // [si]
-            case REF_CONST_SI:
-                return cpu.SI.get();
-            // [di]
-            case REF_CONST_DI:
-                return cpu.DI.get();
-            // [nnnn]
-            case REF_CONST_NNNN:
-                return relOffset;
-            // [bx]
-            case REF_CONST_BX:
-                return cpu.BX.get();
-            // [bx]
-            case REF_CONST_BX_NN:
-                return cpu.BX.get() + relOffset;
-            // [bx+si+nn]
-            case REF_CONST_BX_SI_NN:
-                return cpu.BX.get() + cpu.SI.get() + relOffset;
-            // [bx+di+nn]
-            case REF_CONST_BX_DI_NN:
-                return cpu.BX.get() + cpu.DI.get() + relOffset;
-            // [bp+si+nn]
-            case REF_CONST_BP_SI_NN:
-                return cpu.BP.get() + cpu.SI.get() + relOffset;
-            // [bp+di+nn]
-            case REF_CONST_BP_DI_NN:
-                return cpu.BP.get() + cpu.DI.get() + relOffset;
-            // [si+nn]
-            case REF_CONST_SI_NN:
-                return cpu.SI.get() + relOffset;
-            // [di+nn]
-            case REF_CONST_DI_NN:
-                return cpu.DI.get() + relOffset;
-            // [bp+nn]
-            case REF_CONST_BP_NN:
-                return cpu.BP.get() + relOffset;
-            // [bx+si+nnnn]
-            case REF_CONST_BX_SI_NNNN:
-                return cpu.BX.get() + cpu.SI.get() + relOffset;
-            // [bx+di+nnnn]
-            case REF_CONST_BX_DI_NNNN:
-                return cpu.BX.get() + cpu.DI.get() + relOffset;
-            // [bp+si+nnnn]
-            case REF_CONST_BP_SI_NNNN:
-                return cpu.BP.get() + cpu.SI.get() + relOffset;
-            // [bp+di+nnnn]
-            case REF_CONST_BP_DI_NNNN:
-                return cpu.BP.get() + cpu.DI.get() + relOffset;
-            // [si+nnnn]
-            case REF_CONST_SI_NNNN:
-                return cpu.SI.get() + relOffset;
-            // [di+nnnn]
-            case REF_CONST_DI_NNNN:
-                return cpu.DI.get() + relOffset;
-            // [bp+nnnn]
-            case REF_CONST_BP_NNNN:
-                return cpu.BP.get() + relOffset;
-            // [bx+nnnn]
-            case REF_CONST_BX_NNNN:
-                return cpu.BX.get() + relOffset;
-            // unknown
-            default:
-                throw new IllegalStateException(String.format("Invalid memory reference code (code=%02X)", refCode));
-        }
+    public int getDisplacement() {
+        return relOffset;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format(REFERENCE_MAPPING.get(refCode), relOffset);
     }
 
     /**
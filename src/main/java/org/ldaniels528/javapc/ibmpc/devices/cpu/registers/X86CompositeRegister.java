@@ -6,30 +6,34 @@ import static org.ldaniels528.javapc.util.BitMaskGenerator.turnBitOnMask;
 /**
  * Represents a composite register; a register composed of
  * two parts, high and low respectively. (e.g. AX = AH:AL)
+ * The whole value is held in a single slot of the register file,
+ * and the high and low portions are views of that slot.
  *
  * @author lawrence.daniels@gmail.com
  */
 public abstract class X86CompositeRegister implements X86Register {
-    private final X86Register hi;
-    private final X86Register lo;
+    private final int[] file;
     private final String name;
+    private final int slot;
     private final int shift;
+    private final int mask;
     private final int index;
 
     /**
      * Default Constructor
      *
      * @param name  the name of this register
-     * @param hi    the high portion of this register
-     * @param lo    the low portion of this register
-     * @param shift the number of bits to shift in compositing the values
+     * @param file  the given register file
+     * @param slot  the slot of the register file that holds this register's value
+     * @param shift the number of bits occupied by each portion of this register
      * @param index the given register index
      */
-    public X86CompositeRegister(String name, X86Register hi, X86Register lo, int shift, int index) {
+    public X86CompositeRegister(String name, int[] file, int slot, int shift, int index) {
         this.name = name;
-        this.hi = hi;
-        this.lo = lo;
+        this.file = file;
+        this.slot = slot;
         this.shift = shift;
+        this.mask = (1 << (2 * shift)) - 1;
         this.index = index;
     }
 
@@ -38,7 +42,7 @@ public abstract class X86CompositeRegister implements X86Register {
      */
     @Override
     public int get() {
-        return (hi.get() << shift) | lo.get();
+        return file[slot];
     }
 
     /**
@@ -46,8 +50,7 @@ public abstract class X86CompositeRegister implements X86Register {
      */
     @Override
     public void set(final int value) {
-        hi.set((value & 0xff00) >> shift);
-        lo.set(value & 0x00ff);
+        file[slot] = value & mask;
     }
 
     /**
@@ -63,8 +66,8 @@ public abstract class X86CompositeRegister implements X86Register {
      */
     @Override
     public int add(final int delta) {
-        final int value0 = get() + delta;
-        set(value0);
+        final int value0 = file[slot] + delta;
+        file[slot] = value0 & mask;
         return value0;
     }
 
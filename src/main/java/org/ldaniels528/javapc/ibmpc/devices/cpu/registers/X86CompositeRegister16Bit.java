@@ -12,15 +12,15 @@ public class X86CompositeRegister16Bit extends X86CompositeRegister {
      * Default Constructor
      *
      * @param name  the name of this register
-     * @param hi    the high portion of this register
-     * @param lo    the low portion of this register
+     * @param file  the given register file
+     * @param slot  the slot of the register file that holds this register's value
      * @param index the given register index
      */
     public X86CompositeRegister16Bit(final String name,
-                                     final X86Register hi,
-                                     final X86Register lo,
+                                     final int[] file,
+                                     final int slot,
                                      final int index) {
-        super(name, hi, lo, 8, index);
+        super(name, file, slot, 8, index);
     }
 
     /**
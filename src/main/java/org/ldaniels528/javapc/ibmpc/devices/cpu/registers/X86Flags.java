@@ -21,6 +21,9 @@ import static org.ldaniels528.javapc.util.BitMaskGenerator.*;
  * 10				DF		Direction flag
  * 11				OF		Overflow flag
  * </pre>
+ * The condition codes (CF, PF, AF, ZF, SF and OF) produced by arithmetic and logical
+ * operations are evaluated lazily; only the last operation is recorded, and each flag
+ * is computed when it is first read.
  *
  * @author lawrence.daniels@gmail.com
  */
@@ -42,9 +45,40 @@ public class X86Flags implements Operand {
     private static final int DF_BIT = 10;
     private static final int OF_BIT = 11;
 
+    // Flag bit mask constants
+    private static final int CF_MASK = 1 << CF_BIT;
+    private static final int PF_MASK = 1 << PF_BIT;
+    private static final int AF_MASK = 1 << AF_BIT;
+    private static final int ZF_MASK = 1 << ZF_BIT;
+    private static final int SF_MASK = 1 << SF_BIT;
+    private static final int OF_MASK = 1 << OF_BIT;
+
+    // Lazily evaluated operation constants
+    private static final int OP_ADD = 0;
+    private static final int OP_SUB = 1;
+    private static final int OP_INC_DEC = 2;
+    private static final int OP_LOGIC = 3;
+
+    // Flags affected by each lazily evaluated operation
+    private static final int ADD_FLAGS = CF_MASK | OF_MASK | PF_MASK | SF_MASK | ZF_MASK;
+    private static final int SUB_FLAGS = AF_MASK | CF_MASK | OF_MASK | PF_MASK | SF_MASK | ZF_MASK;
+    private static final int INC_DEC_FLAGS = OF_MASK | PF_MASK | SF_MASK | ZF_MASK;
+    private static final int LOGIC_FLAGS = OF_MASK | PF_MASK | SF_MASK | ZF_MASK;
+
+    // parity lookup table (true = even number of set bits)
+    private static final boolean[] PARITY_TABLE = createParityTable();
+
     // internal fields
     private int value;
 
+    // the flags (and operation) awaiting evaluation
+    private int pending;
+    private int lazyOp;
+    private int lazyDest;
+    private int lazySrc;
+    private int lazyResult;
+    private int lazySize;
+
     /**
      * Default constructor
      */
@@ -63,14 +97,9 @@ public class X86Flags implements Operand {
         final int value1 = dest.get();
         final int value0 = src.get();
         final int addValue = value0 + value1;
-        final int _orValue = value0 | value1;
-
-        // update the flags
-        setCF(addValue != _orValue);
-        setOF(isBitSet(addValue, dest.size() - 1));
-        setPF(determineParityState(addValue));
-        setSF(isBitSet(addValue, dest.size() - 1));
-        setZF(addValue == 0);
+
+        // defer the flag updates
+        defer(OP_ADD, ADD_FLAGS, value1, value0, addValue, dest.size());
         return addValue;
     }
 
@@ -84,11 +113,8 @@ public class X86Flags implements Operand {
         // perform the bitwise AND operation on the primary and secondary values
         final int andValue = dest.get() & src.get();
 
-        // update the flags
-        setOF(isBitSet(andValue, dest.size() - 1));
-        setPF(andValue % 2 == 0);
-        setSF(isBitSet(andValue, dest.size() - 1));
-        setZF(andValue == 0);
+        // defer the flag updates
+        defer(OP_LOGIC, LOGIC_FLAGS, 0, 0, andValue, dest.size());
         return andValue;
     }
 
@@ -101,11 +127,8 @@ public class X86Flags implements Operand {
         // perform the DEC operation
         final int decValue = dest.get() - 1;
 
-        // update the flags
-        setOF(isBitSet(decValue, dest.size() - 1));
-        setPF(determineParityState(decValue));
-        setSF(isBitSet(decValue, dest.size() - 1));
-        setZF(decValue == 0);
+        // defer the flag updates
+        defer(OP_INC_DEC, INC_DEC_FLAGS, 0, 0, decValue, dest.size());
         return decValue;
     }
 
@@ -118,11 +141,8 @@ public class X86Flags implements Operand {
         // perform the INC operation
         final int incValue = dest.get() + 1;
 
-        // update the flags
-        setOF(isBitSet(incValue, dest.size() - 1));
-        setPF(determineParityState(incValue));
-        setSF(isBitSet(incValue, dest.size() - 1));
-        setZF(incValue == 0);
+        // defer the flag updates
+        defer(OP_INC_DEC, INC_DEC_FLAGS, 0, 0, incValue, dest.size());
         return incValue;
     }
 
@@ -136,11 +156,8 @@ public class X86Flags implements Operand {
         // perform the bitwise OR operation on the primary and secondary values
         final int _orValue = dest.get() | src.get();
 
-        // update the flags
-        setOF(isBitSet(_orValue, dest.size() - 1));
-        setPF(_orValue % 2 == 0);
-        setSF(isBitSet(_orValue, dest.size() - 1));
-        setZF(_orValue == 0);
+        // defer the flag updates
+        defer(OP_LOGIC, LOGIC_FLAGS, 0, 0, _orValue, dest.size());
         return _orValue;
     }
 
@@ -151,19 +168,13 @@ public class X86Flags implements Operand {
      * @param src  the given secondary operand
      */
     public int updateSUB(final Operand dest, final Operand src) {
-        // perform the logic AND operation on the primary and secondary values
+        // perform the SUB operation on the primary and secondary values
         final int value1 = dest.get();
         final int value0 = src.get();
-        final int andValue = value0 & value1;
         final int subValue = value0 - value1;
 
-        // update the flags
-        setAF(determineAuxiliaryState(value0, value1));
-        setCF(andValue != subValue);
-        setOF(isBitSet(andValue, dest.size() - 1));
-        setPF(determineParityState(subValue));
-        setSF(isBitSet(andValue, dest.size() - 1));
-        setZF(subValue == 0);
+        // defer the flag updates
+        defer(OP_SUB, SUB_FLAGS, value1, value0, subValue, dest.size());
         return subValue;
     }
 
@@ -177,14 +188,105 @@ public class X86Flags implements Operand {
         // perform the bitwise XOR operation on the primary and secondary values
         final int xorValue = dest.get() ^ src.get();
 
-        // update the flags
-        setOF(isBitSet(xorValue, dest.size() - 1));
-        setPF(xorValue % 2 == 0);
-        setSF(isBitSet(xorValue, dest.size() - 1));
-        setZF(xorValue == 0);
+        // defer the flag updates
+        defer(OP_LOGIC, LOGIC_FLAGS, 0, 0, xorValue, dest.size());
         return xorValue;
     }
 
+    /**
+     * Records the given operation so that the flags it affects can be
+     * evaluated when (and if) they are read.
+     *
+     * @param op     the given operation
+     * @param flags  the mask of the flags affected by the operation
+     * @param dest   the destination (primary) value
+     * @param src    the source (secondary) value
+     * @param result the result of the operation
+     * @param size   the size (in bits) of the destination operand
+     */
+    private void defer(final int op, final int flags, final int dest, final int src, final int result, final int size) {
+        // evaluate any pending flags which are not overwritten by this operation
+        final int retained = pending & ~flags;
+        if (retained != 0) {
+            evaluate(retained);
+        }
+
+        // record the operation
+        pending = flags;
+        lazyOp = op;
+        lazyDest = dest;
+        lazySrc = src;
+        lazyResult = result;
+        lazySize = size;
+    }
+
+    /**
+     * Evaluates the given pending flags of the last recorded operation
+     *
+     * @param flags the mask of the pending flags to evaluate
+     */
+    private void evaluate(final int flags) {
+        final int signBit = lazySize - 1;
+        switch (lazyOp) {
+            case OP_ADD:
+                if ((flags & CF_MASK) != 0) apply(CF_BIT, lazyResult != (lazySrc | lazyDest));
+                if ((flags & OF_MASK) != 0) apply(OF_BIT, isBitSet(lazyResult, signBit));
+                if ((flags & PF_MASK) != 0) apply(PF_BIT, determineParityState(lazyResult));
+                if ((flags & SF_MASK) != 0) apply(SF_BIT, isBitSet(lazyResult, signBit));
+                if ((flags & ZF_MASK) != 0) apply(ZF_BIT, lazyResult == 0);
+                break;
+            case OP_SUB:
+                final int andValue = lazySrc & lazyDest;
+                if ((flags & AF_MASK) != 0) apply(AF_BIT, determineAuxiliaryState(lazySrc, lazyDest));
+                if ((flags & CF_MASK) != 0) apply(CF_BIT, andValue != lazyResult);
+                if ((flags & OF_MASK) != 0) apply(OF_BIT, isBitSet(andValue, signBit));
+                if ((flags & PF_MASK) != 0) apply(PF_BIT, determineParityState(lazyResult));
+                if ((flags & SF_MASK) != 0) apply(SF_BIT, isBitSet(andValue, signBit));
+                if ((flags & ZF_MASK) != 0) apply(ZF_BIT, lazyResult == 0);
+                break;
+            case OP_INC_DEC:
+                if ((flags & OF_MASK) != 0) apply(OF_BIT, isBitSet(lazyResult, signBit));
+                if ((flags & PF_MASK) != 0) apply(PF_BIT, determineParityState(lazyResult));
+                if ((flags & SF_MASK) != 0) apply(SF_BIT, isBitSet(lazyResult, signBit));
+                if ((flags & ZF_MASK) != 0) apply(ZF_BIT, lazyResult == 0);
+                break;
+            case OP_LOGIC:
+                if ((flags & OF_MASK) != 0) apply(OF_BIT, isBitSet(lazyResult, signBit));
+                if ((flags & PF_MASK) != 0) apply(PF_BIT, lazyResult % 2 == 0);
+                if ((flags & SF_MASK) != 0) apply(SF_BIT, isBitSet(lazyResult, signBit));
+                if ((flags & ZF_MASK) != 0) apply(ZF_BIT, lazyResult == 0);
+                break;
+            default:
+                throw new IllegalStateException(String.format("Invalid lazy flags operation (%d)", lazyOp));
+        }
+        pending &= ~flags;
+    }
+
+    /**
+     * Evaluates the given flag if it is pending
+     *
+     * @param mask the mask of the given flag
+     */
+    private void resolve(final int mask) {
+        if ((pending & mask) != 0) {
+            evaluate(mask);
+        }
+    }
+
+    /**
+     * Turns the given flag bit on/off
+     *
+     * @param bit the given flag bit number
+     * @param on  is true, if the flag is to be turned on
+     */
+    private void apply(final int bit, final boolean on) {
+        // turn the bit on
+        if (on) value |= turnBitOnMask(bit);
+
+            // turn the bit off
+        else value &= turnBitOffMask(FLAG_LEN, bit);
+    }
+
     /**
      * It indicates when an arithmetic carry or borrow has been generated out of the four least significant bits,
      * or lower nibble.<p/>
@@ -213,13 +315,20 @@ public class X86Flags implements Operand {
      * @return the state of the parity bit
      */
     private boolean determineParityState(final int diff) {
-        final int lsb = diff & 0xFF;
-        int count = 0;
-        for (int n = 0; n < 8; n++) {
-            final int mask = 1 << n;
-            if ((lsb & mask) > 0) count += 1;
+        return PARITY_TABLE[diff & 0xFF];
+    }
+
+    /**
+     * Creates the parity lookup table for all 8-bit values
+     *
+     * @return the parity lookup table
+     */
+    private static boolean[] createParityTable() {
+        final boolean[] table = new boolean[256];
+        for (int n = 0; n < table.length; n++) {
+            table[n] = Integer.bitCount(n) % 2 == 0;
         }
-        return count % 2 == 0;
+        return table;
     }
 
     /**
@@ -227,6 +336,9 @@ public class X86Flags implements Operand {
      */
     @Override
     public int get() {
+        if (pending != 0) {
+            evaluate(pending);
+        }
         return value;
     }
 
@@ -235,6 +347,7 @@ public class X86Flags implements Operand {
      */
     @Override
     public void set(final int value) {
+        this.pending = 0;
         this.value = value;
     }
 
@@ -252,6 +365,9 @@ public class X86Flags implements Operand {
      * @param value8 the given 8-bit register
      */
     public void overlay(final int value8) {
+        if (pending != 0) {
+            evaluate(pending);
+        }
         this.value |= (value8 & 0b0111_1111) | FIXED_BITS;
     }
 
@@ -261,6 +377,7 @@ public class X86Flags implements Operand {
      * @return true, if the bit is set
      */
     public boolean isCF() {
+        resolve(CF_MASK);
         return isBitSet(value, CF_BIT);
     }
 
@@ -270,11 +387,8 @@ public class X86Flags implements Operand {
      * @param on is true, if the flag is to be turned on
      */
     public X86Flags setCF(final boolean on) {
-        // turn the bit on
-        if (on) value |= turnBitOnMask(CF_BIT);
-
-            // turn the bit off
-        else value &= turnBitOffMask(FLAG_LEN, CF_BIT);
+        pending &= ~CF_MASK;
+        apply(CF_BIT, on);
         return this;
     }
 
@@ -284,6 +398,7 @@ public class X86Flags implements Operand {
      * @return true, if the bit is set
      */
     public boolean isPF() {
+        resolve(PF_MASK);
         return isBitSet(value, PF_BIT);
     }
 
@@ -293,11 +408,8 @@ public class X86Flags implements Operand {
      * @param on is true, if the flag is to be turned on
      */
     public X86Flags setPF(final boolean on) {
-        // turn the bit on
-        if (on) value |= turnBitOnMask(PF_BIT);
-
-            // turn the bit off
-        else value &= turnBitOffMask(FLAG_LEN, PF_BIT);
+        pending &= ~PF_MASK;
+        apply(PF_BIT, on);
         return this;
     }
 
@@ -307,6 +419,7 @@ public class X86Flags implements Operand {
      * @return true, if the bit is set
      */
     public boolean isAF() {
+        resolve(AF_MASK);
         return isBitSet(value, AF_BIT);
     }
 
@@ -316,11 +429,8 @@ public class X86Flags implements Operand {
      * @param on is true, if the flag is to be turned on
      */
     public X86Flags setAF(final boolean on) {
-        // turn the bit on
-        if (on) value |= turnBitOnMask(AF_BIT);
-
-            // turn the bit off
-        else value &= turnBitOffMask(FLAG_LEN, AF_BIT);
+        pending &= ~AF_MASK;
+        apply(AF_BIT, on);
         return this;
     }
 
@@ -330,6 +440,7 @@ public class X86Flags implements Operand {
      * @return true, if the bit is set
      */
     public boolean isZF() {
+        resolve(ZF_MASK);
         return isBitSet(value, ZF_BIT);
     }
 
@@ -339,11 +450,8 @@ public class X86Flags implements Operand {
      * @param on is true, if the flag is to be turned on
      */
     public X86Flags setZF(final boolean on) {
-        // turn the bit on
-        if (on) value |= turnBitOnMask(ZF_BIT);
-
-            // turn the bit off
-        else value &= turnBitOffMask(FLAG_LEN, ZF_BIT);
+        pending &= ~ZF_MASK;
+        apply(ZF_BIT, on);
         return this;
     }
 
@@ -353,6 +461,7 @@ public class X86Flags implements Operand {
      * @return true, if the bit is set
      */
     public boolean isSF() {
+        resolve(SF_MASK);
         return isBitSet(value, SF_BIT);
     }
 
@@ -362,11 +471,8 @@ public class X86Flags implements Operand {
      * @param on is true, if the flag is to be turned on
      */
     public X86Flags setSF(final boolean on) {
-        // turn the bit on
-        if (on) value |= turnBitOnMask(SF_BIT);
-
-            // turn the bit off
-        else value &= turnBitOffMask(FLAG_LEN, SF_BIT);
+        pending &= ~SF_MASK;
+        apply(SF_BIT, on);
         return this;
     }
 
@@ -445,6 +551,7 @@ public class X86Flags implements Operand {
      * @return true, if the bit is set
      */
     public boolean isOF() {
+        resolve(OF_MASK);
         return isBitSet(value, OF_BIT);
     }
 
@@ -454,11 +561,8 @@ public class X86Flags implements Operand {
      * @param on is true, if the flag is to be turned on
      */
     public X86Flags setOF(final boolean on) {
-        // turn the bit on
-        if (on) value |= turnBitOnMask(OF_BIT);
-
-            // turn the bit off
-        else value &= turnBitOffMask(FLAG_LEN, OF_BIT);
+        pending &= ~OF_MASK;
+        apply(OF_BIT, on);
         return this;
     }
 
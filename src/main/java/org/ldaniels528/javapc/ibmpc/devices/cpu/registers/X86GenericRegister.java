@@ -4,7 +4,9 @@ import static org.ldaniels528.javapc.util.BitMaskGenerator.turnBitOffMask;
 import static org.ldaniels528.javapc.util.BitMaskGenerator.turnBitOnMask;
 
 /**
- * Represents a n-bit register
+ * Represents a n-bit register; the register's value is held in a slot of
+ * a register file (an int array shared by all registers of a CPU), so that
+ * the register object itself is only a view of the CPU's state.
  *
  * @author lawrence.daniels@gmail.com
  */
@@ -12,20 +14,35 @@ public abstract class X86GenericRegister implements X86Register {
     public final String name;
     public final int mask;
     private final int index;
-    protected int value;
+    protected final int[] file;
+    protected final int slot;
 
     /**
-     * Creates an instance of this register
+     * Creates an instance of this register; backed by its own single-slot register file
      *
      * @param name  the name of this register
      * @param mask  the mask that will determine the size of this register
      * @param index the given index of this register
      */
     public X86GenericRegister(final String name, final int mask, final int index) {
+        this(name, mask, index, new int[1], 0);
+    }
+
+    /**
+     * Creates an instance of this register
+     *
+     * @param name  the name of this register
+     * @param mask  the mask that will determine the size of this register
+     * @param index the given index of this register
+     * @param file  the given register file
+     * @param slot  the slot of the register file that holds this register's value
+     */
+    public X86GenericRegister(final String name, final int mask, final int index, final int[] file, final int slot) {
         this.name = name;
         this.mask = mask;
         this.index = index;
-        this.value = 0;
+        this.file = file;
+        this.slot = slot;
     }
 
     /**
@@ -33,7 +50,7 @@ public abstract class X86GenericRegister implements X86Register {
      */
     @Override
     public int get() {
-        return value;
+        return file[slot];
     }
 
     /**
@@ -41,7 +58,7 @@ public abstract class X86GenericRegister implements X86Register {
      */
     @Override
     public void set(int value) {
-        this.value = (value & mask);
+        file[slot] = (value & mask);
     }
 
     /**
@@ -60,12 +77,12 @@ public abstract class X86GenericRegister implements X86Register {
         // turn the bit on?
         if (on) {
             final int mask = turnBitOnMask(bitNum);
-            value |= mask;
+            file[slot] |= mask;
         }
         // turn the bit off...
         else {
             final int mask = turnBitOffMask(size(), bitNum);
-            value &= mask;
+            file[slot] &= mask;
         }
     }
 
@@ -74,8 +91,7 @@ public abstract class X86GenericRegister implements X86Register {
      */
     @Override
     public int add(int delta) {
-        this.value = (value + delta) & mask;
-        return value;
+        return file[slot] = (file[slot] + delta) & mask;
     }
 
     /**
@@ -83,7 +99,7 @@ public abstract class X86GenericRegister implements X86Register {
      */
     @Override
     public void and(int mask) {
-        this.value &= mask;
+        file[slot] &= mask;
     }
 
     /**
@@ -91,7 +107,7 @@ public abstract class X86GenericRegister implements X86Register {
      */
     @Override
     public void or(int mask) {
-        this.value |= mask;
+        file[slot] |= mask;
     }
 
     /**
@@ -99,7 +115,7 @@ public abstract class X86GenericRegister implements X86Register {
      */
     @Override
     public void lshift(int bits) {
-        this.value <<= bits;
+        file[slot] <<= bits;
     }
 
     /**
@@ -107,7 +123,7 @@ public abstract class X86GenericRegister implements X86Register {
      */
     @Override
     public void rshift(int bits) {
-        this.value >>= bits;
+        file[slot] >>= bits;
     }
 
     /**
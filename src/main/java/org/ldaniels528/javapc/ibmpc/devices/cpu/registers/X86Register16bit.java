@@ -17,6 +17,18 @@ public class X86Register16bit extends X86GenericRegister {
         super(name, 0xFFFF, index);
     }
 
+    /**
+     * Constructs a new 16-bit register
+     *
+     * @param name  the name of this register
+     * @param index the given index of this register
+     * @param file  the given register file
+     * @param slot  the slot of the register file that holds this register's value
+     */
+    public X86Register16bit(String name, int index, int[] file, int slot) {
+        super(name, 0xFFFF, index, file, slot);
+    }
+
     /**
      * {@inheritDoc}
      */
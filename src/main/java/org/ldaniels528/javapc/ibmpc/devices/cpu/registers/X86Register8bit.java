@@ -1,11 +1,17 @@
 package org.ldaniels528.javapc.ibmpc.devices.cpu.registers;
 
+import static org.ldaniels528.javapc.util.BitMaskGenerator.turnBitOffMask;
+import static org.ldaniels528.javapc.util.BitMaskGenerator.turnBitOnMask;
+
 /**
- * Represents an 8-bit register implementation
+ * Represents an 8-bit register implementation; an 8-bit register is a view
+ * of either the low (e.g. AL) or high (e.g. AH) byte of a 16-bit slot of the
+ * register file, and all operations are confined to that byte.
  *
  * @author lawrence.daniels@gmail.com
  */
 public class X86Register8bit extends X86GenericRegister {
+    private final int shift;
 
     /**
      * Constructs a new 8-bit register
@@ -14,7 +20,88 @@ public class X86Register8bit extends X86GenericRegister {
      * @param index the given index of this register
      */
     public X86Register8bit(String name, int index) {
-        super(name, 0xFF, index);
+        this(name, index, new int[1], 0, 0);
+    }
+
+    /**
+     * Constructs a new 8-bit register
+     *
+     * @param name  the name of this register
+     * @param index the given index of this register
+     * @param file  the given register file
+     * @param slot  the slot of the register file that holds this register's value
+     * @param shift the position of this register within the slot (0 for the low byte; 8 for the high byte)
+     */
+    public X86Register8bit(String name, int index, int[] file, int slot, int shift) {
+        super(name, 0xFF, index, file, slot);
+        this.shift = shift;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int get() {
+        return (file[slot] >> shift) & 0xFF;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void set(int value) {
+        file[slot] = (file[slot] & ~(0xFF << shift)) | ((value & 0xFF) << shift);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int add(int delta) {
+        final int value = (get() + delta) & 0xFF;
+        set(value);
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void and(int mask) {
+        set(get() & mask);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void or(int mask) {
+        set(get() | mask);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void lshift(int bits) {
+        set(get() << bits);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void rshift(int bits) {
+        set(get() >> bits);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setBit(int bitNum, boolean on) {
+        if (on) set(get() | turnBitOnMask(bitNum));
+        else set(get() & turnBitOffMask(SIZE_8BIT, bitNum));
     }
 
     /**
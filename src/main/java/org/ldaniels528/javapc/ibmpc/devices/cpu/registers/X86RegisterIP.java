@@ -14,4 +14,13 @@ public class X86RegisterIP extends X86Register16bit {
 		super( "IP", 0xFE );
 	}
 
+	/**
+	 * Creates an instruction pointer backed by the given register file
+	 * @param file the given register file
+	 * @param slot the slot of the register file that holds the instruction pointer
+	 */
+	public X86RegisterIP( final int[] file, final int slot ) {
+		super( "IP", 0xFE, file, slot );
+	}
+
 }
\ No newline at end of file
@@ -1,11 +1,36 @@
 package org.ldaniels528.javapc.ibmpc.devices.cpu.registers;
 
+import java.util.Arrays;
+
 /**
- * Represents a set of 8086 registers including 8-, 16-, and 32-bit registers
+ * Represents a set of 8086 registers including 8-, 16-, and 32-bit registers;
+ * the values of the registers are held in a single register file (an int array),
+ * and the register objects are views of its slots. (e.g. AH is the high byte
+ * of the slot of AX)
  *
  * @author lawrence.daniels@gmail.com
  */
 public class X86RegisterSet {
+    // register file slots (the general purpose registers are in encoding order)
+    public static final int SLOT_AX = 0;
+    public static final int SLOT_CX = 1;
+    public static final int SLOT_DX = 2;
+    public static final int SLOT_BX = 3;
+    public static final int SLOT_SP = 4;
+    public static final int SLOT_BP = 5;
+    public static final int SLOT_SI = 6;
+    public static final int SLOT_DI = 7;
+    public static final int SLOT_ES = 8;
+    public static final int SLOT_CS = 9;
+    public static final int SLOT_SS = 10;
+    public static final int SLOT_DS = 11;
+    public static final int SLOT_IP = 12;
+    public static final int SLOT_FLAGS = 13;
+    public static final int REGISTER_FILE_SIZE = 14;
+
+    // the register file
+    protected final int[] registers;
+
     // 8-bit general purpose registers
     public final X86Register8bit AL;            // 8-bit low portion of AX
     public final X86Register8bit AH;            // 8-bit high portion of AX
@@ -53,32 +78,35 @@ public class X86RegisterSet {
      * Default constructor
      */
     public X86RegisterSet() {
+        // allocate the register file (the flags are kept by the flags register)
+        this.registers = new int[REGISTER_FILE_SIZE - 1];
+
         // initialize the 16-bit segment registers
-        this.ES = new X86Register16bit("ES", 0);
-        this.CS = new X86Register16bit("CS", 1);
-        this.SS = new X86Register16bit("SS", 2);
-        this.DS = new X86Register16bit("DS", 3);
+        this.ES = new X86Register16bit("ES", 0, registers, SLOT_ES);
+        this.CS = new X86Register16bit("CS", 1, registers, SLOT_CS);
+        this.SS = new X86Register16bit("SS", 2, registers, SLOT_SS);
+        this.DS = new X86Register16bit("DS", 3, registers, SLOT_DS);
 
         // initialize the 8-bit general purpose registers
-        this.AL = new X86Register8bit("AL", 0);
-        this.CL = new X86Register8bit("CL", 1);
-        this.DL = new X86Register8bit("DL", 2);
-        this.BL = new X86Register8bit("BL", 3);
-        this.AH = new X86Register8bit("AH", 4);
-        this.CH = new X86Register8bit("CH", 5);
-        this.DH = new X86Register8bit("DH", 6);
-        this.BH = new X86Register8bit("BH", 7);
+        this.AL = new X86Register8bit("AL", 0, registers, SLOT_AX, 0);
+        this.CL = new X86Register8bit("CL", 1, registers, SLOT_CX, 0);
+        this.DL = new X86Register8bit("DL", 2, registers, SLOT_DX, 0);
+        this.BL = new X86Register8bit("BL", 3, registers, SLOT_BX, 0);
+        this.AH = new X86Register8bit("AH", 4, registers, SLOT_AX, 8);
+        this.CH = new X86Register8bit("CH", 5, registers, SLOT_CX, 8);
+        this.DH = new X86Register8bit("DH", 6, registers, SLOT_DX, 8);
+        this.BH = new X86Register8bit("BH", 7, registers, SLOT_BX, 8);
 
         // initialize the 16-bit general purpose registers
-        this.AX = new X86CompositeRegister16Bit("AX", AH, AL, 0);
-        this.CX = new X86CompositeRegister16Bit("CX", CH, CL, 1);
-        this.DX = new X86CompositeRegister16Bit("DX", DH, DL, 2);
-        this.BX = new X86CompositeRegister16Bit("BX", BH, BL, 3);
-        this.SI = new X86Register16bit("SI", 4);
-        this.DI = new X86Register16bit("DI", 5);
-        this.SP = new X86Register16bit("SP", 6);
-        this.BP = new X86Register16bit("BP", 7);
-        this.IP = new X86RegisterIP();
+        this.AX = new X86CompositeRegister16Bit("AX", registers, SLOT_AX, 0);
+        this.CX = new X86CompositeRegister16Bit("CX", registers, SLOT_CX, 1);
+        this.DX = new X86CompositeRegister16Bit("DX", registers, SLOT_DX, 2);
+        this.BX = new X86CompositeRegister16Bit("BX", registers, SLOT_BX, 3);
+        this.SI = new X86Register16bit("SI", 4, registers, SLOT_SI);
+        this.DI = new X86Register16bit("DI", 5, registers, SLOT_DI);
+        this.SP = new X86Register16bit("SP", 6, registers, SLOT_SP);
+        this.BP = new X86Register16bit("BP", 7, registers, SLOT_BP);
+        this.IP = new X86RegisterIP(registers, SLOT_IP);
 
         // initialize flags register
         this.FLAGS = new X86Flags();
@@ -135,6 +163,27 @@ public class X86RegisterSet {
         return REG16_COMMON[regCode];
     }
 
+    /**
+     * Captures the state of all registers (including the flags)
+     *
+     * @return the register state; indexed by register file slot
+     */
+    public int[] getRegisterState() {
+        final int[] state = Arrays.copyOf(registers, REGISTER_FILE_SIZE);
+        state[SLOT_FLAGS] = FLAGS.get();
+        return state;
+    }
+
+    /**
+     * Restores the state of all registers (including the flags)
+     *
+     * @param state the register state; as captured by {@link #getRegisterState()}
+     */
+    public void setRegisterState(final int[] state) {
+        System.arraycopy(state, 0, registers, 0, registers.length);
+        FLAGS.set(state[SLOT_FLAGS]);
+    }
+
     /*
      * (non-Javadoc)
      * @see java.lang.Object#toString()
@@ -10,10 +10,14 @@ import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 public class IbmPcDisplayContext {
 	public final IbmPcBIOS bios;
 	public final IbmPcRandomAccessMemory memory;
-	public IbmPcDisplayFrame frame;
+	public IbmPcFrameSink sink;
 	public IbmPcColorSet color;
+	public String caption;
 	public int position;
 	public int activePage;
+	public int palette;
+	public int[] renderedCells;
+	public byte[] scanLine;
 	
 	/**
 	 * Creates an instance of this display context
@@ -23,9 +27,13 @@ public class IbmPcDisplayContext {
 		this.bios				= bios;
 		this.memory				= bios.getMemory();
 		this.color				= new IbmPcColorSet( 7, 0, 0 );
-		this.frame				= null;
+		this.sink				= null;
+		this.caption			= null;
 		this.position			= 0;
 		this.activePage			= 0;
+		this.palette			= 0;
+		this.renderedCells		= null;
+		this.scanLine			= null;
 	}
 
 }
@@ -0,0 +1,147 @@
+package org.ldaniels528.javapc.ibmpc.devices.display;
+
+import org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayMode;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
+
+/**
+ * Represents an in-memory (headless) display target; graphics are rendered into
+ * an ARGB pixel buffer, and the contents of text modes are available as a grid of
+ * characters and attributes read directly from video memory. Nothing is rendered
+ * until the attached display is {@link IbmPcDisplay#update() updated} or
+ * {@link IbmPcDisplay#refresh() refreshed}, so rendering cost is only paid when needed.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcFrameBuffer implements IbmPcFrameSink {
+    private IbmPcDisplay display;
+    private int[] pixels = new int[0];
+    private int width;
+    private int height;
+    private long frames;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void attach(final IbmPcDisplay display) {
+        this.display = display;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getFramePixels(final int width, final int height) {
+        if ((this.width != width) || (this.height != height)) {
+            this.pixels = new int[width * height];
+            this.width = width;
+            this.height = height;
+        }
+        return pixels;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void present() {
+        frames++;
+    }
+
+    /**
+     * @return the ARGB pixels of the most recently rendered frame (one int per pixel, row by row)
+     */
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    /**
+     * @return the width (in pixels) of the most recently rendered frame
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the height (in pixels) of the most recently rendered frame
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the number of frames that have been presented
+     */
+    public long getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * Returns the characters of the active page (when in a text mode)
+     *
+     * @return the characters (by row, then column); or no rows when in a graphics mode
+     */
+    public char[][] getText() {
+        final IbmPcDisplayMode mode = getTextMode();
+        if (mode == null) return new char[0][];
+
+        final char[][] text = new char[mode.getRows()][mode.getColumns()];
+        final IbmPcRandomAccessMemory memory = display.getContext().memory;
+        int offset = getPageOffset(mode);
+        for (final char[] row : text) {
+            for (int column = 0; column < row.length; column++, offset += 2) {
+                row[column] = (char) memory.getByte(mode.getMemorySegment(), offset);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Returns the color attributes of the active page (when in a text mode)
+     *
+     * @return the attributes (by row, then column); or no rows when in a graphics mode
+     */
+    public int[][] getAttributes() {
+        final IbmPcDisplayMode mode = getTextMode();
+        if (mode == null) return new int[0][];
+
+        final int[][] attributes = new int[mode.getRows()][mode.getColumns()];
+        final IbmPcRandomAccessMemory memory = display.getContext().memory;
+        int offset = getPageOffset(mode) + 1;
+        for (final int[] row : attributes) {
+            for (int column = 0; column < row.length; column++, offset += 2) {
+                row[column] = memory.getByte(mode.getMemorySegment(), offset);
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Returns the given row of the active page as a string (when in a text mode)
+     *
+     * @param row the given row (zero-based)
+     * @return the text of the row
+     */
+    public String getTextLine(final int row) {
+        return new String(getText()[row]);
+    }
+
+    /**
+     * @return the current display mode; or null, if no display is attached or it is in a graphics mode
+     */
+    private IbmPcDisplayMode getTextMode() {
+        final IbmPcDisplayMode mode = (display != null) ? display.getDisplayMode() : null;
+        return ((mode != null) && !mode.isGraphical()) ? mode : null;
+    }
+
+    /**
+     * Returns the video memory offset of the active page
+     *
+     * @param mode the given {@link IbmPcDisplayMode display mode}
+     * @return the video memory offset
+     */
+    private int getPageOffset(final IbmPcDisplayMode mode) {
+        return display.getActivePage() * mode.getPageSize();
+    }
+
+}
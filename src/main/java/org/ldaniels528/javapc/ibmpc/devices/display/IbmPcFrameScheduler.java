@@ -0,0 +1,107 @@
+package org.ldaniels528.javapc.ibmpc.devices.display;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IBM PC Frame Scheduler; repaints the dirty portions of a {@link IbmPcDisplay display}
+ * at a bounded refresh rate on its own thread, so that the CPU is never held up
+ * by rendering no matter how often video memory is written to.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcFrameScheduler {
+    public static final int DEFAULT_REFRESH_RATE = 60;
+    private final Logger logger = Logger.getLogger(getClass());
+    private final IbmPcDisplay display;
+    private final int refreshRate;
+    private ScheduledExecutorService executor;
+    private volatile long frames;
+
+    /**
+     * Creates a new frame scheduler refreshing at the default rate (60 Hz)
+     *
+     * @param display the given {@link IbmPcDisplay display}
+     */
+    public IbmPcFrameScheduler(final IbmPcDisplay display) {
+        this(display, DEFAULT_REFRESH_RATE);
+    }
+
+    /**
+     * Creates a new frame scheduler
+     *
+     * @param display     the given {@link IbmPcDisplay display}
+     * @param refreshRate the given maximum number of frames per second
+     */
+    public IbmPcFrameScheduler(final IbmPcDisplay display, final int refreshRate) {
+        if (refreshRate <= 0) {
+            throw new IllegalArgumentException("Refresh rate must be positive");
+        }
+        this.display = display;
+        this.refreshRate = refreshRate;
+    }
+
+    /**
+     * Starts refreshing the display
+     */
+    public synchronized void start() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "IbmPcFrameScheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long period = TimeUnit.SECONDS.toMicros(1) / refreshRate;
+            executor.scheduleAtFixedRate(this::refresh, period, period, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    /**
+     * Stops refreshing the display
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * @return true, if the display is being refreshed
+     */
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * @return the number of frames that have been repainted
+     */
+    public long getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * @return the maximum number of frames per second
+     */
+    public int getRefreshRate() {
+        return refreshRate;
+    }
+
+    /**
+     * Repaints the dirty portions of the display (if any)
+     */
+    private void refresh() {
+        try {
+            if (display.refresh()) {
+                frames++;
+            }
+        } catch (final Exception e) {
+            // an uncaught exception would cancel all subsequent frames
+            logger.error("Error refreshing the display", e);
+        }
+    }
+
+}
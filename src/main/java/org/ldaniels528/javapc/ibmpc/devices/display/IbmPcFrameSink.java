@@ -0,0 +1,35 @@
+package org.ldaniels528.javapc.ibmpc.devices.display;
+
+/**
+ * Represents the target of an {@link IbmPcDisplay display}; display modes render
+ * video memory into the sink's native resolution frame buffer, which the sink
+ * then presents (e.g. to a window, or not at all when running headless).
+ *
+ * @author lawrence.daniels@gmail.com
+ * @see IbmPcDisplayFrame
+ * @see IbmPcFrameBuffer
+ */
+public interface IbmPcFrameSink {
+
+    /**
+     * Attaches the given display to this sink
+     *
+     * @param display the given {@link IbmPcDisplay display}
+     */
+    void attach(IbmPcDisplay display);
+
+    /**
+     * Returns the ARGB pixels backing the native resolution frame buffer
+     *
+     * @param width  the given native width (in pixels)
+     * @param height the given native height (in pixels)
+     * @return the ARGB pixels (one int per pixel, row by row)
+     */
+    int[] getFramePixels(int width, int height);
+
+    /**
+     * Presents the contents of the frame buffer; invoked after the display has been rendered into it
+     */
+    void present();
+
+}
@@ -2,18 +2,31 @@ package org.ldaniels528.javapc.ibmpc.devices.display;
 
 import org.ldaniels528.javapc.ibmpc.devices.bios.IbmPcBIOS;
 import org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayMode;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory.MemorySegmentListener;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcMetrics;
 
-import java.awt.*;
+import java.util.BitSet;
 
 /**
  * Represents an IBM PC Video Display capable
  * of CGA, EGA, and VGA (Text and Graphics) Modes.
+ * Writes to video memory mark the affected display lines (text rows or scan lines)
+ * as dirty, so that {@link #refresh()} only has to repaint what has changed.
  *
  * @author lawrence.daniels@gmail.com
+ * @see IbmPcFrameScheduler
  */
-public class IbmPcVideoDisplay implements IbmPcDisplay {
+public class IbmPcVideoDisplay implements IbmPcDisplay, MemorySegmentListener {
+    // the physical address range of video memory (A000:0000 through BFFF:000F)
+    public static final int VIDEO_MEMORY_START = 0xA0000;
+    public static final int VIDEO_MEMORY_END = 0xBFFFF;
+
+    // internal fields
     protected final IbmPcDisplayContext dc;
-    protected IbmPcDisplayMode mode;
+    protected volatile IbmPcDisplayMode mode;
+    private final Object renderLock = new Object();
+    private BitSet dirtyLines = new BitSet();
+    private BitSet renderLines = new BitSet();
 
     /**
      * Creates an instance of this color display
@@ -24,6 +37,9 @@ public class IbmPcVideoDisplay implements IbmPcDisplay {
     public IbmPcVideoDisplay(final IbmPcBIOS bios, final IbmPcDisplayMode mode) {
         this.dc = new IbmPcDisplayContext(bios);
         setDisplayMode(mode);
+
+        // track modifications of video memory
+        dc.memory.add(VIDEO_MEMORY_START, VIDEO_MEMORY_END, this);
     }
 
     /**
@@ -47,8 +63,9 @@ public class IbmPcVideoDisplay implements IbmPcDisplay {
      * {@inheritDoc}
      */
     @Override
-    public void init(final IbmPcDisplayFrame frame) {
-        dc.frame = frame;
+    public void init(final IbmPcFrameSink sink) {
+        dc.sink = sink;
+        sink.attach(this);
     }
 
     /**
@@ -65,6 +82,8 @@ public class IbmPcVideoDisplay implements IbmPcDisplay {
     @Override
     public void setActivePage(final int page) {
         dc.activePage = page;
+        dc.renderedCells = null;
+        invalidate();
     }
 
     /**
@@ -139,8 +158,11 @@ public class IbmPcVideoDisplay implements IbmPcDisplay {
         this.mode = newMode;
         dc.activePage = 0;
         dc.position = 0;
+        dc.palette = 0;
+        dc.renderedCells = null;
         mode.clear(dc);
         mode.updateVirtualBIOS(dc);
+        invalidate();
     }
 
     /**
@@ -164,18 +186,86 @@ public class IbmPcVideoDisplay implements IbmPcDisplay {
      */
     @Override
     public void update() {
-        if (dc.frame != null) {
-            // get the offscreen graphics context
-            final Graphics2D offscreen = dc.frame.getOffScreen();
+        synchronized (renderLock) {
+            // the whole screen is about to be repainted
+            synchronized (this) {
+                dirtyLines.clear();
+            }
+
+            if (dc.sink != null) {
+                // copy the text in cache to the frame buffer
+                mode.render(dc);
+
+                // present the frame buffer
+                dc.sink.present();
+                IbmPcMetrics.getInstance().recordRepaint();
+            }
+        }
+    }
 
-            // copy the text in cache to screen
-            mode.render(dc, offscreen);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean refresh() {
+        if (dc.sink == null) return false;
+
+        synchronized (renderLock) {
+            // swap the dirty lines with the (empty) render lines
+            final BitSet lines;
+            synchronized (this) {
+                if (dirtyLines.isEmpty()) return false;
+                lines = dirtyLines;
+                dirtyLines = renderLines;
+                renderLines = lines;
+            }
+
+            // copy the dirty lines to the frame buffer
+            mode.render(dc, lines);
+            lines.clear();
+
+            // present the frame buffer
+            dc.sink.present();
+            IbmPcMetrics.getInstance().recordRepaint();
+            return true;
+        }
+    }
 
-            // blit to the screen
-            dc.frame.blit();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void segmentUpdated(final int fromAddress, final int toAddress) {
+        // translate the physical addresses into video memory offsets
+        final IbmPcDisplayMode mode = this.mode;
+        final int base = mode.getMemorySegment() << 4;
+        final int fromOffset = fromAddress - base;
+        final int toOffset = toAddress - base;
+
+        // mark the affected display lines as dirty
+        if ((toOffset >= 0) && (fromOffset < mode.getMemorySize())) {
+            synchronized (this) {
+                mode.markDirtyLines(dc, fromOffset, toOffset, dirtyLines);
+            }
         }
     }
 
+    /**
+     * Marks the entire display as dirty
+     */
+    public void invalidate() {
+        synchronized (this) {
+            dirtyLines.set(0, mode.getDisplayLines());
+        }
+    }
+
+    /**
+     * @return true, if any portion of the display has changed since the last update
+     */
+    public synchronized boolean isDirty() {
+        return !dirtyLines.isEmpty();
+    }
+
     /**
      * {@inheritDoc}
      */
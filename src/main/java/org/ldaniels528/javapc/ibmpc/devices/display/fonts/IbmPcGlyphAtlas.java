@@ -0,0 +1,99 @@
+package org.ldaniels528.javapc.ibmpc.devices.display.fonts;
+
+import java.awt.Color;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Represents a Glyph Atlas; a cache of pre-rendered character cells keyed by
+ * character and color attribute. Each glyph is an array of RGB pixels
+ * (cell width x cell height) built from an {@link IbmPcFont font}, so that
+ * text can be drawn into a frame buffer by copying whole rows of pixels.
+ * An atlas is shared by every machine using its display mode, so glyphs
+ * are published atomically.
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcGlyphAtlas {
+	private final IbmPcFont font;
+	private final Color[] colorMap;
+	private final int cellWidth;
+	private final int cellHeight;
+	private final AtomicReferenceArray<int[]> glyphs;
+	
+	/**
+	 * Creates a new glyph atlas
+	 * @param font the given {@link IbmPcFont font}
+	 * @param colorMap the given 16-color palette
+	 * @param cellWidth the given width of a character cell (in pixels)
+	 * @param cellHeight the given height of a character cell (in pixels)
+	 */
+	public IbmPcGlyphAtlas( final IbmPcFont font, 
+							final Color[] colorMap, 
+							final int cellWidth, 
+							final int cellHeight ) {
+		this.font		= font;
+		this.colorMap	= colorMap;
+		this.cellWidth	= cellWidth;
+		this.cellHeight	= cellHeight;
+		this.glyphs		= new AtomicReferenceArray<>( 256 * 256 );
+	}
+	
+	/**
+	 * Returns the pre-rendered glyph for the given character and attribute;
+	 * rendering it upon first use. Concurrent first uses may each render the
+	 * glyph, but only one is ever published.
+	 * @param character the given character (0-255)
+	 * @param attribute the given packed color attribute (background+foreground)
+	 * @return the RGB pixels of the glyph (row by row)
+	 */
+	public int[] getGlyph( final int character, final int attribute ) {
+		final int key = ( ( attribute & 0xFF ) << 8 ) | ( character & 0xFF );
+		final int[] glyph = glyphs.get( key );
+		if( glyph != null ) {
+			return glyph;
+		}
+		glyphs.compareAndSet( key, null, renderGlyph( character & 0xFF, attribute & 0xFF ) );
+		return glyphs.get( key );
+	}
+	
+	/**
+	 * @return the width of a character cell (in pixels)
+	 */
+	public int getCellWidth() {
+		return cellWidth;
+	}
+	
+	/**
+	 * @return the height of a character cell (in pixels)
+	 */
+	public int getCellHeight() {
+		return cellHeight;
+	}
+	
+	/**
+	 * Renders the glyph for the given character and attribute
+	 * @param character the given character (0-255)
+	 * @param attribute the given packed color attribute (background+foreground)
+	 * @return the RGB pixels of the glyph (row by row)
+	 */
+	private int[] renderGlyph( final int character, final int attribute ) {
+		// compute the foreground and background colors
+		final int fgc = colorMap[ ( attribute & 0x0F ) % colorMap.length ].getRGB();
+		final int bgc = colorMap[ ( ( attribute & 0xF0 ) >> 4 ) % colorMap.length ].getRGB();
+		
+		// the font is drawn in the upper-left corner of the cell 
+		final byte[] data = font.getData( character );
+		final int fontWidth = Math.min( font.getWidth(), cellWidth );
+		final int fontHeight = Math.min( font.getHeight(), cellHeight );
+		
+		final int[] glyph = new int[ cellWidth * cellHeight ];
+		for( int y = 0; y < cellHeight; y++ ) {
+			final int packedByte = ( y < fontHeight ) ? data[y] : 0;
+			for( int x = 0; x < cellWidth; x++ ) {
+				final boolean on = ( x < fontWidth ) && ( ( packedByte & ( 0x80 >> x ) ) != 0 );
+				glyph[ y * cellWidth + x ] = on ? fgc : bgc;
+			}
+		}
+		return glyph;
+	}
+	
+}
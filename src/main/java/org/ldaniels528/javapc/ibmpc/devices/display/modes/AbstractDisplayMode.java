@@ -21,7 +21,6 @@ public abstract class AbstractDisplayMode implements IbmPcDisplayMode {
 	protected final int pageSize;
 	protected final int pages;
 	protected final int colors;
-	protected String caption;
 
 	/////////////////////////////////////////////////////
 	//      Constructor(s)
@@ -55,7 +54,6 @@ public abstract class AbstractDisplayMode implements IbmPcDisplayMode {
 		this.pageSize		= pageSize; 
 		this.pages			= pageSize / memorySize;
 		this.graphical		= graphical;
-		this.caption		= null;
 	}
 	
 	/////////////////////////////////////////////////////
@@ -104,34 +102,34 @@ public abstract class AbstractDisplayMode implements IbmPcDisplayMode {
 	
 	/* 
 	 * (non-Javadoc)
-	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#hasCaption()
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#hasCaption(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext)
 	 */
-	public boolean hasCaption() {
-		return ( caption != null );
+	public boolean hasCaption( final IbmPcDisplayContext dc ) {
+		return ( dc.caption != null );
 	}
 	
 	/* 
 	 * (non-Javadoc)
-	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#getCaption()
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#getCaption(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext)
 	 */
-	public String getCaption() {
-		return caption;
+	public String getCaption( final IbmPcDisplayContext dc ) {
+		return dc.caption;
 	}
 	
 	/* 
 	 * (non-Javadoc)
-	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#getCaptionRows()
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#getCaptionRows(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext)
 	 */
-	public int getCaptionRows() {
-		return hasCaption() ? 1 : 0;
+	public int getCaptionRows( final IbmPcDisplayContext dc ) {
+		return hasCaption( dc ) ? 1 : 0;
 	}
 	
 	/* 
 	 * (non-Javadoc)
-	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#setCaption(java.lang.String)
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#setCaption(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext, java.lang.String)
 	 */
-	public void setCaption( final String caption ) {
-		this.caption = caption;
+	public void setCaption( final IbmPcDisplayContext dc, final String caption ) {
+		dc.caption = caption;
 	}
 	
 	/////////////////////////////////////////////////////
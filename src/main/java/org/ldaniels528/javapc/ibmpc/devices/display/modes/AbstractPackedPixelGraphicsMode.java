@@ -6,17 +6,23 @@ import static org.ldaniels528.javapc.ibmpc.devices.display.fonts.IbmPcFont8x8.PI
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayContext;
 
 import java.awt.Color;
-import java.awt.Graphics2D;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * Represents a Packed Pixel Graphics Mode
+ * Represents a Packed Pixel Graphics Mode. Video memory is decoded through 
+ * a lookup table (packed byte to RGB pixels) into the frame's native resolution
+ * frame buffer, which is then scaled onto the display in a single draw.
+ * Display modes are shared by every machine, so the lookup tables are immutable
+ * (one per palette), while the selected palette and the scan line buffer 
+ * belong to each machine's {@link IbmPcDisplayContext display context}.
  * @author lawrence.daniels@gmail.com
  */
 public abstract class AbstractPackedPixelGraphicsMode extends AbstractGraphicsMode {
-	protected final Color[] colorMap;	
+	protected final Color[][] palettes;
 	protected final int pixelsPerByte;
 	protected final int blockSize;
-	protected final byte[] block;
+	private final AtomicReferenceArray<int[]> pixelLUTs;
 	
 	/////////////////////////////////////////////////////
 	//      Constructor(s)
@@ -33,12 +39,12 @@ public abstract class AbstractPackedPixelGraphicsMode extends AbstractGraphicsMo
 								  		  int pixelsPerByte, 
 								  		  int memorySize, 
 								  		  int colors, 
-								  		  Color[] colorMap ) {
+								  		  Color[]... palettes ) {
 		super( videoMode, memorySegment, columns, rows, width, height, fontWidth, fontHeight, colors, pixelsPerByte, memorySize );
 		this.pixelsPerByte 	= pixelsPerByte;
-		this.colorMap		= colorMap;
+		this.palettes		= palettes;
 		this.blockSize		= width / pixelsPerByte;
-		this.block			= new byte[blockSize];
+		this.pixelLUTs		= new AtomicReferenceArray<>( palettes.length );
 	}
 	
 	/////////////////////////////////////////////////////
@@ -80,131 +86,139 @@ public abstract class AbstractPackedPixelGraphicsMode extends AbstractGraphicsMo
 	
 	/* 
 	 * (non-Javadoc)
-	 * @see org.ldaniels528.javapc.ibmpc.display.modes.AbstractDisplayMode#render(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext, java.awt.Graphics2D)
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.AbstractDisplayMode#render(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext)
 	 */
-	public void render( IbmPcDisplayContext dc, Graphics2D g ) {
-		// get the x and y-scale factors
-		final double xscale = dc.frame.getPaneWidth() / width;
-		final double yscale = dc.frame.getPaneHeight() / height;	
-		
-		// blit the graphics to the display
-		int offset = 0;
+	public void render( IbmPcDisplayContext dc ) {
+		// decode the video memory into the frame buffer
+		final int[] pixels = dc.sink.getFramePixels( width, height );
+		dc.renderedCells = null;	// the text cells no longer match the frame buffer
 		for( int scanLine = 0; scanLine < height; scanLine++ ) {			
-			// read a block of video memory
-			dc.memory.getBytes( memorySegment, offset, block, block.length );
-			
-			// calculate the physical Y-coordinate for this scan line
-			final int y = (int)( yscale * scanLine );
-			
-			// interpret the block
-			renderPixels( g, block, xscale, y );
-			
-			// advance the offset
-			offset += blockSize;
+			renderScanLine( dc, pixels, scanLine );
 		}
 	}
 	
+	/* 
+	 * (non-Javadoc)
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#render(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext, java.util.BitSet)
+	 */
+	public void render( IbmPcDisplayContext dc, BitSet lines ) {
+		// decode only the dirty scan lines into the frame buffer
+		final int[] pixels = dc.sink.getFramePixels( width, height );
+		dc.renderedCells = null;	// the text cells no longer match the frame buffer
+		for( int scanLine = lines.nextSetBit( 0 ); scanLine >= 0 && scanLine < height; scanLine = lines.nextSetBit( scanLine + 1 ) ) {
+			renderScanLine( dc, pixels, scanLine );
+		}
+	}
+	
+	/* 
+	 * (non-Javadoc)
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#markDirtyLines(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext, int, int, java.util.BitSet)
+	 */
+	public void markDirtyLines( IbmPcDisplayContext dc, int fromOffset, int toOffset, BitSet lines ) {
+		final int first = Math.max( fromOffset, 0 ) / blockSize;
+		final int last = Math.min( toOffset / blockSize, height - 1 );
+		if( first <= last ) {
+			lines.set( first, last + 1 );
+		}
+	}
+	
+	/* 
+	 * (non-Javadoc)
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#getDisplayLines()
+	 */
+	public int getDisplayLines() {
+		return height;
+	}
+	
 	/////////////////////////////////////////////////////
 	//      Internal Service Method(s)
 	/////////////////////////////////////////////////////
 
 	/**
-	 * Decodes the packed pixels and draws them to the screen
+	 * Decodes the packed pixels into their color indices
 	 * @param packedPixels the given packed pixels 
+	 * @return a new array containing the color index of each pixel
 	 */
 	protected abstract int[] decodePackedPixels( int packedPixels );
 
 	/**
-	 * Returns the memory offset for the pixel residing at the given (x,y) coordinate
-	 * @param x the given x-coordinate
-	 * @param y the given y-coordinate
-	 * @return the memory offset for the pixel residing at the given (x,y) coordinate
+	 * Returns the memory offset for the block containing the given scan line
+	 * @param scanLine the given scan line
+	 * @return the memory offset for the block containing the given scan line
 	 */
-	protected int getPixelOffset( int x, int y ) {
-		return ( y * blockSize ) + ( x / pixelsPerByte );
+	protected int getBlockOffset( int scanLine ) {
+		return scanLine * blockSize;
 	}
 	
 	/**
-	 * Decodes the packed pixels and draws them to the screen
-	 * @param g the given {@link Graphics2D graphics context}
-	 * @param block the given binary video block 
+	 * Decodes a single scan line of video memory into the given frame buffer pixels
+	 * @param dc the given {@link IbmPcDisplayContext display context}
+	 * @param pixels the given frame buffer pixels
+	 * @param scanLine the given scan line
 	 */
-	protected void renderPixels( Graphics2D g, byte[] block, double xscale, int y ) {		 
+	protected void renderScanLine( IbmPcDisplayContext dc, int[] pixels, int scanLine ) {
+		// read a block of video memory into this machine's scan line buffer
+		byte[] block = dc.scanLine;
+		if( block == null || block.length != blockSize ) {
+			dc.scanLine = block = new byte[blockSize];
+		}
+		dc.memory.getBytes( memorySegment, getBlockOffset( scanLine ), block, block.length );
+		
+		// translate each packed byte into its RGB pixels
+		final int[] lut = getPixelLUT( dc.palette );
+		int index = scanLine * width;
 		for( int n = 0; n < block.length; n++ ) {
-			// decode the packed pixels
-			final int[] pixels = decodePackedPixels( block[n] );
-			
-			// calculate the x-position of the first pixel
-			final int xp = n * pixels.length; 
-			
-			// draw the pixels
-			int index = 0;
-			while( index < pixels.length ) {
-				// get the current color
-				final int color = pixels[index];
-				
-				// count the number of pixels that are the same color for the same span
-				int span = 1;
-				while( ( index + span < pixels.length ) && 
-						( pixels[ index + span ] == color ) ) span++;
-				
-				// calculate first x-position + index
-				final int xpi = xp + index;
-				
-				// single pixel?
-				if( span == 1 ) {
-					final int x = (int)( xscale * xpi );
-					renderSinglePixel( g, x, y, color );
-				}
-				
-				// multiple pixels ..
-				else {
-					final int x1 = (int)( xscale * xpi );
-					final int x2 = (int)( xscale * ( xpi + span ) );
-					renderMultiplePixels( g, x1, y, x2, y, color );
-				}
-					
-				index += span;
+			final int base = ( block[n] & 0xFF ) * pixelsPerByte;
+			for( int m = 0; m < pixelsPerByte; m++ ) {
+				pixels[index++] = lut[ base + m ];
 			}
 		}
 	}
-
+	
 	/**
-	 * Draws a single pixel to the screen at position (x,y) having the given color
-	 * @param g the given {@link Graphics2D graphics context}
-	 * @param x the given x-coordinate
-	 * @param y the given y-coordinate
-	 * @param color the given color index
+	 * Selects the palette used to render the given display context
+	 * @param dc the given {@link IbmPcDisplayContext display context}
+	 * @param palette the given palette index (0 is the mode's default palette)
 	 */
-	protected void renderSinglePixel( Graphics2D g, int x, int y, int color ) {
-		// set the pixel's color
-		g.setColor( colorMap[color] );
+	public void setPalette( IbmPcDisplayContext dc, int palette ) {
+		dc.palette = palette % palettes.length;
+	}
+	
+	/**
+	 * Returns the lookup table mapping each packed byte to its RGB pixels
+	 * in the given palette; building it upon first use (after the sub-class 
+	 * has been initialized). Concurrent first uses may each build the table,
+	 * but only one is ever published.
+	 * @param palette the given palette index
+	 * @return the lookup table (<tt>pixelsPerByte</tt> entries per byte value)
+	 */
+	private int[] getPixelLUT( int palette ) {
+		final int index = palette % palettes.length;
+		final int[] lut = pixelLUTs.get( index );
+		if( lut != null ) {
+			return lut;
+		}
 		
-		// draw the pixel
-		for( int m = -1; m <= 1; m++ ) {
-			for( int n = -1; n <= 1; n++ ) {
-				final int xm = x + m;
-				final int yn = y + n;
-				g.drawLine( xm, yn, xm, yn );
+		final Color[] colorMap = palettes[index];
+		final int[] newLUT = new int[ 256 * pixelsPerByte ];
+		for( int packedPixels = 0; packedPixels < 256; packedPixels++ ) {
+			final int[] colors = decodePackedPixels( packedPixels );
+			for( int m = 0; m < pixelsPerByte; m++ ) {
+				newLUT[ packedPixels * pixelsPerByte + m ] = colorMap[ colors[m] % colorMap.length ].getRGB();
 			}
 		}
+		pixelLUTs.compareAndSet( index, null, newLUT );
+		return pixelLUTs.get( index );
 	}
 	
 	/**
-	 * Draws a single pixel to the screen at position (x,y) having the given color
-	 * @param g the given {@link Graphics2D graphics context}
-	 * @param x1 the given x-coordinate
-	 * @param y1 the given y-coordinate
-	 * @param color the given color index
+	 * Returns the memory offset for the pixel residing at the given (x,y) coordinate
+	 * @param x the given x-coordinate
+	 * @param y the given y-coordinate
+	 * @return the memory offset for the pixel residing at the given (x,y) coordinate
 	 */
-	protected void renderMultiplePixels( Graphics2D g, int x1, int y1, int x2, int y2, int color ) {
-		// set the pixel's color
-		g.setColor( colorMap[color] );
-		
-		// draw the pixel
-		for( int n = -1; n <= 1; n++ ) {
-			g.drawLine( x1, y1 + n, x2, y2 + n );
-		}
+	protected int getPixelOffset( int x, int y ) {
+		return ( y * blockSize ) + ( x / pixelsPerByte );
 	}
 
 }
@@ -3,7 +3,7 @@ package org.ldaniels528.javapc.ibmpc.devices.display.modes;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayContext;
 
 import java.awt.Color;
-import java.awt.Graphics2D;
+import java.util.BitSet;
 
 /**
  * Represents a Packed Pixel/Interleaved Graphics Mode
@@ -30,11 +30,11 @@ public abstract class AbstractPackedPixelInterleavedGraphicsMode extends Abstrac
 									   		 		int pixelsPerByte, 
 									   		 		int memorySize, 
 									   		 		int colors, 
-									   		 		Color[] colorMap ) {		
+									   		 		Color[]... palettes ) {		
 		super( videoMode, MEMORY_SEGMENT, 
 				columns, rows, width, height, 
 				fontWidth, fontHeight, pixelsPerByte, 
-				memorySize, colors, colorMap );
+				memorySize, colors, palettes );
 		this.evenOffset = evenOffset;
 		this.oddOffset  = oddOffset;
 	}
@@ -45,42 +45,46 @@ public abstract class AbstractPackedPixelInterleavedGraphicsMode extends Abstrac
 	
 	/* 
 	 * (non-Javadoc)
-	 * @see org.ldaniels528.javapc.ibmpc.display.modes.AbstractDisplayMode#render(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext, java.awt.Graphics2D)
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.AbstractPackedPixelGraphicsMode#markDirtyLines(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext, int, int, java.util.BitSet)
 	 */
 	@Override
-	public void render( final IbmPcDisplayContext dc, final Graphics2D g ) {
-		// get the x and y-scale factors
-		final double xscale = dc.frame.getPaneWidth() / width;
-		final double yscale = dc.frame.getPaneHeight() / height;	
-		
-		// blit the graphics to the display		
-		for( int scanLine = 0; scanLine < height; scanLine++ ) {
-			// retrieves the offset of this scan line
-			final int offset = getBlockOffset( scanLine );
-			
-			// read a block of video memory
-			dc.memory.getBytes( memorySegment, offset, block, block.length );
-			
-			// calculate the physical Y-coordinate for this scan line
-			final int y = (int)( yscale * scanLine );
-			
-			// interpret the block
-			renderPixels( g, block, xscale, y );
-		}
+	public void markDirtyLines( final IbmPcDisplayContext dc, final int fromOffset, final int toOffset, final BitSet lines ) {
+		markDirtyLines( evenOffset, 0, fromOffset, toOffset, lines );
+		markDirtyLines( oddOffset, 1, fromOffset, toOffset, lines );
 	}
 	
 	/////////////////////////////////////////////////////
 	//      Internal Service Method(s)
 	/////////////////////////////////////////////////////
 	
-	/**
-	 * Returns the memory offset for the block containing the given scan line
-	 * @param scanLine the given scan line
-	 * @return the memory offset for the block containing the given scan line
+	/* 
+	 * (non-Javadoc)
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.AbstractPackedPixelGraphicsMode#getBlockOffset(int)
 	 */
-	private int getBlockOffset( final int scanLine ) {
+	@Override
+	protected int getBlockOffset( final int scanLine ) {
 		return ( ( scanLine % 2 == 1 ) ? oddOffset : evenOffset )  + ( blockSize * ( scanLine >> 1 ) );
 	}
+	
+	/**
+	 * Marks the scan lines of the given (even or odd) bank that are affected by a 
+	 * write to the given span of video memory as dirty
+	 * @param bankOffset the given memory offset of the bank
+	 * @param parity the given parity of the bank's scan lines (0 = even, 1 = odd)
+	 * @param fromOffset the given starting video memory offset (inclusive)
+	 * @param toOffset the given ending video memory offset (inclusive)
+	 * @param lines the given set of dirty scan lines
+	 */
+	private void markDirtyLines( final int bankOffset, final int parity, final int fromOffset, final int toOffset, final BitSet lines ) {
+		final int bankLines = ( height + 1 - parity ) >> 1;
+		final int first = ( Math.max( fromOffset, bankOffset ) - bankOffset ) / blockSize;
+		final int last = Math.min( ( toOffset - bankOffset ) / blockSize, bankLines - 1 );
+		if( toOffset >= bankOffset ) {
+			for( int n = first; n <= last; n++ ) {
+				lines.set( ( n << 1 ) | parity );
+			}
+		}
+	}
 
 	/* 
 	 * (non-Javadoc)
@@ -1,19 +1,22 @@
 package org.ldaniels528.javapc.ibmpc.devices.display.modes;
 
-import static org.ldaniels528.javapc.ibmpc.devices.display.fonts.IbmPcFont8x8.FONTS_8X8;
-import static org.ldaniels528.javapc.ibmpc.devices.display.fonts.IbmPcFont8x8.PIXEL_ON_MASK;
-import static org.ldaniels528.javapc.ibmpc.devices.display.fonts.IbmPcFont8x8.PIXEL_ZERO_MASK;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcColors;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayContext;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayException;
+import org.ldaniels528.javapc.ibmpc.devices.display.fonts.IbmPcFont8x8;
+import org.ldaniels528.javapc.ibmpc.devices.display.fonts.IbmPcGlyphAtlas;
 import org.apache.log4j.Logger;
 
 import static java.lang.String.format;
 import java.awt.Color;
-import java.awt.Graphics2D;
+import java.util.Arrays;
+import java.util.BitSet;
 
 /**
- * Represents a Generic Text Mode
+ * Represents a Generic Text Mode. Character cells are copied from a 
+ * {@link IbmPcGlyphAtlas glyph atlas} into the frame's native resolution 
+ * frame buffer, and only cells whose character/attribute word differs from 
+ * the previously rendered frame are redrawn.
  * @author lawrence.daniels@gmail.com
  */
 public abstract class AbstractTextMode extends AbstractDisplayMode {
@@ -22,8 +25,7 @@ public abstract class AbstractTextMode extends AbstractDisplayMode {
 	private static final int CHAR_WIDTH = 2;
 	private final Logger logger = Logger.getLogger(getClass());
 	private final int physicalColumns;
-	private final byte[] bytedata;
-	private final byte[] chardata;
+	private final IbmPcGlyphAtlas atlas;
 
 	/**
 	 * Default constructor
@@ -47,8 +49,7 @@ public abstract class AbstractTextMode extends AbstractDisplayMode {
 			   16384, 
 			   false );
 		this.physicalColumns= columns << 1;
-		this.bytedata 		= new byte[physicalColumns];
-		this.chardata 		= new byte[columns];
+		this.atlas			= new IbmPcGlyphAtlas( IbmPcFont8x8.getInstance(), COLOR_MAP, fontWidth, fontHeight );
 	}
 	
 	/* 
@@ -110,7 +111,7 @@ public abstract class AbstractTextMode extends AbstractDisplayMode {
 	    final int pageStart = dc.activePage * pageSize;
 	    
 	    // compute the memory offset limit
-	    final int limit = pageStart + pageSize - ( getCaptionRows() * physicalColumns );
+	    final int limit = pageStart + pageSize - ( getCaptionRows( dc ) * physicalColumns );
 	    
 	    // determine how much to scroll
 	    final int scrollAmount = 1;
@@ -154,56 +155,62 @@ public abstract class AbstractTextMode extends AbstractDisplayMode {
 	}
 
 	/* (non-Javadoc)
-	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#render(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext, java.awt.Graphics2D)
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#render(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext)
 	 */
-	public void render( final IbmPcDisplayContext dc, final Graphics2D g ) {
-		// get the x and y-scale factors
-		final double xscale = dc.frame.getPaneWidth() / width;
-		final double yscale = dc.frame.getPaneHeight() / height;;
+	public void render( final IbmPcDisplayContext dc ) {
+		// every cell must be redrawn
+		final int[] pixels = dc.sink.getFramePixels( width, height );
+		dc.renderedCells = null;
 		
-		// calculate the page offset
-
-		// blit each row of data to video memory
-		int offset = dc.activePage * pageSize;
+		// draw each row of video memory into the frame buffer
+		final byte[] rowdata = new byte[physicalColumns];
 		for( int row = 0; row < rows; row++ ) {
-			// copy 1 column's worth of values to our buffer
-			dc.memory.getBytes( memorySegment, offset, bytedata, bytedata.length );
-
-			// convert the byte values to a character string
-			expandToAscii( bytedata, chardata );
-
-			// draw the text
-			int index = 0;
-			while( index < chardata.length ) {
-				// decode color attributes (foreground and background)
-				final byte attribute = bytedata[(index << 1) + 1];
-
-				// how many characters use the same color attributes [on this row]?
-				int span = index;
-				while( span < chardata.length
-						&& bytedata[(span << 1) + 1] == attribute ) span++;
-
-				// render the characters onto the display
-				renderText( g, chardata, index, span, attribute, row, xscale, yscale );
-				
-				// update the index position
-				index = span;
-			}
-			
-			// advance the offset position
-			offset += physicalColumns;
+			renderRow( dc, pixels, rowdata, row );
 		}
 		
-		// if the caption is set ...
-		if( hasCaption() ) {
-			// the caption shall appear on the last row
-			final int row = ( rows - getCaptionRows() );
-			
-			// render the caption text onto the display
-			renderText( g, caption.getBytes(), 0, caption.length(), dc.color.asAttribute(), row, xscale, yscale );
+		// render the caption (if set)
+		renderCaption( dc, pixels );
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#render(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext, java.util.BitSet)
+	 */
+	public void render( final IbmPcDisplayContext dc, final BitSet lines ) {
+		// draw only the dirty rows into the frame buffer
+		final int[] pixels = dc.sink.getFramePixels( width, height );
+		final byte[] rowdata = new byte[physicalColumns];
+		for( int row = lines.nextSetBit( 0 ); row >= 0 && row < rows; row = lines.nextSetBit( row + 1 ) ) {
+			renderRow( dc, pixels, rowdata, row );
+		}
+		
+		// the caption overlays the last row(s)
+		if( hasCaption( dc ) && lines.nextSetBit( rows - getCaptionRows( dc ) ) != -1 ) {
+			renderCaption( dc, pixels );
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#markDirtyLines(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext, int, int, java.util.BitSet)
+	 */
+	public void markDirtyLines( final IbmPcDisplayContext dc, final int fromOffset, final int toOffset, final BitSet lines ) {
+		// only the active page is visible
+		final int pageStart = dc.activePage * pageSize;
+		final int from = Math.max( fromOffset, pageStart ) - pageStart;
+		final int to = Math.min( toOffset, pageStart + pageSize - 1 ) - pageStart;
+		
+		// mark the affected rows
+		if( from <= to ) {
+			lines.set( from / physicalColumns, ( to / physicalColumns ) + 1 );
 		}
 	}
 	
+	/* (non-Javadoc)
+	 * @see org.ldaniels528.javapc.ibmpc.display.modes.IbmPcDisplayMode#getDisplayLines()
+	 */
+	public int getDisplayLines() {
+		return rows;
+	}
+	
 	/* (non-Javadoc)
 	 * @see org.ldaniels528.javapc.ibmpc.display.modes.AbstractDisplayMode#drawCharacter(org.ldaniels528.javapc.ibmpc.display.IbmPcDisplayContext, int, int, char)
 	 */
@@ -285,7 +292,7 @@ public abstract class AbstractTextMode extends AbstractDisplayMode {
 		final int physicalLength = length << 1;
 		
 		// calculate the extents of the screen
-		final int limit = physicalColumns * ( rows - getCaptionRows() );
+		final int limit = physicalColumns * ( rows - getCaptionRows( dc ) );
 		 	  
 		// if this text overruns video memory, scroll the video up
 		// by the number of lines needed.
@@ -313,58 +320,6 @@ public abstract class AbstractTextMode extends AbstractDisplayMode {
 		return position;
 	}
 
-	/**
-	 * Draws the characters to the display directly
-	 * @param g the given {@link Graphics2D graphics context}
-	 * @param chardata the given character data string
-	 * @param offset the given offset
-	 * @param length the given length
-	 * @param x the given x-coordinate position
-	 * @param y the given y-coordinate position
-	 * @param xscale the given x-axis scale
-	 * @param yscale the given y-axis scale
-	 */
-	private void drawChars( final Graphics2D g, 
-						    final byte[] chardata, 
-						    final int offset, 
-						    final int length, 
-						    int x, 
-						    final int y, 
-						    final double xscale, 
-						    final double yscale ) {	
-		for( int pos = 0; pos < length; pos++ ) {
-			// grab the current character
-			final byte b = chardata[offset + pos];
-			final int ch = b < 0 ? b + 256 : b;
-			
-			// determine the first byte of the font data
-			final int fontIndex = ch << 3;
-			
-			// iterate each byte for this glyph		
-			for( int n = 0; n < 8; n++ ) {
-				final byte packedByte = FONTS_8X8[fontIndex | n];
-				if( packedByte != 0 ) { 				
-					// draw the pixels	
-					for( int m = 0; m < 8; m++ ) {				
-						// draw a single pixel
-						if( ( packedByte & PIXEL_ON_MASK[m] ) > 0 ) {
-							int px = (int)( xscale * (double)( x + m ) );
-							int py = (int)( yscale * (double)( y + n ) );
-							
-							for( int r = -1; r <= 1; r++ ) {
-								g.drawLine( px, py + r, px, py + r );
-							}
-						}
-						// otherwise, if the rest of the bits are zero, break out
-						else if( ( packedByte & PIXEL_ZERO_MASK[m] ) == 0 ) m = 8;
-					}		
-				}
-			}
-			// advance to the next position
-			x += 8;			
-		}
-	}
-
 	/**
 	 * Encodes the given text string into an 
 	 * array of binary data suitable for writting 
@@ -402,18 +357,87 @@ public abstract class AbstractTextMode extends AbstractDisplayMode {
 	}
 	
 	/**
-	 * Expands the given binary string to a GWBASIC compatible ASCII string
-	 * @param bytedata the given binary string
-	 * @param chardata the given buffer for the ASCII string
+	 * Draws the cells of a single row of text from the active page 
+	 * that have changed since they were last rendered
+	 * @param dc the given {@link IbmPcDisplayContext display context}
+	 * @param pixels the given frame buffer pixels
+	 * @param rowdata the given buffer to receive one row of video memory
+	 * @param row the given row to render
+	 */
+	private void renderRow( final IbmPcDisplayContext dc, final int[] pixels, final byte[] rowdata, final int row ) {
+		// copy 1 row's worth of values to our buffer (the mode may be rendering several displays at once)
+		final int offset = ( dc.activePage * pageSize ) + ( row * physicalColumns );
+		dc.memory.getBytes( memorySegment, offset, rowdata, rowdata.length );
+		
+		// compare each cell to the shadow copy of the previous frame
+		final int[] cells = getRenderedCells( dc );
+		final int base = row * columns;
+		for( int column = 0; column < columns; column++ ) {
+			final int character = rowdata[ column << 1 ] & 0xFF;
+			final int attribute = rowdata[ ( column << 1 ) + 1 ] & 0xFF;
+			final int word = ( attribute << 8 ) | character;
+			if( cells[ base + column ] != word ) {
+				drawCell( pixels, column, row, character, attribute );
+				cells[ base + column ] = word;
+			}
+		}
+	}
+	
+	/**
+	 * Draws the caption (if set) onto the last row of the display
+	 * @param dc the given {@link IbmPcDisplayContext display context}
+	 * @param pixels the given frame buffer pixels
+	 */
+	private void renderCaption( final IbmPcDisplayContext dc, final int[] pixels ) {
+		if( hasCaption( dc ) ) {
+			// the caption shall appear on the last row
+			final int row = ( rows - getCaptionRows( dc ) );
+			final int attribute = dc.color.asAttribute() & 0xFF;
+			final byte[] text = dc.caption.getBytes();
+			final int length = Math.min( text.length, columns );
+			for( int column = 0; column < length; column++ ) {
+				drawCell( pixels, column, row, text[column] & 0xFF, attribute );
+			}
+			
+			// the covered cells must be redrawn once the caption is gone
+			Arrays.fill( getRenderedCells( dc ), row * columns, ( row * columns ) + length, -1 );
+		}
+	}
+	
+	/**
+	 * Copies the glyph for the given character and attribute into the given cell of the frame buffer
+	 * @param pixels the given frame buffer pixels
+	 * @param column the given column of the cell
+	 * @param row the given row of the cell
+	 * @param character the given character
+	 * @param attribute the given packed color attribute
+	 */
+	private void drawCell( final int[] pixels, 
+						   final int column, 
+						   final int row, 
+						   final int character, 
+						   final int attribute ) {
+		final int[] glyph = atlas.getGlyph( character, attribute );
+		int index = ( row * fontHeight * width ) + ( column * fontWidth );
+		for( int y = 0; y < glyph.length; y += fontWidth ) {
+			System.arraycopy( glyph, y, pixels, index, fontWidth );
+			index += width;
+		}
+	}
+	
+	/**
+	 * Returns the character/attribute words of the cells as they were last rendered
+	 * @param dc the given {@link IbmPcDisplayContext display context}
+	 * @return the shadow copy of the previous frame (-1 denotes a cell that must be redrawn)
 	 */
-	private void expandToAscii( final byte[] bytedata, final byte[] chardata ) {
-		for( int index = 0; index < chardata.length; index++ ) {				  
-			// get the ascii code
-			final byte bytcode  = bytedata[index << 1];					  			 
-			  
-			// append the buffer with the appropriate unicode character
-			chardata[index] = bytcode;			  
+	private int[] getRenderedCells( final IbmPcDisplayContext dc ) {
+		int[] cells = dc.renderedCells;
+		if( cells == null || cells.length != rows * columns ) {
+			cells = new int[ rows * columns ];
+			Arrays.fill( cells, -1 );
+			dc.renderedCells = cells;
 		}
+		return cells;
 	}
 	
 	/**
@@ -434,72 +458,5 @@ public abstract class AbstractTextMode extends AbstractDisplayMode {
 			block[index + 1] = attribute;
 		}
 	}
-	
-	/**
-	 * Render the background in the given color starting 
-	 * at the given index for the given span.
-	 * @param g the given {@link Graphics2D graphics context}
-	 * @param index the given starting index
-	 * @param span the given span
-	 * @param ypos the given y-position
-	 * @param bgc the given background color
-	 */
-	private void renderBackground( final Graphics2D g, 
-								   final int index,  
-								   final int span, 
-								   final int ypos, 
-								   final int bgc, 
-								   final double xscale, 
-								   final double yscale ) {
-		// calculate the x and y positions
-		final int x = (int)( xscale * index * fontWidth );
-		final int y = (int)( yscale * ypos ) - 1;
-		final int w = (int)( xscale * span * fontWidth );
-		final int h = (int)( yscale * fontHeight ) + 1;
-		
-		// draw the filled rectangle
-		g.setColor( IbmPcColors.getColor( bgc ) );
-		g.fillRect( x, y, w, h );
-	}
 
-	/**
-	 * Renders the given characters onto the screen from 
-	 * the given index (start position) to the given 
-	 * span (end position)
-	 * @param g the given {@link Graphics2D graphics context}
-	 * @param chardata the given character data
-	 * @param index the given starting position (within the text data) of the text to be rendered
-	 * @param span the given ending position of the text to be rendered
-	 * @param attribute the given packed color attribute
-	 * @param row the given row of the rendered text
-	 * @param xscale the X-axis scale of the display
-	 * @param yscale the Y-axis scale of the display
-	 */
-	private void renderText( final Graphics2D g, 
-							 final byte[] chardata,
-							 final int index,
-							 final int span,
-							 final byte attribute,
-							 final int row,
-							 final double xscale, 
-							 final double yscale ) {
-		// compute the length of the text that is to be displayed
-		final int count = span - index; 
-	
-		// calculate the X- and Y-axis positions of the character text
-		final int xpos = index * fontWidth;
-		final int ypos = row * fontHeight;
-	
-		// compute the foreground and background colors
-		final int fgc = attribute & 0x0F;
-		final int bgc = ( attribute & 0xF0 ) >> 4;
-		
-		// draw the background				
-		renderBackground( g, index, span, ypos, bgc, xscale, yscale );
-	
-		// draw the character(s)
-		g.setColor( COLOR_MAP[ fgc ] );
-		drawChars( g, chardata, index, count, xpos, ypos, xscale, yscale );
-	}
-	
-}
\ No newline at end of file
+}
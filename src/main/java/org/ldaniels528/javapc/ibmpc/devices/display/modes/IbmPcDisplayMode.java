@@ -1,6 +1,6 @@
 package org.ldaniels528.javapc.ibmpc.devices.display.modes;
 
-import java.awt.Graphics2D;
+import java.util.BitSet;
 
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayContext;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayException;
@@ -80,11 +80,32 @@ public interface IbmPcDisplayMode {
 	void scroll( IbmPcDisplayContext dc, int nRows );
 	
 	/**
-	 * Renders the display based on current video memory
+	 * Renders the display into the frame buffer of the display context's sink based on current video memory
 	 * @param dc the given {@link IbmPcDisplayContext display context}
-	 * @param g the given {@link Graphics2D graphics context}
 	 */
-	void render( IbmPcDisplayContext dc, Graphics2D g );
+	void render( IbmPcDisplayContext dc );
+	
+	/**
+	 * Renders only the given display lines (text rows or scan lines) based on current video memory
+	 * @param dc the given {@link IbmPcDisplayContext display context}
+	 * @param lines the given set of display lines to render
+	 */
+	void render( IbmPcDisplayContext dc, BitSet lines );
+	
+	/**
+	 * Marks the display lines (text rows or scan lines) affected by a write 
+	 * to the given span of video memory as dirty
+	 * @param dc the given {@link IbmPcDisplayContext display context}
+	 * @param fromOffset the given starting video memory offset (inclusive)
+	 * @param toOffset the given ending video memory offset (inclusive)
+	 * @param lines the given set of dirty display lines
+	 */
+	void markDirtyLines( IbmPcDisplayContext dc, int fromOffset, int toOffset, BitSet lines );
+	
+	/**
+	 * @return the number of display lines (text rows or scan lines) of this mode
+	 */
+	int getDisplayLines();
 	
 	/** 
 	 * Update's the virtual IBM PC BIOS
@@ -149,28 +170,32 @@ public interface IbmPcDisplayMode {
 	/////////////////////////////////////////////////////
 	
 	/**
+	 * @param dc the given {@link IbmPcDisplayContext display context}
 	 * @return the current caption text 
 	 */
-	String getCaption();
+	String getCaption( IbmPcDisplayContext dc );
 	
 	/**
+	 * @param dc the given {@link IbmPcDisplayContext display context}
 	 * @return the number of rows [on screen] that
 	 * are being consumed by the caption (if set)
 	 */
-	int getCaptionRows();
+	int getCaptionRows( IbmPcDisplayContext dc );
 	
 	/**
 	 * Sets the caption to the given text, or removes if the caption
 	 * if it is <tt>null</tt>
+	 * @param dc the given {@link IbmPcDisplayContext display context}
 	 * @param caption the given caption text, or <tt>null</tt> for no caption
 	 */
-	void setCaption( String caption );
+	void setCaption( IbmPcDisplayContext dc, String caption );
 	
 	/**
 	 * Indicates whether a caption is currently set
+	 * @param dc the given {@link IbmPcDisplayContext display context}
 	 * @return true, if a caption is currently set
 	 */
-	boolean hasCaption();
+	boolean hasCaption( IbmPcDisplayContext dc );
 	
 	/////////////////////////////////////////////////////
 	//      Accessor Method(s)
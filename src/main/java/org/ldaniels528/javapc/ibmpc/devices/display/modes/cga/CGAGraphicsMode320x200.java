@@ -24,14 +24,29 @@ public class CGAGraphicsMode320x200 extends AbstractPackedPixelInterleavedGraphi
 		new Color[] { COLORS_16[0], COLORS_16[3], COLORS_16[5], COLORS_16[15] },
 		new Color[] { COLORS_16[0], COLORS_16[2], COLORS_16[4], COLORS_16[6] }
 	};
-	private final int[] pixeldata;
 
 	/**
 	 * Default constructor
 	 */
 	public CGAGraphicsMode320x200() {
-		super( 0x04, EVEN_OFFSET, ODD_OFFSET, COLUMNS, ROWS, RES_WIDTH, RES_HEIGHT, 8, 8, PIXELS_PER_BYTE, MEMORY_SIZE, COLORS, COLOR_MAP[0] );
-		this.pixeldata = new int[PIXELS_PER_BYTE];
+		super( 0x04, EVEN_OFFSET, ODD_OFFSET, COLUMNS, ROWS, RES_WIDTH, RES_HEIGHT, 8, 8, PIXELS_PER_BYTE, MEMORY_SIZE, COLORS, COLOR_MAP );
+	}
+
+	/**
+	 * Selects one of the two CGA palettes (INT 10h, AH = 0Bh, BH = 1);
+	 * palette 1 is selected whenever the mode is set
+	 * <pre>
+	 * Palette	Colors
+	 * -------	------
+	 * 0		black, green, red, brown
+	 * 1		black, cyan, magenta, white
+	 * </pre>
+	 * @param dc the given {@link IbmPcDisplayContext display context}
+	 * @param palette the given palette (0 or 1)
+	 */
+	public void selectPalette( IbmPcDisplayContext dc, int palette ) {
+		// the color map lists the default palette (1) first
+		setPalette( dc, ( palette & 0x01 ) ^ 0x01 );
 	}
 
 	/* (non-Javadoc)
@@ -82,6 +97,7 @@ public class CGAGraphicsMode320x200 extends AbstractPackedPixelInterleavedGraphi
 	 * @param packedPixels the given packed pixels 
 	 */
 	protected int[] decodePackedPixels( int packedPixels ) {
+		final int[] pixeldata = new int[PIXELS_PER_BYTE];
 		pixeldata[0] = ( packedPixels & 0xC0 ) >> 6;	// 11000000
 		pixeldata[1] = ( packedPixels & 0x30 ) >> 4;	// 00110000
 		pixeldata[2] = ( packedPixels & 0x0C ) >> 2;	// 00001100
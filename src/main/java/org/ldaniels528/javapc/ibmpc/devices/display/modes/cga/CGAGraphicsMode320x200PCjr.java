@@ -21,7 +21,6 @@ public class CGAGraphicsMode320x200PCjr extends AbstractPackedPixelInterleavedGr
 	private static final int COLORS  			= 16;
 	private static final int PIXELS_PER_BYTE	= 2;
 	private static final Color[] COLOR_MAP		= COLORS_16;
-	private final int[] pixeldata;
 
 	/**
 	 * Default constructor
@@ -29,7 +28,6 @@ public class CGAGraphicsMode320x200PCjr extends AbstractPackedPixelInterleavedGr
 	public CGAGraphicsMode320x200PCjr() {
 		super( 0x09, EVEN_OFFSET, ODD_OFFSET, COLUMNS, ROWS, RES_WIDTH, RES_HEIGHT, 8, 8, 
 				PIXELS_PER_BYTE, MEMORY_SIZE, COLORS, COLOR_MAP );
-		this.pixeldata = new int[PIXELS_PER_BYTE];
 	}
 
 	/* (non-Javadoc)
@@ -78,6 +76,7 @@ public class CGAGraphicsMode320x200PCjr extends AbstractPackedPixelInterleavedGr
 	 * @param packedPixels the given packed pixels 
 	 */
 	protected int[] decodePackedPixels( int packedPixels ) {
+		final int[] pixeldata = new int[PIXELS_PER_BYTE];
 		pixeldata[0] = ( packedPixels & 0xF0 ) >> 4;	// 11110000
 		pixeldata[1] = ( packedPixels & 0x0F );			// 00001111
 		return pixeldata;
@@ -23,7 +23,6 @@ public class CGAGraphicsMode640x200Mono extends AbstractPackedPixelInterleavedGr
 	private static final Color[] COLOR_MAP		= new Color[] { 
 		COLORS_16[0], COLORS_16[15]
 	};
-	private final int[] pixeldata;
 	
 	/**
 	 * Default Constructor
@@ -31,7 +30,6 @@ public class CGAGraphicsMode640x200Mono extends AbstractPackedPixelInterleavedGr
 	public CGAGraphicsMode640x200Mono() {
 		super( 0x06, EVEN_OFFSET, ODD_OFFSET, COLUMNS, ROWS, RES_WIDTH, RES_HEIGHT, 8, 8, 
 				PIXELS_PER_BYTE, MEMORY_SIZE, COLORS, COLOR_MAP );
-		this.pixeldata = new int[PIXELS_PER_BYTE];
 	}
 
 	/* (non-Javadoc)
@@ -85,6 +83,7 @@ public class CGAGraphicsMode640x200Mono extends AbstractPackedPixelInterleavedGr
 	 * @param packedPixels the given packed pixels 
 	 */
 	protected int[] decodePackedPixels( int packedPixels ) {
+		final int[] pixeldata = new int[PIXELS_PER_BYTE];
 		pixeldata[0] = ( packedPixels & 0x80 ) >> 7;	// 10000000
 		pixeldata[1] = ( packedPixels & 0x40 ) >> 6;	// 01000000
 		pixeldata[2] = ( packedPixels & 0x20 ) >> 5;	// 00100000
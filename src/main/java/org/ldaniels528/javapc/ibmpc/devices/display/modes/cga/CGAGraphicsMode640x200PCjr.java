@@ -23,7 +23,6 @@ public class CGAGraphicsMode640x200PCjr extends AbstractPackedPixelInterleavedGr
 	private static final Color[] COLOR_MAP		= new Color[] { 
 		COLORS_16[0], COLORS_16[3], COLORS_16[5], COLORS_16[15]
 	};
-	private final int[] pixeldata;
 
 	/**
 	 * Default constructor
@@ -31,7 +30,6 @@ public class CGAGraphicsMode640x200PCjr extends AbstractPackedPixelInterleavedGr
 	public CGAGraphicsMode640x200PCjr() {
 		super( 0x0A, EVEN_OFFSET, ODD_OFFSET, COLUMNS, ROWS, RES_WIDTH, RES_HEIGHT, 8, 8, 
 				PIXELS_PER_BYTE, MEMORY_SIZE, COLORS, COLOR_MAP );
-		this.pixeldata = new int[PIXELS_PER_BYTE];
 	}
 
 	/* (non-Javadoc)
@@ -82,6 +80,7 @@ public class CGAGraphicsMode640x200PCjr extends AbstractPackedPixelInterleavedGr
 	 * @param packedPixels the given packed pixels 
 	 */
 	protected int[] decodePackedPixels( int packedPixels ) {
+		final int[] pixeldata = new int[PIXELS_PER_BYTE];
 		pixeldata[0] = ( packedPixels & 0xC0 ) >> 6;	// 11000000
 		pixeldata[1] = ( packedPixels & 0x30 ) >> 4;	// 00110000
 		pixeldata[2] = ( packedPixels & 0x0C ) >> 2;	// 00001100
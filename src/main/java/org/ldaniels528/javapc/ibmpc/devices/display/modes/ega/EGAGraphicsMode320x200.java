@@ -20,14 +20,12 @@ public class EGAGraphicsMode320x200 extends AbstractPackedPixelGraphicsMode {
 	private static final int COLORS			= 16;	
 	private static final int PIXELS_PER_BYTE	= 2;
 	private static final Color[] COLOR_MAP		= IbmPcColors.COLORS_16;
-	private final int[] pixeldata;
 
 	/**
 	 * Default constructor
 	 */
 	public EGAGraphicsMode320x200() {
 		super( 0x0D, MEMORY_SEGMENT, COLUMNS, ROWS, RES_WIDTH, RES_HEIGHT, 8, 8, PIXELS_PER_BYTE, MEMORY_SIZE, COLORS, COLOR_MAP );
-		this.pixeldata = new int[PIXELS_PER_BYTE];				
 	}
 
 	/* (non-Javadoc)
@@ -75,6 +73,7 @@ public class EGAGraphicsMode320x200 extends AbstractPackedPixelGraphicsMode {
 	 * @param packedPixels the given packed pixels 
 	 */
 	protected int[] decodePackedPixels( int packedPixels ) {
+		final int[] pixeldata = new int[PIXELS_PER_BYTE];
 		pixeldata[0] = ( packedPixels & 0xF0 ) >> 4;	// 11110000
 		pixeldata[1] = ( packedPixels & 0x0F );		// 00001111
 		return pixeldata;
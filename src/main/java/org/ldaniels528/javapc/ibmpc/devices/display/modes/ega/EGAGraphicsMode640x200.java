@@ -23,14 +23,12 @@ public class EGAGraphicsMode640x200 extends AbstractPackedPixelGraphicsMode {
 	private static final int MEMORY_SEGMENT	= 0xA000;
 	private static final int MEMORY_SIZE		= 65536;
 	private static final int PIXELS_PER_BYTE	= 2;
-	private final int[] pixeldata;	
 
 	/**
 	 * Default constructor
 	 */
 	public EGAGraphicsMode640x200() {
 		super( 0x0E, MEMORY_SEGMENT, COLUMNS, ROWS, RES_WIDTH, RES_HEIGHT, 8, 14, PIXELS_PER_BYTE, MEMORY_SIZE, COLORS, COLOR_MAP );
-		this.pixeldata = new int[PIXELS_PER_BYTE];		
 	}
 
 	/* (non-Javadoc)
@@ -78,6 +76,7 @@ public class EGAGraphicsMode640x200 extends AbstractPackedPixelGraphicsMode {
 	 * @param packedPixels the given packed pixels 
 	 */
 	protected int[] decodePackedPixels( int packedPixels ) {
+		final int[] pixeldata = new int[PIXELS_PER_BYTE];
 		pixeldata[0] = ( packedPixels & 0xF0 ) >> 4;	// 11110000
 		pixeldata[1] = ( packedPixels & 0x0F );		// 00001111
 		return pixeldata;
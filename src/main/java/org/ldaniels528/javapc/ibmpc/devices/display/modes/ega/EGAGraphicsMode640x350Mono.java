@@ -23,7 +23,6 @@ public class EGAGraphicsMode640x350Mono extends AbstractPackedPixelGraphicsMode
 	private static final int MEMORY_SEGMENT		= 0xA000;
 	private static final int MEMORY_SIZE		= 65536;
 	private static final int PIXELS_PER_BYTE	= 4;
-	private final int[] pixeldata;
 
 	/**
 	 * Default constructor
@@ -31,7 +30,6 @@ public class EGAGraphicsMode640x350Mono extends AbstractPackedPixelGraphicsMode
 	public EGAGraphicsMode640x350Mono() {
 		super( 0x0F, MEMORY_SEGMENT, COLUMNS, ROWS, RES_WIDTH, RES_HEIGHT, 8, 14, 
 				PIXELS_PER_BYTE, MEMORY_SIZE, COLORS,COLOR_MAP );
-		this.pixeldata = new int[PIXELS_PER_BYTE];
 	}
 
 	/* (non-Javadoc)
@@ -81,6 +79,7 @@ public class EGAGraphicsMode640x350Mono extends AbstractPackedPixelGraphicsMode
 	 * @param packedPixels the given packed pixels 
 	 */
 	protected int[] decodePackedPixels( int packedPixels ) {
+		final int[] pixeldata = new int[PIXELS_PER_BYTE];
 		pixeldata[0] = ( packedPixels & 0xC0 ) >> 6;	// 11000000
 		pixeldata[1] = ( packedPixels & 0x30 ) >> 4;	// 00110000
 		pixeldata[2] = ( packedPixels & 0x0C ) >> 2;	// 00001100
@@ -17,7 +17,6 @@ public class VGAGraphicsMode320x200 extends AbstractPackedPixelGraphicsMode {
 	private static final int MEMORY_SEGMENT		= 0xA000;
 	private static final int MEMORY_SIZE		= 262144;
 	private static final int PIXELS_PER_BYTE	= 1;
-	private final int[] pixeldata;	
 
 	/**
 	 * Default constructor
@@ -25,7 +24,6 @@ public class VGAGraphicsMode320x200 extends AbstractPackedPixelGraphicsMode {
 	public VGAGraphicsMode320x200() {
 		super( 0x13, MEMORY_SEGMENT, COLUMNS, ROWS, RES_WIDTH, RES_HEIGHT, 8, 16, 
 				PIXELS_PER_BYTE, MEMORY_SIZE, COLORS, COLORS_256 );
-		this.pixeldata = new int[PIXELS_PER_BYTE];
 	}
 
 	/* (non-Javadoc)
@@ -71,6 +69,7 @@ public class VGAGraphicsMode320x200 extends AbstractPackedPixelGraphicsMode {
 	 * @param packedPixels the given packed pixels 
 	 */
 	protected int[] decodePackedPixels( int packedPixels ) {
+		final int[] pixeldata = new int[PIXELS_PER_BYTE];
 		pixeldata[0] = packedPixels;		
 		return pixeldata;
 	}
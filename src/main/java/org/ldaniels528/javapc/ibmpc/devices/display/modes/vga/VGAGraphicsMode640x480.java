@@ -17,7 +17,6 @@ public class VGAGraphicsMode640x480 extends AbstractPackedPixelGraphicsMode {
 	private static final int MEMORY_SEGMENT		= 0xA000;
 	private static final int MEMORY_SIZE		= 262144;
 	private static final int PIXELS_PER_BYTE	= 4;
-	private final int[] pixeldata;
 
 	/**
 	 * Default constructor
@@ -25,7 +24,6 @@ public class VGAGraphicsMode640x480 extends AbstractPackedPixelGraphicsMode {
 	public VGAGraphicsMode640x480() {
 		super( 0x12, MEMORY_SEGMENT, COLUMNS, ROWS, RES_WIDTH, RES_HEIGHT, 8, 16, 
 				PIXELS_PER_BYTE, MEMORY_SIZE, COLORS, COLORS_16 );
-		this.pixeldata = new int[PIXELS_PER_BYTE];				
 	}
 
 	/* (non-Javadoc)
@@ -73,6 +71,7 @@ public class VGAGraphicsMode640x480 extends AbstractPackedPixelGraphicsMode {
 	 * @param packedPixels the given packed pixels 
 	 */
 	protected int[] decodePackedPixels( int packedPixels ) {
+		final int[] pixeldata = new int[PIXELS_PER_BYTE];
 		pixeldata[0] = ( packedPixels & 0xF0 ) >> 4;	// 11110000
 		pixeldata[1] = ( packedPixels & 0x0F );		// 00001111
 		return pixeldata;
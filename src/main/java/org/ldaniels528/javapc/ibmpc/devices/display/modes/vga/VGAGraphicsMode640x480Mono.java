@@ -22,14 +22,12 @@ public class VGAGraphicsMode640x480Mono extends AbstractPackedPixelGraphicsMode
 	private static final int MEMORY_SEGMENT	= 0xA000;
 	private static final int MEMORY_SIZE	= 262144;
 	private static final int PIXELS_PER_BYTE= 8;
-	private final int[] pixeldata;
 
 	/**
 	 * Default constructor
 	 */
 	public VGAGraphicsMode640x480Mono() {
 		super( 0x11, MEMORY_SEGMENT, COLUMNS, ROWS, RES_WIDTH, RES_HEIGHT, 8, 16, PIXELS_PER_BYTE, MEMORY_SIZE, COLORS, COLOR_MAP );
-		this.pixeldata = new int[PIXELS_PER_BYTE];				
 	}
 
 	/* (non-Javadoc)
@@ -83,6 +81,7 @@ public class VGAGraphicsMode640x480Mono extends AbstractPackedPixelGraphicsMode
 	 * @param packedPixels the given packed pixels 
 	 */
 	protected int[] decodePackedPixels( int packedPixels ) {
+		final int[] pixeldata = new int[PIXELS_PER_BYTE];
 		pixeldata[0] = ( packedPixels & 0x80 ) >> 7;	// 10000000
 		pixeldata[1] = ( packedPixels & 0x40 ) >> 6;	// 01000000
 		pixeldata[2] = ( packedPixels & 0x20 ) >> 5;	// 00100000
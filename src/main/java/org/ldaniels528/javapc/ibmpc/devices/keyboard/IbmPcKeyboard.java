@@ -225,7 +225,7 @@ public class IbmPcKeyboard implements KeyListener, IbmPcKeyConstants {
         synchronized (buffer) {
             // remove the character at the cursor position, and backup by 1
             display.backspace();
-            display.update();
+            display.refresh();
 
             // update the buffer
             final int length = buffer.length();
@@ -244,7 +244,7 @@ public class IbmPcKeyboard implements KeyListener, IbmPcKeyConstants {
         // add new line character
         synchronized (buffer) {
             display.newLine();
-            display.update();
+            display.refresh();
             buffer.notifyAll();
         }
     }
@@ -326,7 +326,7 @@ public class IbmPcKeyboard implements KeyListener, IbmPcKeyConstants {
         synchronized (buffer) {
             // write the character to the screen
             display.write(string);
-            display.update();
+            display.refresh();
 
             // write the character to the buffer
             buffer.append(string);
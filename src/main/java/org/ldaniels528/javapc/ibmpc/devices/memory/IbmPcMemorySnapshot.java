@@ -0,0 +1,56 @@
+package org.ldaniels528.javapc.ibmpc.devices.memory;
+
+/**
+ * Represents an immutable image of {@link IbmPcRandomAccessMemory random access memory};
+ * the image is stored as 4K pages, and pages that were not modified between two
+ * snapshots are shared by both snapshots rather than copied. Memory itself remains
+ * a flat array; restoring a snapshot copies its pages back into memory.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcMemorySnapshot {
+    private final byte[][] pages;
+
+    /**
+     * Creates a new memory snapshot
+     *
+     * @param pages the given 4K pages of memory (which must not be modified thereafter)
+     */
+    IbmPcMemorySnapshot(final byte[][] pages) {
+        this.pages = pages;
+    }
+
+    /**
+     * Returns the given 4K page of memory
+     *
+     * @param page the given page number
+     * @return the contents of the page (which must not be modified)
+     */
+    byte[] getPage(final int page) {
+        return pages[page];
+    }
+
+    /**
+     * @return the number of 4K pages within the snapshot
+     */
+    public int getPageCount() {
+        return pages.length;
+    }
+
+    /**
+     * Returns the number of pages that are shared with the given snapshot
+     *
+     * @param snapshot the given {@link IbmPcMemorySnapshot snapshot}
+     * @return the number of pages that are shared (rather than copied)
+     */
+    public int getSharedPageCount(final IbmPcMemorySnapshot snapshot) {
+        int count = 0;
+        for (int page = 0; page < pages.length; page++) {
+            if (pages[page] == snapshot.pages[page]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
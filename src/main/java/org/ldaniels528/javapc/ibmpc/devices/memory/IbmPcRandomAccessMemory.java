@@ -9,22 +9,31 @@ import org.ldaniels528.javapc.util.ByteConversion;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.List;
 
 import static java.lang.String.format;
 import static org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryUtil.computePhysicalAddress;
 
 /**
  * Represents IBM PC-style segmented random access memory.
+ * Memory write observers are indexed by 4K page, so that stores
+ * to unobserved pages only cost a single array lookup. Modified
+ * pages are also tracked, so that {@link #snapshot() snapshots}
+ * share unmodified pages, and {@link #restore(IbmPcMemorySnapshot) restores}
+ * only copy back the pages that were modified.
  * @author lawrence.daniels@gmail.com
  */
 public class IbmPcRandomAccessMemory {
-    private static final int SYSTEM_MEMORY_SIZE = 0x100000;
+    public static final int SYSTEM_MEMORY_SIZE = 0x100000;
+    // define the observer page constants (4K pages)
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_COUNT = SYSTEM_MEMORY_SIZE >> PAGE_BITS;
     private final Logger logger = Logger.getLogger(getClass());
-    private final List<RegisteredSegment> registeredSegments;
+    private final RegisteredSegment[][] pageSegments;
+    private final long[] dirtyPages;
     private final byte[] systemMemory;
+    private IbmPcMemorySnapshot baseline;
 
     ///////////////////////////////////////////////////////
     //      Constructor(s)
@@ -36,16 +45,91 @@ public class IbmPcRandomAccessMemory {
     public IbmPcRandomAccessMemory() {
         // create the linear memory array
         this.systemMemory = new byte[SYSTEM_MEMORY_SIZE];
-        this.registeredSegments = new LinkedList<>();
+        this.pageSegments = new RegisteredSegment[PAGE_COUNT][];
+        this.dirtyPages = new long[PAGE_COUNT >> 6];
 
         // randomize the bytes in memory
         //new Random(System.currentTimeMillis()).nextBytes(systemMemory);
     }
 
+    /**
+     * Registers the given listener to be notified whenever memory
+     * within the given range of physical addresses is modified
+     * @param addressStart the given starting physical address (inclusive)
+     * @param addressEnd   the given ending physical address (inclusive)
+     * @param listener     the given {@link MemorySegmentListener listener}
+     */
     public void add(final int addressStart,
                     final int addressEnd,
                     final MemorySegmentListener listener) {
-        registeredSegments.add(new RegisteredSegment(addressStart, addressEnd, listener));
+        final RegisteredSegment segment = new RegisteredSegment(addressStart, addressEnd, listener);
+
+        // index the segment by each page it overlaps
+        final int lastPage = Math.min(PAGE_COUNT - 1, addressEnd >> PAGE_BITS);
+        for (int page = segment.firstPage; page <= lastPage; page++) {
+            final RegisteredSegment[] segments = pageSegments[page];
+            if (segments == null) {
+                pageSegments[page] = new RegisteredSegment[]{segment};
+            } else {
+                final RegisteredSegment[] newSegments = Arrays.copyOf(segments, segments.length + 1);
+                newSegments[segments.length] = segment;
+                pageSegments[page] = newSegments;
+            }
+        }
+    }
+
+    /**
+     * Captures the contents of memory; pages that have not been modified since
+     * the last snapshot (or restore) are shared with it rather than copied
+     * @return the {@link IbmPcMemorySnapshot memory snapshot}
+     */
+    public IbmPcMemorySnapshot snapshot() {
+        final byte[][] pages = new byte[PAGE_COUNT][];
+        for (int page = 0; page < PAGE_COUNT; page++) {
+            pages[page] = ((baseline != null) && !isDirty(page))
+                    ? baseline.getPage(page)
+                    : Arrays.copyOfRange(systemMemory, page << PAGE_BITS, (page + 1) << PAGE_BITS);
+        }
+
+        // the snapshot becomes the baseline for tracking modifications
+        final IbmPcMemorySnapshot snapshot = new IbmPcMemorySnapshot(pages);
+        setBaseline(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Restores the contents of memory from the given snapshot; when the snapshot is
+     * the baseline (e.g. the last snapshot taken or restored), only the pages that were
+     * modified since are copied. The observers of the copied pages are notified.
+     * @param snapshot the given {@link IbmPcMemorySnapshot memory snapshot}
+     */
+    public void restore(final IbmPcMemorySnapshot snapshot) {
+        final boolean incremental = (snapshot == baseline);
+        int runStart = -1;
+        for (int page = 0; page <= PAGE_COUNT; page++) {
+            if ((page < PAGE_COUNT) && (!incremental || isDirty(page))) {
+                System.arraycopy(snapshot.getPage(page), 0, systemMemory, page << PAGE_BITS, 1 << PAGE_BITS);
+                if (runStart == -1) runStart = page;
+            }
+
+            // notify the observers once per run of contiguous pages
+            else if (runStart != -1) {
+                updateSegmentObservers(runStart << PAGE_BITS, (page << PAGE_BITS) - 1);
+                runStart = -1;
+            }
+        }
+        setBaseline(snapshot);
+    }
+
+    /**
+     * @return the number of 4K pages modified since the last snapshot (or restore)
+     */
+    public int getDirtyPageCount() {
+        int count = 0;
+        for (final long bits : dirtyPages) {
+            count += Long.bitCount(bits);
+        }
+        return count;
     }
 
     /**
@@ -68,7 +152,7 @@ public class IbmPcRandomAccessMemory {
                           final int destinationAddress,
                           final int count) {
         System.arraycopy(systemMemory, sourceAddress, systemMemory, destinationAddress, count);
-        updateSegmentObservers(destinationAddress, destinationAddress + count);
+        updateSegmentObservers(destinationAddress, destinationAddress + count - 1);
     }
 
     /**
@@ -90,7 +174,7 @@ public class IbmPcRandomAccessMemory {
 
         // copy the data
         System.arraycopy(systemMemory, srcPos, systemMemory, destPos, count);
-        updateSegmentObservers(destPos, destPos + count);
+        updateSegmentObservers(destPos, destPos + count - 1);
     }
 
     /**
@@ -110,7 +194,7 @@ public class IbmPcRandomAccessMemory {
      * @return the {@link WordValue word} read from memory
      */
     public WordValue getWord(final Operand segment, final Operand offset) {
-        return new WordValue(getByte(segment.get(), offset.get()));
+        return new WordValue(getWord(segment.get(), offset.get()));
     }
 
     /**
@@ -144,6 +228,28 @@ public class IbmPcRandomAccessMemory {
         return block;
     }
 
+    /**
+     * Returns a {@link ByteBuffer buffer} view over a block of memory at the given
+     * physical address; allowing channels to transfer data directly to and from memory.
+     * Modifications made through the view must be announced via {@link #markUpdated(int, int)}.
+     * @param physicalAddress the physical address of the memory block
+     * @param length          the length of the memory block
+     * @return a {@link ByteBuffer buffer} view over the memory block
+     */
+    public ByteBuffer getBuffer(final int physicalAddress, final int length) {
+        return ByteBuffer.wrap(systemMemory, physicalAddress, length).slice();
+    }
+
+    /**
+     * Notifies the listeners of memory that was modified outside of the store methods
+     * (e.g. through a {@link #getBuffer(int, int) buffer view})
+     * @param fromAddress the given starting physical address (inclusive)
+     * @param toAddress   the given ending physical address (inclusive)
+     */
+    public void markUpdated(final int fromAddress, final int toAddress) {
+        updateSegmentObservers(fromAddress, toAddress);
+    }
+
     /**
      * Retrieves a block of memory at the given offset
      * @param segment the segment of the memory block
@@ -197,6 +303,17 @@ public class IbmPcRandomAccessMemory {
         System.arraycopy(systemMemory, physicalAddress, block, 0, length);
     }
 
+    /**
+     * Copies a block of memory at the given physical address into the given block
+     * @param physicalAddress the physical address of the memory block
+     * @param block           the block of binary data
+     * @param blockOffset     the offset within the block of binary data
+     * @param length          the length of the memory block
+     */
+    public void getBytes(final int physicalAddress, final byte[] block, final int blockOffset, final int length) {
+        System.arraycopy(systemMemory, physicalAddress, block, blockOffset, length);
+    }
+
     /**
      * Retrieves a word (two bytes) from memory at the given segment and offset
      * @param segment the segment of the memory location
@@ -283,7 +400,19 @@ public class IbmPcRandomAccessMemory {
 
         // copy the contents of the memory block to physical memory
         System.arraycopy(block, 0, systemMemory, physicalAddress, length);
-        updateSegmentObservers(physicalAddress, physicalAddress + length);
+        updateSegmentObservers(physicalAddress, physicalAddress + length - 1);
+    }
+
+    /**
+     * Writes a portion of a block of binary data to memory at the given physical address
+     * @param physicalAddress the physical memory address
+     * @param block           the block of binary data
+     * @param blockOffset     the offset within the block of binary data
+     * @param length          the length of the memory block
+     */
+    public void setBytes(final int physicalAddress, final byte[] block, final int blockOffset, final int length) {
+        System.arraycopy(block, blockOffset, systemMemory, physicalAddress, length);
+        updateSegmentObservers(physicalAddress, physicalAddress + length - 1);
     }
 
     /**
@@ -299,7 +428,6 @@ public class IbmPcRandomAccessMemory {
 
         // copy the contents of the memory block to physical memory
         setBytes(physicalAddress, block, length);
-        updateSegmentObservers(physicalAddress, physicalAddress + length);
     }
 
     /**
@@ -329,9 +457,6 @@ public class IbmPcRandomAccessMemory {
      * @param value   the given word
      */
     public void setDoubleWord(int segment, int offset, int value) {
-        // compute the physical address
-        final int physicalAddress = computePhysicalAddress(segment, offset);
-
         // determine high and low bytes of the word
         final int hiWord = ((value & 0xFFFF0000) >> 16);
         final int loWord = (value & 0x0000FFFF);
@@ -339,7 +464,6 @@ public class IbmPcRandomAccessMemory {
         // place the words into memory
         setWord(segment, offset, loWord);
         setWord(segment, offset + 2, hiWord);
-        updateSegmentObservers(physicalAddress, physicalAddress + 4);
     }
 
     /**
@@ -354,7 +478,123 @@ public class IbmPcRandomAccessMemory {
 
         // fill memory from the start to end indices
         Arrays.fill(systemMemory, fromIndex, toIndex, filler);
-        updateSegmentObservers(fromIndex, toIndex);
+        updateSegmentObservers(fromIndex, toIndex - 1);
+    }
+
+    /**
+     * Fills a block of memory with the given word; the block is filled by
+     * repeatedly doubling the portion already filled.
+     * @param physicalAddress the physical address of the memory block
+     * @param count           the number of words to fill
+     * @param word            the given word
+     */
+    public void fillWords(final int physicalAddress, final int count, final int word) {
+        if (count > 0) {
+            final int length = count * 2;
+            systemMemory[physicalAddress] = (byte) word;
+            systemMemory[physicalAddress + 1] = (byte) (word >> 8);
+            for (int filled = 2; filled < length; filled *= 2) {
+                System.arraycopy(systemMemory, physicalAddress, systemMemory, physicalAddress + filled, Math.min(filled, length - filled));
+            }
+            updateSegmentObservers(physicalAddress, physicalAddress + length - 1);
+        }
+    }
+
+    /**
+     * Moves a block of elements (bytes or words) from the given source address to the
+     * given destination address; with the same result as moving the elements one at a
+     * time in the given direction (e.g. a forward move to an overlapping destination
+     * just above the source replicates the leading elements).
+     * @param srcAddress  the physical address of the first source element
+     * @param dstAddress  the physical address of the first destination element
+     * @param count       the number of elements to move
+     * @param elementSize the size (in bytes) of each element
+     * @param backward    indicates whether the elements are moved from higher to lower addresses
+     */
+    public void moveElements(final int srcAddress, final int dstAddress,
+                             final int count, final int elementSize, final boolean backward) {
+        if (count <= 0) return;
+
+        // determine the lowest addresses of the source and destination blocks
+        final int length = count * elementSize;
+        final int srcStart = backward ? srcAddress + elementSize - length : srcAddress;
+        final int dstStart = backward ? dstAddress + elementSize - length : dstAddress;
+
+        // would an element be read after it has been overwritten?
+        final boolean hazard = backward
+                ? (dstStart < srcStart && dstStart + length > srcStart)
+                : (dstStart > srcStart && dstStart < srcStart + length);
+
+        if (!hazard) {
+            System.arraycopy(systemMemory, srcStart, systemMemory, dstStart, length);
+        } else {
+            final int step = backward ? -elementSize : elementSize;
+            for (int n = 0, src = srcAddress, dst = dstAddress; n < count; n++, src += step, dst += step) {
+                for (int b = 0; b < elementSize; b++) {
+                    systemMemory[dst + b] = systemMemory[src + b];
+                }
+            }
+        }
+        updateSegmentObservers(dstStart, dstStart + length - 1);
+    }
+
+    /**
+     * Scans a block of elements (bytes or words) for the first element that is
+     * equal (or not equal) to the given value
+     * @param physicalAddress the physical address of the first element
+     * @param count           the maximum number of elements to scan
+     * @param elementSize     the size (in bytes) of each element
+     * @param backward        indicates whether the elements are scanned from higher to lower addresses
+     * @param value           the given value
+     * @param whileEqual      indicates whether the scan continues while the elements are equal
+     *                        to the value (or while they are not equal)
+     * @return the number of elements scanned; including the element that ended the scan
+     */
+    public int scanElements(final int physicalAddress, final int count, final int elementSize,
+                            final boolean backward, final int value, final boolean whileEqual) {
+        final int step = backward ? -elementSize : elementSize;
+        int address = physicalAddress;
+        if (elementSize == 1) {
+            final byte b = (byte) value;
+            for (int n = 0; n < count; n++, address += step) {
+                if ((systemMemory[address] == b) != whileEqual) return n + 1;
+            }
+        } else {
+            final int word = value & 0xFFFF;
+            for (int n = 0; n < count; n++, address += step) {
+                if ((getWordAt(address) == word) != whileEqual) return n + 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Compares two blocks of elements (bytes or words) until a pair of elements
+     * is not equal (or is equal)
+     * @param srcAddress  the physical address of the first source element
+     * @param dstAddress  the physical address of the first destination element
+     * @param count       the maximum number of elements to compare
+     * @param elementSize the size (in bytes) of each element
+     * @param backward    indicates whether the elements are compared from higher to lower addresses
+     * @param whileEqual  indicates whether the comparison continues while the elements are equal
+     *                    (or while they are not equal)
+     * @return the number of elements compared; including the pair that ended the comparison
+     */
+    public int compareElements(final int srcAddress, final int dstAddress, final int count,
+                               final int elementSize, final boolean backward, final boolean whileEqual) {
+        final int step = backward ? -elementSize : elementSize;
+        int src = srcAddress;
+        int dst = dstAddress;
+        if (elementSize == 1) {
+            for (int n = 0; n < count; n++, src += step, dst += step) {
+                if ((systemMemory[src] == systemMemory[dst]) != whileEqual) return n + 1;
+            }
+        } else {
+            for (int n = 0; n < count; n++, src += step, dst += step) {
+                if ((getWordAt(src) == getWordAt(dst)) != whileEqual) return n + 1;
+            }
+        }
+        return count;
     }
 
     /**
@@ -370,7 +610,7 @@ public class IbmPcRandomAccessMemory {
 
         // AND the byte in memory
         systemMemory[physicalAddress] &= (byte) mask;
-        updateSegmentObservers(physicalAddress, physicalAddress + 1);
+        updateSegmentObservers(physicalAddress, physicalAddress);
     }
 
     /**
@@ -386,7 +626,7 @@ public class IbmPcRandomAccessMemory {
 
         // AND the byte in memory
         systemMemory[physicalAddress] |= (byte) mask;
-        updateSegmentObservers(physicalAddress, physicalAddress + 1);
+        updateSegmentObservers(physicalAddress, physicalAddress);
     }
 
     /**
@@ -412,24 +652,73 @@ public class IbmPcRandomAccessMemory {
         return baos.toByteArray();
     }
 
+    /**
+     * Retrieves the word at the given physical address
+     * @param physicalAddress the given physical address
+     * @return the word
+     */
+    private int getWordAt(final int physicalAddress) {
+        return (systemMemory[physicalAddress] & 0xFF) | ((systemMemory[physicalAddress + 1] & 0xFF) << 8);
+    }
+
+    /**
+     * Indicates whether the given page has been modified since the last snapshot (or restore)
+     * @param page the given page number
+     * @return true, if the page has been modified
+     */
+    private boolean isDirty(final int page) {
+        return (dirtyPages[page >> 6] & (1L << page)) != 0;
+    }
+
+    /**
+     * Sets the snapshot against which modifications are tracked; clearing the modified pages
+     * @param snapshot the given {@link IbmPcMemorySnapshot memory snapshot}
+     */
+    private void setBaseline(final IbmPcMemorySnapshot snapshot) {
+        this.baseline = snapshot;
+        Arrays.fill(dirtyPages, 0L);
+    }
+
+    /**
+     * Notifies the listeners whose segments overlap the given range of modified memory
+     * @param startAddress the given starting physical address (inclusive)
+     * @param endAddress   the given ending physical address (inclusive)
+     */
     private void updateSegmentObservers(final int startAddress, final int endAddress) {
-        registeredSegments.stream()
-                .filter(rs -> startAddress >= rs.startAddress && endAddress <= rs.endAddress)
-                .forEach(rs -> rs.listener.segmentUpdated(startAddress, endAddress));
+        final int firstPage = startAddress >> PAGE_BITS;
+        final int lastPage = Math.min(PAGE_COUNT - 1, endAddress >> PAGE_BITS);
+        for (int page = firstPage; page <= lastPage; page++) {
+            dirtyPages[page >> 6] |= (1L << page);
+            final RegisteredSegment[] segments = pageSegments[page];
+            if (segments != null) {
+                for (final RegisteredSegment rs : segments) {
+                    // a segment spanning several pages is only notified once
+                    if ((page == Math.max(firstPage, rs.firstPage)) && rs.overlaps(startAddress, endAddress)) {
+                        rs.listener.segmentUpdated(startAddress, endAddress);
+                    }
+                }
+            }
+        }
     }
 
     /**
      * Represents a registered segment
      */
     private static class RegisteredSegment {
-        private MemorySegmentListener listener;
+        private final MemorySegmentListener listener;
         private final int startAddress;
         private final int endAddress;
+        private final int firstPage;
 
         public RegisteredSegment(int startAddress, int endAddress, MemorySegmentListener listener) {
             this.listener = listener;
             this.startAddress = startAddress;
             this.endAddress = endAddress;
+            this.firstPage = Math.max(0, startAddress >> PAGE_BITS);
+        }
+
+        public boolean overlaps(int fromAddress, int toAddress) {
+            return (fromAddress <= endAddress) && (toAddress >= startAddress);
         }
     }
 
@@ -438,6 +727,11 @@ public class IbmPcRandomAccessMemory {
      */
     public static interface MemorySegmentListener {
 
+        /**
+         * Called whenever memory within the observed segment is modified
+         * @param fromAddress the starting physical address of the modification (inclusive)
+         * @param toAddress   the ending physical address of the modification (inclusive)
+         */
         void segmentUpdated(int fromAddress, int toAddress);
 
     }
@@ -4,7 +4,6 @@ import org.apache.log4j.Logger;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.operands.Operand;
 
 import static java.lang.String.format;
-import static org.ldaniels528.javapc.util.BitMaskGenerator.isBitSet;
 
 /**
  * Acts as a proxy to the random access memory (RAM) instance
@@ -124,10 +123,7 @@ public class X86MemoryProxy {
      * @return the next signed byte
      */
     public int nextSignedByte() {
-        final int value = memory.getByte(segment, offset++);
-        final boolean negative = isBitSet(value, 7);
-        final int unsignedValue = value & 0x7F;
-        return negative ? -unsignedValue : unsignedValue;
+        return (byte) memory.getByte(segment, offset++);
     }
 
     /**
@@ -163,9 +159,7 @@ public class X86MemoryProxy {
     public int nextSignedWord() {
         final int value = memory.getWord(segment, offset);
         offset += 2;
-        final boolean negative = isBitSet(value, 15);
-        final int unsignedValue = value & 0x7FFF;
-        return negative ? -unsignedValue : unsignedValue;
+        return (short) value;
     }
 
     /**
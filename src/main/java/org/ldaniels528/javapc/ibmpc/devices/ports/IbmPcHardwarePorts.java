@@ -1,105 +1,238 @@
 package org.ldaniels528.javapc.ibmpc.devices.ports;
 
-import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.apache.log4j.Logger;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 import static java.lang.String.format;
 
 /**
- * Represents the hardware port interface for an IBM PC/XT/AT.
+ * Represents the hardware port interface for an IBM PC/XT/AT; each of the
+ * 64K port addresses is dispatched through a table of {@link IbmPcPortHandler handlers}
+ * registered by the devices. Ports without a device behave as simple latches,
+ * reading back the last value written to them (or FFh if never written).
  * @author ldaniels
  */
 public class IbmPcHardwarePorts {
-	// base memory segment?
-	private static final int DEFAULT_SEGMENT 	= 0x0040;
-	
-	// port addresses
-	private static final int MEM_CTRLR_STATUS	= 0x060;
-	private static final int MEM_CTRLR_OUTPUT	= 0x064;
-	private static final int COM1				= 0x378;
-	private static final int COM2				= 0x378;
-	private static final int COM3				= 0x378;
-	private static final int COM4				= 0x378;
-	private static final int LPT1				= 0x378;
-	
+	// the number of port addresses
+	public static final int PORT_COUNT	= 0x10000;
+
 	// internal fields
 	private final Logger logger = Logger.getLogger(getClass());
-	private final IbmPcRandomAccessMemory memory;
-	
+	private final IbmPcPortHandler[] handlers;
+	private final IbmPcPortHandler unassigned;
+	private int traceInterval;
+	private int traceCount;
+
 	/**
 	 * Default constructor
 	 */
-	public IbmPcHardwarePorts( final IbmPcRandomAccessMemory memory ) {
-		this.memory	= memory;
+	public IbmPcHardwarePorts() {
+		this.unassigned	= new PortLatches();
+		this.handlers	= new IbmPcPortHandler[ PORT_COUNT ];
+		Arrays.fill( handlers, unassigned );
+	}
+
+	/**
+	 * Registers the given handler for the given port number
+	 * @param port the given port number
+	 * @param handler the given {@link IbmPcPortHandler handler}
+	 */
+	public void register( final int port, final IbmPcPortHandler handler ) {
+		register( port, port, handler );
+	}
+
+	/**
+	 * Registers the given handler for the given (inclusive) range of port numbers
+	 * @param firstPort the given first port number
+	 * @param lastPort the given last port number
+	 * @param handler the given {@link IbmPcPortHandler handler}
+	 */
+	public void register( final int firstPort, final int lastPort, final IbmPcPortHandler handler ) {
+		for( int port = firstPort; port <= lastPort; port++ ) {
+			handlers[ port & 0xFFFF ] = handler;
+		}
+	}
+
+	/**
+	 * Removes the handler for the given port number; the port reverts to a simple latch
+	 * @param port the given port number
+	 */
+	public void unregister( final int port ) {
+		handlers[ port & 0xFFFF ] = unassigned;
+	}
+
+	/**
+	 * Returns the handler for the given port number
+	 * @param port the given port number
+	 * @return the {@link IbmPcPortHandler handler}
+	 */
+	public IbmPcPortHandler getHandler( final int port ) {
+		return handlers[ port & 0xFFFF ];
+	}
+
+	/**
+	 * Captures the state of the devices attached to the ports (e.g. the timer's counters);
+	 * each device's state is keyed by the first port it services, so that the state may
+	 * also be restored into another machine having the same devices
+	 * @return the mapping of port numbers to device states
+	 */
+	public Map<Integer, Object> saveState() {
+		final Map<Integer, Object> states = new LinkedHashMap<>();
+		final Set<IbmPcPortHandler> devices = Collections.newSetFromMap( new IdentityHashMap<>() );
+		for( int port = 0; port < PORT_COUNT; port++ ) {
+			if( devices.add( handlers[ port ] ) ) {
+				final Object state = handlers[ port ].saveState();
+				if( state != null ) {
+					states.put( port, state );
+				}
+			}
+		}
+		return Collections.unmodifiableMap( states );
+	}
+
+	/**
+	 * Restores the state of the devices attached to the ports
+	 * @param states the given mapping of port numbers to device states (see {@link #saveState()})
+	 */
+	public void restoreState( final Map<Integer, Object> states ) {
+		for( final Map.Entry<Integer, Object> entry : states.entrySet() ) {
+			handlers[ entry.getKey() ].restoreState( entry.getValue() );
+		}
 	}
-	
+
+	/**
+	 * @return the port access trace sampling interval (zero when tracing is disabled)
+	 */
+	public int getTraceInterval() {
+		return traceInterval;
+	}
+
+	/**
+	 * Enables or disables the tracing of port accesses; when enabled, one of every
+	 * <i>interval</i> accesses is logged
+	 * @param interval the given sampling interval (zero to disable tracing)
+	 */
+	public void setTraceInterval( final int interval ) {
+		this.traceInterval	= Math.max( interval, 0 );
+		this.traceCount		= 0;
+	}
+
 	/**
 	 * Reads an 8-bit data value from the given port number
 	 * @param port the given port number
-	 * @return a byte or word from the specified port
+	 * @return a byte from the specified port
 	 */
 	public int in8( final int port ) {
-		return memory.getByte( DEFAULT_SEGMENT, port );
+		final int value = handlers[ port & 0xFFFF ].in8( port & 0xFFFF ) & 0xFF;
+		if( traceInterval > 0 ) {
+			trace( "IN", port, value );
+		}
+		return value;
 	}
-	
+
 	/**
 	 * Reads a 16-bit data value from the given port number
 	 * @param port the given port number
-	 * @return a byte or word from the specified port
+	 * @return a word from the specified port
 	 */
 	public int in16( final int port ) {
-		return memory.getWord( DEFAULT_SEGMENT, port );
+		return in8( port ) | ( in8( port + 1 ) << 8 );
 	}
-	
+
 	/** 
 	 * Writes the given value to the given port number
 	 * @param port the given port number
 	 * @param value the given data value
 	 */
 	public void out8( final int port, final int value ) {
-		// only the first 10 bits are used
-		final int offset = port & 0x03FF; // mask = 0000 0011 1111 1111
-		
-		// get the port value
-		final int value0 = memory.getByte( DEFAULT_SEGMENT, offset );
-		logger.info(format("Changed value at port %04X from %04X to %04X", port, value0, value));
-		
-		// set the new port value
-		memory.setByte( DEFAULT_SEGMENT, offset, value );
-	}
-	
+		if( traceInterval > 0 ) {
+			trace( "OUT", port, value & 0xFF );
+		}
+		handlers[ port & 0xFFFF ].out8( port & 0xFFFF, value & 0xFF );
+	}
+
 	/** 
 	 * Writes the given value to the given port number
 	 * @param port the given port number
 	 * @param value the given data value
 	 */
 	public void out16( final int port, final int value ) {
-		// only the first 10 bits are used
-		final int offset = port & 0x03FF; // mask = 0000 0011 1111 1111
-		
-		// get the port value
-		final int value0 = memory.getWord( DEFAULT_SEGMENT, offset );
-		logger.info(format("Changed value at port %04X from %04X to %04X", port, value0, value));
-		
-		// set the new port value
-		memory.setWord( DEFAULT_SEGMENT, offset, value );
-	}
-	
+		out8( port, value );
+		out8( port + 1, value >> 8 );
+	}
+
 	/** 
 	 * Writes the given value to the given port number
 	 * @param port the given port number
 	 * @param value the given data value
 	 */
 	public void out32( final int port, final int value ) {
-		// only the first 10 bits are used
-		final int offset = port & 0x03FF; // mask = 0000 0011 1111 1111
-		
-		// get the port value
-		final int value0 = memory.getDoubleWord( DEFAULT_SEGMENT, offset );
-		logger.info(format("Changed value at port %04X from %04X to %04X", port, value0, value));
-		
-		// set the new port value
-		memory.setDoubleWord( DEFAULT_SEGMENT, offset, value );
+		out16( port, value );
+		out16( port + 2, value >> 16 );
+	}
+
+	/**
+	 * Logs a sample of the port accesses
+	 * @param direction the given direction of the access ("IN" or "OUT")
+	 * @param port the given port number
+	 * @param value the given data value
+	 */
+	private void trace( final String direction, final int port, final int value ) {
+		if( ++traceCount >= traceInterval ) {
+			traceCount = 0;
+			logger.info( format( "%-3s port %04X [%s]: %02X", direction, port & 0xFFFF,
+					handlers[ port & 0xFFFF ].getClass().getSimpleName(), value ) );
+		}
+	}
+
+	/**
+	 * Represents the ports that have no device attached; each port
+	 * reads back the last value written to it
+	 */
+	private static class PortLatches implements IbmPcPortHandler {
+		private final byte[] latches;
+
+		/**
+		 * Default constructor
+		 */
+		public PortLatches() {
+			this.latches = new byte[ PORT_COUNT ];
+			Arrays.fill( latches, (byte)0xFF );
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public int in8( final int port ) {
+			return latches[ port ] & 0xFF;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public void out8( final int port, final int value ) {
+			latches[ port ] = (byte)value;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public Object saveState() {
+			return latches.clone();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public void restoreState( final Object state ) {
+			System.arraycopy( (byte[])state, 0, latches, 0, latches.length );
+		}
 	}
 
 }
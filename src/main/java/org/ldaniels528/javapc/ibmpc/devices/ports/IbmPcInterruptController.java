@@ -0,0 +1,129 @@
+package org.ldaniels528.javapc.ibmpc.devices.ports;
+
+/**
+ * Represents the 8259 Programmable Interrupt Controller (ports 20h/21h);
+ * accepts the initialization sequence, the interrupt mask and end-of-interrupt commands.
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcInterruptController implements IbmPcPortHandler {
+	// port addresses
+	public static final int COMMAND	= 0x20;
+	public static final int DATA	= 0x21;
+
+	// internal fields
+	private int vectorBase	= 0x08;
+	private int mask;
+	private int inService;
+	private int requested;
+	private int initStep;
+	private boolean expectICW4;
+	private boolean readISR;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int in8( final int port ) {
+		if( port == DATA ) {
+			return mask;
+		}
+		return readISR ? inService : requested;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void out8( final int port, final int value ) {
+		if( port == COMMAND ) {
+			// ICW1: begin the initialization sequence
+			if( ( value & 0x10 ) != 0 ) {
+				initStep	= 2;
+				expectICW4	= ( value & 0x01 ) != 0;
+				mask		= 0;
+				inService	= 0;
+				readISR		= false;
+			}
+
+			// OCW3: select the register to be read
+			else if( ( value & 0x08 ) != 0 ) {
+				if( ( value & 0x02 ) != 0 ) {
+					readISR = ( value & 0x01 ) != 0;
+				}
+			}
+
+			// OCW2: end of interrupt
+			else if( ( value & 0x20 ) != 0 ) {
+				inService &= ( value & 0x40 ) != 0 ? ~( 1 << ( value & 0x07 ) ) : inService - 1;
+			}
+		}
+		else {
+			switch( initStep ) {
+				// ICW2: the interrupt vector base (the IBM PC is a single 8259, so ICW3 is skipped)
+				case 2:
+					vectorBase	= value & 0xF8;
+					initStep	= expectICW4 ? 4 : 0;
+					break;
+				// ICW4: the mode
+				case 4:
+					initStep	= 0;
+					break;
+				// OCW1: the interrupt mask
+				default:
+					mask = value & 0xFF;
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Object saveState() {
+		final IbmPcInterruptController state = new IbmPcInterruptController();
+		state.copy( this );
+		return state;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void restoreState( final Object state ) {
+		copy( (IbmPcInterruptController)state );
+	}
+
+	/**
+	 * @return the interrupt vector of IRQ0
+	 */
+	public int getVectorBase() {
+		return vectorBase;
+	}
+
+	/**
+	 * @return the interrupt mask register
+	 */
+	public int getMask() {
+		return mask;
+	}
+
+	/**
+	 * Indicates whether the given interrupt request line is masked
+	 * @param irq the given interrupt request line (0-7)
+	 * @return true, if the interrupt request line is masked
+	 */
+	public boolean isMasked( final int irq ) {
+		return ( mask & ( 1 << irq ) ) != 0;
+	}
+
+	/**
+	 * Copies the registers of the given controller into this controller
+	 * @param source the given {@link IbmPcInterruptController controller}
+	 */
+	private void copy( final IbmPcInterruptController source ) {
+		vectorBase	= source.vectorBase;
+		mask		= source.mask;
+		inService	= source.inService;
+		requested	= source.requested;
+		initStep	= source.initStep;
+		expectICW4	= source.expectICW4;
+		readISR		= source.readISR;
+	}
+
+}
@@ -0,0 +1,223 @@
+package org.ldaniels528.javapc.ibmpc.devices.ports;
+
+import org.ldaniels528.javapc.ibmpc.devices.cpu.X86VirtualClock;
+
+import static org.ldaniels528.javapc.ibmpc.devices.cpu.X86VirtualClock.CPU_FREQUENCY;
+import static org.ldaniels528.javapc.ibmpc.devices.cpu.X86VirtualClock.PIT_FREQUENCY;
+
+/**
+ * Represents the 8253 Programmable Interval Timer (ports 40h-43h); the
+ * counters are derived from the {@link X86VirtualClock virtual clock},
+ * so that programs polling the timer observe it counting down at 1.19 MHz.
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcIntervalTimer implements IbmPcPortHandler {
+	// port addresses
+	public static final int COUNTER0	= 0x40;
+	public static final int COUNTER1	= 0x41;
+	public static final int COUNTER2	= 0x42;
+	public static final int CONTROL		= 0x43;
+
+	// counter access modes
+	private static final int ACCESS_LATCH	= 0;
+	private static final int ACCESS_LSB		= 1;
+	private static final int ACCESS_MSB		= 2;
+	private static final int ACCESS_WORD	= 3;
+
+	// internal fields
+	private final X86VirtualClock clock;
+	private final Counter[] counters;
+
+	/**
+	 * Creates a new interval timer
+	 * @param clock the given {@link X86VirtualClock virtual clock}
+	 */
+	public IbmPcIntervalTimer( final X86VirtualClock clock ) {
+		this.clock		= clock;
+		this.counters	= new Counter[] { new Counter(), new Counter(), new Counter() };
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int in8( final int port ) {
+		// the control register is write-only
+		return ( port == CONTROL ) ? 0xFF : counters[ port - COUNTER0 ].read();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void out8( final int port, final int value ) {
+		if( port == CONTROL ) {
+			// the read-back command (select = 3) is not supported by the 8253
+			final int select = value >> 6;
+			if( select < counters.length ) {
+				counters[ select ].control( value );
+			}
+		}
+		else {
+			counters[ port - COUNTER0 ].write( value );
+		}
+	}
+
+	/**
+	 * Returns the current count of the given counter
+	 * @param index the given counter index (0-2)
+	 * @return the current count
+	 */
+	public int getCount( final int index ) {
+		return counters[ index ].getCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Object saveState() {
+		final IbmPcIntervalTimer state = new IbmPcIntervalTimer( clock );
+		state.copy( this );
+		return state;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void restoreState( final Object state ) {
+		copy( (IbmPcIntervalTimer)state );
+	}
+
+	/**
+	 * Copies the counters of the given timer into this timer
+	 * @param source the given {@link IbmPcIntervalTimer timer}
+	 */
+	private void copy( final IbmPcIntervalTimer source ) {
+		for( int n = 0; n < counters.length; n++ ) {
+			counters[ n ].copy( source.counters[ n ] );
+		}
+	}
+
+	/**
+	 * @return the number of PIT clocks elapsed on the virtual clock
+	 */
+	private long getPitClocks() {
+		final long cycles = clock.getCycles();
+		return ( cycles / CPU_FREQUENCY ) * PIT_FREQUENCY + ( ( cycles % CPU_FREQUENCY ) * PIT_FREQUENCY ) / CPU_FREQUENCY;
+	}
+
+	/**
+	 * Represents an 8253 counter
+	 */
+	private class Counter {
+		private int reload			= 0x10000;
+		private long loadedAt;
+		private int accessMode		= ACCESS_WORD;
+		private int mode			= 3;
+		private int latched;
+		private boolean isLatched;
+		private boolean readMSB;
+		private boolean writeMSB;
+		private int writeLSB;
+
+		/**
+		 * Copies the state of the given counter into this counter
+		 * @param source the given counter
+		 */
+		void copy( final Counter source ) {
+			reload		= source.reload;
+			loadedAt	= source.loadedAt;
+			accessMode	= source.accessMode;
+			mode		= source.mode;
+			latched		= source.latched;
+			isLatched	= source.isLatched;
+			readMSB		= source.readMSB;
+			writeMSB	= source.writeMSB;
+			writeLSB	= source.writeLSB;
+		}
+
+		/**
+		 * Processes a control word addressed to this counter
+		 * @param value the given control word
+		 */
+		void control( final int value ) {
+			final int access = ( value >> 4 ) & 0x03;
+			if( access == ACCESS_LATCH ) {
+				if( !isLatched ) {
+					latched		= getCount();
+					isLatched	= true;
+				}
+			}
+			else {
+				accessMode	= access;
+				mode		= ( value >> 1 ) & 0x07;
+				isLatched	= false;
+				readMSB		= false;
+				writeMSB	= false;
+			}
+		}
+
+		/**
+		 * @return the next byte of the (latched or current) count
+		 */
+		int read() {
+			final int count = isLatched ? latched : getCount();
+			switch( accessMode ) {
+				case ACCESS_LSB:
+					isLatched = false;
+					return count & 0xFF;
+				case ACCESS_MSB:
+					isLatched = false;
+					return ( count >> 8 ) & 0xFF;
+				default:
+					readMSB = !readMSB;
+					if( readMSB ) {
+						return count & 0xFF;
+					}
+					isLatched = false;
+					return ( count >> 8 ) & 0xFF;
+			}
+		}
+
+		/**
+		 * Writes the next byte of the reload value
+		 * @param value the given byte
+		 */
+		void write( final int value ) {
+			switch( accessMode ) {
+				case ACCESS_LSB:
+					load( value & 0xFF );
+					break;
+				case ACCESS_MSB:
+					load( ( value & 0xFF ) << 8 );
+					break;
+				default:
+					writeMSB = !writeMSB;
+					if( writeMSB ) {
+						writeLSB = value & 0xFF;
+					}
+					else {
+						load( ( ( value & 0xFF ) << 8 ) | writeLSB );
+					}
+			}
+		}
+
+		/**
+		 * Loads the given reload value; a value of zero represents 65536
+		 * @param value the given reload value
+		 */
+		void load( final int value ) {
+			reload		= ( value == 0 ) ? 0x10000 : value;
+			loadedAt	= getPitClocks();
+		}
+
+		/**
+		 * @return the current count
+		 */
+		int getCount() {
+			// square wave mode counts down by two
+			final long elapsed	= getPitClocks() - loadedAt;
+			final long step		= ( mode == 3 || mode == 7 ) ? 2 * elapsed : elapsed;
+			return (int)( reload - ( step % reload ) ) & 0xFFFF;
+		}
+	}
+
+}
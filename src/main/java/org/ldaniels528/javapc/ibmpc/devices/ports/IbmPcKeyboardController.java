@@ -0,0 +1,177 @@
+package org.ldaniels528.javapc.ibmpc.devices.ports;
+
+import org.ldaniels528.javapc.ibmpc.devices.keyboard.IbmPcKeyEventListener;
+import org.ldaniels528.javapc.ibmpc.devices.keyboard.IbmPcKeyboard;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Represents the keyboard controller (ports 60h/64h); latches the scan code
+ * (set 1) of the most recent key event, so that programs reading the keyboard
+ * directly see make and break codes.
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcKeyboardController implements IbmPcPortHandler, IbmPcKeyEventListener {
+	// port addresses
+	public static final int DATA	= 0x60;
+	public static final int STATUS	= 0x64;
+
+	// status bits
+	public static final int OUTPUT_BUFFER_FULL	= 0x01;
+	public static final int SYSTEM_FLAG			= 0x04;
+	public static final int NOT_INHIBITED		= 0x10;
+
+	// virtual key code to scan code mapping
+	private static final int[] SCAN_CODES = createScanCodes();
+
+	// internal fields
+	private int output;
+	private boolean outputFull;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int in8( final int port ) {
+		if( port == STATUS ) {
+			return ( outputFull ? OUTPUT_BUFFER_FULL : 0 ) | SYSTEM_FLAG | NOT_INHIBITED;
+		}
+		outputFull = false;
+		return output;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void out8( final int port, final int value ) {
+		if( port == STATUS ) {
+			switch( value ) {
+				// controller self-test
+				case 0xAA: respond( 0x55 ); break;
+				// keyboard interface test
+				case 0xAB: respond( 0x00 ); break;
+				default:
+			}
+		}
+		else {
+			// keyboard commands are acknowledged (the reset command also passes its self-test)
+			respond( 0xFA );
+			if( value == 0xFF ) {
+				respond( 0xAA );
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void keyPressed( final IbmPcKeyboard keyboard, final KeyEvent event ) {
+		latch( event, event.getID() == KeyEvent.KEY_RELEASED );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void keyReleased( final IbmPcKeyboard keyboard, final KeyEvent event ) {
+		latch( event, true );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Object saveState() {
+		final IbmPcKeyboardController state = new IbmPcKeyboardController();
+		state.output		= output;
+		state.outputFull	= outputFull;
+		return state;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void restoreState( final Object state ) {
+		final IbmPcKeyboardController source = (IbmPcKeyboardController)state;
+		output		= source.output;
+		outputFull	= source.outputFull;
+	}
+
+	/**
+	 * Returns the scan code of the given virtual key code
+	 * @param keyCode the given virtual key code
+	 * @return the scan code, or zero if the key has no scan code
+	 */
+	public static int getScanCode( final int keyCode ) {
+		return ( keyCode >= 0 && keyCode < SCAN_CODES.length ) ? SCAN_CODES[ keyCode ] : 0;
+	}
+
+	/**
+	 * Latches the scan code of the given key event
+	 * @param event the given {@link KeyEvent key event}
+	 * @param released indicates whether the key was released (break code)
+	 */
+	private void latch( final KeyEvent event, final boolean released ) {
+		final int scanCode = getScanCode( event.getKeyCode() );
+		if( scanCode != 0 ) {
+			respond( released ? scanCode | 0x80 : scanCode );
+		}
+	}
+
+	/**
+	 * Places the given value into the output buffer
+	 * @param value the given value
+	 */
+	private void respond( final int value ) {
+		output		= value & 0xFF;
+		outputFull	= true;
+	}
+
+	/**
+	 * @return the virtual key code to scan code mapping
+	 */
+	private static int[] createScanCodes() {
+		final int[] codes = new int[ 256 ];
+		map( codes, 0x02, KeyEvent.VK_1, KeyEvent.VK_2, KeyEvent.VK_3, KeyEvent.VK_4, KeyEvent.VK_5,
+				KeyEvent.VK_6, KeyEvent.VK_7, KeyEvent.VK_8, KeyEvent.VK_9, KeyEvent.VK_0,
+				KeyEvent.VK_MINUS, KeyEvent.VK_EQUALS, KeyEvent.VK_BACK_SPACE, KeyEvent.VK_TAB );
+		map( codes, 0x10, "QWERTYUIOP" );
+		map( codes, 0x1A, KeyEvent.VK_OPEN_BRACKET, KeyEvent.VK_CLOSE_BRACKET, KeyEvent.VK_ENTER, KeyEvent.VK_CONTROL );
+		map( codes, 0x1E, "ASDFGHJKL" );
+		map( codes, 0x27, KeyEvent.VK_SEMICOLON, KeyEvent.VK_QUOTE, KeyEvent.VK_BACK_QUOTE,
+				KeyEvent.VK_SHIFT, KeyEvent.VK_BACK_SLASH );
+		map( codes, 0x2C, "ZXCVBNM" );
+		map( codes, 0x33, KeyEvent.VK_COMMA, KeyEvent.VK_PERIOD, KeyEvent.VK_SLASH );
+		map( codes, 0x37, KeyEvent.VK_MULTIPLY, KeyEvent.VK_ALT, KeyEvent.VK_SPACE, KeyEvent.VK_CAPS_LOCK,
+				KeyEvent.VK_F1, KeyEvent.VK_F2, KeyEvent.VK_F3, KeyEvent.VK_F4, KeyEvent.VK_F5,
+				KeyEvent.VK_F6, KeyEvent.VK_F7, KeyEvent.VK_F8, KeyEvent.VK_F9, KeyEvent.VK_F10,
+				KeyEvent.VK_NUM_LOCK, KeyEvent.VK_SCROLL_LOCK, KeyEvent.VK_HOME, KeyEvent.VK_UP,
+				KeyEvent.VK_PAGE_UP, KeyEvent.VK_SUBTRACT, KeyEvent.VK_LEFT, KeyEvent.VK_CLEAR,
+				KeyEvent.VK_RIGHT, KeyEvent.VK_ADD, KeyEvent.VK_END, KeyEvent.VK_DOWN,
+				KeyEvent.VK_PAGE_DOWN, KeyEvent.VK_INSERT, KeyEvent.VK_DELETE );
+		codes[ KeyEvent.VK_ESCAPE ] = 0x01;
+		return codes;
+	}
+
+	/**
+	 * Assigns consecutive scan codes to the given virtual key codes
+	 * @param codes the given scan code mapping
+	 * @param scanCode the given first scan code
+	 * @param keyCodes the given virtual key codes
+	 */
+	private static void map( final int[] codes, final int scanCode, final int ... keyCodes ) {
+		for( int n = 0; n < keyCodes.length; n++ ) {
+			codes[ keyCodes[ n ] ] = scanCode + n;
+		}
+	}
+
+	/**
+	 * Assigns consecutive scan codes to the given letter keys
+	 * @param codes the given scan code mapping
+	 * @param scanCode the given first scan code
+	 * @param letters the given letter keys (whose virtual key codes are their upper case characters)
+	 */
+	private static void map( final int[] codes, final int scanCode, final String letters ) {
+		for( int n = 0; n < letters.length(); n++ ) {
+			codes[ letters.charAt( n ) ] = scanCode + n;
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+package org.ldaniels528.javapc.ibmpc.devices.ports;
+
+/**
+ * Represents a device that responds to reads and writes of one or
+ * more {@link IbmPcHardwarePorts hardware ports}
+ * @author lawrence.daniels@gmail.com
+ */
+public interface IbmPcPortHandler {
+
+	/**
+	 * Reads an 8-bit data value from the given port number
+	 * @param port the given port number
+	 * @return the 8-bit data value
+	 */
+	int in8( int port );
+
+	/**
+	 * Writes an 8-bit data value to the given port number
+	 * @param port the given port number
+	 * @param value the given 8-bit data value
+	 */
+	void out8( int port, int value );
+
+	/**
+	 * Captures the state of this device, so that it may later be restored into
+	 * this device, or into the identical device of another machine
+	 * @return a copy of the device's state, or <tt>null</tt> if the device is stateless
+	 */
+	default Object saveState() {
+		return null;
+	}
+
+	/**
+	 * Restores the state of this device
+	 * @param state the given state, as returned by {@link #saveState()}
+	 */
+	default void restoreState( Object state ) {
+	}
+
+}
@@ -0,0 +1,160 @@
+package org.ldaniels528.javapc.ibmpc.devices.ports;
+
+import org.ldaniels528.javapc.ibmpc.devices.cpu.X86VirtualClock;
+
+import static org.ldaniels528.javapc.ibmpc.devices.cpu.X86VirtualClock.CPU_FREQUENCY;
+
+/**
+ * Represents the CGA video controller (ports 3D0h-3DAh); the 6845 CRTC index and
+ * data registers, the mode and color select registers, and the status register,
+ * whose retrace bits are derived from the {@link X86VirtualClock virtual clock}.
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcVideoController implements IbmPcPortHandler {
+	// port addresses
+	public static final int FIRST_PORT		= 0x3D0;
+	public static final int CRTC_INDEX		= 0x3D4;
+	public static final int CRTC_DATA		= 0x3D5;
+	public static final int MODE_CONTROL	= 0x3D8;
+	public static final int COLOR_SELECT	= 0x3D9;
+	public static final int STATUS			= 0x3DA;
+
+	// status bits
+	public static final int DISPLAY_INACTIVE	= 0x01;
+	public static final int VERTICAL_RETRACE	= 0x08;
+
+	// frame timing: 262 scan lines (200 visible) at 60 frames/sec
+	private static final long CYCLES_PER_FRAME	= CPU_FREQUENCY / 60;
+	private static final int SCAN_LINES			= 262;
+	private static final int VISIBLE_LINES		= 200;
+	private static final int VSYNC_FIRST_LINE	= 224;
+	private static final int VSYNC_LAST_LINE	= 239;
+	private static final int VISIBLE_PERCENT	= 70;
+
+	// internal fields
+	private final X86VirtualClock clock;
+	private final int[] crtc;
+	private int index;
+	private int mode;
+	private int colorSelect;
+
+	/**
+	 * Creates a new video controller
+	 * @param clock the given {@link X86VirtualClock virtual clock}
+	 */
+	public IbmPcVideoController( final X86VirtualClock clock ) {
+		this.clock	= clock;
+		this.crtc	= new int[ 18 ];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int in8( final int port ) {
+		switch( port ) {
+			case STATUS:
+				return getStatus();
+			case COLOR_SELECT:
+			case MODE_CONTROL:
+				return 0xFF;
+			default:
+				// ports 3D0h-3D7h mirror the CRTC index (even) and data (odd) registers
+				if( ( port & 1 ) == 0 ) {
+					return index;
+				}
+				return ( index < crtc.length ) ? crtc[ index ] : 0xFF;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void out8( final int port, final int value ) {
+		switch( port ) {
+			case STATUS:
+				break;
+			case MODE_CONTROL:
+				mode = value;
+				break;
+			case COLOR_SELECT:
+				colorSelect = value;
+				break;
+			default:
+				if( ( port & 1 ) == 0 ) {
+					index = value & 0x1F;
+				}
+				else if( index < crtc.length ) {
+					crtc[ index ] = value;
+				}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Object saveState() {
+		final IbmPcVideoController state = new IbmPcVideoController( clock );
+		state.copy( this );
+		return state;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void restoreState( final Object state ) {
+		copy( (IbmPcVideoController)state );
+	}
+
+	/**
+	 * Returns the value of the given CRTC register
+	 * @param register the given register index (0-17)
+	 * @return the register's value
+	 */
+	public int getRegister( final int register ) {
+		return crtc[ register ];
+	}
+
+	/**
+	 * @return the mode control register
+	 */
+	public int getMode() {
+		return mode;
+	}
+
+	/**
+	 * @return the color select register
+	 */
+	public int getColorSelect() {
+		return colorSelect;
+	}
+
+	/**
+	 * Copies the registers of the given controller into this controller
+	 * @param source the given {@link IbmPcVideoController controller}
+	 */
+	private void copy( final IbmPcVideoController source ) {
+		System.arraycopy( source.crtc, 0, crtc, 0, crtc.length );
+		index		= source.index;
+		mode		= source.mode;
+		colorSelect	= source.colorSelect;
+	}
+
+	/**
+	 * @return the status register; based on the beam's position within the current frame
+	 */
+	private int getStatus() {
+		final long position	= ( clock.getCycles() % CYCLES_PER_FRAME ) * SCAN_LINES;
+		final int line		= (int)( position / CYCLES_PER_FRAME );
+		final int column	= (int)( ( position % CYCLES_PER_FRAME ) * 100 / CYCLES_PER_FRAME );
+
+		int status = 0;
+		if( line >= VISIBLE_LINES || column >= VISIBLE_PERCENT ) {
+			status |= DISPLAY_INACTIVE;
+		}
+		if( line >= VSYNC_FIRST_LINE && line <= VSYNC_LAST_LINE ) {
+			status |= VERTICAL_RETRACE;
+		}
+		return status;
+	}
+
+}
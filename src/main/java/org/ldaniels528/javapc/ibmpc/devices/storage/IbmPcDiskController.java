@@ -0,0 +1,105 @@
+package org.ldaniels528.javapc.ibmpc.devices.storage;
+
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+
+/**
+ * Represents the disk controller; tracks the {@link IbmPcDiskImage disk images}
+ * mounted in each drive (0=A:, 1=B:, 80h=first fixed disk, 81h=second fixed disk)
+ * as well as the status of the last disk operation.
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcDiskController {
+    private final Logger logger = Logger.getLogger(getClass());
+    private final Map<Integer, IbmPcDiskImage> drives = new TreeMap<>();
+    private int lastStatus;
+
+    /**
+     * Mounts the given disk image file in the given drive
+     * @param drive    the given drive number
+     * @param file     the given disk image {@link File file}
+     * @param readOnly indicates whether the image is write protected
+     * @return the mounted {@link IbmPcDiskImage disk image}
+     * @throws IOException if the image could not be opened
+     */
+    public IbmPcDiskImage mount(final int drive, final File file, final boolean readOnly) throws IOException {
+        final IbmPcDiskImage image = IbmPcDiskImage.open(file, readOnly);
+        unmount(drive);
+        drives.put(drive, image);
+        logger.info(format("Mounted '%s' (%s) in drive %02Xh", file.getName(), image.getGeometry(), drive));
+        return image;
+    }
+
+    /**
+     * Unmounts the disk image in the given drive; writing back any modified tracks
+     * @param drive the given drive number
+     * @throws IOException if the image could not be written
+     */
+    public void unmount(final int drive) throws IOException {
+        final IbmPcDiskImage image = drives.remove(drive);
+        if (image != null) {
+            image.close();
+        }
+    }
+
+    /**
+     * Retrieves the disk image mounted in the given drive
+     * @param drive the given drive number
+     * @return the {@link IbmPcDiskImage disk image}
+     * @throws IbmPcDiskException if no image is mounted in the drive
+     */
+    public IbmPcDiskImage getDrive(final int drive) throws IbmPcDiskException {
+        final IbmPcDiskImage image = drives.get(drive);
+        if (image == null) {
+            throw new IbmPcDiskException(IbmPcDiskException.DRIVE_NOT_READY, format("Drive %02Xh is not ready", drive));
+        }
+        return image;
+    }
+
+    /**
+     * Writes back the modified tracks of all mounted disk images
+     * @throws IOException if an image could not be written
+     */
+    public void flush() throws IOException {
+        for (final IbmPcDiskImage image : drives.values()) {
+            image.flush();
+        }
+    }
+
+    /**
+     * Returns the number of mounted drives of the given kind
+     * @param fixed indicates whether fixed disks (or diskettes) are to be counted
+     * @return the number of mounted drives
+     */
+    public int getDriveCount(final boolean fixed) {
+        int count = 0;
+        for (final int drive : drives.keySet()) {
+            if (((drive & 0x80) != 0) == fixed) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the status of the last disk operation
+     */
+    public int getLastStatus() {
+        return lastStatus;
+    }
+
+    /**
+     * Sets the status of the last disk operation
+     * @param lastStatus the given status
+     */
+    public void setLastStatus(final int lastStatus) {
+        this.lastStatus = lastStatus;
+    }
+
+}
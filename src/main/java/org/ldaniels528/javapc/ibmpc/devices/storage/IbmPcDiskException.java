@@ -0,0 +1,49 @@
+package org.ldaniels528.javapc.ibmpc.devices.storage;
+
+import org.ldaniels528.javapc.ibmpc.exceptions.IbmPcException;
+
+/**
+ * Represents a Disk Operation Exception; carries the BIOS disk status
+ * code (see INT 13h, AH=01h) describing the failure
+ * @author lawrence.daniels@gmail.com
+ */
+@SuppressWarnings("serial")
+public class IbmPcDiskException extends IbmPcException {
+    public static final int BAD_COMMAND = 0x01;
+    public static final int WRITE_PROTECTED = 0x03;
+    public static final int SECTOR_NOT_FOUND = 0x04;
+    public static final int DMA_BOUNDARY = 0x09;
+    public static final int SEEK_FAILURE = 0x40;
+    public static final int DRIVE_NOT_READY = 0x80;
+    public static final int UNDEFINED_ERROR = 0xBB;
+    private final int status;
+
+    /**
+     * Creates a new disk operation exception
+     * @param status the given BIOS disk status code
+     * @param message the given message/cause
+     */
+    public IbmPcDiskException(final int status, final String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * Creates a new disk operation exception
+     * @param status the given BIOS disk status code
+     * @param message the given message
+     * @param cause the given cause
+     */
+    public IbmPcDiskException(final int status, final String message, final Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    /**
+     * @return the BIOS disk status code
+     */
+    public int getStatus() {
+        return status;
+    }
+
+}
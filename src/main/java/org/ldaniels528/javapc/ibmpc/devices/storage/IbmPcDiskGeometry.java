@@ -0,0 +1,154 @@
+package org.ldaniels528.javapc.ibmpc.devices.storage;
+
+import static java.lang.String.format;
+
+/**
+ * Represents the Cylinder/Head/Sector (CHS) geometry of a disk
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcDiskGeometry {
+    public static final int SECTOR_SIZE = 512;
+
+    // standard diskette formats
+    public static final IbmPcDiskGeometry DISKETTE_160K  = new IbmPcDiskGeometry(40, 1,  8, 0x01, false);
+    public static final IbmPcDiskGeometry DISKETTE_180K  = new IbmPcDiskGeometry(40, 1,  9, 0x01, false);
+    public static final IbmPcDiskGeometry DISKETTE_320K  = new IbmPcDiskGeometry(40, 2,  8, 0x01, false);
+    public static final IbmPcDiskGeometry DISKETTE_360K  = new IbmPcDiskGeometry(40, 2,  9, 0x01, false);
+    public static final IbmPcDiskGeometry DISKETTE_720K  = new IbmPcDiskGeometry(80, 2,  9, 0x03, false);
+    public static final IbmPcDiskGeometry DISKETTE_1200K = new IbmPcDiskGeometry(80, 2, 15, 0x02, false);
+    public static final IbmPcDiskGeometry DISKETTE_1440K = new IbmPcDiskGeometry(80, 2, 18, 0x04, false);
+    private static final IbmPcDiskGeometry[] DISKETTES = {
+        DISKETTE_160K, DISKETTE_180K, DISKETTE_320K, DISKETTE_360K,
+        DISKETTE_720K, DISKETTE_1200K, DISKETTE_1440K
+    };
+
+    // internal fields
+    private final int cylinders;
+    private final int heads;
+    private final int sectorsPerTrack;
+    private final int driveType;
+    private final boolean fixed;
+
+    /**
+     * Creates a new disk geometry
+     * @param cylinders the number of cylinders (tracks per side)
+     * @param heads the number of heads (sides)
+     * @param sectorsPerTrack the number of sectors per track
+     * @param driveType the CMOS drive type
+     * @param fixed indicates whether the disk is a fixed (hard) disk
+     */
+    public IbmPcDiskGeometry(final int cylinders,
+                             final int heads,
+                             final int sectorsPerTrack,
+                             final int driveType,
+                             final boolean fixed) {
+        this.cylinders = cylinders;
+        this.heads = heads;
+        this.sectorsPerTrack = sectorsPerTrack;
+        this.driveType = driveType;
+        this.fixed = fixed;
+    }
+
+    /**
+     * Determines the geometry of a disk image based on its size; standard
+     * diskette sizes are recognized, and anything else is treated as a
+     * fixed disk of 17 sectors per track and 4 heads (or 63 sectors
+     * per track and 16 heads when more than 1024 cylinders would be needed).
+     * @param imageSize the given size of the disk image (in bytes)
+     * @return the {@link IbmPcDiskGeometry disk geometry}
+     */
+    public static IbmPcDiskGeometry forImageSize(final long imageSize) {
+        // is it a standard diskette?
+        for(final IbmPcDiskGeometry geometry : DISKETTES) {
+            if(geometry.getCapacity() == imageSize) {
+                return geometry;
+            }
+        }
+
+        // it must be a fixed disk
+        final long sectors = imageSize / SECTOR_SIZE;
+        final int cylinders = (int)(sectors / (17 * 4));
+        return (cylinders <= 1024)
+                ? new IbmPcDiskGeometry(Math.max(1, cylinders), 4, 17, 0x00, true)
+                : new IbmPcDiskGeometry((int)Math.min(1024, sectors / (63 * 16)), 16, 63, 0x00, true);
+    }
+
+    /**
+     * Converts the given cylinder, head and sector into a logical block address
+     * @param cylinder the given cylinder (0-based)
+     * @param head the given head (0-based)
+     * @param sector the given sector (1-based)
+     * @return the logical block address (0-based)
+     * @throws IbmPcDiskException if the address is not valid for this geometry
+     */
+    public int toLogicalBlockAddress(final int cylinder, final int head, final int sector)
+    throws IbmPcDiskException {
+        if(cylinder < 0 || cylinder >= cylinders || head < 0 || head >= heads) {
+            throw new IbmPcDiskException(IbmPcDiskException.SEEK_FAILURE,
+                    format("Invalid cylinder/head (%d/%d) for %s", cylinder, head, this));
+        }
+        if(sector < 1 || sector > sectorsPerTrack) {
+            throw new IbmPcDiskException(IbmPcDiskException.SECTOR_NOT_FOUND,
+                    format("Invalid sector (%d) for %s", sector, this));
+        }
+        return ((cylinder * heads) + head) * sectorsPerTrack + (sector - 1);
+    }
+
+    /**
+     * @return the capacity of the disk (in bytes)
+     */
+    public long getCapacity() {
+        return (long)getTotalSectors() * SECTOR_SIZE;
+    }
+
+    /**
+     * @return the number of cylinders (tracks per side)
+     */
+    public int getCylinders() {
+        return cylinders;
+    }
+
+    /**
+     * @return the CMOS drive type (diskettes only)
+     */
+    public int getDriveType() {
+        return driveType;
+    }
+
+    /**
+     * @return the number of heads (sides)
+     */
+    public int getHeads() {
+        return heads;
+    }
+
+    /**
+     * @return the number of sectors per track
+     */
+    public int getSectorsPerTrack() {
+        return sectorsPerTrack;
+    }
+
+    /**
+     * @return the total number of sectors
+     */
+    public int getTotalSectors() {
+        return cylinders * heads * sectorsPerTrack;
+    }
+
+    /**
+     * @return true, if the disk is a fixed (hard) disk
+     */
+    public boolean isFixed() {
+        return fixed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return format("CHS %d/%d/%d", cylinders, heads, sectorsPerTrack);
+    }
+
+}
@@ -0,0 +1,281 @@
+package org.ldaniels528.javapc.ibmpc.devices.storage;
+
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcDiskGeometry.SECTOR_SIZE;
+
+/**
+ * Represents a raw (sector-by-sector) disk image backed by a memory-mapped file.
+ * Sectors are transferred a track at a time through a small LRU track cache;
+ * modified tracks are written back to the mapping when they are evicted or
+ * when the image is {@link #flush() flushed}.
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcDiskImage implements Closeable {
+    // the default number of tracks to cache
+    private static final int DEFAULT_CACHED_TRACKS = 32;
+
+    // internal fields
+    private final File file;
+    private final RandomAccessFile raf;
+    private final MappedByteBuffer image;
+    private final IbmPcDiskGeometry geometry;
+    private final Map<Integer, Track> trackCache;
+    private final boolean readOnly;
+    private final int trackSize;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a new disk image
+     * @param file     the given disk image {@link File file}
+     * @param readOnly indicates whether the image is write protected
+     * @param geometry the given {@link IbmPcDiskGeometry disk geometry}
+     * @throws IOException if the image could not be mapped
+     */
+    public IbmPcDiskImage(final File file, final boolean readOnly, final IbmPcDiskGeometry geometry) throws IOException {
+        this.file = file;
+        this.readOnly = readOnly;
+        this.geometry = geometry;
+        this.trackSize = geometry.getSectorsPerTrack() * SECTOR_SIZE;
+        this.raf = new RandomAccessFile(file, readOnly ? "r" : "rw");
+        try {
+            final long size = Math.min(raf.length(), geometry.getCapacity());
+            this.image = raf.getChannel().map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (final IOException e) {
+            raf.close();
+            throw e;
+        }
+        this.trackCache = new LinkedHashMap<Integer, Track>(DEFAULT_CACHED_TRACKS * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Integer, Track> eldest) {
+                if (size() > DEFAULT_CACHED_TRACKS) {
+                    writeBack(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Opens the given disk image; determining its geometry from its size
+     * @param file     the given disk image {@link File file}
+     * @param readOnly indicates whether the image is write protected
+     * @return the {@link IbmPcDiskImage disk image}
+     * @throws IOException if the image could not be opened
+     */
+    public static IbmPcDiskImage open(final File file, final boolean readOnly) throws IOException {
+        final boolean writable = !readOnly && file.canWrite();
+        return new IbmPcDiskImage(file, !writable, IbmPcDiskGeometry.forImageSize(file.length()));
+    }
+
+    /**
+     * Reads the given number of sectors into memory at the given physical address
+     * @param cylinder        the given starting cylinder (0-based)
+     * @param head            the given starting head (0-based)
+     * @param sector          the given starting sector (1-based)
+     * @param count           the given number of sectors
+     * @param memory          the given {@link IbmPcRandomAccessMemory memory}
+     * @param physicalAddress the given physical address of the buffer
+     * @throws IbmPcDiskException if the sectors could not be read
+     */
+    public void read(final int cylinder, final int head, final int sector, final int count,
+                     final IbmPcRandomAccessMemory memory, final int physicalAddress) throws IbmPcDiskException {
+        transfer(cylinder, head, sector, count, memory, physicalAddress, false);
+    }
+
+    /**
+     * Writes the given number of sectors from memory at the given physical address
+     * @param cylinder        the given starting cylinder (0-based)
+     * @param head            the given starting head (0-based)
+     * @param sector          the given starting sector (1-based)
+     * @param count           the given number of sectors
+     * @param memory          the given {@link IbmPcRandomAccessMemory memory}
+     * @param physicalAddress the given physical address of the buffer
+     * @throws IbmPcDiskException if the sectors could not be written
+     */
+    public void write(final int cylinder, final int head, final int sector, final int count,
+                      final IbmPcRandomAccessMemory memory, final int physicalAddress) throws IbmPcDiskException {
+        if (readOnly) {
+            throw new IbmPcDiskException(IbmPcDiskException.WRITE_PROTECTED, format("Disk image '%s' is write protected", file.getName()));
+        }
+        transfer(cylinder, head, sector, count, memory, physicalAddress, true);
+    }
+
+    /**
+     * Verifies that the given sectors exist
+     * @param cylinder the given starting cylinder (0-based)
+     * @param head     the given starting head (0-based)
+     * @param sector   the given starting sector (1-based)
+     * @param count    the given number of sectors
+     * @throws IbmPcDiskException if any of the sectors do not exist
+     */
+    public void verify(final int cylinder, final int head, final int sector, final int count) throws IbmPcDiskException {
+        final int lba = geometry.toLogicalBlockAddress(cylinder, head, sector);
+        if (lba + count > geometry.getTotalSectors()) {
+            throw new IbmPcDiskException(IbmPcDiskException.SECTOR_NOT_FOUND, format("Sector %d is beyond the end of %s", lba + count - 1, geometry));
+        }
+    }
+
+    /**
+     * Writes all modified tracks back to the disk image file
+     * @throws IOException if the image could not be written
+     */
+    public void flush() throws IOException {
+        for (final Map.Entry<Integer, Track> entry : trackCache.entrySet()) {
+            writeBack(entry.getKey(), entry.getValue());
+        }
+        if (!readOnly) {
+            image.force();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            trackCache.clear();
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * @return the disk image {@link File file}
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the {@link IbmPcDiskGeometry disk geometry}
+     */
+    public IbmPcDiskGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return the number of track reads served from the track cache
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return the number of track reads that required the disk image
+     */
+    public long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return true, if the disk image is write protected
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Transfers sectors between memory and the track cache; a track-sized
+     * chunk at a time, so that multi-sector transfers may cross tracks
+     */
+    private void transfer(final int cylinder, final int head, final int sector, final int count,
+                          final IbmPcRandomAccessMemory memory, final int physicalAddress,
+                          final boolean writing) throws IbmPcDiskException {
+        // validate the request
+        verify(cylinder, head, sector, count);
+        final int spt = geometry.getSectorsPerTrack();
+        int lba = geometry.toLogicalBlockAddress(cylinder, head, sector);
+        int address = physicalAddress;
+        int remaining = count;
+
+        // transfer the sectors track by track
+        while (remaining > 0) {
+            final Track track = getTrack(lba / spt);
+            final int first = lba % spt;
+            final int sectors = Math.min(remaining, spt - first);
+            final int length = sectors * SECTOR_SIZE;
+            if (writing) {
+                memory.getBytes(address, track.data, first * SECTOR_SIZE, length);
+                track.dirty = true;
+            } else {
+                memory.setBytes(address, track.data, first * SECTOR_SIZE, length);
+            }
+            lba += sectors;
+            address += length;
+            remaining -= sectors;
+        }
+    }
+
+    /**
+     * Retrieves the given track; loading it from the disk image if necessary
+     * @param trackNo the given logical track number
+     * @return the {@link Track track}
+     */
+    private Track getTrack(final int trackNo) {
+        Track track = trackCache.get(trackNo);
+        if (track != null) {
+            hits++;
+            return track;
+        }
+
+        // load the track (a partial image reads as zeros past its end)
+        misses++;
+        track = new Track(trackSize);
+        final int position = trackNo * trackSize;
+        final int available = Math.max(0, Math.min(trackSize, image.limit() - position));
+        if (available > 0) {
+            final ByteBuffer buffer = image.duplicate();
+            buffer.position(position);
+            buffer.get(track.data, 0, available);
+        }
+        trackCache.put(trackNo, track);
+        return track;
+    }
+
+    /**
+     * Writes the given track back to the disk image if it has been modified
+     * @param trackNo the given logical track number
+     * @param track   the given {@link Track track}
+     */
+    private void writeBack(final int trackNo, final Track track) {
+        if (track.dirty) {
+            final int position = trackNo * trackSize;
+            final int available = Math.max(0, Math.min(trackSize, image.limit() - position));
+            if (available > 0) {
+                final ByteBuffer buffer = image.duplicate();
+                buffer.position(position);
+                buffer.put(track.data, 0, available);
+            }
+            track.dirty = false;
+        }
+    }
+
+    /**
+     * Represents a cached track
+     */
+    private static class Track {
+        private final byte[] data;
+        private boolean dirty;
+
+        Track(final int size) {
+            this.data = new byte[size];
+        }
+    }
+
+}
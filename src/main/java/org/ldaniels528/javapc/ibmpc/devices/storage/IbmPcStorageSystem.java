@@ -7,6 +7,7 @@ import org.ldaniels528.javapc.msdos.storage.MsDosFileAttributes;
 import org.ldaniels528.javapc.msdos.storage.MsDosFileHandle;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 
 /**
@@ -90,6 +91,44 @@ public interface IbmPcStorageSystem {
      */
     int readFromDevice(int handleID, byte[] block, int length) throws IbmPcException;
 
+    /**
+     * Reads data from the file that is referenced via the given file handle
+     * into the remaining space of the given buffer
+     * @param handleID the given file handle
+     * @param buffer   the {@link ByteBuffer buffer} that the data will be returned within
+     * @return the count of bytes read from the file
+     * @throws IbmPcException
+     */
+    int readFromDevice(int handleID, ByteBuffer buffer) throws IbmPcException;
+
+    /**
+     * Writes the remaining contents of the given buffer to the device via the
+     * given file handle
+     * @param handleID the given file handle
+     * @param buffer   the {@link ByteBuffer buffer} containing the data to write
+     * @return the count of bytes written to the device
+     * @throws IbmPcException
+     */
+    int writeToDevice(int handleID, ByteBuffer buffer) throws IbmPcException;
+
+    /**
+     * Moves the file pointer of the file that is referenced via the given file handle
+     * @param handleID the given file handle
+     * @param origin   the origin of the move (0=start, 1=current position, 2=end of file)
+     * @param offset   the (signed) number of bytes to move
+     * @return the new file position
+     * @throws IbmPcException
+     */
+    long seekDevice(int handleID, int origin, long offset) throws IbmPcException;
+
+    /**
+     * Truncates (or extends) the file that is referenced via the given file handle
+     * to its current file position
+     * @param handleID the given file handle
+     * @throws IbmPcException
+     */
+    void truncateDevice(int handleID) throws IbmPcException;
+
     /**
      * Writes the given collection of values to the device via the given file
      * handle
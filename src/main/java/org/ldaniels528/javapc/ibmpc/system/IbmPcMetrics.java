@@ -0,0 +1,300 @@
+package org.ldaniels528.javapc.ibmpc.system;
+
+import org.apache.log4j.Logger;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.X86InstructionClass;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+
+/**
+ * Represents the (process-wide) runtime metrics of all emulated machines; i.e. the
+ * 8086 instruction mix and MIPS, the decode cache hit rate, interrupt calls, video
+ * repaints and BASIC statement throughput. The counters are striped ({@link LongAdder}),
+ * so machines running on different threads do not contend; the CPU accumulates its
+ * instruction counts locally and publishes them periodically. The metrics are
+ * registered with the platform MBean server as <tt>org.ldaniels528.javapc:type=IbmPcMetrics</tt>.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcMetrics implements IbmPcMetricsMXBean {
+    private static final X86InstructionClass[] INSTRUCTION_CLASSES = X86InstructionClass.values();
+    private static final String OBJECT_NAME = "org.ldaniels528.javapc:type=IbmPcMetrics";
+    private static final IbmPcMetrics instance = new IbmPcMetrics();
+    private final Logger logger = Logger.getLogger(getClass());
+    private final LongAdder[] instructions = createCounters(INSTRUCTION_CLASSES.length);
+    private final LongAdder[] interrupts = createCounters(256);
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder decodeCacheHits = new LongAdder();
+    private final LongAdder decodeCacheMisses = new LongAdder();
+    private final LongAdder videoRepaints = new LongAdder();
+    private final LongAdder basicStatements = new LongAdder();
+    private final LongAdder basicNanos = new LongAdder();
+
+    static {
+        instance.register();
+    }
+
+    /**
+     * Default constructor
+     */
+    private IbmPcMetrics() {
+        super();
+    }
+
+    /**
+     * @return the singleton instance of the runtime metrics
+     */
+    public static IbmPcMetrics getInstance() {
+        return instance;
+    }
+
+    /////////////////////////////////////////////////////////
+    //		Recording Method(s)
+    /////////////////////////////////////////////////////////
+
+    /**
+     * Records executed 8086 instructions
+     *
+     * @param counts the given number of instructions executed per {@link X86InstructionClass instruction class} (by ordinal)
+     * @param nanos  the CPU execution time (in nanoseconds) spent executing the instructions
+     */
+    public void recordInstructions(final long[] counts, final long nanos) {
+        for (int n = 0; n < counts.length; n++) {
+            if (counts[n] != 0) {
+                instructions[n].add(counts[n]);
+            }
+        }
+        cpuNanos.add(nanos);
+    }
+
+    /**
+     * Records decode cache lookups
+     *
+     * @param hits   the given number of instructions served from the decode cache
+     * @param misses the given number of instructions that had to be decoded
+     */
+    public void recordDecodes(final long hits, final long misses) {
+        decodeCacheHits.add(hits);
+        decodeCacheMisses.add(misses);
+    }
+
+    /**
+     * Records a call to the given interrupt vector
+     *
+     * @param interruptNo the given interrupt number
+     */
+    public void recordInterrupt(final int interruptNo) {
+        interrupts[interruptNo & 0xFF].increment();
+    }
+
+    /**
+     * Records a repaint of the video display
+     */
+    public void recordRepaint() {
+        videoRepaints.increment();
+    }
+
+    /**
+     * Records executed BASIC statements
+     *
+     * @param count the given number of statements executed
+     * @param nanos the execution time (in nanoseconds) spent executing the statements
+     */
+    public void recordStatements(final long count, final long nanos) {
+        basicStatements.add(count);
+        basicNanos.add(nanos);
+    }
+
+    /////////////////////////////////////////////////////////
+    //		Query Method(s)
+    /////////////////////////////////////////////////////////
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getInstructionCount() {
+        long count = 0;
+        for (final LongAdder counter : instructions) {
+            count += counter.sum();
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getInstructionMix() {
+        final Map<String, Long> mix = new LinkedHashMap<>();
+        for (final X86InstructionClass instructionClass : INSTRUCTION_CLASSES) {
+            mix.put(instructionClass.name(), instructions[instructionClass.ordinal()].sum());
+        }
+        return mix;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getMIPS() {
+        final long nanos = cpuNanos.sum();
+        return (nanos > 0) ? getInstructionCount() * 1000d / nanos : 0d;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getDecodeCacheHits() {
+        return decodeCacheHits.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getDecodeCacheMisses() {
+        return decodeCacheMisses.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getDecodeCacheHitRate() {
+        final long hits = decodeCacheHits.sum();
+        final long total = hits + decodeCacheMisses.sum();
+        return (total > 0) ? (double) hits / total : 0d;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getInterruptCounts() {
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        for (int interruptNo = 0; interruptNo < interrupts.length; interruptNo++) {
+            final long count = interrupts[interruptNo].sum();
+            if (count > 0) {
+                counts.put(format("%02X", interruptNo), count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getVideoRepaints() {
+        return videoRepaints.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getBasicStatementCount() {
+        return basicStatements.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getBasicStatementsPerSecond() {
+        final long nanos = basicNanos.sum();
+        return (nanos > 0) ? basicStatements.sum() * 1e9d / nanos : 0d;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toJSON() {
+        return "{" +
+                "\"instructions\":{" +
+                "\"count\":" + getInstructionCount() + "," +
+                "\"mips\":" + toJSON(getMIPS()) + "," +
+                "\"mix\":" + toJSON(getInstructionMix()) + "}," +
+                "\"decodeCache\":{" +
+                "\"hits\":" + getDecodeCacheHits() + "," +
+                "\"misses\":" + getDecodeCacheMisses() + "," +
+                "\"hitRate\":" + toJSON(getDecodeCacheHitRate()) + "}," +
+                "\"interrupts\":" + toJSON(getInterruptCounts()) + "," +
+                "\"video\":{" +
+                "\"repaints\":" + getVideoRepaints() + "}," +
+                "\"basic\":{" +
+                "\"statements\":" + getBasicStatementCount() + "," +
+                "\"statementsPerSecond\":" + toJSON(getBasicStatementsPerSecond()) + "}" +
+                "}";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        for (final LongAdder counter : instructions) counter.reset();
+        for (final LongAdder counter : interrupts) counter.reset();
+        cpuNanos.reset();
+        decodeCacheHits.reset();
+        decodeCacheMisses.reset();
+        videoRepaints.reset();
+        basicStatements.reset();
+        basicNanos.reset();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return toJSON();
+    }
+
+    /////////////////////////////////////////////////////////
+    //		Utility Method(s)
+    /////////////////////////////////////////////////////////
+
+    /**
+     * Registers the metrics with the platform MBean server
+     */
+    private void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (final JMException | SecurityException e) {
+            logger.warn(format("Metrics could not be registered as %s: %s", OBJECT_NAME, e.getMessage()));
+        }
+    }
+
+    private static LongAdder[] createCounters(final int count) {
+        final LongAdder[] counters = new LongAdder[count];
+        for (int n = 0; n < count; n++) {
+            counters[n] = new LongAdder();
+        }
+        return counters;
+    }
+
+    private static String toJSON(final double value) {
+        return format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String toJSON(final Map<String, Long> counts) {
+        final StringBuilder sb = new StringBuilder("{");
+        for (final Map.Entry<String, Long> entry : counts.entrySet()) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+        }
+        return sb.append('}').toString();
+    }
+
+}
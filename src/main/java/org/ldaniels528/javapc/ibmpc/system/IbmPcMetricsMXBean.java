@@ -0,0 +1,77 @@
+package org.ldaniels528.javapc.ibmpc.system;
+
+import java.util.Map;
+
+/**
+ * Represents the JMX view of the {@link IbmPcMetrics runtime metrics}
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public interface IbmPcMetricsMXBean {
+
+    /**
+     * @return the total number of 8086 instructions executed
+     */
+    long getInstructionCount();
+
+    /**
+     * Returns the number of 8086 instructions executed per instruction class
+     *
+     * @return the mapping of instruction class (e.g. "ARITHMETIC") to the number of instructions executed
+     * @see org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.X86InstructionClass
+     */
+    Map<String, Long> getInstructionMix();
+
+    /**
+     * @return the number of 8086 instructions executed per second of CPU execution time (in millions)
+     */
+    double getMIPS();
+
+    /**
+     * @return the number of instructions served from the decode cache
+     */
+    long getDecodeCacheHits();
+
+    /**
+     * @return the number of instructions that had to be decoded
+     */
+    long getDecodeCacheMisses();
+
+    /**
+     * @return the fraction (0.0 to 1.0) of instructions served from the decode cache
+     */
+    double getDecodeCacheHitRate();
+
+    /**
+     * Returns the number of calls per interrupt vector
+     *
+     * @return the mapping of interrupt number (e.g. "21") to the number of calls
+     */
+    Map<String, Long> getInterruptCounts();
+
+    /**
+     * @return the number of video display repaints
+     */
+    long getVideoRepaints();
+
+    /**
+     * @return the total number of BASIC statements executed
+     */
+    long getBasicStatementCount();
+
+    /**
+     * @return the number of BASIC statements executed per second of program execution time
+     */
+    double getBasicStatementsPerSecond();
+
+    /**
+     * @return the metrics as a JSON document
+     */
+    String toJSON();
+
+    /**
+     * Resets all metrics
+     */
+    void reset();
+
+}
@@ -9,7 +9,9 @@ import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryProxy;
 import org.ldaniels528.javapc.ibmpc.devices.mouse.IbmPcMouse;
 import org.ldaniels528.javapc.ibmpc.devices.ports.IbmPcHardwarePorts;
+import org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcDiskController;
 import org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcStorageSystem;
+import org.ldaniels528.javapc.ibmpc.exceptions.IbmPcException;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
 
 import java.util.List;
@@ -58,6 +60,11 @@ public interface IbmPcSystem {
      */
     I8086 getCPU();
 
+    /**
+     * @return the disk controller (BIOS INT 13h disk images)
+     */
+    IbmPcDiskController getDiskController();
+
     /**
      * @return the graphical display manager.
      */
@@ -98,4 +105,22 @@ public interface IbmPcSystem {
      */
     IbmPcSystemInfo getInformation();
 
+    /**
+     * Captures the state of the machine; memory pages that have not been modified
+     * since the previous snapshot (or restore) are shared with it rather than copied
+     *
+     * @return the {@link IbmPcSystemSnapshot snapshot}
+     * @throws IbmPcException
+     */
+    IbmPcSystemSnapshot snapshot() throws IbmPcException;
+
+    /**
+     * Restores the state of the machine from the given snapshot; which may have been
+     * taken from this machine or another machine of the same type
+     *
+     * @param snapshot the given {@link IbmPcSystemSnapshot snapshot}
+     * @throws IbmPcException
+     */
+    void restore(IbmPcSystemSnapshot snapshot) throws IbmPcException;
+
 }
@@ -1,6 +1,8 @@
 package org.ldaniels528.javapc.ibmpc.system;
 
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayFrame;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameSink;
+import org.ldaniels528.javapc.ibmpc.exceptions.IbmPcException;
 
 /**
  * IBM PC System Factory
@@ -29,4 +31,63 @@ public class IbmPcSystemFactory {
         return new IbmPcSystemImpl(frame, IbmPcSystem.IBM_PC);
     }
 
+    /**
+     * Creates an instance of a headless IBM PC jr system
+     *
+     * @param sink the given {@link IbmPcFrameSink display target} (e.g. an in-memory frame buffer)
+     * @return a new {@link IbmPcSystem IBM PC jr system}
+     */
+    public static IbmPcSystem getHeadlessIBMPCjr(final IbmPcFrameSink sink) {
+        return new IbmPcSystemImpl(sink, IbmPcSystem.IBM_PCjr);
+    }
+
+    /**
+     * Creates an instance of a headless IBM PC system
+     *
+     * @param sink the given {@link IbmPcFrameSink display target} (e.g. an in-memory frame buffer)
+     * @return a new {@link IbmPcSystem IBM PC system}
+     */
+    public static IbmPcSystem getHeadlessIBMPC(final IbmPcFrameSink sink) {
+        return new IbmPcSystemImpl(sink, IbmPcSystem.IBM_PC);
+    }
+
+    /**
+     * Creates a headless IBM PC jr system from the given snapshot (e.g. a "golden" machine
+     * that has already booted); a fully initialized system is created, and the snapshot is then
+     * restored into it, copying every memory page of the snapshot into the new system's memory
+     *
+     * @param snapshot the given {@link IbmPcSystemSnapshot snapshot}
+     * @param sink     the given {@link IbmPcFrameSink display target} (e.g. an in-memory frame buffer)
+     * @return a new {@link IbmPcSystem IBM PC jr system}
+     * @throws IbmPcException
+     */
+    public static IbmPcSystem fork(final IbmPcSystemSnapshot snapshot, final IbmPcFrameSink sink) throws IbmPcException {
+        final IbmPcSystem system = getHeadlessIBMPCjr(sink);
+        system.restore(snapshot);
+        return system;
+    }
+
+    /**
+     * Creates a pool running jobs on isolated, headless IBM PC jr systems
+     *
+     * @param threads the given number of threads (systems running at once);
+     *                e.g. {@link Runtime#availableProcessors() one per core}
+     * @return a new {@link IbmPcSystemPool system pool}
+     */
+    public static IbmPcSystemPool<IbmPcSystem> getSystemPool(final int threads) {
+        return new IbmPcSystemPool<>(threads, IbmPcSystemFactory::getHeadlessIBMPCjr);
+    }
+
+    /**
+     * Creates a pool running jobs on headless IBM PC jr systems; each thread keeps its own
+     * system, which is restored from the given snapshot before each job
+     *
+     * @param threads  the given number of threads (systems running at once)
+     * @param snapshot the given {@link IbmPcSystemSnapshot snapshot} each job begins from
+     * @return a new {@link IbmPcSystemPool system pool}
+     */
+    public static IbmPcSystemPool<IbmPcSystem> getSystemPool(final int threads, final IbmPcSystemSnapshot snapshot) {
+        return new IbmPcSystemPool<>(threads, IbmPcSystemFactory::getHeadlessIBMPCjr, snapshot);
+    }
+
 }
@@ -4,9 +4,13 @@ import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.OpCode;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramContext;
 import org.ldaniels528.javapc.ibmpc.devices.bios.IbmPcBIOS;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcColorSet;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplay;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayFrame;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameScheduler;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameSink;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcVideoDisplay;
+import org.ldaniels528.javapc.ibmpc.devices.display.modes.AbstractPackedPixelGraphicsMode;
 import org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayMode;
 import org.ldaniels528.javapc.ibmpc.devices.keyboard.IbmPcKeyEventListener;
 import org.ldaniels528.javapc.ibmpc.devices.keyboard.IbmPcKeyboard;
@@ -14,12 +18,19 @@ import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
 import org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryProxy;
 import org.ldaniels528.javapc.ibmpc.devices.mouse.IbmPcMouse;
 import org.ldaniels528.javapc.ibmpc.devices.ports.IbmPcHardwarePorts;
+import org.ldaniels528.javapc.ibmpc.devices.ports.IbmPcInterruptController;
+import org.ldaniels528.javapc.ibmpc.devices.ports.IbmPcIntervalTimer;
+import org.ldaniels528.javapc.ibmpc.devices.ports.IbmPcKeyboardController;
+import org.ldaniels528.javapc.ibmpc.devices.ports.IbmPcVideoController;
+import org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcDiskController;
 import org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcStorageSystem;
+import org.ldaniels528.javapc.ibmpc.exceptions.IbmPcException;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
 import org.ldaniels528.javapc.msdos.services.MsDosMouseServices;
 import org.ldaniels528.javapc.msdos.services.MsDosSystemServices;
 import org.ldaniels528.javapc.msdos.services.ProgramTerminateService;
 import org.ldaniels528.javapc.msdos.services.TerminateStayResidentServices;
+import org.ldaniels528.javapc.msdos.storage.MsDosStorageSnapshot;
 import org.ldaniels528.javapc.msdos.storage.MsDosStorageSystem;
 
 import java.awt.event.KeyEvent;
@@ -36,7 +47,9 @@ public class IbmPcSystemImpl implements IbmPcSystem, IbmPcKeyEventListener {
     protected final IbmPcRandomAccessMemory memory;
     protected final X86MemoryProxy proxy;
     protected final IbmPcStorageSystem storageSystem;
+    protected final IbmPcDiskController diskController;
     protected final IbmPcDisplay display;
+    protected final IbmPcFrameScheduler frameScheduler;
     protected final IbmPcHardwarePorts hardwarePorts;
     protected final IbmPcKeyboard keyboard;
     protected final IbmPcSystemInfo systemInfo;
@@ -51,15 +64,40 @@ public class IbmPcSystemImpl implements IbmPcSystem, IbmPcKeyEventListener {
      * @param systemType the given IBM PC-compatible system type
      */
     public IbmPcSystemImpl(final IbmPcDisplayFrame frame, final int systemType) {
+        this(frame, frame, systemType);
+    }
+
+    /**
+     * Creates an instance of a headless IBM PC/XT-compatible system; the display
+     * renders to the given sink (e.g. an in-memory frame buffer) only when it is
+     * explicitly updated, and the keyboard and mouse receive no host input
+     *
+     * @param sink the given {@link IbmPcFrameSink display target}
+     * @param systemType the given IBM PC-compatible system type
+     */
+    public IbmPcSystemImpl(final IbmPcFrameSink sink, final int systemType) {
+        this(sink, null, systemType);
+    }
+
+    /**
+     * Creates an instance of an IBM PC/XT-compatible system
+     *
+     * @param sink the given {@link IbmPcFrameSink display target}
+     * @param frame the given {@link IbmPcDisplayFrame frame} (for keyboard and mouse input)
+     * @param systemType the given IBM PC-compatible system type
+     */
+    private IbmPcSystemImpl(final IbmPcFrameSink sink, final IbmPcDisplayFrame frame, final int systemType) {
         this.systemInfo = new IbmPcSystemInfoImpl();
         this.memory = new IbmPcRandomAccessMemory();
         this.proxy = new X86MemoryProxy(memory, 0, 0);
         this.bios = new IbmPcBIOS(memory);
         this.cpu = new I8086(proxy);
         this.display = new IbmPcVideoDisplay(bios, systemInfo.getInitialDisplayMode());
-        this.hardwarePorts = new IbmPcHardwarePorts(memory);
+        this.frameScheduler = new IbmPcFrameScheduler(display);
+        this.hardwarePorts = new IbmPcHardwarePorts();
         this.keyboard = new IbmPcKeyboard(display);
         this.storageSystem = new MsDosStorageSystem();
+        this.diskController = new IbmPcDiskController();
         this.mouse = new IbmPcMouse();
 
         // set the PC identifier byte at F000:FFFE
@@ -68,15 +106,22 @@ public class IbmPcSystemImpl implements IbmPcSystem, IbmPcKeyEventListener {
         // initialize the virtual BIOS
         initializeBIOS(systemInfo);
 
+        // attach the devices to their hardware ports
+        initializePorts();
+
+        // attach the display to its target
+        if (sink != null) {
+            display.init(sink);
+        }
+
         // initialize the objects that depend on the frame
         if (frame != null) {
-            display.init(frame);
             mouse.init(frame);
             keyboard.init(frame);
-        }
 
-        // register video memory for updating the display
-        memory.add(0xB000, 0xBFFF, (fromAddress, toAddress) -> display.update());
+            // repaint the changed portions of video memory at a bounded rate
+            frameScheduler.start();
+        }
 
         // register for specific key events
         keyboard.register(this);
@@ -112,6 +157,14 @@ public class IbmPcSystemImpl implements IbmPcSystem, IbmPcKeyEventListener {
         return cpu;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IbmPcDiskController getDiskController() {
+        return diskController;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -176,6 +229,56 @@ public class IbmPcSystemImpl implements IbmPcSystem, IbmPcKeyEventListener {
         return systemInfo;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IbmPcSystemSnapshot snapshot() throws IbmPcException {
+        final MsDosStorageSnapshot storage = (storageSystem instanceof MsDosStorageSystem)
+                ? ((MsDosStorageSystem) storageSystem).snapshot()
+                : null;
+        return new IbmPcSystemSnapshot(memory.snapshot(), cpu, bios, hardwarePorts, display, storage);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(final IbmPcSystemSnapshot snapshot) throws IbmPcException {
+        // restore the display mode first; since changing modes clears video memory
+        if (display.getDisplayMode() != snapshot.displayMode) {
+            display.setDisplayMode(snapshot.displayMode);
+        }
+
+        // restore memory (only the pages modified since the snapshot, when possible)
+        memory.restore(snapshot.memory);
+
+        // restore the CPU, clock, BIOS and port devices
+        cpu.setRegisterState(snapshot.registers);
+        cpu.resetOverrideRegister();
+        cpu.getStack().setElementCount(snapshot.stackElements);
+        if (snapshot.active) cpu.resume();
+        else cpu.halt();
+        cpu.getClock().setCycles(snapshot.cycles, snapshot.epochMillis);
+        bios.setHandlers(snapshot.handlers);
+        hardwarePorts.restoreState(snapshot.ports);
+
+        // restore the display context (forcing a full repaint)
+        final IbmPcColorSet color = snapshot.color;
+        display.setColor(new IbmPcColorSet(color.getForeground(), color.getBackground(), color.getBorder()));
+        display.getContext().caption = snapshot.caption;
+        display.setCursorPosition(snapshot.position);
+        display.setActivePage(snapshot.activePage);
+        if (display.getDisplayMode() instanceof AbstractPackedPixelGraphicsMode) {
+            ((AbstractPackedPixelGraphicsMode) display.getDisplayMode()).setPalette(display.getContext(), snapshot.palette);
+        }
+
+        // restore the storage system
+        if ((snapshot.storage != null) && (storageSystem instanceof MsDosStorageSystem)) {
+            ((MsDosStorageSystem) storageSystem).restore(snapshot.storage);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -206,6 +309,20 @@ public class IbmPcSystemImpl implements IbmPcSystem, IbmPcKeyEventListener {
         bios.register(0x33, 0xF000, 0x010C, MsDosMouseServices.getInstance());
     }
 
+    /**
+     * Attaches the devices to their hardware ports
+     */
+    private void initializePorts() {
+        final IbmPcKeyboardController keyboardController = new IbmPcKeyboardController();
+        keyboard.register(keyboardController);
+
+        hardwarePorts.register(IbmPcInterruptController.COMMAND, IbmPcInterruptController.DATA, new IbmPcInterruptController());
+        hardwarePorts.register(IbmPcIntervalTimer.COUNTER0, IbmPcIntervalTimer.CONTROL, new IbmPcIntervalTimer(cpu.getClock()));
+        hardwarePorts.register(IbmPcKeyboardController.DATA, keyboardController);
+        hardwarePorts.register(IbmPcKeyboardController.STATUS, keyboardController);
+        hardwarePorts.register(IbmPcVideoController.FIRST_PORT, IbmPcVideoController.STATUS, new IbmPcVideoController(cpu.getClock()));
+    }
+
     /**
      * Represents system information for this PC/XT System
      *
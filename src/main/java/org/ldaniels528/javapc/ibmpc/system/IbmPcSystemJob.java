@@ -0,0 +1,25 @@
+package org.ldaniels528.javapc.ibmpc.system;
+
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameBuffer;
+
+/**
+ * Represents a unit of work executed by an {@link IbmPcSystemPool system pool}
+ * against its own isolated, headless machine
+ *
+ * @param <S> the type of {@link IbmPcSystem system} the job runs on
+ * @param <T> the type of the job's result
+ * @author lawrence.daniels@gmail.com
+ */
+public interface IbmPcSystemJob<S extends IbmPcSystem, T> {
+
+    /**
+     * Executes the job
+     *
+     * @param system the given (newly created) {@link IbmPcSystem system}
+     * @param screen the given {@link IbmPcFrameBuffer frame buffer} the system's display renders to
+     * @return the result of the job
+     * @throws Exception if the job could not be completed
+     */
+    T execute(S system, IbmPcFrameBuffer screen) throws Exception;
+
+}
@@ -0,0 +1,150 @@
+package org.ldaniels528.javapc.ibmpc.system;
+
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameBuffer;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameSink;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Represents a pool of threads running {@link IbmPcSystemJob jobs} on isolated,
+ * headless machines; each job is given its own newly created {@link IbmPcSystem system}
+ * (memory, CPU, devices and display), so any number of jobs may run concurrently.
+ * When the pool is created with a {@link IbmPcSystemSnapshot snapshot}, each thread
+ * instead keeps its own machine, which is restored from the snapshot before each job;
+ * only the memory modified by the previous job is copied back.
+ *
+ * @param <S> the type of {@link IbmPcSystem system} created for each job
+ * @author lawrence.daniels@gmail.com
+ * @see IbmPcSystemFactory#getSystemPool(int)
+ */
+public class IbmPcSystemPool<S extends IbmPcSystem> implements AutoCloseable {
+    private final Function<IbmPcFrameSink, S> machineFactory;
+    private final ThreadLocal<Machine<S>> machines;
+    private final IbmPcSystemSnapshot snapshot;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a new system pool
+     *
+     * @param threads        the given number of threads (machines running at once)
+     * @param machineFactory the given function creating a headless machine that renders to the given sink
+     */
+    public IbmPcSystemPool(final int threads, final Function<IbmPcFrameSink, S> machineFactory) {
+        this(threads, machineFactory, null);
+    }
+
+    /**
+     * Creates a new system pool; whose machines begin each job from the given snapshot
+     *
+     * @param threads        the given number of threads (machines running at once)
+     * @param machineFactory the given function creating a headless machine that renders to the given sink
+     * @param snapshot       the given {@link IbmPcSystemSnapshot snapshot} each job begins from (or <tt>null</tt>)
+     */
+    public IbmPcSystemPool(final int threads,
+                           final Function<IbmPcFrameSink, S> machineFactory,
+                           final IbmPcSystemSnapshot snapshot) {
+        this.machineFactory = machineFactory;
+        this.snapshot = snapshot;
+        this.machines = ThreadLocal.withInitial(() -> new Machine<>(machineFactory));
+        this.executor = Executors.newFixedThreadPool(threads, new MachineThreadFactory());
+    }
+
+    /**
+     * Submits the given job for execution on a new (or freshly restored) machine
+     *
+     * @param job the given {@link IbmPcSystemJob job}
+     * @param <T> the type of the job's result
+     * @return the {@link Future future} result of the job
+     */
+    public <T> Future<T> submit(final IbmPcSystemJob<S, T> job) {
+        return executor.submit(() -> {
+            // reuse this thread's machine; restoring its state from the snapshot
+            if (snapshot != null) {
+                final Machine<S> machine = machines.get();
+                machine.system.restore(snapshot);
+                return job.execute(machine.system, machine.screen);
+            }
+
+            final IbmPcFrameBuffer screen = new IbmPcFrameBuffer();
+            return job.execute(machineFactory.apply(screen), screen);
+        });
+    }
+
+    /**
+     * Submits the given jobs for execution; each on a new machine
+     *
+     * @param jobs the given {@link IbmPcSystemJob jobs}
+     * @param <T>  the type of the jobs' results
+     * @return the {@link Future future} results of the jobs (in the order of the given jobs)
+     */
+    public <T> List<Future<T>> submitAll(final Collection<? extends IbmPcSystemJob<S, T>> jobs) {
+        final List<Future<T>> results = new ArrayList<>(jobs.size());
+        for (final IbmPcSystemJob<S, T> job : jobs) {
+            results.add(submit(job));
+        }
+        return results;
+    }
+
+    /**
+     * Stops accepting jobs, and waits for the submitted jobs to complete
+     *
+     * @param timeout the given maximum time to wait
+     * @param unit    the given {@link TimeUnit unit} of the timeout
+     * @return true, if all jobs completed before the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        executor.shutdown();
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Stops accepting jobs; the submitted jobs continue to run
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Represents a machine kept by a pool thread, and the frame buffer it renders to
+     */
+    private static class Machine<S extends IbmPcSystem> {
+        private final IbmPcFrameBuffer screen;
+        private final S system;
+
+        private Machine(final Function<IbmPcFrameSink, S> machineFactory) {
+            this.screen = new IbmPcFrameBuffer();
+            this.system = machineFactory.apply(screen);
+        }
+    }
+
+    /**
+     * Creates the (daemon) threads on which the machines run
+     */
+    private static class MachineThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOLS = new AtomicInteger();
+        private final AtomicInteger threads = new AtomicInteger();
+        private final int pool = POOLS.incrementAndGet();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Thread newThread(final Runnable task) {
+            final Thread thread = new Thread(task, String.format("ibmpc-%d-machine-%d", pool, threads.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.ldaniels528.javapc.ibmpc.system;
+
+import org.ldaniels528.javapc.ibmpc.devices.bios.IbmPcBIOS;
+import org.ldaniels528.javapc.ibmpc.devices.bios.services.InterruptHandler;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.operands.memory.MemoryAddressFAR32;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcColorSet;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplay;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayContext;
+import org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayMode;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcMemorySnapshot;
+import org.ldaniels528.javapc.ibmpc.devices.ports.IbmPcHardwarePorts;
+import org.ldaniels528.javapc.msdos.storage.MsDosStorageSnapshot;
+
+import java.util.Map;
+
+/**
+ * Represents an immutable image of the state of an {@link IbmPcSystem IBM PC system}
+ * (memory, registers, clock, BIOS handlers, port devices, display and storage); a snapshot may be
+ * restored into the machine it was taken from, or into any number of other machines
+ * (e.g. forking many machines from a single "golden" machine that has already booted).
+ * Memory pages are shared between snapshots (and restored incrementally), so taking and
+ * restoring snapshots costs in proportion to the memory modified in between.
+ *
+ * @author lawrence.daniels@gmail.com
+ * @see IbmPcSystem#snapshot()
+ * @see IbmPcSystem#restore(IbmPcSystemSnapshot)
+ */
+public class IbmPcSystemSnapshot {
+    final IbmPcMemorySnapshot memory;
+    final int[] registers;
+    final int stackElements;
+    final boolean active;
+    final long cycles;
+    final long epochMillis;
+    final Map<MemoryAddressFAR32, InterruptHandler> handlers;
+    final Map<Integer, Object> ports;
+    final IbmPcDisplayMode displayMode;
+    final IbmPcColorSet color;
+    final String caption;
+    final int position;
+    final int activePage;
+    final int palette;
+    final MsDosStorageSnapshot storage;
+
+    /**
+     * Captures the state of the given machine's devices
+     *
+     * @param memory  the given {@link IbmPcMemorySnapshot memory snapshot}
+     * @param cpu     the given {@link I8086 CPU}
+     * @param bios    the given {@link IbmPcBIOS BIOS}
+     * @param ports   the given {@link IbmPcHardwarePorts hardware ports}
+     * @param display the given {@link IbmPcDisplay display}
+     * @param storage the given {@link MsDosStorageSnapshot storage snapshot} (or <tt>null</tt>)
+     */
+    IbmPcSystemSnapshot(final IbmPcMemorySnapshot memory,
+                        final I8086 cpu,
+                        final IbmPcBIOS bios,
+                        final IbmPcHardwarePorts ports,
+                        final IbmPcDisplay display,
+                        final MsDosStorageSnapshot storage) {
+        final IbmPcDisplayContext dc = display.getContext();
+        final IbmPcColorSet colorSet = dc.color;
+        this.memory = memory;
+        this.registers = cpu.getRegisterState();
+        this.stackElements = cpu.getStack().getElementCount();
+        this.active = cpu.isActive();
+        this.cycles = cpu.getClock().getCycles();
+        this.epochMillis = cpu.getClock().getEpochMillis();
+        this.handlers = bios.getHandlers();
+        this.ports = ports.saveState();
+        this.displayMode = display.getDisplayMode();
+        this.color = new IbmPcColorSet(colorSet.getForeground(), colorSet.getBackground(), colorSet.getBorder());
+        this.caption = dc.caption;
+        this.position = dc.position;
+        this.activePage = dc.activePage;
+        this.palette = dc.palette;
+        this.storage = storage;
+    }
+
+    /**
+     * @return the {@link IbmPcMemorySnapshot memory snapshot}
+     */
+    public IbmPcMemorySnapshot getMemory() {
+        return memory;
+    }
+
+    /**
+     * @return the number of elapsed CPU cycles at the time of the snapshot
+     */
+    public long getCycles() {
+        return cycles;
+    }
+
+}
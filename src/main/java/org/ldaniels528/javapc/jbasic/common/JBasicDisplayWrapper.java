@@ -3,7 +3,7 @@ package org.ldaniels528.javapc.jbasic.common;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcColorSet;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplay;
 import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayContext;
-import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayFrame;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameSink;
 import org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayMode;
 
 /**
@@ -130,8 +130,8 @@ public class JBasicDisplayWrapper implements IbmPcDisplay {
      * {@inheritDoc}
      */
     @Override
-    public void init(IbmPcDisplayFrame frame) {
-        display.init(frame);
+    public void init(IbmPcFrameSink sink) {
+        display.init(sink);
     }
 
     /**
@@ -200,7 +200,7 @@ public class JBasicDisplayWrapper implements IbmPcDisplay {
     @Override
     public void setDisplayMode(final IbmPcDisplayMode mode) {
         keyLabels.setColumns(mode.getColumns());
-        mode.setCaption(keyLabels.getLabelText());
+        mode.setCaption(display.getContext(), keyLabels.getLabelText());
         display.setDisplayMode(mode);
     }
 
@@ -212,6 +212,14 @@ public class JBasicDisplayWrapper implements IbmPcDisplay {
         display.update();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean refresh() {
+        return display.refresh();
+    }
+
     /**
      * {@inheritDoc}
      */
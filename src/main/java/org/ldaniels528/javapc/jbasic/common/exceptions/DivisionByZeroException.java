@@ -0,0 +1,17 @@
+package org.ldaniels528.javapc.jbasic.common.exceptions;
+
+/**
+ * Division by Zero Exception
+ * @author lawrence.daniels@gmail.com
+ */
+@SuppressWarnings("serial")
+public class DivisionByZeroException extends RuntimeException {
+
+	/**
+	 * Default Constructor
+	 */
+	public DivisionByZeroException() {
+		super( "Division by zero" );
+	}
+
+}
@@ -183,6 +183,31 @@ public interface JBasicCompiledCode extends JBasicCompiledCodeReference {
      */
     void gotoLabel(String label, boolean returns) throws JBasicException;
 
+    /**
+     * Causes the execution of the program to change to the given (linked) opCode index
+     *
+     * @param index   the given opCode index
+     * @param returns indicates whether an entry should be made on the call stack to setup a return
+     */
+    void gotoIndex(int index, boolean returns);
+
+    /**
+     * Begins the (linked) loop occupying the given slot
+     *
+     * @param slot the given loop slot
+     */
+    void loopBegin(int slot);
+
+    /**
+     * Re-evaluates the (linked) loop occupying the given slot to determine whether to continue looping
+     *
+     * @param slot   the given loop slot
+     * @param index  the opCode index of the loop's beginning
+     * @param opCode the loop's {@link ConditionalOpCode conditional opCode}
+     * @throws JBasicException
+     */
+    void loopIterate(int slot, int index, ConditionalOpCode opCode) throws JBasicException;
+
     /**
      * Resets the call stack for returning from a subroutine.
      *
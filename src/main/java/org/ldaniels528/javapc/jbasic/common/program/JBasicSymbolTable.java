@@ -0,0 +1,45 @@
+package org.ldaniels528.javapc.jbasic.common.program;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents a Symbol Table; assigns each distinct variable (or array) name a
+ * numeric slot, so that {@link org.ldaniels528.javapc.jbasic.common.values.VariableReference references}
+ * resolve their variables by index rather than by name.
+ * @author lawrence.daniels@gmail.com
+ */
+public class JBasicSymbolTable {
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    /**
+     * Returns the slot of the given name; assigning one if necessary
+     * @param name the given variable (or array) name
+     * @return the slot
+     */
+    public int getSlot( final String name ) {
+        Integer slot = slots.get( name );
+        if( slot == null ) {
+            slots.put( name, slot = slots.size() );
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the slot of the given name
+     * @param name the given variable (or array) name
+     * @return the slot, or -1 if no slot has been assigned
+     */
+    public int indexOf( final String name ) {
+        final Integer slot = slots.get( name );
+        return ( slot != null ) ? slot : -1;
+    }
+
+    /**
+     * @return the number of assigned slots
+     */
+    public int size() {
+        return slots.size();
+    }
+
+}
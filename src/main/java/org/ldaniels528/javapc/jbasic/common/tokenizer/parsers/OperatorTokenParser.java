@@ -10,7 +10,8 @@ import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenizerContext;
  * @author lawrence.daniels@gmail.com
  */
 public class OperatorTokenParser implements TokenParser {
-	private static final String OPERATORS   = "+-*/^=<>!";
+	private static final String OPERATORS   = "+-*/\\^=<>!";
+	private static final String RELATIONALS = "=<>";
 	
 	/* 
 	 * (non-Javadoc)
@@ -22,10 +23,11 @@ public class OperatorTokenParser implements TokenParser {
 	        	// record start position
 	    		final int start = ctx.position ++;
 	        
-	        // check for "<>" symbol
-	        if( ( ctx.exprCh[ start ] == '<' ) && 
+	        // check for two-character relational symbols ("<>", "><", "<=", "=<", ">=", "=>")
+	        if( ( RELATIONALS.indexOf( ctx.exprCh[ start ] ) != -1 ) && 
 	      		  ( ctx.position < ctx.exprCh.length ) && 
-	      		  ( ctx.exprCh[ ctx.position ] == '>' ) ) ctx.position++;
+	      		  ( RELATIONALS.indexOf( ctx.exprCh[ ctx.position ] ) != -1 ) &&
+	      		  ( ctx.exprCh[ ctx.position ] != ctx.exprCh[ start ] ) ) ctx.position++;
 	        
 	        // return the new tokem
 	        return new SimpleToken( ctx.expr.substring( start, ctx.position  ), Token.OPERATOR, start, ctx.position, ctx.lineNo );
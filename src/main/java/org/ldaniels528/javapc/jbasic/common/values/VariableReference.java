@@ -1,6 +1,7 @@
 package org.ldaniels528.javapc.jbasic.common.values;
 
 import org.ldaniels528.javapc.jbasic.common.JBasicCompiledCodeReference;
+import org.ldaniels528.javapc.jbasic.common.program.JBasicSymbolTable;
 import org.ldaniels528.javapc.jbasic.common.program.JBasicSourceCode;
 
 /**
@@ -20,4 +21,12 @@ public interface VariableReference extends Value {
 	 */
 	Variable getVariable( JBasicCompiledCodeReference program );
 
+	/**
+	 * Returns the slot of the referenced variable within the given symbol table;
+	 * the slot is resolved once, and reused for as long as the symbol table is.
+	 * @param symbols the given {@link JBasicSymbolTable symbol table}
+	 * @return the slot of the referenced variable
+	 */
+	int getSlot( JBasicSymbolTable symbols );
+
 }
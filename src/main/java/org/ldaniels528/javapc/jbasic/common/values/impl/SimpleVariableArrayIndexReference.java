@@ -37,5 +37,13 @@ implements VariableArrayIndexReference {
    public Variable getVariable( final JBasicCompiledCodeReference program ) {
  	   return program.getArrayVariable( this );
    }
+
+   /* 
+    * (non-Javadoc)
+    * @see org.ldaniels528.javapc.jbasic.common.values.impl.SimpleVariableReference#getSymbol()
+    */
+   protected String getSymbol() {
+ 	   return getName() + "()";
+   }
    
 }
@@ -1,6 +1,7 @@
 package org.ldaniels528.javapc.jbasic.common.values.impl;
 
 import org.ldaniels528.javapc.jbasic.common.JBasicCompiledCodeReference;
+import org.ldaniels528.javapc.jbasic.common.program.JBasicSymbolTable;
 import org.ldaniels528.javapc.jbasic.common.values.Variable;
 import org.ldaniels528.javapc.jbasic.common.values.VariableReference;
 import org.ldaniels528.javapc.ibmpc.devices.memory.MemoryObject;
@@ -10,6 +11,8 @@ import org.ldaniels528.javapc.ibmpc.devices.memory.MemoryObject;
  */
 public class SimpleVariableReference implements VariableReference {
 	  private final String name;
+	  private JBasicSymbolTable symbols;
+	  private int slot;
 
 	  /**
 	   * Creates a reference to the variable of the given name
@@ -47,6 +50,26 @@ public class SimpleVariableReference implements VariableReference {
 		  return program.getVariable( this );
 	  }
 
+	  /* 
+	   * (non-Javadoc)
+	   * @see org.ldaniels528.javapc.jbasic.common.values.VariableReference#getSlot(org.ldaniels528.javapc.jbasic.common.program.JBasicSymbolTable)
+	   */
+	  public int getSlot( final JBasicSymbolTable symbols ) {
+		  // resolve the slot (once per symbol table)
+		  if( this.symbols != symbols ) {
+			  slot = symbols.getSlot( getSymbol() );
+			  this.symbols = symbols;
+		  }
+		  return slot;
+	  }
+
+	  /**
+	   * @return the name by which the referenced variable is known within a {@link JBasicSymbolTable symbol table}
+	   */
+	  protected String getSymbol() {
+		  return name;
+	  }
+
 	  /**
 	   * @return  a string representation of this object.
 	   */
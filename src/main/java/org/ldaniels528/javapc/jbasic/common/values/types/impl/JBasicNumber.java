@@ -181,24 +181,33 @@ public class JBasicNumber extends JBasicObject implements NumberMemoryObject {
 	 * @see org.ldaniels528.javapc.jbasic.values.JBasicObject#toInteger()
 	 */
 	public int toInteger() {
-		Number number = (Number)getContent();
-		return number.intValue();
+		switch( mode ) {
+			case MODE_INTEGER: 		return readInteger();
+			case MODE_DOUBLE_PREC: 	return (int)readDoublePrecision();
+			case MODE_SINGLE_PREC: 	return (int)readSinglePrecision();
+			default:
+				throw new NeverShouldHappenException();
+		}
 	}
 	
 	/**
 	 * @return a double precision decimal value
 	 */
 	public double toDoublePrecision() {
-		Number number = (Number)getContent();
-		return number.doubleValue();
+		switch( mode ) {
+			case MODE_INTEGER: 		return readInteger();
+			case MODE_DOUBLE_PREC: 	return readDoublePrecision();
+			case MODE_SINGLE_PREC: 	return readSinglePrecision();
+			default:
+				throw new NeverShouldHappenException();
+		}
 	}
 	
 	/**
 	 * @return a single precision decimal value
 	 */
 	public float toSinglePrecision() {
-		Number number = (Number)getContent();
-		return number.floatValue();
+		return (float)toDoublePrecision();
 	}
 	
 	/* 
@@ -311,10 +320,10 @@ public class JBasicNumber extends JBasicObject implements NumberMemoryObject {
 	//////////////////////////////////////////////////////
 	
 	/**
-	 * @return an integer value
+	 * @return a (signed 16-bit) integer value
 	 */
 	private int readInteger() {
-		return memory.getWord( segment, offset );
+		return (short)memory.getWord( segment, offset );
 	}
 	
 	/**
@@ -329,12 +338,8 @@ public class JBasicNumber extends JBasicObject implements NumberMemoryObject {
 	 * @return a double precision decimal value
 	 */
 	private double readDoublePrecision() {
-		// get the block containing our data
-		final byte[] tempdata = memory.getBytes( segment, offset, ALLOCATE_SIZE );
-		
-		// extract and return a float
-		final ByteBuffer buffer = ByteBuffer.wrap( tempdata );
-	    return buffer.getDouble();
+		// extract and return a double (stored in big-endian order)
+		return Double.longBitsToDouble( memory.getBytesAsLong( segment, offset, 8 ) );
 	}
 	
 	/**
@@ -354,12 +359,8 @@ public class JBasicNumber extends JBasicObject implements NumberMemoryObject {
 	 * @return a single precision decimal value
 	 */
 	private double readSinglePrecision() {
-		// get the block containing our data
-		final byte[] tempdata = memory.getBytes( segment, offset, ALLOCATE_SIZE );
-		
-		// extract and return a float
-		final ByteBuffer buffer = ByteBuffer.wrap( tempdata );
-	    return buffer.getFloat();
+		// extract and return a float (stored in big-endian order)
+		return Float.intBitsToFloat( (int)memory.getBytesAsLong( segment, offset, 4 ) );
 	}
 	
 	/**
@@ -0,0 +1,130 @@
+package org.ldaniels528.javapc.jbasic.gwbasic.program;
+
+import org.ldaniels528.javapc.jbasic.common.program.JBasicProgramStatement;
+import org.ldaniels528.javapc.jbasic.common.program.JBasicSymbolTable;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.GwBasicCommand;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * BASICA/GWBASIC Compile Cache; retains the {@link GwBasicCommand opCodes} compiled from each
+ * statement of a program (keyed by line number and source text), so that a program can be
+ * re-compiled (e.g. RUN) without re-compiling the statements that have not changed since.
+ * The opCodes of all compilations share a single {@link JBasicSymbolTable symbol table},
+ * so that the variable references within them remain bound to their slots.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class GwBasicCompileCache {
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private JBasicSymbolTable symbols = new JBasicSymbolTable();
+    private int hits;
+    private int misses;
+
+    /**
+     * Returns the opCodes previously compiled from the given statement
+     *
+     * @param statement the given {@link GwBasicStatement statement}
+     * @return the {@link List list} of {@link GwBasicCommand opCodes}, or <tt>null</tt>
+     * if the statement has not been compiled (or has changed since)
+     */
+    public List<GwBasicCommand> get(final GwBasicStatement statement) {
+        final Entry entry = entries.get(statement.getLineNumber());
+        if ((entry != null) && entry.matches(statement.getCode())) {
+            hits++;
+            return entry.opCodes;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Retains the opCodes compiled from the given statement
+     *
+     * @param statement the given {@link GwBasicStatement statement}
+     * @param opCodes   the {@link List list} of {@link GwBasicCommand opCodes}
+     */
+    public void put(final GwBasicStatement statement, final List<GwBasicCommand> opCodes) {
+        entries.put(statement.getLineNumber(), new Entry(statement.getCode(), opCodes));
+    }
+
+    /**
+     * Discards the opCodes of the statements (lines) that are no longer part of the program
+     *
+     * @param statements the {@link Collection collection} of the program's {@link JBasicProgramStatement statements}
+     */
+    public void retainAll(final Collection<JBasicProgramStatement> statements) {
+        final Set<Integer> lineNumbers = new HashSet<>(statements.size());
+        for (final JBasicProgramStatement statement : statements) {
+            lineNumbers.add(statement.getLineNumber());
+        }
+        entries.keySet().retainAll(lineNumbers);
+    }
+
+    /**
+     * Discards all cached opCodes (e.g. NEW)
+     */
+    public void clear() {
+        entries.clear();
+        symbols = new JBasicSymbolTable();
+    }
+
+    /**
+     * @return the {@link JBasicSymbolTable symbol table} shared by the cached opCodes
+     */
+    public JBasicSymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * @return the number of statements whose opCodes were reused
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of statements which had to be compiled
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of cached statements
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Represents the opCodes compiled from a statement
+     */
+    private static class Entry {
+        private final String code;
+        private final int hash;
+        private final List<GwBasicCommand> opCodes;
+
+        private Entry(final String code, final List<GwBasicCommand> opCodes) {
+            this.code = code;
+            this.hash = code.hashCode();
+            this.opCodes = opCodes;
+        }
+
+        /**
+         * Indicates whether the given source text is the text the opCodes were compiled from
+         *
+         * @param code the given source text
+         * @return true, if the source text is unchanged
+         */
+        private boolean matches(final String code) {
+            return (hash == code.hashCode()) && this.code.equals(code);
+        }
+    }
+
+}
@@ -11,12 +11,14 @@ import org.ldaniels528.javapc.ibmpc.devices.memory.MemoryManager;
 import org.ldaniels528.javapc.ibmpc.devices.memory.MemoryObject;
 import org.ldaniels528.javapc.ibmpc.devices.memory.OutOfMemoryException;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcMetrics;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 import org.ldaniels528.javapc.jbasic.common.exceptions.*;
 import org.ldaniels528.javapc.jbasic.common.program.AbortableOpCode;
 import org.ldaniels528.javapc.jbasic.common.program.ConditionalControlBlock;
 import org.ldaniels528.javapc.jbasic.common.program.ConditionalOpCode;
 import org.ldaniels528.javapc.jbasic.common.program.JBasicCompiledCode;
+import org.ldaniels528.javapc.jbasic.common.program.JBasicSymbolTable;
 import org.ldaniels528.javapc.jbasic.common.values.*;
 import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleConstant;
 import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleVariable;
@@ -48,6 +50,9 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
     private final List<GwBasicCommand> opCodes;
     private final Map<String, VariableArray> arrays;
     private final Map<String, Variable> variables;
+    private final JBasicSymbolTable symbols;
+    private VariableArray[] arraySlots;
+    private Variable[] variableSlots;
     private final IbmPcRandomAccessMemory memory;
     private final MemoryManager memoryManager;
     private final GwBasicEnvironment environment;
@@ -60,8 +65,10 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
     private final Logger logger = Logger.getLogger(getClass());
     private final Map<String, ConditionalControlBlock> controlBlockMapping;
     private final LinkedList<ConditionalControlBlock> controlStack;
-    private final LinkedList<Integer> callStack;
     protected final Map<String, Integer> labelMapping;
+    private int[] callStack;
+    private int callDepth;
+    private boolean[] loops;
     private int opCodePointer;
     private boolean trace;
 
@@ -69,6 +76,17 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
      * Default constructor
      */
     public GwBasicCompiledCode(final GwBasicEnvironment environment) {
+        this(environment, new JBasicSymbolTable());
+    }
+
+    /**
+     * Creates compiled code which resolves its variables via the given symbol table
+     * (e.g. one shared by the opCodes of a {@link GwBasicCompileCache compile cache})
+     *
+     * @param environment the given {@link GwBasicEnvironment environment}
+     * @param symbols     the given {@link JBasicSymbolTable symbol table}
+     */
+    public GwBasicCompiledCode(final GwBasicEnvironment environment, final JBasicSymbolTable symbols) {
         this.environment = environment;
         this.memory = environment.getRandomAccessMemory();
         this.memoryManager = environment.getMemoryManager();
@@ -76,6 +94,9 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
         this.typeDefs = new LinkedList<>();
         this.variables = new HashMap<>();
         this.arrays = new HashMap<>();
+        this.symbols = symbols;
+        this.arraySlots = new VariableArray[16];
+        this.variableSlots = new Variable[16];
         this.random = new Random(System.currentTimeMillis());
         this.opCodes = new LinkedList<>();
         this.programSegment = PROGRAM_SEGEMENT;
@@ -83,7 +104,8 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
 
         this.controlBlockMapping = new LinkedHashMap<>();
         this.controlStack = new LinkedList<>();
-        this.callStack = new LinkedList<>();
+        this.callStack = new int[16];
+        this.loops = new boolean[0];
         this.labelMapping = new HashMap<>();
         this.trace = false;
 
@@ -167,6 +189,16 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
         labelMapping.put(lineNumber, opCodes.size());
     }
 
+    /**
+     * Creates the given number of (linked) loop slots
+     *
+     * @param count the given number of loop slots
+     * @see GwBasicLinker
+     */
+    void createLoops(final int count) {
+        loops = new boolean[count];
+    }
+
     /**
      * Returns the array of command/opCodes held by this container
      *
@@ -203,6 +235,8 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
         // clear out all references
         arrays.clear();
         variables.clear();
+        Arrays.fill(arraySlots, null);
+        Arrays.fill(variableSlots, null);
         dataValues.clear();
         memoryManager.clear();
 
@@ -430,6 +464,7 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
     @Override
     public void createVariable(final Variable variable) {
         variables.put(variable.getName(), variable);
+        evictSlot(variableSlots, variable.getName());
     }
 
     /**
@@ -449,6 +484,7 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
 
         // add the array to the collection of arrays
         arrays.put(array.getName(), array);
+        evictSlot(arraySlots, array.getName() + "()");
     }
 
     /**
@@ -463,6 +499,7 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
 
         // remove the array object
         final Variable variable = variables.remove(variableName);
+        evictSlot(variableSlots, variableName);
 
         // deallocate the object within the array
         if (variable instanceof SimpleVariable) {
@@ -483,6 +520,7 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
 
         // remove the array object
         final VariableArray array = arrays.remove(arrayName);
+        evictSlot(arraySlots, arrayName + "()");
 
         // deallocate the object within the array
         array.destroy();
@@ -493,15 +531,27 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
      */
     @Override
     public Variable getVariable(VariableReference reference) throws OutOfMemoryException {
-        // get the name of the referenced variable
-        final String name = reference.getName();
+        // get the slot of the referenced variable
+        final int slot = reference.getSlot(symbols);
+        if (slot >= variableSlots.length) {
+            variableSlots = Arrays.copyOf(variableSlots, Math.max(slot + 1, variableSlots.length * 2));
+        }
+
+        // if the variable isn't slotted yet, look it up by name
+        Variable variable = variableSlots[slot];
+        if (variable == null) {
+            // get the name of the referenced variable
+            final String name = reference.getName();
 
-        // if the variable doesn't yet exist, create it
-        if (!variables.containsKey(name))
-            variables.put(name, createVariable(reference));
+            // if the variable doesn't yet exist, create it
+            if ((variable = variables.get(name)) == null) {
+                variables.put(name, variable = createVariable(reference));
+            }
+            variableSlots[slot] = variable;
+        }
 
         // return the variable
-        return variables.get(name);
+        return variable;
     }
 
     /**
@@ -509,23 +559,43 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
      */
     @Override
     public Variable getArrayVariable(VariableArrayIndexReference reference) {
-        // get the name of the variable array
-        final String name = reference.getName();
+        // get the slot of the variable array
+        final int slot = reference.getSlot(symbols);
+        if (slot >= arraySlots.length) {
+            arraySlots = Arrays.copyOf(arraySlots, Math.max(slot + 1, arraySlots.length * 2));
+        }
 
         // get the index being referenced
         final int index = reference.getIndex().getValue(this).toInteger();
 
-        // if the variable doesn't yet exist, create it
-        if (!arrays.containsKey(name))
-            throw new SubscriptOutOfRangeException(name, index);
-
-        // lookup the array
-        final VariableArray array = arrays.get(name);
+        // if the array isn't slotted yet, look it up by name
+        VariableArray array = arraySlots[slot];
+        if (array == null) {
+            // the array must already exist
+            final String name = reference.getName();
+            if ((array = arrays.get(name)) == null)
+                throw new SubscriptOutOfRangeException(name, index);
+            arraySlots[slot] = array;
+        }
 
         // return the variable
         return array.getElement(index);
     }
 
+    /**
+     * Evicts the slotted variable (or array) of the given name; causing it to be looked up by name
+     * the next time it's referenced
+     *
+     * @param slots  the given variable (or array) slots
+     * @param symbol the given symbol (e.g. "A" or "A()")
+     */
+    private void evictSlot(final Object[] slots, final String symbol) {
+        final int slot = symbols.indexOf(symbol);
+        if ((slot != -1) && (slot < slots.length)) {
+            slots[slot] = null;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -540,11 +610,9 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
 
         // execute the program
         GwBasicCommand opCode = null;
+        final long startTime = System.nanoTime();
+        int counter = 0;
         try {
-            // create opCode counter
-            final long startTime = System.currentTimeMillis();
-            int counter = 0;
-
             // iterate the opCodes
             for (opCodePointer = 0; opCodePointer < opCodes.length; opCodePointer++) {
                 // get the instruction
@@ -571,7 +639,7 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
             }
 
             // display statistics
-            final long elapsed = System.currentTimeMillis() - startTime;
+            final long elapsed = (System.nanoTime() - startTime) / 1000000L;
             final double avg = (double) counter / (double) elapsed;
             logger.info(format("program executed %d opCodes in %d msec(s): %f opCodes/msec", counter, elapsed, avg));
         } catch (final RuntimeException e) {
@@ -585,6 +653,9 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
             final int lineNumber = opCode.getLineNumber();
             // re-throw the exception using the line number
             throw new GwBasicProgramSyntaxException(e, lineNumber);
+        } finally {
+            // record the statement throughput
+            IbmPcMetrics.getInstance().recordStatements(counter, System.nanoTime() - startTime);
         }
     }
 
@@ -645,19 +716,56 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
     @Override
     public void gotoLabel(final String label, final boolean returns)
             throws JBasicException {
-        // if needs to return, setup call stack
-        if (returns) callStack.add(opCodePointer);
-
         // make sure jump point exists
-        if (!labelMapping.containsKey(label)) {
+        final Integer jumpPoint = labelMapping.get(label);
+        if (jumpPoint == null) {
             throw new InvalidLabelException(label);
         }
 
-        // get jump point
-        final int jumpPoint = labelMapping.get(label);
+        // jump to the label
+        gotoIndex(jumpPoint, returns);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void gotoIndex(final int index, final boolean returns) {
+        // if needs to return, setup call stack
+        if (returns) {
+            if (callDepth == callStack.length) {
+                callStack = Arrays.copyOf(callStack, callDepth * 2);
+            }
+            callStack[callDepth++] = opCodePointer;
+        }
 
         // set the Instruction Point to the given offset
-        opCodePointer = jumpPoint - 1;
+        opCodePointer = index - 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void loopBegin(final int slot) {
+        loops[slot] = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void loopIterate(final int slot, final int index, final ConditionalOpCode opCode) throws JBasicException {
+        // the loop must have begun
+        if (!loops[slot])
+            throw new SyntaxErrorException();
+
+        // if the condition wasn't satisfied, loop ...
+        if (!opCode.conditionSatisfied(this)) {
+            opCodePointer = index;
+        } else {
+            loops[slot] = false;
+        }
     }
 
     /**
@@ -666,11 +774,11 @@ public class GwBasicCompiledCode implements JBasicCompiledCode, IbmPcKeyEventLis
     @Override
     public void popFromCallStack() throws JBasicException {
         // stack must not be empty
-        if (callStack.isEmpty())
+        if (callDepth == 0)
             throw new JBasicException("Stack is empty");
 
         // get the new offset from the stack
-        opCodePointer = callStack.removeLast();
+        opCodePointer = callStack[--callDepth];
     }
 
     ///////////////////////////////////////////////////////
@@ -78,11 +78,26 @@ public class GwBasicCompiler implements JBasicCompiler {
     @Override
     public JBasicCompiledCode compile(final JBasicSourceCode program)
             throws JBasicException {
+        return compile(program, new GwBasicCompileCache());
+    }
+
+    /**
+     * Compiles the given program; only the statements which have changed since the
+     * given cache was last used are re-compiled, the opCodes of the others are reused.
+     *
+     * @param program the given {@link JBasicSourceCode program}
+     * @param cache   the given {@link GwBasicCompileCache compile cache}
+     * @return the {@link JBasicCompiledCode compiled code}
+     * @throws JBasicException
+     */
+    public JBasicCompiledCode compile(final JBasicSourceCode program,
+                                      final GwBasicCompileCache cache)
+            throws JBasicException {
         // get the environment object
         final GwBasicEnvironment environment = (GwBasicEnvironment) program.getEnvironment();
 
         // create a compiled code object
-        final GwBasicCompiledCode compiledCode = new GwBasicCompiledCode(environment);
+        final GwBasicCompiledCode compiledCode = new GwBasicCompiledCode(environment, cache.getSymbols());
 
         // get the statements from the program
         final Collection<JBasicProgramStatement> statements = program.getStatements();
@@ -94,12 +109,26 @@ public class GwBasicCompiler implements JBasicCompiler {
                 final String lineNumber = String.valueOf(statement.getLineNumber());
                 compiledCode.addLabel(lineNumber);
 
-                // compile the opCodes
+                // compile the opCodes (unless the statement is unchanged)
                 final GwBasicStatement gwStmt = (GwBasicStatement) statement;
-                final List<GwBasicCommand> opCodeSet = compile(gwStmt, compiledCode);
+                List<GwBasicCommand> opCodeSet = cache.get(gwStmt);
+                if (opCodeSet == null) {
+                    opCodeSet = compile(gwStmt);
+                    cache.put(gwStmt, opCodeSet);
+                }
 
-                // compile the statement and capture the resultant opCode(s)
-                compiledCode.addAll(opCodeSet);
+                // capture the resultant opCode(s)
+                for (final GwBasicCommand command : opCodeSet) {
+                    // pre-process the opCode
+                    if (command instanceof PreProcessedOpCode) {
+                        final PreProcessedOpCode preprocessibleOpCode = (PreProcessedOpCode) command;
+                        preprocessibleOpCode.preProcess(compiledCode);
+                    }
+
+                    // add the opCode to the compiled code
+                    if (!(command instanceof NoOp))
+                        compiledCode.add(command);
+                }
             } catch (final JBasicException e) {
                 throw new GwBasicProgramSyntaxException(e, statement.getLineNumber());
             } catch (final Exception e) {
@@ -107,6 +136,12 @@ public class GwBasicCompiler implements JBasicCompiler {
             }
         }
 
+        // discard the opCodes of deleted statements
+        cache.retainAll(statements);
+
+        // resolve the jump and loop targets
+        new GwBasicLinker(compiledCode).link();
+
         // return the compiled code
         return compiledCode;
     }
@@ -154,13 +189,13 @@ public class GwBasicCompiler implements JBasicCompiler {
     }
 
     /**
-     * Compile the given statement into a set of {@link GwBasicCommand opCodes}
+     * Compile the given statement into a set of {@link GwBasicCommand opCodes}; including
+     * the {@link NoOp no-operation} opCodes which are only {@link PreProcessedOpCode pre-processed} (e.g. DATA)
      *
-     * @param statement    the given {@link org.ldaniels528.javapc.jbasic.common.program.JBasicProgramStatement statement}
-     * @param compiledCode the given {@link org.ldaniels528.javapc.jbasic.common.program.JBasicSourceCode program}
+     * @param statement the given {@link org.ldaniels528.javapc.jbasic.common.program.JBasicProgramStatement statement}
      * @return a {@link List list} of {@link GwBasicCommand opCodes}
      */
-    private List<GwBasicCommand> compile(final GwBasicStatement statement, final JBasicCompiledCode compiledCode) throws JBasicException {
+    private List<GwBasicCommand> compile(final GwBasicStatement statement) throws JBasicException {
         // get a copy of the statement
         String code = statement.getCode();
 
@@ -188,15 +223,8 @@ public class GwBasicCompiler implements JBasicCompiler {
             final GwBasicCommand command = (GwBasicCommand) compile(it);
             command.setLineNumber(statement.getLineNumber());
 
-            // pre-process the opCode            
-            if (command instanceof PreProcessedOpCode) {
-                final PreProcessedOpCode preprocessibleOpCode = (PreProcessedOpCode) command;
-                preprocessibleOpCode.preProcess(compiledCode);
-            }
-
             // add the opCode to our list of opCodes
-            if (!(command instanceof NoOp))
-                opCodes.add(command);
+            opCodes.add(command);
 
             // point to the next chunk
             code = (endOfChunk + 1 >= code.length()) ? null : code.substring(endOfChunk + 1, code.length());
@@ -0,0 +1,149 @@
+package org.ldaniels528.javapc.jbasic.gwbasic.program;
+
+import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
+import org.ldaniels528.javapc.jbasic.common.program.OpCode;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.GwBasicCommand;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.LinkedOpCode;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.control.ForOp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BASICA/GWBASIC Linker; resolves the control flow targets of the compiled code's
+ * {@link LinkedOpCode opCodes} to opCode indices, so that jumps (GOTO, GOSUB, etc.) and
+ * loops (FOR/NEXT) execute without looking up labels or control variables by name.
+ * Each NEXT is paired with the FOR it closes, and each paired FOR is assigned a loop slot.
+ * Targets that cannot be resolved statically are left to be resolved at runtime.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class GwBasicLinker {
+    private final GwBasicCompiledCode compiledCode;
+    private final List<Loop> openLoops = new ArrayList<>();
+    private final List<Loop> closedLoops = new ArrayList<>();
+    private int loopCount;
+
+    /**
+     * Creates a new linker
+     *
+     * @param compiledCode the given {@link GwBasicCompiledCode compiled code}
+     */
+    public GwBasicLinker(final GwBasicCompiledCode compiledCode) {
+        this.compiledCode = compiledCode;
+    }
+
+    /**
+     * Links all opCodes of the compiled code
+     *
+     * @throws JBasicException
+     */
+    public void link() throws JBasicException {
+        final GwBasicCommand[] commands = compiledCode.getCommands();
+        for (int index = 0; index < commands.length; index++) {
+            link(commands[index], index);
+        }
+        compiledCode.createLoops(loopCount);
+    }
+
+    /**
+     * Links the given opCode (e.g. the statement nested within an IF)
+     *
+     * @param opCode the given {@link OpCode opCode}; which may be <tt>null</tt>
+     * @param index  the index of the opCode (or of the opCode containing it)
+     * @throws JBasicException
+     */
+    public void link(final OpCode opCode, final int index) throws JBasicException {
+        if (opCode instanceof LinkedOpCode) {
+            ((LinkedOpCode) opCode).link(this, index);
+        }
+    }
+
+    /**
+     * Resolves the given label (line number) to an opCode index
+     *
+     * @param label the given label (e.g. "100")
+     * @return the opCode index, or -1 if the label does not exist
+     */
+    public int resolveLabel(final String label) {
+        final Integer index = compiledCode.labelMapping.get(label);
+        return (index != null) ? index : -1;
+    }
+
+    /**
+     * Opens a loop (FOR); any slot assigned to the FOR by a previous linkage is released
+     *
+     * @param forOp    the given {@link ForOp FOR opCode}
+     * @param variable the name of the loop's control variable
+     * @param index    the index of the opCode
+     */
+    public void beginLoop(final ForOp forOp, final String variable, final int index) {
+        forOp.setSlot(-1);
+        openLoops.add(new Loop(forOp, variable, index));
+    }
+
+    /**
+     * Closes the innermost open loop (FOR) controlled by the given variable; or the
+     * innermost open loop, if no variable is given. A FOR which was already closed
+     * (e.g. a loop with several NEXTs) is matched if no open loop matches.
+     *
+     * @param variable the name of the loop's control variable, or <tt>null</tt>
+     * @return the matching {@link Loop loop}, or <tt>null</tt> if the FOR could not be determined
+     */
+    public Loop endLoop(final String variable) {
+        // find the innermost open loop
+        int position = openLoops.size() - 1;
+        if (variable != null) {
+            while ((position >= 0) && !variable.equalsIgnoreCase(openLoops.get(position).variable)) position--;
+        }
+
+        // close it (and any loops nested within it)
+        Loop loop = null;
+        if (position >= 0) {
+            loop = openLoops.get(position);
+            while (openLoops.size() > position) {
+                closedLoops.add(openLoops.remove(openLoops.size() - 1));
+            }
+        } else if (variable != null) {
+            for (int n = closedLoops.size() - 1; (n >= 0) && (loop == null); n--) {
+                if (variable.equalsIgnoreCase(closedLoops.get(n).variable)) loop = closedLoops.get(n);
+            }
+        }
+
+        // assign the loop a slot
+        if ((loop != null) && (loop.forOp.getSlot() == -1)) {
+            loop.forOp.setSlot(loopCount++);
+        }
+        return loop;
+    }
+
+    /**
+     * Represents a FOR loop
+     */
+    public static class Loop {
+        private final ForOp forOp;
+        private final String variable;
+        private final int index;
+
+        private Loop(final ForOp forOp, final String variable, final int index) {
+            this.forOp = forOp;
+            this.variable = variable;
+            this.index = index;
+        }
+
+        /**
+         * @return the {@link ForOp FOR opCode}
+         */
+        public ForOp getForOp() {
+            return forOp;
+        }
+
+        /**
+         * @return the index of the FOR opCode; the loop resumes after it
+         */
+        public int getIndex() {
+            return index;
+        }
+    }
+
+}
@@ -18,6 +18,7 @@ public class GwBasicProgram implements JBasicSourceCode {
     private static final GwBasicStatementComparator comparator = new GwBasicStatementComparator();
     // fields
     private final SortedSet<JBasicProgramStatement> statements;
+    private final GwBasicCompileCache compileCache;
     private final IbmPcSystem environment;
 
     ///////////////////////////////////////////////////////
@@ -31,6 +32,7 @@ public class GwBasicProgram implements JBasicSourceCode {
     public GwBasicProgram(final IbmPcSystem environment) {
         this.environment = environment;
         this.statements = new TreeSet<>(comparator);
+        this.compileCache = new GwBasicCompileCache();
     }
 
 
@@ -57,6 +59,16 @@ public class GwBasicProgram implements JBasicSourceCode {
     @Override
     public void clear() {
         statements.clear();
+        compileCache.clear();
+    }
+
+    /**
+     * Returns the cache of the opCodes compiled from this program's statements
+     *
+     * @return the {@link GwBasicCompileCache compile cache}
+     */
+    public GwBasicCompileCache getCompileCache() {
+        return compileCache;
     }
 
     /**
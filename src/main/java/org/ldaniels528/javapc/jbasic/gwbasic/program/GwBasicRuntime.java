@@ -72,8 +72,10 @@ public class GwBasicRuntime implements JBasicRuntime {
         // get the compiler instance
         final GwBasicCompiler compiler = GwBasicCompiler.getInstance();
 
-        // compile the program into opCodes
-        final JBasicCompiledCode compiledCode = compiler.compile(program);
+        // compile the program into opCodes (re-compiling only the statements changed since the last run)
+        final JBasicCompiledCode compiledCode = (program instanceof GwBasicProgram)
+                ? compiler.compile(program, ((GwBasicProgram) program).getCompileCache())
+                : compiler.compile(program);
 
         // execute the compiled code
         compiledCode.execute();
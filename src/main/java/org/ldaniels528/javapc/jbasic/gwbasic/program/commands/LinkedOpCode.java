@@ -0,0 +1,23 @@
+package org.ldaniels528.javapc.jbasic.gwbasic.program.commands;
+
+import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
+import org.ldaniels528.javapc.jbasic.common.program.OpCode;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicLinker;
+
+/**
+ * Represents an {@link OpCode opCode} whose control flow targets (e.g. line numbers)
+ * are resolved to opCode indices once the program has been compiled
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public interface LinkedOpCode extends OpCode {
+
+    /**
+     * Links this {@link OpCode opCode}
+     *
+     * @param linker the given {@link GwBasicLinker linker}
+     * @param index  the index of this opCode (or of the opCode containing it) within the compiled code
+     */
+    void link(GwBasicLinker linker, int index) throws JBasicException;
+
+}
@@ -1,6 +1,5 @@
 package org.ldaniels528.javapc.jbasic.gwbasic.program.commands.control;
 
-import org.ldaniels528.javapc.ibmpc.devices.memory.MemoryObject;
 import org.ldaniels528.javapc.ibmpc.devices.memory.NumberMemoryObject;
 import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
 import org.ldaniels528.javapc.jbasic.common.exceptions.SyntaxErrorException;
@@ -13,7 +12,9 @@ import org.ldaniels528.javapc.jbasic.common.values.Variable;
 import org.ldaniels528.javapc.jbasic.common.values.VariableReference;
 import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleConstant;
 import org.ldaniels528.javapc.jbasic.common.values.types.impl.JBasicTempNumber;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicLinker;
 import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.GwBasicCommand;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.LinkedOpCode;
 import org.ldaniels528.javapc.jbasic.gwbasic.values.GwBasicValues;
 
 import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
@@ -25,11 +26,12 @@ import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
  * @see ConditionalControlBlock
  * @see NextOp
  */
-public class ForOp extends GwBasicCommand implements ConditionalOpCode {
+public class ForOp extends GwBasicCommand implements ConditionalOpCode, LinkedOpCode {
 	private final VariableReference reference;
 	private final Value initialValue;
 	private final Value finalValue;
 	private final Value stepValue;
+	private int slot = -1;
 
 	/**
 	 * Creates an instance of this opCode
@@ -75,11 +77,33 @@ public class ForOp extends GwBasicCommand implements ConditionalOpCode {
 		}
 	}
 
+	/**
+	 * @return the loop slot assigned by the {@link GwBasicLinker linker}, or -1 if unlinked
+	 */
+	public int getSlot() {
+		return slot;
+	}
+
+	/**
+	 * Sets the loop slot
+	 * @param slot the given loop slot
+	 */
+	public void setSlot( final int slot ) {
+		this.slot = slot;
+	}
+
+	/* 
+	 * (non-Javadoc)
+	 * @see org.ldaniels528.javapc.jbasic.gwbasic.program.commands.LinkedOpCode#link(org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicLinker, int)
+	 */
+	public void link( final GwBasicLinker linker, final int index ) {
+		linker.beginLoop( this, reference.getName(), index );
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.ldaniels528.javapc.jbasic.base.program.ConditionalOpCode#conditionSatisfied(org.ldaniels528.javapc.jbasic.base.environment.JBasicEnvironment)
 	 */
-	@SuppressWarnings("unchecked")
 	public boolean conditionSatisfied( final JBasicCompiledCode program )
 	throws JBasicException {
 		// lookup the control variable
@@ -89,19 +113,17 @@ public class ForOp extends GwBasicCommand implements ConditionalOpCode {
 		final NumberMemoryObject number = (NumberMemoryObject)variable.getValue(program);
 		
 		// get the "step" value
-		final NumberMemoryObject step = (NumberMemoryObject)stepValue.getValue(program);
+		final double step = GwBasicValues.getDoubleValue( stepValue, program );
 
-		// increment/decrement the value	
-		final NumberMemoryObject newValue = number.add( step ); 
-		variable.setValue( newValue );		
+		// increment/decrement the value (in the variable's own precision)
+		number.setValue( number.toDoublePrecision() + step );
 
-		// return result
-		final MemoryObject objectA = variable.getValue(program);
-		final MemoryObject objectB = finalValue.getValue(program);
-		final int result = objectA.compareTo( objectB );
+		// compare the new value to the final value
+		final double valueA = number.toDoublePrecision();
+		final double valueB = GwBasicValues.getDoubleValue( finalValue, program );
 
 		// indicate whether the loop should contine
-		return ( step.toDoublePrecision() > 0 ) ? result > 0 : result < 0;
+		return ( step > 0 ) ? valueA > valueB : valueA < valueB;
 	}
 
 	/*
@@ -115,10 +137,15 @@ public class ForOp extends GwBasicCommand implements ConditionalOpCode {
 		final Variable variable = reference.getVariable( compiledCode );
 		
 		// set the variable with the initial value
-		variable.setValue(initialValue.getValue( compiledCode ) );
+		GwBasicValues.setValue( variable, initialValue, compiledCode );
 		
-		// start a condition control session
-		compiledCode.conditionalControlBegin( variable, this );
+		// start a condition control session (via the linked loop slot, if possible)
+		if( slot != -1 ) {
+			compiledCode.loopBegin( slot );
+		}
+		else {
+			compiledCode.conditionalControlBegin( variable, this );
+		}
 	}
 	
 	  /* 
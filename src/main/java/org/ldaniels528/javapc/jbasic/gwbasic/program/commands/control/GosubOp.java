@@ -3,7 +3,9 @@ package org.ldaniels528.javapc.jbasic.gwbasic.program.commands.control;
 import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
 import org.ldaniels528.javapc.jbasic.common.program.JBasicCompiledCode;
 import org.ldaniels528.javapc.jbasic.common.util.JBasicTokenUtil;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicLinker;
 import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.GwBasicCommand;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.LinkedOpCode;
 
 import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
 
@@ -12,8 +14,9 @@ import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
  * <br>Purpose: goto subroutine 
  * <br>Syntax: GOSUB <i>label</i>
  */
-public class GosubOp extends GwBasicCommand {
+public class GosubOp extends GwBasicCommand implements LinkedOpCode {
 	private final String label;
+	private int index = -1;
 	
 	/**
 	 * Creates an instance of this opCode
@@ -32,8 +35,17 @@ public class GosubOp extends GwBasicCommand {
 	 */
 	public void execute( final JBasicCompiledCode compiledCode )
 	throws JBasicException {
-		// goto the label
-		compiledCode.gotoLabel( label, true );
+		// goto the label (or its linked opCode)
+		if( index != -1 ) compiledCode.gotoIndex( index, true );
+		else compiledCode.gotoLabel( label, true );
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.ldaniels528.javapc.jbasic.gwbasic.program.commands.LinkedOpCode#link(org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicLinker, int)
+	 */
+	public void link( final GwBasicLinker linker, final int index ) {
+		this.index = linker.resolveLabel( label );
 	}
 
 }
@@ -3,7 +3,9 @@ package org.ldaniels528.javapc.jbasic.gwbasic.program.commands.control;
 import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
 import org.ldaniels528.javapc.jbasic.common.program.JBasicCompiledCode;
 import org.ldaniels528.javapc.jbasic.common.util.JBasicTokenUtil;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicLinker;
 import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.GwBasicCommand;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.LinkedOpCode;
 
 import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
 
@@ -13,8 +15,9 @@ import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
  * <br>Example 1 (QBASIC): GOTO doItAgain
  * <br>Example 2 (GWBASIC): GOTO 1000
  */
-public class GotoOp extends GwBasicCommand {
+public class GotoOp extends GwBasicCommand implements LinkedOpCode {
   private final String label;
+  private int index = -1;
 
   /**
    * Creates an instance of this opCode
@@ -33,8 +36,17 @@ public class GotoOp extends GwBasicCommand {
    */
   public void execute( final JBasicCompiledCode compiledCode ) 
   throws JBasicException {
-	  // goto the label
-	  compiledCode.gotoLabel( label, false );
+	  // goto the label (or its linked opCode)
+	  if( index != -1 ) compiledCode.gotoIndex( index, false );
+	  else compiledCode.gotoLabel( label, false );
+  }
+
+  /* 
+   * (non-Javadoc)
+   * @see org.ldaniels528.javapc.jbasic.gwbasic.program.commands.LinkedOpCode#link(org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicLinker, int)
+   */
+  public void link( final GwBasicLinker linker, final int index ) {
+	  this.index = linker.resolveLabel( label );
   }
 
 }
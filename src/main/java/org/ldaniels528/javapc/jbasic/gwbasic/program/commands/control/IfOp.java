@@ -1,21 +1,16 @@
 package org.ldaniels528.javapc.jbasic.gwbasic.program.commands.control;
 
 
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.LinkedList;
-
 import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
 import org.ldaniels528.javapc.jbasic.common.exceptions.SyntaxErrorException;
 import org.ldaniels528.javapc.jbasic.common.program.JBasicCompiledCode;
 import org.ldaniels528.javapc.jbasic.common.program.OpCode;
 import org.ldaniels528.javapc.jbasic.common.util.JBasicTokenUtil;
-import org.ldaniels528.javapc.jbasic.common.values.Expression;
 import org.ldaniels528.javapc.jbasic.common.values.Value;
-import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleExpression;
-import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleExpressionSet;
 import org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicCompiler;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicLinker;
 import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.GwBasicCommand;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.LinkedOpCode;
 import org.ldaniels528.javapc.jbasic.gwbasic.values.GwBasicValues;
 
 import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
@@ -25,12 +20,10 @@ import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
  * <br>Syntax: IF <i>expression</i> THEN <i>statement1</i> [ELSE <i>statement2</i>]
  * <br>Example: IF X > 5 THEN PRINT "YES" ELSE PRINT "NO"
  */
-public class IfOp extends GwBasicCommand {
+public class IfOp extends GwBasicCommand implements LinkedOpCode {
 	private static final String THEN_KEYWORD = "THEN";  
 	private static final String ELSE_KEYWORD = "ELSE";
-	private static final String AND_KEYWORD  = "AND";
-	private static final String OR_KEYWORD	   = "OR";
-	private Collection<Expression> expressions;
+	private Value condition;
 	private OpCode thenOpCode;
 	private OpCode elseOpCode;
 
@@ -62,20 +55,27 @@ public class IfOp extends GwBasicCommand {
   }
 
   /**
-   * Evaluates the expression
+   * Links the "Then" and "Else" opCodes (e.g. <tt>IF X > 5 THEN 100</tt>)
+   * @param linker the given {@link GwBasicLinker linker}
+   * @param index the index of this opCode
+   * @throws JBasicException
+   */
+  public void link( final GwBasicLinker linker, final int index ) 
+  throws JBasicException {
+	  linker.link( thenOpCode, index );
+	  linker.link( elseOpCode, index );
+  }
+
+  /**
+   * Evaluates the condition; relational and logical operators (e.g. <tt>X > 5 AND Y < 3</tt>)
+   * yield -1 (true) or 0 (false), and any non-zero value is considered true
    * @param compiledCode the currently running {@link JBasicCompiledCode compiled code}
-   * @return true, if the comparison results in a true condition
+   * @return true, if the condition is non-zero
    * @throws JBasicException
    */
   private boolean evaluate( final JBasicCompiledCode compiledCode ) 
   throws JBasicException {
-    for( final Iterator<Expression> it = expressions.iterator(); it.hasNext(); ) {
-    		final Expression expression = it.next();
-    		if( expression.evaluate( compiledCode ) ) {
-    			return true;
-    		}
-    }
-    return false;
+	  return GwBasicValues.getDoubleValue( condition, compiledCode ) != 0;
   }
 
   /**
@@ -99,8 +99,11 @@ public class IfOp extends GwBasicCommand {
    */
   private void parse( final TokenIterator it ) 
   throws JBasicException {
-	  // get the expressions ...
-	  expressions = parseExpressions( it );
+	  // get the condition ...
+	  condition = GwBasicValues.getValueReference( it );
+	  
+	  // next token must be 'THEN'
+	  JBasicTokenUtil.mandateToken( it, THEN_KEYWORD );
     		  
       // get statement to execute
       thenOpCode = getOpCode( it.upto( ELSE_KEYWORD, true ) );
@@ -117,81 +120,5 @@ public class IfOp extends GwBasicCommand {
         if( it.hasNext() ) throw new SyntaxErrorException();      
     }
   }
-  
-  /**
-   * Parses an expression from the given token iterator
-   * @param it the given {@link TokenIterator token iterator}
-   * @return a new {@link SimpleExpression expression}
-   * @throws JBasicException
-   */
-  private Expression parseExpression( final TokenIterator it ) 
-  throws JBasicException {
-      // get the 1st value
-      final Value value1 = GwBasicValues.getValueReference( it );
-
-      // get the comparator
-      final String comparator = it.next();
-
-      // get the 2nd value
-      final Value value2 = GwBasicValues.getValueReference( it );
-      
-      // return a new expression
-	  return new SimpleExpression( value1, comparator, value2 );
-  }
-  
-  /**
-   * Parses an expression from the given token iterator
-   * @param it the given {@link TokenIterator token iterator}
-   * @return a new {@link Collection collection} of {@link Expression expressions}
-   * @throws JBasicException
-   */
-  private Collection<Expression> parseExpressions( final TokenIterator it ) 
-  throws JBasicException {
-	  // create a container for all expressions
-	  final Collection<Expression> expressions = new LinkedList<Expression>();
-	    
-	  // create an initial container for this set of expression(s)
-	  SimpleExpressionSet set = new SimpleExpressionSet();
-	  expressions.add( set );
-	  
-	  // get the next expression
-	  boolean quit = false;
-	  do {
-    	  // get at least one expression
-    	  final Expression expression = parseExpression( it );
-    	  
-    	  // add it to the collection of expressions
-    	  set.add( expression );	    	  
-    	  
-    	  // get the next keyword
-    	  final String nextKeyWord = it.next();
-    	  
-    	  // if the next keyword is 'THEN' ...
-    	  if( THEN_KEYWORD.equalsIgnoreCase( nextKeyWord ) ) {
-    		  quit = true;
-    	  }
-    	  
-    	  // if the next keyword is 'AND' ...
-    	  else if( AND_KEYWORD.equalsIgnoreCase( nextKeyWord ) ) {
-    		  // do nothing here
-    	  }
-    	  
-    	  // if the next keyword is 'OR' ...
-    	  else if( OR_KEYWORD.equalsIgnoreCase( nextKeyWord ) ) {
-    		  // create a new container for the next set of expression(s)
-    		  set = new SimpleExpressionSet();
-    		  expressions.add( set );
-    	  }
-    	  
-    	  // dunno what it was ...
-    	  else {
-    		  throw new JBasicException( "Expected keyword AND, OR, or THEN; found '" + nextKeyWord + "'" );
-    	  }
-	  } 
-	  while( !quit );
-	  
-	  // return the collection of expressions
-	  return expressions;
-  }
 
 }
@@ -7,7 +7,9 @@ import org.ldaniels528.javapc.jbasic.common.program.JBasicCompiledCode;
 import org.ldaniels528.javapc.jbasic.common.util.JBasicTokenUtil;
 import org.ldaniels528.javapc.jbasic.common.values.Variable;
 import org.ldaniels528.javapc.jbasic.common.values.VariableReference;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicLinker;
 import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.GwBasicCommand;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.LinkedOpCode;
 import org.ldaniels528.javapc.jbasic.gwbasic.values.GwBasicValues;
 
 import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
@@ -19,8 +21,10 @@ import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
  * @see ConditionalControlBlock
  * @see ForOp
  */
-public class NextOp extends GwBasicCommand {
+public class NextOp extends GwBasicCommand implements LinkedOpCode {
   private VariableReference reference;
+  private ForOp forOp;
+  private int loopIndex;
 
   /**
    * Creates an instance of this opCode
@@ -38,12 +42,29 @@ public class NextOp extends GwBasicCommand {
 	  }
   }
 
+  /* 
+   * (non-Javadoc)
+   * @see org.ldaniels528.javapc.jbasic.gwbasic.program.commands.LinkedOpCode#link(org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicLinker, int)
+   */
+  public void link( final GwBasicLinker linker, final int index ) {
+	  // pair this NEXT with its FOR
+	  final GwBasicLinker.Loop loop = linker.endLoop( reference != null ? reference.getName() : null );
+	  forOp = ( loop != null ) ? loop.getForOp() : null;
+	  loopIndex = ( loop != null ) ? loop.getIndex() : -1;
+  }
+
   /* 
    * (non-Javadoc)
    * @see org.ldaniels528.javapc.ibmpc.program.OpCode#execute(org.ldaniels528.javapc.ibmpc.program.IbmPcProgram, org.ldaniels528.javapc.ibmpc.IbmPcEnvironment)
    */
   public void execute( final JBasicCompiledCode compiledCode ) 
   throws JBasicException {
+	  // if this NEXT was linked to its FOR, iterate via the loop slot
+	  if( forOp != null ) {
+		  compiledCode.loopIterate( forOp.getSlot(), loopIndex, forOp );
+		  return;
+	  }
+	  
 	  final Variable variable;
 	  
 	  // if a reference was past, use it ...
@@ -12,7 +12,9 @@ import org.ldaniels528.javapc.jbasic.common.exceptions.TypeMismatchException;
 import org.ldaniels528.javapc.jbasic.common.program.JBasicCompiledCode;
 import org.ldaniels528.javapc.jbasic.common.util.JBasicTokenUtil;
 import org.ldaniels528.javapc.jbasic.common.values.VariableReference;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicLinker;
 import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.GwBasicCommand;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.LinkedOpCode;
 import org.ldaniels528.javapc.jbasic.gwbasic.values.GwBasicValues;
 
 import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
@@ -24,10 +26,11 @@ import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
  * <br><b>Syntax1</b>: ON <i>expression</i> GOTO <i>line numbers</i>
  * <br><b>Syntax2</b>: ON <i>expression</i> GOSUB <i>line numbers</i>
  */
-public class OnOp extends GwBasicCommand {	
+public class OnOp extends GwBasicCommand implements LinkedOpCode {	
 	private final List<String> labels;
 	private final VariableReference reference;
 	private final boolean subroutine;
+	private int[] indices;
 
   /**
    * Default Constructor
@@ -63,12 +66,27 @@ public class OnOp extends GwBasicCommand {
 	  
 	  // determine which index to jump to
 	  if( ( index > 0 ) && ( index <= labels.size() ) ) {
-		  // get the label
-		  final String label = labels.get( index  - 1 );
-		  
-		  // perform GOTO or GOSUB
-		  compiledCode.gotoLabel( label, subroutine );
+		  // perform GOTO or GOSUB (to the linked opCode, if possible)
+		  if( ( indices != null ) && ( indices[ index - 1 ] != -1 ) ) {
+			  compiledCode.gotoIndex( indices[ index - 1 ], subroutine );
+		  }
+		  else {
+			  compiledCode.gotoLabel( labels.get( index - 1 ), subroutine );
+		  }
+	  }
+  }
+
+  /* 
+   * (non-Javadoc)
+   * @see org.ldaniels528.javapc.jbasic.gwbasic.program.commands.LinkedOpCode#link(org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicLinker, int)
+   */
+  public void link( final GwBasicLinker linker, final int index ) {
+	  final int[] indices = new int[ labels.size() ];
+	  int n = 0;
+	  for( final String label : labels ) {
+		  indices[ n++ ] = linker.resolveLabel( label );
 	  }
+	  this.indices = indices;
   }
 
   /**
@@ -105,11 +123,11 @@ public class OnOp extends GwBasicCommand {
    */
   private boolean parseGotoGosub( TokenIterator it ) throws JBasicException {
 	  // get the next token (the command)
-	  final String command = JBasicTokenUtil.nextToken( it );
+	  final String command = JBasicTokenUtil.nextToken( it ).trim();
 	  
 	  // determine whether GOSUB or GOTO is used.
-	  if( command.equals( "GOSUB " ) ) return true;
-	  else if( command.equals( "GOTO " ) ) return false;
+	  if( command.equals( "GOSUB" ) ) return true;
+	  else if( command.equals( "GOTO" ) ) return false;
 	  else throw new SyntaxErrorException();
   }
 
@@ -1,7 +1,5 @@
 package org.ldaniels528.javapc.jbasic.gwbasic.program.commands.io;
 
-import org.ldaniels528.javapc.ibmpc.devices.memory.MemoryObject;
-
 import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
 
 import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
@@ -45,11 +43,8 @@ public class AssignmentOp extends GwBasicCommand {
 	  // get the variable
 	  final Variable variable = reference.getVariable( program );
 
-	  // get the value
-	  final MemoryObject object = value.getValue( program );
-    
 	  // assign the value to the variable
-	  variable.setValue( object );
+	  GwBasicValues.setValue( variable, value, program );
   }
 
 }
\ No newline at end of file
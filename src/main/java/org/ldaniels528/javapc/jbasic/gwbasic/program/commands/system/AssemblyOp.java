@@ -2,6 +2,7 @@ package org.ldaniels528.javapc.jbasic.gwbasic.program.commands.system;
 
 import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
 
+import org.ldaniels528.javapc.ibmpc.devices.cpu.X86Profiler;
 import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
 import org.ldaniels528.javapc.jbasic.common.program.JBasicCompiledCode;
 import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.GwBasicCommand;
@@ -36,6 +37,12 @@ public class AssemblyOp extends GwBasicCommand {
 			offset = program.assemble( asmCode, "INT &H20" );
 		}
 		
+		// attribute any profiled code to this statement
+		final X86Profiler profiler = program.getSystem().getCPU().getProfiler();
+		if( profiler != null ) {
+			profiler.setOrigin( "BASIC " + getLineNumber() );
+		}
+		
 		// execute the assembly code
 		program.executeAssembly( offset );		
 	}	
@@ -3,6 +3,7 @@ package org.ldaniels528.javapc.jbasic.gwbasic.program.commands.system;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramArguments;
 import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramContext;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.X86Profiler;
 import org.ldaniels528.javapc.ibmpc.devices.memory.MemoryObject;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
 import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
@@ -88,6 +89,12 @@ public class CallOp extends GwBasicCommand {
                         addressables
                 );
 
+        // attribute any profiled code to this statement
+        final X86Profiler profiler = cpu.getProfiler();
+        if (profiler != null) {
+            profiler.setOrigin("BASIC " + getLineNumber());
+        }
+
         // execute the code
         try {
             cpu.execute(environment, context);
@@ -5,22 +5,43 @@ import org.ldaniels528.javapc.ibmpc.devices.memory.MemoryObject;
 import org.ldaniels528.javapc.ibmpc.devices.memory.NumberMemoryObject;
 import org.ldaniels528.javapc.ibmpc.devices.memory.StringMemoryObject;
 import org.ldaniels528.javapc.jbasic.common.JBasicCompiledCodeReference;
+import org.ldaniels528.javapc.jbasic.common.exceptions.IllegalOperatorException;
 import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
 import org.ldaniels528.javapc.jbasic.common.exceptions.TypeMismatchException;
+import org.ldaniels528.javapc.jbasic.common.util.JBasicTokenUtil;
 import org.ldaniels528.javapc.jbasic.common.values.Value;
+import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleConstant;
+import org.ldaniels528.javapc.jbasic.common.values.types.impl.JBasicTempNumber;
 
-import java.util.Collection;
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
+
+import static org.ldaniels528.javapc.jbasic.gwbasic.values.GwBasicMathOperator.*;
 
 /**
  * Represents a Composition of GWBASIC Values
  * <br>Example: Z * ( Y - 6 )
+ * <p/>
+ * The expression is compiled (honoring GWBASIC operator precedence) into a flat array of
+ * postfix instructions, which are evaluated against a stack of primitives; sub-expressions
+ * consisting only of constants are folded at compile time.
  *
  * @author lawrence.daniels@gmail.com
  */
 public class GwBasicCompositeValue implements Value {
-    private final Collection elements;
+    private static final int PUSH_NUMBER = 32;
+    private static final int PUSH_VALUE = 33;
+    private static final int OPCODE_MASK = 0xFF;
+    private static final int OPERAND_SHIFT = 8;
+    private final int[] code;
+    private final double[] constants;
+    private final Value[] values;
+    private final Value leaf;
+    private final int maxDepth;
+    private double[] numbers;
+    private MemoryObject[] objects;
+    private boolean evaluating;
 
     /**
      * Creates an instance of an expression
@@ -30,7 +51,17 @@ public class GwBasicCompositeValue implements Value {
      */
     public GwBasicCompositeValue(TokenIterator it)
             throws JBasicException {
-        this.elements = parseElements(it);
+        final Assembler assembler = new Assembler();
+        if (it.hasNext()) {
+            assembler.parseExpression(it, LEVEL_IMP);
+        }
+        this.code = assembler.getCode();
+        this.constants = assembler.getConstants();
+        this.values = assembler.values.toArray(new Value[assembler.values.size()]);
+        this.leaf = (code.length == 1) ? assembler.lastLeaf : null;
+        this.maxDepth = assembler.maxDepth;
+        this.numbers = new double[maxDepth];
+        this.objects = new MemoryObject[maxDepth];
     }
 
     /**
@@ -39,93 +70,395 @@ public class GwBasicCompositeValue implements Value {
      * @return the resultant {@link Value value} of the evaluation of this expression
      */
     public MemoryObject getValue(JBasicCompiledCodeReference program) {
-        MemoryObject returnObject = null;
+        if (code.length == 0) return null;
 
-        // iterate thru the elements
-        for (final Iterator i = elements.iterator(); i.hasNext(); ) {
-            final Object element = i.next();
+        // is the expression a single value?
+        if (leaf != null) {
+            return leaf.getValue(program).duplicate();
+        }
 
-            // if the return object is null, then we're dealing with
-            // the first element, captue it's value.
-            if (returnObject == null) {
-                final Value value = (Value) element;
-                returnObject = value.getValue(program).duplicate();
-            }
+        // evaluate the expression
+        final boolean reentrant = evaluating;
+        final double[] numbers = reentrant ? new double[maxDepth] : this.numbers;
+        final MemoryObject[] objects = reentrant ? new MemoryObject[maxDepth] : this.objects;
+        evaluating = true;
+        try {
+            evaluate(program, numbers, objects);
+            final MemoryObject result = objects[0];
+            objects[0] = null;
+            return (result != null) ? result : new JBasicTempNumber(numbers[0]);
+        } finally {
+            evaluating = reentrant;
+        }
+    }
 
-            // next must be an operator ...
-            else {
-                // next element is an operator
-                final GwBasicMathOperator operator = (GwBasicMathOperator) element;
-
-                // next element must be a value
-                final Value value = (Value) i.next();
-                final MemoryObject currentObject = value.getValue(program);
-
-                // is the return object numeric?
-                if (returnObject.isNumeric()) {
-                    // if the current object is not numeric, error ...
-                    if (!currentObject.isNumeric())
-                        throw new TypeMismatchException(currentObject);
-
-                    // compute the return value
-                    final NumberMemoryObject returnNum = (NumberMemoryObject) returnObject;
-                    final NumberMemoryObject currentNum = (NumberMemoryObject) currentObject;
-                    returnObject = operator.operate(returnNum, currentNum);
-                }
+    /**
+     * Evaluates this (numeric) expression as a double precision decimal;
+     * the intermediate results are kept as primitives
+     *
+     * @param program the given {@link JBasicCompiledCodeReference program}
+     * @return the double precision decimal result of the evaluation of this expression
+     * @throws TypeMismatchException if the expression is not numeric
+     */
+    public double getDoubleValue(JBasicCompiledCodeReference program) {
+        // is the expression a single value?
+        if (leaf != null) {
+            return GwBasicValues.getDoubleValue(leaf, program);
+        }
 
-                // is the return object a string?
-                else if (returnObject.isString()) {
-                    // cast the return object as a string
-                    final StringMemoryObject returnString = (StringMemoryObject) returnObject;
-                    // operator on the objects
-                    operator.operate(returnString, currentObject);
-                }
+        // evaluate the expression
+        final boolean reentrant = evaluating;
+        final double[] numbers = reentrant ? new double[maxDepth] : this.numbers;
+        final MemoryObject[] objects = reentrant ? new MemoryObject[maxDepth] : this.objects;
+        evaluating = true;
+        try {
+            evaluate(program, numbers, objects);
+            final MemoryObject result = objects[0];
+            if (result != null) {
+                objects[0] = null;
+                throw new TypeMismatchException(result);
             }
+            return numbers[0];
+        } finally {
+            evaluating = reentrant;
         }
-        return returnObject;
     }
 
     /**
-     * Parses the given token iterator into an evaluatable expression.
+     * Executes the instructions of this expression; the result is left at the bottom of the stack
+     * (in <tt>objects[0]</tt> if it is a string, otherwise in <tt>numbers[0]</tt>)
      *
-     * @param it the given {@link TokenIterator token iterator}
-     * @return a {@link Collection collection} of elements that compose
-     * an evaluatable expression.
-     * @throws JBasicException
+     * @param program the given {@link JBasicCompiledCodeReference program}
+     * @param numbers the stack of numeric values
+     * @param objects the (parallel) stack of string values; <tt>null</tt> for numeric entries
      */
-    @SuppressWarnings("unchecked")
-    private Collection parseElements(TokenIterator it)
-            throws JBasicException {
-        // create a container for the elements
-        final Collection elements = new LinkedList();
-
-        // loop through all tokens
-        while (it.hasNext()) {
-            // add the value
-            final Value value = GwBasicValues.getValue(it);
-            elements.add(value);
-
-            // if there's another token ...
-            if (it.hasNext()) {
-                // peek at the next token
-                final String token = it.peekAtNext();
-
-                // if the token is an operator, add it
-                if (GwBasicMathOperator.isOperator(token)) {
-                    elements.add(new GwBasicMathOperator(it.next()));
-                }
-                // otherwise return the elements we have
-                else return elements;
+    private void evaluate(final JBasicCompiledCodeReference program,
+                          final double[] numbers,
+                          final MemoryObject[] objects) {
+        int sp = -1;
+        for (final int instruction : code) {
+            final int opCode = instruction & OPCODE_MASK;
+            switch (opCode) {
+                case PUSH_NUMBER:
+                    numbers[++sp] = constants[instruction >> OPERAND_SHIFT];
+                    objects[sp] = null;
+                    break;
+                case PUSH_VALUE:
+                    final MemoryObject object = values[instruction >> OPERAND_SHIFT].getValue(program);
+                    if (object.isNumeric()) {
+                        numbers[++sp] = object.toDoublePrecision();
+                        objects[sp] = null;
+                    } else {
+                        objects[++sp] = object;
+                    }
+                    break;
+                case NEG:
+                case NOT:
+                    if (objects[sp] != null) {
+                        throw new TypeMismatchException(objects[sp]);
+                    }
+                    numbers[sp] = operate(opCode, numbers[sp]);
+                    break;
+                default:
+                    sp--;
+                    if (objects[sp] == null && objects[sp + 1] == null) {
+                        numbers[sp] = operate(opCode, numbers[sp], numbers[sp + 1]);
+                    } else {
+                        operateOnStrings(opCode, numbers, objects, sp);
+                    }
             }
         }
-        return elements;
+    }
+
+    /**
+     * Applies the given binary operator to the string values at the given position
+     * (and the one above it) of the stack; the result replaces the value at the given position
+     *
+     * @param opCode  the given operator ID
+     * @param numbers the stack of numeric values
+     * @param objects the (parallel) stack of string values
+     * @param sp      the given stack position
+     */
+    @SuppressWarnings("unchecked")
+    private static void operateOnStrings(final int opCode,
+                                         final double[] numbers,
+                                         final MemoryObject[] objects,
+                                         final int sp) {
+        final MemoryObject objectA = objects[sp];
+        final MemoryObject objectB = objects[sp + 1];
+        objects[sp + 1] = null;
+
+        // both values must be strings
+        if (objectA == null || objectB == null) {
+            throw new TypeMismatchException((objectA != null) ? objectA : objectB);
+        }
+
+        // concatenation?
+        if (opCode == ADD) {
+            final StringMemoryObject string = (StringMemoryObject) objectA.duplicate();
+            string.append(objectB);
+            objects[sp] = string;
+        }
+
+        // comparison?
+        else if (isRelational(opCode)) {
+            numbers[sp] = compare(opCode, objectA.compareTo(objectB));
+            objects[sp] = null;
+        }
+
+        // anything else is not supported for strings
+        else throw new IllegalOperatorException();
     }
 
     /**
      * @return a string representation of the value.
      */
     public String toString() {
-        return elements.toString();
+        final LinkedList<String> stack = new LinkedList<>();
+        for (final int instruction : code) {
+            final int opCode = instruction & OPCODE_MASK;
+            switch (opCode) {
+                case PUSH_NUMBER:
+                    stack.push(String.valueOf(constants[instruction >> OPERAND_SHIFT]));
+                    break;
+                case PUSH_VALUE:
+                    stack.push(String.valueOf(values[instruction >> OPERAND_SHIFT]));
+                    break;
+                case NEG:
+                case NOT:
+                    stack.push("(" + getSymbol(opCode) + stack.pop() + ")");
+                    break;
+                default:
+                    final String valueB = stack.pop();
+                    stack.push("(" + stack.pop() + " " + getSymbol(opCode) + " " + valueB + ")");
+            }
+        }
+        return stack.isEmpty() ? "" : stack.pop();
+    }
+
+    /**
+     * Compiles the tokens of an expression into postfix instructions (precedence climbing)
+     */
+    private static class Assembler {
+        private final List<Integer> code = new ArrayList<>();
+        private final List<Double> constants = new ArrayList<>();
+        private final List<Value> literals = new ArrayList<>();
+        private final List<Value> values = new ArrayList<>();
+        private Value lastLeaf;
+        private int depth;
+        private int maxDepth;
+
+        /**
+         * Parses an expression consisting of operators having at least the given precedence level
+         *
+         * @param it       the given {@link TokenIterator token iterator}
+         * @param minLevel the given minimum precedence level
+         * @throws JBasicException
+         */
+        void parseExpression(final TokenIterator it, final int minLevel) throws JBasicException {
+            // parse the left operand
+            parseOperand(it);
+
+            // parse the operators (and their right operands)
+            while (it.hasNext()) {
+                final int operatorId = getOperatorType(it.peekAtNext());
+                if (operatorId == -1 || getPrecedence(operatorId) < minLevel) return;
+                it.next();
+
+                // operators are left associative
+                parseExpression(it, getPrecedence(operatorId) + 1);
+                emitBinary(operatorId);
+            }
+        }
+
+        /**
+         * Parses an operand; a value, a sub-expression or a unary operation
+         *
+         * @param it the given {@link TokenIterator token iterator}
+         * @throws JBasicException
+         */
+        private void parseOperand(final TokenIterator it) throws JBasicException {
+            final String token = it.peekAtNext();
+
+            // is it a negation (e.g. "-X")?
+            if ("-".equals(token)) {
+                it.next();
+                parseExpression(it, LEVEL_POW);
+                emitUnary(NEG);
+            }
+
+            // is it a positive sign (e.g. "+X")?
+            else if ("+".equals(token)) {
+                it.next();
+                parseExpression(it, LEVEL_POW);
+            }
+
+            // is it a logical not (e.g. "NOT X")?
+            else if ("NOT".equalsIgnoreCase(token)) {
+                it.next();
+                parseExpression(it, LEVEL_NOT + 1);
+                emitUnary(NOT);
+            }
+
+            // is it a sub-expression (e.g. "(X + 3)")?
+            else if ("(".equals(token)) {
+                it.next();
+                parseExpression(it, LEVEL_IMP);
+                JBasicTokenUtil.mandateToken(it, ")");
+            }
+
+            // must be a value
+            else emitValue(GwBasicValues.getValue(it));
+        }
+
+        /**
+         * Emits the instruction to push the given value onto the stack
+         *
+         * @param value the given {@link Value value}
+         */
+        private void emitValue(final Value value) {
+            final MemoryObject object = (value instanceof SimpleConstant) ? value.getValue(null) : null;
+            if (object != null && object.isNumeric()) {
+                emitNumber(object.toDoublePrecision(), value);
+            } else {
+                emit(PUSH_VALUE | (values.size() << OPERAND_SHIFT), 1);
+                values.add(value);
+                lastLeaf = value;
+            }
+        }
+
+        /**
+         * Emits the instruction to push the given numeric constant onto the stack
+         *
+         * @param number  the given numeric constant
+         * @param literal the {@link Value value} representing the constant
+         */
+        private void emitNumber(final double number, final Value literal) {
+            emit(PUSH_NUMBER | (constants.size() << OPERAND_SHIFT), 1);
+            constants.add(number);
+            literals.add(literal);
+            lastLeaf = literal;
+        }
+
+        /**
+         * Emits the given unary operator; folding it if its operand is a constant
+         *
+         * @param operatorId the given operator ID
+         */
+        private void emitUnary(final int operatorId) {
+            if (isConstant(1)) {
+                final int index = constants.size() - 1;
+                final double result = operate(operatorId, constants.get(index));
+                final Value literal = literals.get(index);
+                removeConstants(1);
+                emitNumber(result, (operatorId == NEG) ? negate(literal) : toLiteral(result));
+            } else emit(operatorId, 0);
+        }
+
+        /**
+         * Emits the given binary operator; folding it if both of its operands are constants
+         *
+         * @param operatorId the given operator ID
+         */
+        private void emitBinary(final int operatorId) {
+            if (isConstant(2)) {
+                final int index = constants.size() - 2;
+                final double result;
+                try {
+                    result = operate(operatorId, constants.get(index), constants.get(index + 1));
+                } catch (RuntimeException e) {
+                    // leave the error (e.g. division by zero) for run time
+                    emit(operatorId, -1);
+                    return;
+                }
+                removeConstants(2);
+                emitNumber(result, toLiteral(result));
+            } else emit(operatorId, -1);
+        }
+
+        /**
+         * Indicates whether the last given number of instructions push numeric constants
+         *
+         * @param count the given number of instructions
+         * @return true, if the instructions push numeric constants
+         */
+        private boolean isConstant(final int count) {
+            if (code.size() < count) return false;
+            for (int n = code.size() - count; n < code.size(); n++) {
+                if ((code.get(n) & OPCODE_MASK) != PUSH_NUMBER) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Removes the last given number of (numeric constant) instructions
+         *
+         * @param count the given number of instructions
+         */
+        private void removeConstants(final int count) {
+            for (int n = 0; n < count; n++) {
+                code.remove(code.size() - 1);
+                constants.remove(constants.size() - 1);
+                literals.remove(literals.size() - 1);
+            }
+            depth -= count;
+        }
+
+        /**
+         * Emits the given instruction
+         *
+         * @param instruction the given instruction
+         * @param delta       the change in the depth of the stack
+         */
+        private void emit(final int instruction, final int delta) {
+            code.add(instruction);
+            depth += delta;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        /**
+         * @return the compiled instructions
+         */
+        int[] getCode() {
+            final int[] array = new int[code.size()];
+            for (int n = 0; n < array.length; n++) {
+                array[n] = code.get(n);
+            }
+            return array;
+        }
+
+        /**
+         * @return the numeric constants referenced by the compiled instructions
+         */
+        double[] getConstants() {
+            final double[] array = new double[constants.size()];
+            for (int n = 0; n < array.length; n++) {
+                array[n] = constants.get(n);
+            }
+            return array;
+        }
+
+        /**
+         * Returns the negation of the given numeric literal; retaining its precision
+         *
+         * @param literal the given numeric literal
+         * @return the negated literal
+         */
+        private static Value negate(final Value literal) {
+            final NumberMemoryObject number = (NumberMemoryObject) literal.getValue(null).duplicate();
+            number.setValue(-number.toDoublePrecision());
+            return new SimpleConstant(number);
+        }
+
+        /**
+         * Returns a numeric literal representing the given (folded) result
+         *
+         * @param result the given result
+         * @return the literal
+         */
+        private static Value toLiteral(final double result) {
+            return new SimpleConstant(new JBasicTempNumber(result));
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -1,17 +1,15 @@
 package org.ldaniels528.javapc.jbasic.gwbasic.values;
 
-import org.ldaniels528.javapc.ibmpc.devices.memory.MemoryObject;
-import org.ldaniels528.javapc.ibmpc.devices.memory.NumberMemoryObject;
-import org.ldaniels528.javapc.ibmpc.devices.memory.StringMemoryObject;
+import org.ldaniels528.javapc.jbasic.common.exceptions.DivisionByZeroException;
 import org.ldaniels528.javapc.jbasic.common.exceptions.IllegalOperatorException;
 import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
 
-import java.util.List;
-
-import static java.util.Arrays.asList;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Represents a GWBASIC Math Operator
+ * Represents a GWBASIC Math Operator; arithmetic (^, *, /, \, MOD, +, -),
+ * relational (=, &lt;&gt;, &lt;, &gt;, &lt;=, &gt;=) and logical (NOT, AND, OR, XOR, EQV, IMP)
  *
  * @author lawrence.daniels@gmail.com
  */
@@ -22,13 +20,53 @@ public class GwBasicMathOperator {
     public static final int SUB = 3;
     public static final int POW = 4;
     public static final int MOD = 5;
-    private static final List<String> OPERATORS = asList("*", "/", "+", "-", "^", "MOD");
+    public static final int IDIV = 6;
+    public static final int NEG = 7;
+    public static final int EQ = 8;
+    public static final int NE = 9;
+    public static final int LT = 10;
+    public static final int GT = 11;
+    public static final int LE = 12;
+    public static final int GE = 13;
+    public static final int NOT = 14;
+    public static final int AND = 15;
+    public static final int OR = 16;
+    public static final int XOR = 17;
+    public static final int EQV = 18;
+    public static final int IMP = 19;
+
+    // precedence levels (lowest to highest)
+    public static final int LEVEL_IMP = 1;
+    public static final int LEVEL_EQV = 2;
+    public static final int LEVEL_XOR = 3;
+    public static final int LEVEL_OR = 4;
+    public static final int LEVEL_AND = 5;
+    public static final int LEVEL_NOT = 6;
+    public static final int LEVEL_RELATIONAL = 7;
+    public static final int LEVEL_ADDITIVE = 8;
+    public static final int LEVEL_MOD = 9;
+    public static final int LEVEL_IDIV = 10;
+    public static final int LEVEL_MULTIPLICATIVE = 11;
+    public static final int LEVEL_NEGATION = 12;
+    public static final int LEVEL_POW = 13;
+
+    private static final int[] PRECEDENCE = {
+            LEVEL_MULTIPLICATIVE, LEVEL_MULTIPLICATIVE, LEVEL_ADDITIVE, LEVEL_ADDITIVE, LEVEL_POW,
+            LEVEL_MOD, LEVEL_IDIV, LEVEL_NEGATION, LEVEL_RELATIONAL, LEVEL_RELATIONAL, LEVEL_RELATIONAL,
+            LEVEL_RELATIONAL, LEVEL_RELATIONAL, LEVEL_RELATIONAL, LEVEL_NOT, LEVEL_AND, LEVEL_OR,
+            LEVEL_XOR, LEVEL_EQV, LEVEL_IMP
+    };
+    private static final String[] SYMBOLS = {
+            "*", "/", "+", "-", "^", "MOD", "\\", "-", "=", "<>", "<", ">", "<=", ">=",
+            "NOT ", "AND", "OR", "XOR", "EQV", "IMP"
+    };
+    private static final Map<String, Integer> OPERATORS = createOperatorMapping();
     private int operatorId;
 
     /**
      * Creates an instance of this operator
      *
-     * @param operator the given operator
+     * @param operator the given (binary) operator
      * @throws JBasicException
      */
     public GwBasicMathOperator(String operator)
@@ -37,45 +75,97 @@ public class GwBasicMathOperator {
     }
 
     /**
-     * Computes the result of the the given numbers using the this operator
+     * Computes the result of the the given (double precision) numbers using the this operator
      *
      * @param numberA the left side number
      * @param numberB the right side number
      * @return the result of the two numbers operated upon by the operator
      */
-    public MemoryObject operate(NumberMemoryObject numberA, NumberMemoryObject numberB) {
+    public double operate(double numberA, double numberB) {
+        return operate(operatorId, numberA, numberB);
+    }
+
+    /**
+     * Computes the result of the the given (double precision) numbers using the given binary operator.
+     * Relational operators yield -1 (true) or 0 (false); logical operators operate on the integer
+     * (bitwise) values of the numbers, as do integer division (\) and modulus (MOD).
+     *
+     * @param operatorId the given operator ID (e.g. {@link #ADD})
+     * @param numberA    the left side number
+     * @param numberB    the right side number
+     * @return the result of the two numbers operated upon by the operator
+     */
+    public static double operate(final int operatorId, final double numberA, final double numberB) {
         switch (operatorId) {
             case MUL:
-                return numberA.multiply(numberB);
+                return numberA * numberB;
             case DIV:
-                return numberA.divide(numberB);
+                return numberA / numberB;
             case ADD:
-                return numberA.add(numberB);
+                return numberA + numberB;
             case SUB:
-                return numberA.subtract(numberB);
+                return numberA - numberB;
             case POW:
-                return numberA.exponent(numberB);
+                return Math.pow(numberA, numberB);
             case MOD:
-                return numberA.modulus(numberB);
+                return toInteger(numberA) % toDivisor(numberB);
+            case IDIV:
+                return toInteger(numberA) / toDivisor(numberB);
+            case EQ:
+                return (numberA == numberB) ? -1 : 0;
+            case NE:
+                return (numberA != numberB) ? -1 : 0;
+            case LT:
+                return (numberA < numberB) ? -1 : 0;
+            case GT:
+                return (numberA > numberB) ? -1 : 0;
+            case LE:
+                return (numberA <= numberB) ? -1 : 0;
+            case GE:
+                return (numberA >= numberB) ? -1 : 0;
+            case AND:
+                return toInteger(numberA) & toInteger(numberB);
+            case OR:
+                return toInteger(numberA) | toInteger(numberB);
+            case XOR:
+                return toInteger(numberA) ^ toInteger(numberB);
+            case EQV:
+                return ~(toInteger(numberA) ^ toInteger(numberB));
+            case IMP:
+                return ~toInteger(numberA) | toInteger(numberB);
             default:
                 throw new IllegalOperatorException();
         }
     }
 
     /**
-     * Computes the result of the the given string and object using the this operator
+     * Computes the result of the given (double precision) number using the given unary operator
      *
-     * @param string the given {@link StringMemoryObject string}
-     * @param object the given {@link MemoryObject object}
+     * @param operatorId the given operator ID ({@link #NEG} or {@link #NOT})
+     * @param number     the given number
+     * @return the result of the number operated upon by the operator
      */
-    public void operate(StringMemoryObject string, MemoryObject object) {
-        // if the operator is not an add, error ...
-        if (operatorId != ADD) {
-            throw new IllegalOperatorException();
+    public static double operate(final int operatorId, final double number) {
+        switch (operatorId) {
+            case NEG:
+                return -number;
+            case NOT:
+                return ~toInteger(number);
+            default:
+                throw new IllegalOperatorException();
         }
+    }
 
-        // append the object   
-        string.append(object);
+    /**
+     * Indicates whether the given result of a comparison (e.g. {@link Comparable#compareTo(Object)})
+     * satisfies the given relational operator
+     *
+     * @param operatorId the given operator ID (e.g. {@link #LE})
+     * @param result     the given result of a comparison
+     * @return -1 (true) or 0 (false)
+     */
+    public static double compare(final int operatorId, final int result) {
+        return operate(operatorId, result, 0);
     }
 
     /**
@@ -88,23 +178,115 @@ public class GwBasicMathOperator {
     }
 
     /**
-     * Returns the type of the given operator
+     * @return a string representation of the operator.
+     */
+    public String toString() {
+        return getSymbol(operatorId);
+    }
+
+    /**
+     * Returns the precedence level of the given operator; higher levels bind more tightly
+     *
+     * @param operatorId the given operator ID (e.g. {@link #ADD})
+     * @return the precedence level (e.g. {@link #LEVEL_ADDITIVE})
+     */
+    public static int getPrecedence(final int operatorId) {
+        return PRECEDENCE[operatorId];
+    }
+
+    /**
+     * Returns the symbol (or keyword) of the given operator
      *
-     * @param operator the given operator (*, /, +, -)
-     * @return the type of the operator
+     * @param operatorId the given operator ID (e.g. {@link #ADD})
+     * @return the symbol (e.g. "+")
      */
-    private int getOperatorType(String operator) {
-        return OPERATORS.indexOf(operator);
+    public static String getSymbol(final int operatorId) {
+        return SYMBOLS[operatorId];
     }
 
     /**
-     * Indicates whether the given symbol is a valid GWBASIC Operator
+     * Indicates whether the given operator is relational (e.g. "&lt;=")
+     *
+     * @param operatorId the given operator ID
+     * @return true, if the operator is relational
+     */
+    public static boolean isRelational(final int operatorId) {
+        return PRECEDENCE[operatorId] == LEVEL_RELATIONAL;
+    }
+
+    /**
+     * Returns the type of the given binary operator
+     *
+     * @param operator the given operator (*, /, +, -, etc.)
+     * @return the type of the operator, or -1 if the symbol is not a binary operator
+     */
+    public static int getOperatorType(String operator) {
+        final Integer operatorId = (operator != null) ? OPERATORS.get(operator.toUpperCase()) : null;
+        return (operatorId != null) ? operatorId : -1;
+    }
+
+    /**
+     * Indicates whether the given symbol is a valid GWBASIC (binary) Operator
      *
      * @param symbol the given symbol
      * @return true, if the given symbol is a valid GWBASIC Operator
      */
     public static boolean isOperator(String symbol) {
-        return OPERATORS.contains(symbol);
+        return getOperatorType(symbol) != -1;
+    }
+
+    /**
+     * Converts the given number to an integer (rounding to the nearest integer)
+     *
+     * @param number the given number
+     * @return the integer value
+     */
+    private static int toInteger(final double number) {
+        return (int) Math.round(number);
+    }
+
+    /**
+     * Converts the given divisor to an integer
+     *
+     * @param number the given divisor
+     * @return the (non-zero) integer value
+     * @throws DivisionByZeroException if the divisor is zero
+     */
+    private static int toDivisor(final double number) {
+        final int divisor = toInteger(number);
+        if (divisor == 0) {
+            throw new DivisionByZeroException();
+        }
+        return divisor;
+    }
+
+    /**
+     * @return the mapping of binary operator symbols (and keywords) to operator IDs
+     */
+    private static Map<String, Integer> createOperatorMapping() {
+        final Map<String, Integer> mapping = new HashMap<>();
+        mapping.put("*", MUL);
+        mapping.put("/", DIV);
+        mapping.put("+", ADD);
+        mapping.put("-", SUB);
+        mapping.put("^", POW);
+        mapping.put("MOD", MOD);
+        mapping.put("\\", IDIV);
+        mapping.put("=", EQ);
+        mapping.put("<>", NE);
+        mapping.put("><", NE);
+        mapping.put("<", LT);
+        mapping.put(">", GT);
+        mapping.put("<=", LE);
+        mapping.put("=<", LE);
+        mapping.put(">=", GE);
+        mapping.put("=>", GE);
+        mapping.put("AND", AND);
+        mapping.put("OR", OR);
+        mapping.put("XOR", XOR);
+        mapping.put("EQV", EQV);
+        mapping.put("IMP", IMP);
+        return mapping;
     }
 
-}
\ No newline at end of file
+}
@@ -1,17 +1,22 @@
 package org.ldaniels528.javapc.jbasic.gwbasic.values;
 
 import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
+import org.ldaniels528.javapc.ibmpc.devices.memory.MemoryObject;
 import org.ldaniels528.javapc.ibmpc.devices.memory.NumberMemoryObject;
 import org.ldaniels528.javapc.ibmpc.devices.memory.StringMemoryObject;
 import org.ldaniels528.javapc.ibmpc.exceptions.IbmPcNumericFormatException;
+import org.ldaniels528.javapc.jbasic.common.JBasicCompiledCodeReference;
 import org.ldaniels528.javapc.jbasic.common.exceptions.IllegalNumberFormat;
 import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
 import org.ldaniels528.javapc.jbasic.common.exceptions.SyntaxErrorException;
+import org.ldaniels528.javapc.jbasic.common.exceptions.TypeMismatchException;
 import org.ldaniels528.javapc.jbasic.common.util.JBasicTokenUtil;
 import org.ldaniels528.javapc.jbasic.common.values.Value;
 import org.ldaniels528.javapc.jbasic.common.values.Values;
+import org.ldaniels528.javapc.jbasic.common.values.Variable;
 import org.ldaniels528.javapc.jbasic.common.values.VariableReference;
 import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleConstant;
+import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleVariable;
 import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleVariableArrayIndexReference;
 import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleVariableReference;
 import org.ldaniels528.javapc.jbasic.common.values.types.impl.JBasicTempNumber;
@@ -153,6 +158,45 @@ public class GwBasicValues extends Values {
         return (VariableReference) value;
     }
 
+    /**
+     * Evaluates the given numeric value as a double precision decimal; expressions are
+     * evaluated without materializing their intermediate results as {@link MemoryObject memory objects}
+     *
+     * @param value   the given {@link Value value}
+     * @param program the given {@link JBasicCompiledCodeReference program}
+     * @return the double precision decimal value
+     * @throws TypeMismatchException if the value is not numeric
+     */
+    public static double getDoubleValue(final Value value, final JBasicCompiledCodeReference program) {
+        // is it an expression?
+        if (value instanceof GwBasicCompositeValue) {
+            return ((GwBasicCompositeValue) value).getDoubleValue(program);
+        }
+
+        // the value must be numeric
+        final MemoryObject object = value.getValue(program);
+        if (!object.isNumeric())
+            throw new TypeMismatchException(object);
+        return object.toDoublePrecision();
+    }
+
+    /**
+     * Assigns the given value to the given variable; numeric values are written directly
+     * into numeric variables (in the variable's own precision)
+     *
+     * @param variable the given {@link Variable variable}
+     * @param value    the given {@link Value value}
+     * @param program  the given {@link JBasicCompiledCodeReference program}
+     */
+    public static void setValue(final Variable variable, final Value value, final JBasicCompiledCodeReference program) {
+        final MemoryObject object = variable.getValueObject();
+        if ((variable instanceof SimpleVariable) && (object instanceof NumberMemoryObject)) {
+            ((NumberMemoryObject) object).setValue(getDoubleValue(value, program));
+        } else {
+            variable.setValue(value.getValue(program));
+        }
+    }
+
     ////////////////////////////////////////////////////////////
     //      Data Conversion Method(s)
     ////////////////////////////////////////////////////////////
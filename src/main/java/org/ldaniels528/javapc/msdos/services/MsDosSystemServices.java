@@ -11,15 +11,15 @@ import org.ldaniels528.javapc.ibmpc.exceptions.IbmPcException;
 import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
 import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
 import org.ldaniels528.javapc.msdos.storage.*;
-import org.ldaniels528.javapc.util.ByteConversion;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Calendar;
-import java.util.Scanner;
 
 import static java.lang.String.format;
+import static org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory.SYSTEM_MEMORY_SIZE;
+import static org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryUtil.computePhysicalAddress;
 import static org.ldaniels528.javapc.util.ResourceHelper.getBinaryContents;
 
 /**
@@ -31,7 +31,6 @@ public class MsDosSystemServices implements InterruptHandler {
     private static final MsDosSystemServices instance = new MsDosSystemServices();
     private static final int LAST_OFFSET = 0xFFFF;
     private final Logger logger = Logger.getLogger(getClass());
-    private final Scanner scanner = new Scanner(System.in);
 
     /**
      * Private constructor
@@ -64,7 +63,7 @@ public class MsDosSystemServices implements InterruptHandler {
             // determine what to do
             switch (cpu.AH.get()) {
                 case 0x01:
-                    readCharacterFromSTDIN(cpu);
+                    readCharacterFromSTDIN(system, cpu);
                     break;
                 case 0x02:
                     writeCharacterToSTDOUT(display, cpu);
@@ -313,13 +312,11 @@ public class MsDosSystemServices implements InterruptHandler {
     }
 
     /**
-     * Reads a character from STDIN
+     * Reads a character from STDIN (the system's keyboard), echoing it to STDOUT
      * Return: AL = character read
      */
-    private void readCharacterFromSTDIN(final I8086 cpu) {
-        if (scanner.hasNext()) {
-            cpu.AL.set(ByteConversion.convertToInt(scanner.nextByte()));
-        }
+    private void readCharacterFromSTDIN(final IbmPcSystem system, final I8086 cpu) {
+        consoleInputWithEcho(system, cpu);
     }
 
     /**
@@ -1522,30 +1519,25 @@ public class MsDosSystemServices implements InterruptHandler {
     private void readFromFileOrDeviceUsingHandle(final MsDosStorageSystem disk,
                                                  final IbmPcRandomAccessMemory memory,
                                                  final I8086 cpu) {
-        // get the number of bytes to read
-        final int count = cpu.CX.get();
-
         // get the handle ID
         final int handleID = cpu.BX.get();
 
-        // create a memory block
-        final byte[] block = new byte[count];
-
-        logger.info(format("readFromFileOrDeviceUsingHandle: count = %d, handle = %d", count, handleID));
+        // get the buffer at DS:DX, and the number of bytes to read (CX)
+        final int address = computePhysicalAddress(cpu.DS.get(), cpu.DX.get());
+        final int count = Math.min(cpu.CX.get(), SYSTEM_MEMORY_SIZE - address);
 
         try {
-            // read the block from the file
-            final int bytesRead = disk.readFromDevice(handleID, block, count);
-            logger.info(format("readFromFileOrDeviceUsingHandle: bytesRead = %d", bytesRead));
-
-            // put the block into memory
-            memory.setBytes(cpu.DS.get(), cpu.DX.get(), block, bytesRead);
+            // read directly into memory
+            final int bytesRead = disk.readFromDevice(handleID, memory.getBuffer(address, count));
+            if (bytesRead > 0) {
+                memory.markUpdated(address, address + bytesRead - 1);
+            }
 
             // put bytes read into AX and CF = 0
             cpu.AX.set(bytesRead);
             cpu.FLAGS.setCF(false);
         } catch (final IbmPcException e) {
-            cpu.FLAGS.setCF(true);
+            setErrorCode(cpu, e);
         }
     }
 
@@ -1631,16 +1623,33 @@ public class MsDosSystemServices implements InterruptHandler {
      */
     private void writeToFileOrDeviceUsingHandle(final MsDosStorageSystem disk,
                                                 final IbmPcRandomAccessMemory memory,
-                                                final I8086 cpu)
-            throws IbmPcException {
+                                                final I8086 cpu) {
         // get the file handle
         final int fileHandle = cpu.BX.get();
 
-        // get the data block at DS:[DX], count is in CX
-        final byte[] datablock = memory.getBytes(cpu.DS.get(), cpu.DX.get(), cpu.CX.get());
+        // get the buffer at DS:DX, and the number of bytes to write (CX)
+        final int address = computePhysicalAddress(cpu.DS.get(), cpu.DX.get());
+        final int count = Math.min(cpu.CX.get(), SYSTEM_MEMORY_SIZE - address);
 
-        // write the block to the file
-        disk.writeToDevice(fileHandle, datablock);
+        try {
+            // a zero count truncates/extends the file to the current position
+            final int bytesWritten;
+            if (count == 0) {
+                disk.truncateDevice(fileHandle);
+                bytesWritten = 0;
+            }
+
+            // otherwise, write directly from memory
+            else {
+                bytesWritten = disk.writeToDevice(fileHandle, memory.getBuffer(address, count));
+            }
+
+            // put bytes written into AX and CF = 0
+            cpu.AX.set(bytesWritten);
+            cpu.FLAGS.setCF(false);
+        } catch (final IbmPcException e) {
+            setErrorCode(cpu, e);
+        }
     }
 
     /**
@@ -1685,22 +1694,38 @@ public class MsDosSystemServices implements InterruptHandler {
                                             final IbmPcRandomAccessMemory memory,
                                             final I8086 cpu) {
         final int handleID = cpu.BX.get();
-        final int count = (cpu.CX.get() << 16) | cpu.DX.get();
-        final int function = cpu.AL.get();
+        final int offset = (cpu.CX.get() << 16) | cpu.DX.get();
+        final int origin = cpu.AL.get();
 
-        switch (function) {
-            case SEEK_SET:
-            case SEEK_CUR:
-            case SEEK_END:
+        // validate the origin of the move
+        if (origin > MsDosFileHandle.SEEK_END) {
+            cpu.AX.set(0x0001);
+            cpu.FLAGS.setCF(true);
+            return;
         }
 
-        // TODO Implement me!
-        cpu.FLAGS.setCF(false);
+        try {
+            // move the file pointer (CX:DX is a signed offset); DX:AX = new position
+            final long position = disk.seekDevice(handleID, origin, offset);
+            cpu.DX.set((int) (position >>> 16) & 0xFFFF);
+            cpu.AX.set((int) position & 0xFFFF);
+            cpu.FLAGS.setCF(false);
+        } catch (final IbmPcException e) {
+            setErrorCode(cpu, e);
+        }
     }
 
-    private static final int SEEK_SET = 0;
-    private static final int SEEK_CUR = 1;
-    private static final int SEEK_END = 2;
+    /**
+     * Reports a failed handle operation; AX = error code and CF = 1
+     *
+     * @param cpu   the given {@link I8086 CPU}
+     * @param cause the given {@link IbmPcException cause} of the failure
+     */
+    private void setErrorCode(final I8086 cpu, final IbmPcException cause) {
+        // 06 = invalid handle, 05 = access denied
+        cpu.AX.set((cause instanceof MsDosFileHandleNotFoundException) ? 0x0006 : 0x0005);
+        cpu.FLAGS.setCF(true);
+    }
 
     /**
      * <pre>
@@ -75,6 +75,15 @@ public class MsDosFileAccessMode {
 		return readWrite;
 	}
 	
+	/**
+	 * Indicates whether the file may be written to; either via
+	 * the write-only (01) or read/write (02) access modes
+	 * @return true, if the file may be written to
+	 */
+	public boolean isWritable() {
+		return readWrite || ( mode & 0x03 ) != 0;
+	}
+	
 	/**
 	 * Indicates whether the file is marked private or 
 	 * conversly inheritable.
@@ -5,17 +5,31 @@ import org.ldaniels528.javapc.ibmpc.exceptions.IbmPcException;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 /**
- * Represents an IBM PC/MS DOS File Handle
+ * Represents an IBM PC/MS DOS File Handle; the file is accessed through a
+ * {@link FileChannel file channel} with a read-ahead/write-behind buffer,
+ * so that programs reading or writing in small records do not incur a
+ * system call per record.
  * @author lawrence.daniels@gmail.com
  */
 public class MsDosFileHandle {
-	private RandomAccessFile raf;
+	public static final int SEEK_SET = 0;
+	public static final int SEEK_CUR = 1;
+	public static final int SEEK_END = 2;
+	private static final int BUFFER_SIZE = 4096;
+	private final ByteBuffer buffer;
+	private MsDosFileAccessMode accessMode;
+	private FileChannel channel;
 	private File file;
 	private int handleID;
-	
+	private long position;
+	private long bufferPosition;
+	private boolean writeBehind;
+
 	/**
 	 * Creates an instance of this handle
 	 * @param file the given {@link File file}
@@ -24,35 +38,70 @@ public class MsDosFileHandle {
 	public MsDosFileHandle( final File file, final int handleID ) {
 		this.file 		= file;
 		this.handleID	= handleID;
+		this.buffer		= ByteBuffer.allocateDirect( BUFFER_SIZE );
+		this.buffer.limit( 0 );
 	}
-	
+
 	/**
 	 * Opens this file handle
 	 * @throws IbmPcException
 	 */
-	public void open( final MsDosFileAccessMode accessMode ) 
+	public void open( final MsDosFileAccessMode accessMode )
 	throws IbmPcException {
-		// get the persistence mode
-		final String mode = getPersistenceMode( accessMode );
-		
 		// open the file
+		this.accessMode = accessMode;
+		try {
+			channel = accessMode.isWritable()
+					? FileChannel.open( file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE )
+					: FileChannel.open( file.toPath(), StandardOpenOption.READ );
+		}
+		catch( final IOException e ) {
+			throw new IbmPcException( e );
+		}
+	}
+
+	/**
+	 * Creates (or truncates) the file, and opens this file handle for read/write access
+	 * @throws IbmPcException
+	 */
+	public void create()
+	throws IbmPcException {
+		this.accessMode = MsDosFileAccessMode.decode( 0x02 );
 		try {
-			raf = new RandomAccessFile( file, mode );
-		} 
+			channel = FileChannel.open( file.toPath(),
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+					StandardOpenOption.READ, StandardOpenOption.WRITE );
+		}
 		catch( final IOException e ) {
 			throw new IbmPcException( e );
 		}
 	}
-	
+
 	/**
-	 * Closes this file handle
+	 * Closes this file handle; writing any buffered data to the file
 	 * @throws IbmPcException
 	 */
 	public void close() throws IbmPcException {
-		if( raf != null ) {
+		if( channel != null ) {
+			try {
+				flushWrites();
+				channel.close();
+			}
+			catch( final IOException e ) {
+				throw new IbmPcException( e );
+			}
+		}
+	}
+
+	/**
+	 * Writes any buffered data to the file; leaving the handle open
+	 * @throws IbmPcException
+	 */
+	public void flush() throws IbmPcException {
+		if( channel != null ) {
 			try {
-				raf.close();
-			} 
+				flushWrites();
+			}
 			catch( final IOException e ) {
 				throw new IbmPcException( e );
 			}
@@ -62,27 +111,176 @@ public class MsDosFileHandle {
 	public MemoryObject read() throws IbmPcException {
 		return null;
 	}
-	
+
+	/**
+	 * Reads bytes from the current file position into the given buffer; small
+	 * reads are served from the read-ahead buffer, while reads of at least a
+	 * buffer's length are transferred directly into the given buffer.
+	 * @param dst the given destination {@link ByteBuffer buffer}
+	 * @return the number of bytes read (zero at the end of the file)
+	 * @throws IbmPcException
+	 */
+	public int read( final ByteBuffer dst )
+	throws IbmPcException {
+		try {
+			flushWrites();
+			int total = 0;
+			while( dst.hasRemaining() ) {
+				// can the read-ahead buffer satisfy the request?
+				final long index = position - bufferPosition;
+				if( index >= 0 && index < buffer.limit() ) {
+					final int count = (int)Math.min( dst.remaining(), buffer.limit() - index );
+					final ByteBuffer src = buffer.duplicate();
+					src.limit( (int)index + count ).position( (int)index );
+					dst.put( src );
+					position += count;
+					total += count;
+				}
+
+				// large reads bypass the read-ahead buffer
+				else if( dst.remaining() >= BUFFER_SIZE ) {
+					final int count = channel.read( dst, position );
+					if( count <= 0 ) break;
+					position += count;
+					total += count;
+				}
+
+				// otherwise, refill the read-ahead buffer
+				else {
+					buffer.clear();
+					bufferPosition = position;
+					final int count = channel.read( buffer, position );
+					buffer.flip();
+					if( count <= 0 ) break;
+				}
+			}
+			return total;
+		}
+		catch( final IOException e ) {
+			throw new IbmPcException( e );
+		}
+	}
+
 	/**
 	 * Writes the given data block to the device
 	 * @param dataBlock the given data block
 	 * @throws IbmPcException
 	 */
-	public void write( final byte[] dataBlock ) 
+	public void write( final byte[] dataBlock )
+	throws IbmPcException {
+		write( ByteBuffer.wrap( dataBlock ) );
+	}
+
+	/**
+	 * Writes the contents of the given buffer at the current file position; small
+	 * writes are gathered in the write-behind buffer, while writes of at least a
+	 * buffer's length are transferred directly from the given buffer.
+	 * @param src the given source {@link ByteBuffer buffer}
+	 * @return the number of bytes written
+	 * @throws IbmPcException
+	 */
+	public int write( final ByteBuffer src )
 	throws IbmPcException {
-		// attempt to write the data block to the file
+		final int total = src.remaining();
 		try {
-			raf.write( dataBlock );
-		} 
+			// writes must be contiguous with the buffered data, and fit within the buffer
+			if( !writeBehind ||
+				position != bufferPosition + buffer.position() ||
+				src.remaining() > buffer.remaining() ) {
+				flushWrites();
+
+				// large writes bypass the write-behind buffer, and discard the read-ahead buffer
+				if( src.remaining() >= BUFFER_SIZE ) {
+					buffer.limit( 0 );
+					while( src.hasRemaining() ) {
+						position += channel.write( src, position );
+					}
+					return total;
+				}
+
+				// start a new write-behind buffer
+				buffer.clear();
+				bufferPosition = position;
+				writeBehind = true;
+			}
+
+			// gather the data
+			buffer.put( src );
+			position += total;
+			return total;
+		}
 		catch( final IOException e ) {
 			throw new IbmPcException( e );
 		}
 	}
-	
+
 	public void write( MemoryObject object ) throws IbmPcException {
-		
+
+	}
+
+	/**
+	 * Moves the file pointer
+	 * @param origin the given origin of the move ({@link #SEEK_SET}, {@link #SEEK_CUR} or {@link #SEEK_END})
+	 * @param offset the given (signed) number of bytes to move
+	 * @return the new file position
+	 * @throws IbmPcException
+	 */
+	public long seek( final int origin, final long offset )
+	throws IbmPcException {
+		try {
+			// determine the new position
+			final long newPosition;
+			switch( origin ) {
+				case SEEK_SET: newPosition = offset; break;
+				case SEEK_CUR: newPosition = position + offset; break;
+				case SEEK_END: flushWrites(); newPosition = channel.size() + offset; break;
+				default:
+					throw new IbmPcException( String.format( "Invalid seek origin (%d)", origin ) );
+			}
+			if( newPosition < 0 ) {
+				throw new IbmPcException( String.format( "Invalid file position (%d)", newPosition ) );
+			}
+
+			// the read-ahead buffer remains valid; it is keyed by file position
+			position = newPosition;
+			return position;
+		}
+		catch( final IOException e ) {
+			throw new IbmPcException( e );
+		}
+	}
+
+	/**
+	 * Truncates (or extends) the file to the current file position
+	 * @throws IbmPcException
+	 */
+	public void truncate()
+	throws IbmPcException {
+		try {
+			flushWrites();
+			final long size = channel.size();
+			if( position < size ) {
+				channel.truncate( position );
+			}
+			else if( position > size ) {
+				channel.write( ByteBuffer.allocate( 1 ), position - 1 );
+			}
+
+			// discard the read-ahead buffer
+			buffer.limit( 0 );
+		}
+		catch( final IOException e ) {
+			throw new IbmPcException( e );
+		}
+	}
+
+	/**
+	 * @return the {@link MsDosFileAccessMode access mode} the file was opened with
+	 */
+	public MsDosFileAccessMode getAccessMode() {
+		return accessMode;
 	}
-	
+
 	/**
 	 * @return the underlying file that is being accessed
 	 */
@@ -96,15 +294,30 @@ public class MsDosFileHandle {
 	public int getHandleID() {
 		return handleID;
 	}
-	
+
+	/**
+	 * @return the current file position
+	 */
+	public long getPosition() {
+		return position;
+	}
+
 	/**
-	 * Returns the appropriate "java"-based persistence mode
-	 * @return the appropriate "java"-based persistence mode
-	 * @throws IllegalStateException
+	 * Writes the contents of the write-behind buffer to the file; leaving
+	 * the buffer empty
+	 * @throws IOException
 	 */
-	private String getPersistenceMode( final MsDosFileAccessMode accessMode )  {
-		if( accessMode.isReadWrite() ) return "rw";
-		else return "r";
+	private void flushWrites() throws IOException {
+		if( writeBehind ) {
+			buffer.flip();
+			long pos = bufferPosition;
+			while( buffer.hasRemaining() ) {
+				pos += channel.write( buffer, pos );
+			}
+			buffer.clear();
+			buffer.limit( 0 );
+			writeBehind = false;
+		}
 	}
-	
-}
\ No newline at end of file
+
+}
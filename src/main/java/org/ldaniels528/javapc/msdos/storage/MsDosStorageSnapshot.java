@@ -0,0 +1,65 @@
+package org.ldaniels528.javapc.msdos.storage;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Represents an immutable image of the state of the {@link MsDosStorageSystem storage system};
+ * open files are recorded by name, access mode and position (rather than by contents), since
+ * the files themselves reside on the host and are shared by all machines.
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class MsDosStorageSnapshot {
+    final List<HandleState> handles;
+    final File workingDirectory;
+    final int handleGenerator;
+    final int defaultDrive;
+    final boolean verify;
+
+    /**
+     * Creates a new storage snapshot
+     *
+     * @param handles          the given states of the open file handles
+     * @param workingDirectory the given working directory
+     * @param handleGenerator  the given last issued handle ID
+     * @param defaultDrive     the given default drive
+     * @param verify           the given verify state
+     */
+    MsDosStorageSnapshot(final List<HandleState> handles,
+                         final File workingDirectory,
+                         final int handleGenerator,
+                         final int defaultDrive,
+                         final boolean verify) {
+        this.handles = handles;
+        this.workingDirectory = workingDirectory;
+        this.handleGenerator = handleGenerator;
+        this.defaultDrive = defaultDrive;
+        this.verify = verify;
+    }
+
+    /**
+     * @return the number of file handles that were open
+     */
+    public int getOpenHandleCount() {
+        return handles.size();
+    }
+
+    /**
+     * Represents the state of an open file handle
+     */
+    static class HandleState {
+        final MsDosFileAccessMode accessMode;
+        final File file;
+        final int handleID;
+        final long position;
+
+        HandleState(final MsDosFileHandle handle) {
+            this.accessMode = handle.getAccessMode();
+            this.file = handle.getFile();
+            this.handleID = handle.getHandleID();
+            this.position = handle.getPosition();
+        }
+    }
+
+}
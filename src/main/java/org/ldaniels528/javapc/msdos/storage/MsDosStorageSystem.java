@@ -6,8 +6,11 @@ import org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcStorageSystem;
 import org.ldaniels528.javapc.ibmpc.exceptions.IbmPcException;
 
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static java.lang.String.format;
@@ -18,10 +21,10 @@ import static java.lang.String.format;
  * @author lawrence.daniels@gmail.com
  */
 public class MsDosStorageSystem implements IbmPcStorageSystem {
-    private static int HANDLE_GENERATOR = 0;
     private final Logger logger = Logger.getLogger(getClass());
     private final Map<Integer, MsDosFileHandle> handles;
     private int maximumHandleCount;
+    private int handleGenerator;
     private File workingDirectory;
     private int defaultDrive;
     private boolean verify;
@@ -118,9 +121,8 @@ public class MsDosStorageSystem implements IbmPcStorageSystem {
         // get a handle to the file
         final MsDosFileHandle handle = createHandle(file);
 
-        // open the handle for read/write access
-        final MsDosFileAccessMode accessMode = MsDosFileAccessMode.decode(0x10);
-        handle.open(accessMode);
+        // create (or truncate) the file, and open the handle for read/write access
+        handle.create();
 
         // return the handle
         return handle;
@@ -167,7 +169,7 @@ public class MsDosStorageSystem implements IbmPcStorageSystem {
     @Override
     public void closeAllDevices()
             throws IbmPcException {
-        for (final MsDosFileHandle handle : handles.values()) {
+        for (final MsDosFileHandle handle : new ArrayList<>(handles.values())) {
             closeDevice(handle.getHandleID());
         }
         handles.clear();
@@ -178,15 +180,77 @@ public class MsDosStorageSystem implements IbmPcStorageSystem {
      */
     @Override
     public int readFromDevice(final int handleID, final byte[] block, final int length) throws IbmPcException {
-        // the handle must exist
-        if (!handles.containsKey(handleID))
-            throw new MsDosFileHandleNotFoundException(handleID);
+        return readFromDevice(handleID, ByteBuffer.wrap(block, 0, length));
+    }
 
-        // read the block of data from the device
-        final int count = 0; // TODO add read code here
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int readFromDevice(final int handleID, final ByteBuffer buffer) throws IbmPcException {
+        return lookupHandle(handleID).read(buffer);
+    }
 
-        // return
-        return count;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int writeToDevice(final int handleID, final ByteBuffer buffer) throws IbmPcException {
+        return lookupHandle(handleID).write(buffer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long seekDevice(final int handleID, final int origin, final long offset) throws IbmPcException {
+        return lookupHandle(handleID).seek(origin, offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void truncateDevice(final int handleID) throws IbmPcException {
+        lookupHandle(handleID).truncate();
+    }
+
+    /**
+     * Captures the state of the storage system; any buffered writes are flushed,
+     * so that the recorded file positions are consistent with the host's files
+     *
+     * @return the {@link MsDosStorageSnapshot storage snapshot}
+     * @throws IbmPcException
+     */
+    public MsDosStorageSnapshot snapshot() throws IbmPcException {
+        final List<MsDosStorageSnapshot.HandleState> states = new ArrayList<>(handles.size());
+        for (final MsDosFileHandle handle : handles.values()) {
+            handle.flush();
+            states.add(new MsDosStorageSnapshot.HandleState(handle));
+        }
+        return new MsDosStorageSnapshot(states, workingDirectory, handleGenerator, defaultDrive, verify);
+    }
+
+    /**
+     * Restores the state of the storage system; the currently open files are closed,
+     * and the files that were open at the time of the snapshot are re-opened (with the same
+     * handle IDs and positions). The contents of the host's files are not rolled back.
+     *
+     * @param snapshot the given {@link MsDosStorageSnapshot storage snapshot}
+     * @throws IbmPcException
+     */
+    public void restore(final MsDosStorageSnapshot snapshot) throws IbmPcException {
+        closeAllDevices();
+        for (final MsDosStorageSnapshot.HandleState state : snapshot.handles) {
+            final MsDosFileHandle handle = new MsDosFileHandle(state.file, state.handleID);
+            handle.open(state.accessMode);
+            handle.seek(MsDosFileHandle.SEEK_SET, state.position);
+            handles.put(state.handleID, handle);
+        }
+        this.workingDirectory = snapshot.workingDirectory;
+        this.handleGenerator = snapshot.handleGenerator;
+        this.defaultDrive = snapshot.defaultDrive;
+        this.verify = snapshot.verify;
     }
 
     /**
@@ -215,12 +279,14 @@ public class MsDosStorageSystem implements IbmPcStorageSystem {
         // lookup the file handle ID
         final MsDosFileHandle handle = lookupHandle(handleID);
 
-        logger.info(format("writeToDevice: Writing %d bytes to handle %04X (%s)",
-                dataBlock.length, handleID, handle.getFile().getAbsolutePath()));
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("writeToDevice: Writing %d bytes to handle %04X (%s)",
+                    dataBlock.length, handleID, handle.getFile().getAbsolutePath()));
+        }
 
         // write the data block to the device
         handle.write(dataBlock);
-        return 0;
+        return dataBlock.length;
     }
 
     /*
@@ -251,7 +317,7 @@ public class MsDosStorageSystem implements IbmPcStorageSystem {
      */
     private MsDosFileHandle createHandle(final File file) {
         // get the next handle ID
-        final int handleID = ++HANDLE_GENERATOR;
+        final int handleID = ++handleGenerator;
 
         // create the file handle
         final MsDosFileHandle fileHandle = new MsDosFileHandle(file, handleID);
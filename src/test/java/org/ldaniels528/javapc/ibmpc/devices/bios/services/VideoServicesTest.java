@@ -0,0 +1,110 @@
+package org.ldaniels528.javapc.ibmpc.devices.bios.services;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.data.MOV;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.system.INT;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.operands.WordValue;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplay;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameBuffer;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
+
+import java.awt.Color;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.ldaniels528.javapc.ibmpc.devices.display.IbmPcColors.COLORS_16;
+
+/**
+ * BIOS Video Services Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class VideoServicesTest {
+    private final Logger logger = Logger.getLogger(getClass());
+    private final IbmPcFrameBuffer screen = new IbmPcFrameBuffer();
+    private final IbmPcSystem system = IbmPcSystemFactory.getHeadlessIBMPCjr(screen);
+    private final I8086 cpu = system.getCPU();
+
+    @Test
+    public void testDefaultPalette() throws Exception {
+        logger.info("Given a display set to CGA 320x200 mode (INT 10h, AH = 00h)");
+        setGraphicsMode();
+
+        logger.info("When the screen is rendered");
+        system.getDisplay().update();
+
+        logger.info("Then the pixels should use the cyan, magenta and white palette");
+        assertPalette(COLORS_16[0], COLORS_16[3], COLORS_16[5], COLORS_16[15]);
+    }
+
+    @Test
+    public void testSelectGreenRedBrownPalette() throws Exception {
+        logger.info("Given a display set to CGA 320x200 mode (INT 10h, AH = 00h)");
+        setGraphicsMode();
+
+        logger.info("When palette 0 is selected (INT 10h, AH = 0Bh, BH = 1, BL = 0)");
+        selectPalette(0);
+
+        logger.info("Then the pixels should use the green, red and brown palette");
+        assertPalette(COLORS_16[0], COLORS_16[2], COLORS_16[4], COLORS_16[6]);
+    }
+
+    @Test
+    public void testSelectCyanMagentaWhitePalette() throws Exception {
+        logger.info("Given a display set to CGA 320x200 mode, showing palette 0");
+        setGraphicsMode();
+        selectPalette(0);
+
+        logger.info("When palette 1 is selected (INT 10h, AH = 0Bh, BH = 1, BL = 1)");
+        selectPalette(1);
+
+        logger.info("Then the pixels should use the cyan, magenta and white palette");
+        assertPalette(COLORS_16[0], COLORS_16[3], COLORS_16[5], COLORS_16[15]);
+    }
+
+    /**
+     * Sets the display to CGA 320x200 mode, and draws one pixel of each color
+     */
+    private void setGraphicsMode() throws Exception {
+        system.execute(asList(
+                new MOV(cpu.AX, new WordValue(0x0004)),     // mov ax, 0004h
+                new INT(0x10)                               // int 10h
+        ));
+
+        final IbmPcDisplay display = system.getDisplay();
+        for (int x = 0; x < 4; x++) {
+            display.writePixel(x, 0, x);
+        }
+    }
+
+    /**
+     * Selects the given CGA palette
+     *
+     * @param palette the given palette (0 or 1)
+     */
+    private void selectPalette(final int palette) throws Exception {
+        system.execute(asList(
+                new MOV(cpu.AH, new WordValue(0x0B)),       // mov ah, 0bh
+                new MOV(cpu.BX, new WordValue(0x0100 | palette)), // mov bx, palette
+                new INT(0x10)                               // int 10h
+        ));
+    }
+
+    /**
+     * Verifies that the first four pixels of the screen use the given colors
+     *
+     * @param colors the given colors
+     */
+    private void assertPalette(final Color... colors) {
+        final int[] pixels = screen.getPixels();
+        logger.info(format("\tpixels: %06X %06X %06X %06X", pixels[0], pixels[1], pixels[2], pixels[3]));
+        for (int n = 0; n < colors.length; n++) {
+            assertEquals(format("color %d", n), colors[n].getRGB(), pixels[n]);
+        }
+    }
+
+}
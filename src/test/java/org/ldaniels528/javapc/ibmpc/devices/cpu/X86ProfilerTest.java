@@ -0,0 +1,82 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameBuffer;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 8086 Sampling Profiler Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class X86ProfilerTest {
+    private static final int SEGMENT = 0x13F0;
+    private final Logger logger = Logger.getLogger(getClass());
+
+    // calls a subroutine which sums the values 1000 down to 1 into AX
+    private final byte[] code = {
+            (byte) 0xB9, (byte) 0xE8, 0x03,     // 0100 mov cx, 03E8
+            (byte) 0xE8, 0x04, 0x00,            // 0103 call 010A
+            (byte) 0xCD, 0x20,                  // 0106 int 20
+            (byte) 0x90, (byte) 0x90,           // 0108 nop; nop
+            0x01, (byte) 0xC8,                  // 010A add ax, cx
+            0x49,                               // 010C dec cx
+            0x75, (byte) 0xFB,                  // 010D jnz 010A
+            (byte) 0xC3                         // 010F ret
+    };
+
+    @Test
+    public void testProfile() throws Exception {
+        logger.info("Given a CPU with a profiler attached (sampling every 10 instructions)");
+        final IbmPcSystem system = IbmPcSystemFactory.getHeadlessIBMPCjr(new IbmPcFrameBuffer());
+        final I8086 cpu = system.getCPU();
+        final X86Profiler profiler = new X86Profiler(10);
+        cpu.setProfiler(profiler);
+
+        logger.info("When a program which calls a subroutine is executed");
+        profiler.setOrigin("BASIC 100");
+        system.getRandomAccessMemory().setBytes(SEGMENT, 0x100, code, code.length);
+        cpu.execute(system, new ProgramContext(SEGMENT, SEGMENT, 0x100, new ProgramArguments[0]));
+        final StringBuilder stacks = new StringBuilder();
+        profiler.writeCollapsedStacks(stacks);
+        final StringBuilder flat = new StringBuilder();
+        profiler.writeFlatProfile(flat);
+        logger.info(format("\tcollapsed stacks:%n%s", stacks));
+        logger.info(format("\tflat profile:%n%s", flat));
+
+        logger.info("Then nearly all samples should be attributed to the subroutine's loop");
+        assertEquals(0xA314, cpu.AX.get());
+        final long samples = profiler.getSampleCount();
+        final long loopSamples = profiler.getSampleCount(SEGMENT, 0x010A)
+                + profiler.getSampleCount(SEGMENT, 0x010C)
+                + profiler.getSampleCount(SEGMENT, 0x010D);
+        assertTrue(samples >= 299);
+        assertTrue(loopSamples >= samples - 1);
+        assertTrue(stacks.toString().startsWith("BASIC 100;13F0:0100;13F0:010A "));
+        assertTrue(flat.toString().contains("13F0:010A "));
+    }
+
+    @Test
+    public void testDetach() throws Exception {
+        logger.info("Given a CPU whose profiler has been detached");
+        final IbmPcSystem system = IbmPcSystemFactory.getHeadlessIBMPCjr(new IbmPcFrameBuffer());
+        final I8086 cpu = system.getCPU();
+        final X86Profiler profiler = new X86Profiler(10);
+        cpu.setProfiler(profiler);
+        cpu.setProfiler(null);
+
+        logger.info("When a program is executed");
+        system.getRandomAccessMemory().setBytes(SEGMENT, 0x100, code, code.length);
+        cpu.execute(system, new ProgramContext(SEGMENT, SEGMENT, 0x100, new ProgramArguments[0]));
+
+        logger.info("Then no samples should have been taken");
+        assertEquals(0, profiler.getSampleCount());
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameBuffer;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Virtual System Clock Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class X86VirtualClockTest {
+    private final Logger logger = Logger.getLogger(getClass());
+
+    @Test
+    public void testEventOrdering() {
+        logger.info("Given a one-shot event and a periodic event scheduled against the clock");
+        final X86VirtualClock clock = new X86VirtualClock(0);
+        final List<String> fired = new ArrayList<>();
+        clock.schedule(100, 0, cycle -> fired.add("once@" + cycle));
+        clock.schedule(40, 40, cycle -> fired.add("periodic@" + cycle));
+
+        logger.info("When the clock is advanced by 120 cycles");
+        assertFalse(clock.isEventDue());
+        clock.advance(120 / X86VirtualClock.CYCLES_PER_INSTRUCTION);
+        assertTrue(clock.isEventDue());
+        clock.dispatch();
+        logger.info(format("\tfired: %s", fired));
+
+        logger.info("Then the events should fire in order of their due cycle");
+        assertEquals("[periodic@40, periodic@80, once@100, periodic@120]", fired.toString());
+        assertFalse(clock.isEventDue());
+    }
+
+    @Test
+    public void testTimeOfDay() {
+        logger.info("Given a virtual clock starting at 01:00:00");
+        final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.set(2015, Calendar.JANUARY, 1, 1, 0, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        final X86VirtualClock clock = new X86VirtualClock(calendar.getTimeInMillis());
+
+        logger.info("When ten seconds worth of instructions are executed");
+        final int instructions = (int) (10 * X86VirtualClock.CPU_FREQUENCY / X86VirtualClock.CYCLES_PER_INSTRUCTION);
+        clock.advance(instructions);
+        logger.info(format("\tcycles: %d, ticks: %d", clock.getCycles(), clock.getTicks()));
+
+        logger.info("Then the time of day should have advanced by ten seconds");
+        assertEquals(10000, clock.getElapsedMillis(), 1);
+        assertEquals(182, clock.getTicks());
+        assertEquals((3610L * X86VirtualClock.PIT_FREQUENCY) / 65536L, clock.getTicksSinceMidnight(), 1);
+    }
+
+    @Test
+    public void testReproducibleTimeOfDay() {
+        logger.info("Given two machines built the same way");
+        final IbmPcSystem systemA = IbmPcSystemFactory.getHeadlessIBMPCjr(new IbmPcFrameBuffer());
+        final IbmPcSystem systemB = IbmPcSystemFactory.getHeadlessIBMPCjr(new IbmPcFrameBuffer());
+        final X86VirtualClock clockA = systemA.getCPU().getClock();
+        final X86VirtualClock clockB = systemB.getCPU().getClock();
+
+        logger.info("When the same number of instructions are executed on each");
+        clockA.advance(1000000);
+        clockB.advance(1000000);
+        logger.info(format("\tticks since midnight: %d and %d", clockA.getTicksSinceMidnight(), clockB.getTicksSinceMidnight()));
+
+        logger.info("Then both should report the same time of day, counted from the default epoch");
+        assertEquals(X86VirtualClock.DEFAULT_EPOCH_MILLIS, clockA.getEpochMillis());
+        assertEquals(clockA.getTimeMillis(), clockB.getTimeMillis());
+        assertEquals(clockA.getTicksSinceMidnight(), clockB.getTicksSinceMidnight());
+        assertEquals(clockA.getTicks(), clockA.getTicksSinceMidnight(), 1);
+    }
+
+}
@@ -0,0 +1,61 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.decoders;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramArguments;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramContext;
+import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 8086 Basic Block Translator Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class BasicBlockTranslatorTest {
+    private final Logger logger = Logger.getLogger(getClass());
+    private final int segment = 0x13F0;
+
+    // sums the values 1000 down to 1 into AX
+    private final byte[] code = {
+            (byte) 0xB9, (byte) 0xE8, 0x03,     // 0100 mov cx, 03E8
+            (byte) 0xB8, 0x00, 0x00,            // 0103 mov ax, 0000
+            0x01, (byte) 0xC8,                  // 0106 add ax, cx
+            0x49,                               // 0108 dec cx
+            0x75, (byte) 0xFB,                  // 0109 jnz 0106
+            (byte) 0xCD, 0x20                   // 010B int 20
+    };
+
+    @Test
+    public void testBlockExecution() throws X86AssemblyException {
+        logger.info("Given a program executed one instruction at a time");
+        final I8086 cpu0 = run(false);
+        logger.info(format("\tCPU: %s", cpu0));
+
+        logger.info("When the same program is executed a basic block at a time");
+        final I8086 cpu1 = run(true);
+        logger.info(format("\tCPU: %s", cpu1));
+
+        logger.info("Then both CPUs should end in the same state");
+        assertEquals(0xA314, cpu0.AX.get());
+        assertEquals(cpu0.AX.get(), cpu1.AX.get());
+        assertEquals(cpu0.CX.get(), cpu1.CX.get());
+        assertEquals(cpu0.IP.get(), cpu1.IP.get());
+        assertEquals(cpu0.FLAGS.get(), cpu1.FLAGS.get());
+    }
+
+    private I8086 run(final boolean blockMode) throws X86AssemblyException {
+        final IbmPcSystem system = IbmPcSystemFactory.getIBMPCjr(null);
+        final I8086 cpu = system.getCPU();
+        cpu.setBlockExecutionMode(blockMode);
+        system.getRandomAccessMemory().setBytes(segment, 0x100, code, code.length);
+        cpu.execute(system, new ProgramContext(segment, segment, 0x100, new ProgramArguments[0]));
+        return cpu;
+    }
+
+}
@@ -0,0 +1,74 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.decoders;
+
+import org.apache.log4j.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.OpCode;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
+import org.ldaniels528.javapc.ibmpc.devices.memory.X86MemoryProxy;
+
+import static java.lang.String.format;
+import static org.junit.Assert.*;
+
+/**
+ * 8086 Caching Decode Processor Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class CachedDecodeProcessorTest {
+    private final Logger logger = Logger.getLogger(getClass());
+    private final int segment = 0x13F0;
+    private IbmPcRandomAccessMemory memory;
+    private X86MemoryProxy proxy;
+    private CachedDecodeProcessor decoder;
+
+    @Before
+    public void setup() {
+        memory = new IbmPcRandomAccessMemory();
+        proxy = new X86MemoryProxy(memory, segment, 0x100);
+        final I8086 cpu = new I8086(proxy);
+        decoder = new CachedDecodeProcessor(new DecodeProcessorImpl(cpu, proxy), proxy);
+
+        // add al, 5 / add al, 6
+        memory.setBytes(segment, 0x100, new byte[]{0x04, 0x05, 0x04, 0x06}, 4);
+    }
+
+    @Test
+    public void testCacheHit() {
+        logger.info("Given a decoded instruction");
+        decoder.redirect(segment, 0x100);
+        final OpCode opCode0 = decoder.decodeNext();
+        logger.info(format("\topCode: %s", opCode0));
+        assertEquals(0x102, proxy.getOffset());
+
+        logger.info("When the instruction is decoded again");
+        decoder.redirect(segment, 0x100);
+        final OpCode opCode1 = decoder.decodeNext();
+
+        logger.info("Then the cached opCode should be returned");
+        assertSame(opCode0, opCode1);
+        assertEquals(0x102, proxy.getOffset());
+        assertEquals(1, decoder.getHitCount());
+        assertEquals(1, decoder.getMissCount());
+    }
+
+    @Test
+    public void testSelfModifyingCode() {
+        logger.info("Given a decoded instruction");
+        decoder.redirect(segment, 0x100);
+        final OpCode opCode0 = decoder.decodeNext();
+        logger.info(format("\topCode: %s", opCode0));
+
+        logger.info("When the instruction's immediate operand is modified");
+        memory.setByte(segment, 0x101, 0x07);
+
+        logger.info("Then the instruction should be decoded anew");
+        decoder.redirect(segment, 0x100);
+        final OpCode opCode1 = decoder.decodeNext();
+        logger.info(format("\topCode: %s", opCode1));
+        assertNotSame(opCode0, opCode1);
+        assertEquals(0x0407, opCode1.getInstructionCode());
+    }
+
+}
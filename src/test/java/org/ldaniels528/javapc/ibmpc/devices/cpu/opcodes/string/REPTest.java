@@ -0,0 +1,242 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.opcodes.string;
+
+import org.apache.log4j.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.OpCode;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
+import org.ldaniels528.javapc.ibmpc.exceptions.X86AssemblyException;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
+
+import static java.lang.String.format;
+import static org.junit.Assert.*;
+
+/**
+ * Repeated String Instruction (REPZ/REPNZ) Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class REPTest {
+    private static final int SEGMENT = 0x2000;
+    private final Logger logger = Logger.getLogger(getClass());
+    private IbmPcSystem system;
+    private I8086 cpu;
+    private IbmPcRandomAccessMemory memory;
+
+    @Before
+    public void setup() {
+        system = IbmPcSystemFactory.getIBMPCjr(null);
+        cpu = system.getCPU();
+        memory = cpu.getRandomAccessMemory();
+        cpu.DS.set(SEGMENT);
+        cpu.ES.set(SEGMENT);
+        cpu.FLAGS.setDF(false);
+    }
+
+    @Test
+    public void testStoreWords() throws X86AssemblyException {
+        logger.info("Given AX = ABCDh, DI = 0100h and CX = 1000");
+        cpu.AX.set(0xABCD);
+        cpu.DI.set(0x0100);
+        cpu.CX.set(1000);
+
+        logger.info("When REP STOSW is executed");
+        execute(new REPZ(STOSW.getInstance()));
+
+        logger.info("Then 1000 words should be stored, and DI should follow the last word");
+        assertEquals(0, cpu.CX.get());
+        assertEquals(0x0100 + 2000, cpu.DI.get());
+        assertEquals(0xABCD, memory.getWord(SEGMENT, 0x0100));
+        assertEquals(0xABCD, memory.getWord(SEGMENT, 0x0100 + 1998));
+        assertEquals(0x0000, memory.getWord(SEGMENT, 0x0100 + 2000));
+    }
+
+    @Test
+    public void testScanForTerminator() throws X86AssemblyException {
+        logger.info("Given the string 'HELLO' followed by a zero byte at ES:0200");
+        memory.setBytes(SEGMENT, 0x0200, "HELLO\0".getBytes(), 6);
+        cpu.AL.set(0);
+        cpu.DI.set(0x0200);
+        cpu.CX.set(0xFFFF);
+
+        logger.info("When REPNZ SCASB is executed");
+        execute(new REPNZ(SCASB.getInstance()));
+
+        logger.info("Then the scan should stop just past the terminator");
+        assertTrue(cpu.FLAGS.isZF());
+        assertEquals(0x0206, cpu.DI.get());
+        assertEquals(0xFFFF - 6, cpu.CX.get());
+    }
+
+    @Test
+    public void testCompareBytes() throws X86AssemblyException {
+        logger.info("Given the strings 'ABCDEFGH' at DS:0300 and 'ABCxEFGH' at ES:0400");
+        memory.setBytes(SEGMENT, 0x0300, "ABCDEFGH".getBytes(), 8);
+        memory.setBytes(SEGMENT, 0x0400, "ABCxEFGH".getBytes(), 8);
+        cpu.SI.set(0x0300);
+        cpu.DI.set(0x0400);
+        cpu.CX.set(8);
+
+        logger.info("When REPZ CMPSB is executed");
+        execute(new REPZ(CMPSB.getInstance()));
+
+        logger.info("Then the comparison should stop just past the first mismatch");
+        assertFalse(cpu.FLAGS.isZF());
+        assertTrue(cpu.FLAGS.isCF());
+        assertEquals(4, cpu.CX.get());
+        assertEquals(0x0304, cpu.SI.get());
+        assertEquals(0x0404, cpu.DI.get());
+    }
+
+    @Test
+    public void testCompareEqualWords() throws X86AssemblyException {
+        logger.info("Given the same eight (non-zero) words at DS:0300 and ES:0400");
+        setWords(0x0300, 0x1234, 0x5678, 0x9ABC, 0xDEF0, 0x1111, 0x2222, 0x3333, 0x4444);
+        setWords(0x0400, 0x1234, 0x5678, 0x9ABC, 0xDEF0, 0x1111, 0x2222, 0x3333, 0x4444);
+        cpu.SI.set(0x0300);
+        cpu.DI.set(0x0400);
+        cpu.CX.set(8);
+
+        logger.info("When REPZ CMPSW is executed");
+        execute(new REPZ(CMPSW.getInstance()));
+
+        logger.info("Then every word should have been compared, and found equal");
+        assertTrue(cpu.FLAGS.isZF());
+        assertEquals(0, cpu.CX.get());
+        assertEquals(0x0310, cpu.SI.get());
+        assertEquals(0x0410, cpu.DI.get());
+
+        logger.info("And comparing the words one at a time should produce the same result");
+        cpu.SI.set(0x0300);
+        cpu.DI.set(0x0400);
+        cpu.CX.set(8);
+        do {
+            CMPSW.getInstance().execute(system, cpu);
+            cpu.CX.set(cpu.CX.get() - 1);
+        } while (cpu.CX.get() != 0 && cpu.FLAGS.isZF());
+        assertTrue(cpu.FLAGS.isZF());
+        assertEquals(0, cpu.CX.get());
+        assertEquals(0x0310, cpu.SI.get());
+        assertEquals(0x0410, cpu.DI.get());
+    }
+
+    @Test
+    public void testCompareWords() throws X86AssemblyException {
+        logger.info("Given words at DS:0300 and ES:0400 which differ at the fourth word");
+        setWords(0x0300, 0x4241, 0x4443, 0x4645, 0x4847, 0x4A49, 0x4C4B);
+        setWords(0x0400, 0x4241, 0x4443, 0x4645, 0x4878, 0x4A49, 0x4C4B);
+        cpu.SI.set(0x0300);
+        cpu.DI.set(0x0400);
+        cpu.CX.set(6);
+
+        logger.info("When REPZ CMPSW is executed");
+        execute(new REPZ(CMPSW.getInstance()));
+
+        logger.info("Then the comparison should stop just past the first mismatch");
+        assertFalse(cpu.FLAGS.isZF());
+        assertTrue(cpu.FLAGS.isCF());
+        assertEquals(2, cpu.CX.get());
+        assertEquals(0x0308, cpu.SI.get());
+        assertEquals(0x0408, cpu.DI.get());
+    }
+
+    @Test
+    public void testCompareWordsUntilEqual() throws X86AssemblyException {
+        logger.info("Given words at DS:0300 and ES:0400 which match only at the fourth word");
+        setWords(0x0300, 0x0001, 0x0002, 0x0003, 0x0004, 0x0005, 0x0006);
+        setWords(0x0400, 0x0009, 0x0009, 0x0009, 0x0004, 0x0009, 0x0009);
+        cpu.SI.set(0x0300);
+        cpu.DI.set(0x0400);
+        cpu.CX.set(6);
+
+        logger.info("When REPNZ CMPSW is executed");
+        execute(new REPNZ(CMPSW.getInstance()));
+
+        logger.info("Then the comparison should stop just past the first match");
+        assertTrue(cpu.FLAGS.isZF());
+        assertEquals(2, cpu.CX.get());
+        assertEquals(0x0308, cpu.SI.get());
+        assertEquals(0x0408, cpu.DI.get());
+    }
+
+    @Test
+    public void testCompareMismatchingWords() throws X86AssemblyException {
+        logger.info("Given words at DS:0300 and ES:0400 which never match");
+        setWords(0x0300, 0x0001, 0x0002, 0x0003, 0x0004);
+        setWords(0x0400, 0x0009, 0x0009, 0x0009, 0x0009);
+        cpu.SI.set(0x0300);
+        cpu.DI.set(0x0400);
+        cpu.CX.set(4);
+
+        logger.info("When REPNZ CMPSW is executed");
+        execute(new REPNZ(CMPSW.getInstance()));
+
+        logger.info("Then every word should have been compared, and found unequal");
+        assertFalse(cpu.FLAGS.isZF());
+        assertEquals(0, cpu.CX.get());
+        assertEquals(0x0308, cpu.SI.get());
+        assertEquals(0x0408, cpu.DI.get());
+    }
+
+    @Test
+    public void testMoveBackward() throws X86AssemblyException {
+        logger.info("Given the bytes 1-8 at DS:0500, and the Direction Flag set");
+        memory.setBytes(SEGMENT, 0x0500, new byte[]{1, 2, 3, 4, 5, 6, 7, 8}, 8);
+        cpu.FLAGS.setDF(true);
+        cpu.SI.set(0x0507);
+        cpu.DI.set(0x0609);
+        cpu.CX.set(8);
+
+        logger.info("When REP MOVSB is executed");
+        execute(new REPZ(MOVSB.getInstance()));
+
+        logger.info("Then the bytes should be copied (in order) to ES:0602");
+        for (int n = 0; n < 8; n++) {
+            assertEquals(n + 1, memory.getByte(SEGMENT, 0x0602 + n));
+        }
+        assertEquals(0x04FF, cpu.SI.get());
+        assertEquals(0x0601, cpu.DI.get());
+    }
+
+    @Test
+    public void testMoveOverlapping() throws X86AssemblyException {
+        logger.info("Given the byte 2Ah at DS:0700");
+        memory.setByte(SEGMENT, 0x0700, 0x2A);
+        cpu.SI.set(0x0700);
+        cpu.DI.set(0x0701);
+        cpu.CX.set(99);
+
+        logger.info("When REP MOVSB is executed with DI = SI + 1");
+        execute(new REPZ(MOVSB.getInstance()));
+
+        logger.info("Then the byte should be replicated across the destination");
+        for (int n = 0; n < 100; n++) {
+            assertEquals(0x2A, memory.getByte(SEGMENT, 0x0700 + n));
+        }
+    }
+
+    /**
+     * Writes the given words to consecutive offsets of the segment
+     *
+     * @param offset the given starting offset
+     * @param words  the given words
+     */
+    private void setWords(final int offset, final int... words) {
+        for (int n = 0; n < words.length; n++) {
+            memory.setWord(SEGMENT, offset + 2 * n, words[n]);
+        }
+    }
+
+    /**
+     * Executes the given opCode
+     *
+     * @param opCode the given {@link OpCode opCode}
+     */
+    private void execute(final OpCode opCode) throws X86AssemblyException {
+        logger.info(format("\topCode: %s", opCode));
+        opCode.execute(system, cpu);
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.operands.memory;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.registers.X86RegisterSet;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.ldaniels528.javapc.ibmpc.devices.cpu.operands.memory.MemoryReference.*;
+
+/**
+ * Effective Address Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class EffectiveAddressTest {
+    private final Logger logger = Logger.getLogger(getClass());
+
+    @Test
+    public void testLookup() {
+        logger.info("Given the 24 memory reference codes");
+        for (final int refCode : REFERENCE_MAPPING.keySet()) {
+            logger.info("When the calculator for " + format(REFERENCE_MAPPING.get(refCode), 0) + " is looked up");
+            final EffectiveAddress ea = EffectiveAddress.lookup(refCode);
+
+            logger.info("Then it should exist and carry the same reference code");
+            assertNotNull(ea);
+            assertEquals(refCode, ea.getReferenceCode());
+        }
+        assertNull(EffectiveAddress.lookup(0x08));
+        assertNull(EffectiveAddress.lookup(0xC0));
+    }
+
+    @Test
+    public void testOffsets() {
+        final X86RegisterSet cpu = new X86RegisterSet();
+        cpu.BX.set(0x1000);
+        cpu.BP.set(0xFFF0);
+        cpu.SI.set(0x0020);
+        cpu.DI.set(0x0004);
+
+        logger.info("Given BX = 1000h, BP = FFF0h, SI = 0020h and DI = 0004h");
+        logger.info("Then [BX+SI] should be 1020h");
+        assertEquals(0x1020, EffectiveAddress.lookup(REF_CONST_BX_SI).getOffset(cpu, 0));
+        logger.info("And [BP+DI+FE] should be sign-extended to FFF2h");
+        assertEquals(0xFFF2, EffectiveAddress.lookup(REF_CONST_BP_DI_NN).getOffset(cpu, 0xFE));
+        logger.info("And [BP+SI+0100] should wrap around to 0110h");
+        assertEquals(0x0110, EffectiveAddress.lookup(REF_CONST_BP_SI_NNNN).getOffset(cpu, 0x0100));
+        logger.info("And [1234] should be 1234h");
+        assertEquals(0x1234, EffectiveAddress.lookup(REF_CONST_NNNN).getOffset(cpu, 0x1234));
+        assertEquals(16, EffectiveAddress.lookup(REF_CONST_NNNN).getDisplacementSize());
+    }
+
+}
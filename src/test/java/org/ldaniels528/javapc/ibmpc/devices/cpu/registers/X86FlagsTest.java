@@ -183,6 +183,33 @@ public class X86FlagsTest {
 //        assertNotEquals(flags.isSF(), flags.isOF());
     }
 
+    @Test
+    public void testUpdateINCRetainsCarry() {
+        final Operand dst = new WordValue(0xFFFF);
+        final Operand src = new WordValue(0x0001);
+        logger.info(format("Given two values: %s and %s", dst, src));
+
+        logger.info("And the flags after adding the values (with a carry out of bit 15):");
+        final X86Flags flags = new X86Flags();
+        final int sum = flags.updateADD(dst, src);
+        logger.info(format("\tFlags: %s", flags));
+        assertEquals(0x0000, sum & 0xFFFF);
+        assertTrue(flags.isCF());
+
+        logger.info("When incrementing another value:");
+        final int result = flags.updateINC(new WordValue(0x1234));
+
+        logger.info(format("\tFlags: %s", flags));
+        logger.info("\tThe Carry flag of the ADD should be retained");
+        assertTrue(flags.isCF());
+        logger.info("\tThe Zero and Parity flags should reflect the INC");
+        assertEquals(0x1235, result & 0xFFFF);
+        assertFalse(flags.isZF());
+        assertTrue(flags.isPF());
+        logger.info("\tThe FLAGS register should hold the evaluated bits");
+        assertTrue((flags.get() & 0b0000_0000_0000_0101) == 0b0101);
+    }
+
     private void startValues(final Operand dst, final Operand src, final X86Flags flags, final String verb) {
         logger.info(format("Given two values: %s and %s", dst, src));
         logger.info("And a set of nominal flags:");
@@ -0,0 +1,71 @@
+package org.ldaniels528.javapc.ibmpc.devices.cpu.registers;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * i8086 Register Set Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class X86RegisterSetTest {
+    private final Logger logger = Logger.getLogger(getClass());
+
+    @Test
+    public void testHalfRegisters() {
+        final X86RegisterSet rs = new X86RegisterSet();
+        rs.BX.set(0x12FF);
+
+        logger.info("Given BX = 12FFh, when BL is incremented");
+        rs.BL.add(1);
+        logger.info(format("BX = %04X", rs.BX.get()));
+
+        logger.info("Then BL should wrap around to 00h without affecting BH");
+        assertEquals(0x00, rs.BL.get());
+        assertEquals(0x12, rs.BH.get());
+        assertEquals(0x1200, rs.BX.get());
+
+        logger.info("And setting BH should only affect the high byte of BX");
+        rs.BH.set(0x1AB);
+        assertEquals(0xAB00, rs.BX.get());
+        assertEquals(rs.get16bitGeneralPurposeRegister(3).get(), rs.BX.get());
+        assertEquals(rs.get8bitRegister(7).get(), 0xAB);
+    }
+
+    @Test
+    public void testRegisterState() {
+        final X86RegisterSet rs = new X86RegisterSet();
+        rs.AX.set(0x1234);
+        rs.SI.set(0x5678);
+        rs.CS.set(0x0B00);
+        rs.IP.set(0x0100);
+        rs.FLAGS.setCF(true);
+
+        logger.info("Given a captured register state");
+        final int[] state = rs.getRegisterState();
+        logger.info(format("\n%s", rs));
+
+        logger.info("When the registers are modified and the state is restored");
+        rs.AX.set(0);
+        rs.SI.set(0);
+        rs.CS.set(0);
+        rs.IP.set(0);
+        rs.FLAGS.setCF(false);
+        assertFalse(rs.FLAGS.isCF());
+        rs.setRegisterState(state);
+
+        logger.info("Then the registers should contain the captured values");
+        assertEquals(0x34, rs.AL.get());
+        assertEquals(0x12, rs.AH.get());
+        assertEquals(0x5678, rs.SI.get());
+        assertEquals(0x0B00, rs.CS.get());
+        assertEquals(0x0100, rs.IP.get());
+        assertTrue(rs.FLAGS.isCF());
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.ldaniels528.javapc.ibmpc.devices.display;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayModes;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
+
+import static java.lang.String.format;
+import static org.junit.Assert.*;
+
+/**
+ * Headless Frame Buffer Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcFrameBufferTest {
+    private final Logger logger = Logger.getLogger(getClass());
+
+    @Test
+    public void testTextMode() {
+        logger.info("Given a headless system in 80x25 text mode");
+        final IbmPcFrameBuffer frameBuffer = new IbmPcFrameBuffer();
+        final IbmPcSystem system = IbmPcSystemFactory.getHeadlessIBMPCjr(frameBuffer);
+        final IbmPcDisplay display = system.getDisplay();
+
+        logger.info("When text is written to the second row");
+        display.setCursorPosition(1, 2);
+        display.write("HELLO");
+
+        logger.info("Then the text grid should contain it, without anything having been rendered");
+        final char[][] text = frameBuffer.getText();
+        logger.info(format("\trow 2: '%s'", frameBuffer.getTextLine(1).trim()));
+        assertEquals(25, text.length);
+        assertEquals(80, text[1].length);
+        assertEquals("HELLO", frameBuffer.getTextLine(1).substring(0, 5));
+        assertEquals(display.getContext().color.asAttribute(), frameBuffer.getAttributes()[1][0]);
+        assertEquals(0, frameBuffer.getFrameCount());
+
+        logger.info("And updating the display should render a 640x200 frame");
+        display.update();
+        assertEquals(1, frameBuffer.getFrameCount());
+        assertEquals(640 * 200, frameBuffer.getPixels().length);
+    }
+
+    @Test
+    public void testGraphicsMode() {
+        logger.info("Given a headless system in 320x200 graphics mode");
+        final IbmPcFrameBuffer frameBuffer = new IbmPcFrameBuffer();
+        final IbmPcDisplay display = IbmPcSystemFactory.getHeadlessIBMPC(frameBuffer).getDisplay();
+        display.setDisplayMode(IbmPcDisplayModes.CGA_320X200X4);
+
+        logger.info("When a pixel is drawn and the display is refreshed");
+        display.writePixel(10, 5, 3);
+        assertTrue(display.refresh());
+
+        logger.info("Then the frame buffer should contain the pixel in ARGB");
+        final int argb = frameBuffer.getPixels()[5 * frameBuffer.getWidth() + 10];
+        logger.info(format("\tpixel: %08X", argb));
+        assertEquals(320, frameBuffer.getWidth());
+        assertEquals(0xFF000000, argb & 0xFF000000);
+        assertNotEquals(frameBuffer.getPixels()[0], argb);
+        assertEquals(0, frameBuffer.getText().length);
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.ldaniels528.javapc.ibmpc.devices.display;
+
+import org.apache.log4j.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.bios.IbmPcBIOS;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
+
+import java.util.BitSet;
+
+import static java.lang.String.format;
+import static org.junit.Assert.*;
+import static org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayModes.CGA_320X200X4;
+import static org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayModes.CGA_80X25X16;
+
+/**
+ * IBM PC Video Display Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcVideoDisplayTest {
+    private final Logger logger = Logger.getLogger(getClass());
+    private IbmPcRandomAccessMemory memory;
+    private IbmPcVideoDisplay display;
+
+    @Before
+    public void setup() {
+        memory = new IbmPcRandomAccessMemory();
+        display = new IbmPcVideoDisplay(new IbmPcBIOS(memory), CGA_80X25X16);
+    }
+
+    @Test
+    public void testTextModeDirtyRows() {
+        logger.info("Given a display in 80x25 text mode");
+        final BitSet lines = new BitSet();
+
+        logger.info("When a character is written to the third row of video memory");
+        CGA_80X25X16.markDirtyLines(display.getContext(), 2 * 160 + 10, 2 * 160 + 11, lines);
+        logger.info(format("\tdirty rows: %s", lines));
+
+        logger.info("Then only the third row should be dirty");
+        assertEquals(1, lines.cardinality());
+        assertTrue(lines.get(2));
+    }
+
+    @Test
+    public void testInterleavedDirtyScanLines() {
+        logger.info("Given a display in 320x200 (interleaved) graphics mode");
+        final BitSet lines = new BitSet();
+
+        logger.info("When the first byte of the even and odd banks are written to");
+        CGA_320X200X4.markDirtyLines(display.getContext(), 0x0000, 0x0000, lines);
+        CGA_320X200X4.markDirtyLines(display.getContext(), 0x2050, 0x2050, lines);
+        logger.info(format("\tdirty scan lines: %s", lines));
+
+        logger.info("Then scan lines 0 and 3 should be dirty");
+        assertEquals(2, lines.cardinality());
+        assertTrue(lines.get(0));
+        assertTrue(lines.get(3));
+    }
+
+    @Test
+    public void testVideoMemoryWrites() {
+        logger.info("Given a display whose changes have been painted");
+        display.update();
+        assertFalse(display.isDirty());
+
+        logger.info("When video memory is written to directly");
+        memory.setWord(0xB800, 0x00A0, 0x1F41);
+
+        logger.info("Then the display should be dirty");
+        assertTrue(display.isDirty());
+    }
+
+}
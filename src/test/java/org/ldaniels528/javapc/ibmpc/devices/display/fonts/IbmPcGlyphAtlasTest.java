@@ -0,0 +1,45 @@
+package org.ldaniels528.javapc.ibmpc.devices.display.fonts;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.ldaniels528.javapc.ibmpc.devices.display.IbmPcColors.COLORS_16;
+
+/**
+ * IBM PC Glyph Atlas Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcGlyphAtlasTest {
+    private final Logger logger = Logger.getLogger(getClass());
+    private final IbmPcFont font = IbmPcFont8x8.getInstance();
+
+    @Test
+    public void testGlyph() {
+        logger.info("Given a glyph atlas for 9x14 cells using the 8x8 font");
+        final IbmPcGlyphAtlas atlas = new IbmPcGlyphAtlas(font, COLORS_16, 9, 14);
+
+        logger.info("When the glyph for 'A' (white on blue) is retrieved");
+        final int[] glyph = atlas.getGlyph('A', 0x1F);
+
+        logger.info("Then the font's pixels should be white and the remainder of the cell blue");
+        final byte[] data = font.getData('A');
+        assertEquals(9 * 14, glyph.length);
+        for (int y = 0; y < 14; y++) {
+            for (int x = 0; x < 9; x++) {
+                final boolean on = (y < 8) && (x < 8) && ((data[y] & (0x80 >> x)) != 0);
+                assertEquals(format(x, y), (on ? COLORS_16[15] : COLORS_16[1]).getRGB(), glyph[y * 9 + x]);
+            }
+        }
+
+        logger.info("And the same glyph should be returned for subsequent retrievals");
+        assertSame(glyph, atlas.getGlyph('A', 0x1F));
+    }
+
+    private String format(final int x, final int y) {
+        return String.format("pixel (%d,%d)", x, y);
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.ldaniels528.javapc.ibmpc.devices.display.modes;
+
+import org.apache.log4j.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.bios.IbmPcBIOS;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplayContext;
+import org.ldaniels528.javapc.ibmpc.devices.display.modes.cga.CGAGraphicsMode320x200;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
+import static org.ldaniels528.javapc.ibmpc.devices.display.IbmPcColors.COLORS_16;
+
+/**
+ * Packed Pixel Graphics Mode Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class AbstractPackedPixelGraphicsModeTest {
+    private final Logger logger = Logger.getLogger(getClass());
+    private final CGAGraphicsMode320x200 mode = new CGAGraphicsMode320x200();
+    private IbmPcDisplayContext dc;
+    private int[] pixels;
+
+    @Before
+    public void setup() {
+        dc = new IbmPcDisplayContext(new IbmPcBIOS(new IbmPcRandomAccessMemory()));
+        pixels = new int[mode.getWidth() * mode.getHeight()];
+
+        // the first (even) and second (odd) scan lines each start with pixels 3, 2, 1, 0
+        dc.memory.setByte(0xB800, 0x0000, 0xE4);
+        dc.memory.setByte(0xB800, 0x2000, 0xE4);
+    }
+
+    @Test
+    public void testRenderScanLine() {
+        logger.info("Given a CGA 320x200 scan line containing the packed pixels E4");
+
+        logger.info("When the scan line is rendered");
+        mode.renderScanLine(dc, pixels, 0);
+        logger.info(format("\tpixels: %06X %06X %06X %06X", pixels[0], pixels[1], pixels[2], pixels[3]));
+
+        logger.info("Then the pixels should use colors 3, 2, 1 and 0 of the default palette");
+        assertEquals(COLORS_16[15].getRGB(), pixels[0]);
+        assertEquals(COLORS_16[5].getRGB(), pixels[1]);
+        assertEquals(COLORS_16[3].getRGB(), pixels[2]);
+        assertEquals(COLORS_16[0].getRGB(), pixels[3]);
+    }
+
+    @Test
+    public void testSelectPalette() {
+        logger.info("Given a CGA 320x200 scan line containing the packed pixels E4");
+
+        logger.info("When the alternate palette is selected and the odd scan line is rendered");
+        mode.selectPalette(dc, 0);
+        mode.renderScanLine(dc, pixels, 1);
+
+        logger.info("Then the pixels should use colors 3, 2, 1 and 0 of the alternate palette");
+        final int offset = mode.getWidth();
+        assertEquals(COLORS_16[6].getRGB(), pixels[offset]);
+        assertEquals(COLORS_16[4].getRGB(), pixels[offset + 1]);
+        assertEquals(COLORS_16[2].getRGB(), pixels[offset + 2]);
+        assertEquals(COLORS_16[0].getRGB(), pixels[offset + 3]);
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.ldaniels528.javapc.ibmpc.devices.memory;
+
+import org.apache.log4j.Logger;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * IBM PC Random Access Memory Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcRandomAccessMemoryTest {
+    private final Logger logger = Logger.getLogger(getClass());
+    private final List<int[]> updates = new ArrayList<>();
+    private IbmPcRandomAccessMemory memory;
+
+    @Before
+    public void setup() {
+        memory = new IbmPcRandomAccessMemory();
+        memory.add(0x1F000, 0x20FFF, (fromAddress, toAddress) -> updates.add(new int[]{fromAddress, toAddress}));
+    }
+
+    @Test
+    public void testObservedWrite() {
+        logger.info("Given a segment observing 1F000 through 20FFF");
+
+        logger.info("When a word is written to 2000:0010");
+        memory.setWord(0x2000, 0x0010, 0x1234);
+
+        logger.info("Then the observer should be notified of the (inclusive) range 20010-20011");
+        assertEquals(1, updates.size());
+        assertEquals(0x20010, updates.get(0)[0]);
+        assertEquals(0x20011, updates.get(0)[1]);
+    }
+
+    @Test
+    public void testUnobservedWrite() {
+        logger.info("Given a segment observing 1F000 through 20FFF");
+
+        logger.info("When bytes are written outside of the segment");
+        memory.setByte(0x1000, 0x0000, 0x55);
+        memory.setBytes(0x2100, 0x0000, new byte[]{1, 2, 3, 4}, 4);
+
+        logger.info("Then the observer should not be notified");
+        assertTrue(updates.isEmpty());
+    }
+
+    @Test
+    public void testWriteSpanningPages() {
+        logger.info("Given a segment observing 1F000 through 20FFF");
+
+        logger.info("When a block of memory spanning several pages is filled");
+        memory.fill(0x1E00, 0x0000, 0x4000, (byte) 0xAA);
+        logger.info(format("\tupdates: %d", updates.size()));
+
+        logger.info("Then the observer should be notified exactly once");
+        assertEquals(1, updates.size());
+        assertEquals(0x1E000, updates.get(0)[0]);
+        assertEquals(0x21FFF, updates.get(0)[1]);
+    }
+
+}
@@ -0,0 +1,117 @@
+package org.ldaniels528.javapc.ibmpc.devices.ports;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.X86VirtualClock;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
+
+import static java.lang.String.format;
+import static org.junit.Assert.*;
+
+/**
+ * Hardware Ports Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcHardwarePortsTest {
+    private final Logger logger = Logger.getLogger(getClass());
+
+    @Test
+    public void testUnassignedPorts() {
+        logger.info("Given a set of hardware ports without any devices");
+        final IbmPcHardwarePorts ports = new IbmPcHardwarePorts();
+
+        logger.info("When a word is written to port 0300h");
+        ports.out16(0x300, 0x1234);
+
+        logger.info("Then it should be read back, while other ports read FFh");
+        assertEquals(0x1234, ports.in16(0x300));
+        assertEquals(0xFF, ports.in8(0x302));
+    }
+
+    @Test
+    public void testRegisteredHandler() {
+        logger.info("Given a handler registered for ports 0310h-0311h");
+        final IbmPcHardwarePorts ports = new IbmPcHardwarePorts();
+        final int[] written = new int[1];
+        ports.register(0x310, 0x311, new IbmPcPortHandler() {
+            public int in8(final int port) {
+                return port & 0xFF;
+            }
+
+            public void out8(final int port, final int value) {
+                written[0] = value;
+            }
+        });
+
+        logger.info("When the ports are accessed");
+        ports.out8(0x311, 0x5A);
+
+        logger.info("Then the handler should service them, until it is unregistered");
+        assertEquals(0x5A, written[0]);
+        assertEquals(0x1110, ports.in16(0x310));
+        ports.unregister(0x310);
+        assertEquals(0xFF, ports.in8(0x310));
+    }
+
+    @Test
+    public void testIntervalTimer() {
+        logger.info("Given counter 2 of the interval timer loaded with 1000 (mode 0)");
+        final X86VirtualClock clock = new X86VirtualClock(0);
+        final IbmPcIntervalTimer timer = new IbmPcIntervalTimer(clock);
+        timer.out8(IbmPcIntervalTimer.CONTROL, 0xB0);
+        timer.out8(IbmPcIntervalTimer.COUNTER2, 1000 & 0xFF);
+        timer.out8(IbmPcIntervalTimer.COUNTER2, 1000 >> 8);
+
+        logger.info("When 100 instructions (800 cycles = 200 PIT clocks) have elapsed and the counter is latched");
+        clock.advance(100);
+        timer.out8(IbmPcIntervalTimer.CONTROL, 0x80);
+        clock.advance(100);
+        final int count = timer.in8(IbmPcIntervalTimer.COUNTER2) | (timer.in8(IbmPcIntervalTimer.COUNTER2) << 8);
+        logger.info(format("\tcount: %d", count));
+
+        logger.info("Then the latched count should reflect the time elapsed when it was latched");
+        assertEquals(800, count);
+        assertEquals(600, timer.getCount(2));
+    }
+
+    @Test
+    public void testVideoStatus() {
+        logger.info("Given the CGA video controller");
+        final X86VirtualClock clock = new X86VirtualClock(0);
+        final IbmPcVideoController video = new IbmPcVideoController(clock);
+
+        logger.info("When the status register is polled for one frame");
+        int retraces = 0;
+        boolean inRetrace = false;
+        for (int n = 0; n < 10000; n++) {
+            final boolean retrace = (video.in8(IbmPcVideoController.STATUS) & IbmPcVideoController.VERTICAL_RETRACE) != 0;
+            if (retrace && !inRetrace) retraces++;
+            inRetrace = retrace;
+            clock.advance(1);
+        }
+
+        logger.info("Then exactly one vertical retrace should be observed");
+        assertEquals(1, retraces);
+    }
+
+    @Test
+    public void testSystemDevices() {
+        logger.info("Given a PCjr system");
+        final IbmPcSystem system = IbmPcSystemFactory.getIBMPCjr(null);
+        final IbmPcHardwarePorts ports = system.getHardwarePorts();
+
+        logger.info("When the interrupt mask and a CRTC register are written");
+        ports.out8(0x21, 0xFE);
+        ports.out8(0x3D4, 0x0E);
+        ports.out8(0x3D5, 0x07);
+
+        logger.info("Then the devices should retain them, and the keyboard controller's buffer should be empty");
+        assertEquals(0xFE, ports.in8(0x21));
+        assertEquals(0x07, ports.in8(0x3D5));
+        assertTrue(ports.getHandler(0x60) instanceof IbmPcKeyboardController);
+        assertEquals(0, ports.in8(0x64) & IbmPcKeyboardController.OUTPUT_BUFFER_FULL);
+    }
+
+}
@@ -0,0 +1,160 @@
+package org.ldaniels528.javapc.ibmpc.devices.storage;
+
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.bios.services.DiskServices;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystem;
+import org.ldaniels528.javapc.ibmpc.system.IbmPcSystemFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static java.lang.String.format;
+import static org.junit.Assert.*;
+import static org.ldaniels528.javapc.ibmpc.devices.storage.IbmPcDiskGeometry.SECTOR_SIZE;
+
+/**
+ * Disk Image Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcDiskImageTest {
+    private final Logger logger = Logger.getLogger(getClass());
+    private File file;
+
+    @Before
+    public void setup() throws IOException {
+        // create a blank 360K diskette image; each sector is tagged with its logical block address
+        file = File.createTempFile("disk", ".img");
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(IbmPcDiskGeometry.DISKETTE_360K.getCapacity());
+            for (int lba = 0; lba < IbmPcDiskGeometry.DISKETTE_360K.getTotalSectors(); lba++) {
+                raf.seek((long) lba * SECTOR_SIZE);
+                raf.writeShort(lba);
+            }
+        }
+    }
+
+    @After
+    public void teardown() {
+        file.delete();
+    }
+
+    @Test
+    public void testGeometry() {
+        logger.info("Given the size of a 1.44Mb diskette image");
+        final long size = 1474560;
+
+        logger.info("When its geometry is determined");
+        final IbmPcDiskGeometry geometry = IbmPcDiskGeometry.forImageSize(size);
+        logger.info(format("\tgeometry: %s", geometry));
+
+        logger.info("Then it should be 80 cylinders, 2 heads and 18 sectors per track");
+        assertEquals(80, geometry.getCylinders());
+        assertEquals(2, geometry.getHeads());
+        assertEquals(18, geometry.getSectorsPerTrack());
+        assertFalse(geometry.isFixed());
+    }
+
+    @Test
+    public void testReadAcrossTracks() throws Exception {
+        final IbmPcRandomAccessMemory memory = new IbmPcRandomAccessMemory();
+        try (final IbmPcDiskImage disk = IbmPcDiskImage.open(file, true)) {
+            logger.info("Given a 360K diskette image");
+            assertEquals(IbmPcDiskGeometry.DISKETTE_360K.getCapacity(), disk.getGeometry().getCapacity());
+
+            logger.info("When 4 sectors are read starting at the last sector of the first track");
+            disk.read(0, 0, 9, 4, memory, 0x7C00);
+
+            logger.info("Then the sectors should be read in logical order");
+            for (int n = 0; n < 4; n++) {
+                final int address = 0x7C00 + n * SECTOR_SIZE;
+                assertEquals(8 + n, (memory.getByte(0x0000, address) << 8) | memory.getByte(0x0000, address + 1));
+            }
+            assertEquals(2, disk.getMissCount());
+        }
+    }
+
+    @Test
+    public void testWriteAndFlush() throws Exception {
+        final IbmPcRandomAccessMemory memory = new IbmPcRandomAccessMemory();
+        try (final IbmPcDiskImage disk = IbmPcDiskImage.open(file, false)) {
+            logger.info("Given a sector's worth of data in memory");
+            for (int n = 0; n < SECTOR_SIZE; n++) {
+                memory.setByte(0x0000, 0x8000 + n, n & 0xFF);
+            }
+
+            logger.info("When it is written to cylinder 1, head 1, sector 3 and flushed");
+            disk.write(1, 1, 3, 1, memory, 0x8000);
+            disk.flush();
+        }
+
+        logger.info("Then the image file should contain the data");
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek((long) ((1 * 2 + 1) * 9 + 2) * SECTOR_SIZE);
+            for (int n = 0; n < SECTOR_SIZE; n++) {
+                assertEquals(n & 0xFF, raf.readUnsignedByte());
+            }
+        }
+    }
+
+    @Test
+    public void testWriteProtected() throws Exception {
+        try (final IbmPcDiskImage disk = IbmPcDiskImage.open(file, true)) {
+            logger.info("Given a write protected disk image");
+            assertTrue(disk.isReadOnly());
+
+            logger.info("When a sector is written to it");
+            try {
+                disk.write(0, 0, 1, 1, new IbmPcRandomAccessMemory(), 0);
+                fail("Expected a write protect error");
+            } catch (final IbmPcDiskException e) {
+                logger.info("Then a write protect error should be reported");
+                assertEquals(IbmPcDiskException.WRITE_PROTECTED, e.getStatus());
+            }
+        }
+    }
+
+    @Test
+    public void testInterrupt13() throws Exception {
+        final IbmPcSystem system = IbmPcSystemFactory.getIBMPCjr(null);
+        final I8086 cpu = system.getCPU();
+        system.getDiskController().mount(0x00, file, true);
+        try {
+            logger.info("Given a request to read 2 sectors from cylinder 1, head 0, sector 1 into 0000:0600");
+            cpu.AH.set(0x02);
+            cpu.AL.set(2);
+            cpu.CX.set(0x0101);
+            cpu.DX.set(0x0000);
+            cpu.ES.set(0x0000);
+            cpu.BX.set(0x0600);
+
+            logger.info("When INT 13h is invoked");
+            DiskServices.getInstance().process(system, cpu);
+
+            logger.info("Then the sectors should be read successfully");
+            final IbmPcRandomAccessMemory memory = system.getRandomAccessMemory();
+            assertFalse(cpu.FLAGS.isCF());
+            assertEquals(0, cpu.AH.get());
+            assertEquals(2, cpu.AL.get());
+            assertEquals(18, (memory.getByte(0x0000, 0x600) << 8) | memory.getByte(0x0000, 0x601));
+            assertEquals(19, (memory.getByte(0x0000, 0x800) << 8) | memory.getByte(0x0000, 0x801));
+
+            logger.info("And reading a non-existent sector should fail with 'sector not found'");
+            cpu.AH.set(0x02);
+            cpu.AL.set(1);
+            cpu.CX.set(0x000A);
+            DiskServices.getInstance().process(system, cpu);
+            assertTrue(cpu.FLAGS.isCF());
+            assertEquals(IbmPcDiskException.SECTOR_NOT_FOUND, cpu.AH.get());
+        } finally {
+            system.getDiskController().unmount(0x00);
+        }
+    }
+
+}
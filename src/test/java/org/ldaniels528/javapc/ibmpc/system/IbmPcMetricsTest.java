@@ -0,0 +1,86 @@
+package org.ldaniels528.javapc.ibmpc.system;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramArguments;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramContext;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameBuffer;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runtime Metrics Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcMetricsTest {
+    private static final int SEGMENT = 0x13F0;
+    private final Logger logger = Logger.getLogger(getClass());
+    private final IbmPcMetrics metrics = IbmPcMetrics.getInstance();
+
+    // sums the values 1000 down to 1 into AX
+    private final byte[] code = {
+            (byte) 0xB9, (byte) 0xE8, 0x03,     // 0100 mov cx, 03E8
+            (byte) 0xB8, 0x00, 0x00,            // 0103 mov ax, 0000
+            0x01, (byte) 0xC8,                  // 0106 add ax, cx
+            0x49,                               // 0108 dec cx
+            0x75, (byte) 0xFB,                  // 0109 jnz 0106
+            (byte) 0xCD, 0x20                   // 010B int 20
+    };
+
+    @Test
+    public void testInstructionMix() throws Exception {
+        logger.info("Given the current runtime metrics");
+        final Map<String, Long> mix0 = metrics.getInstructionMix();
+        final long interrupts0 = getInterruptCount("20");
+        final long decodes0 = metrics.getDecodeCacheHits() + metrics.getDecodeCacheMisses();
+
+        logger.info("When a program is executed");
+        final IbmPcSystem system = IbmPcSystemFactory.getHeadlessIBMPCjr(new IbmPcFrameBuffer());
+        system.getRandomAccessMemory().setBytes(SEGMENT, 0x100, code, code.length);
+        system.getCPU().execute(system, new ProgramContext(SEGMENT, SEGMENT, 0x100, new ProgramArguments[0]));
+        final Map<String, Long> mix1 = metrics.getInstructionMix();
+        logger.info(format("\tmetrics: %s", metrics.toJSON()));
+
+        logger.info("Then the executed instructions, decodes and interrupts should be counted");
+        assertEquals(2, mix1.get("DATA") - mix0.get("DATA"));
+        assertEquals(2000, mix1.get("ARITHMETIC") - mix0.get("ARITHMETIC"));
+        assertEquals(1000, mix1.get("FLOW") - mix0.get("FLOW"));
+        assertEquals(1, getInterruptCount("20") - interrupts0);
+        assertEquals(3003, metrics.getDecodeCacheHits() + metrics.getDecodeCacheMisses() - decodes0);
+        assertTrue(metrics.getDecodeCacheHitRate() > 0);
+        assertTrue(metrics.getMIPS() > 0);
+    }
+
+    @Test
+    public void testJmxAndJson() throws Exception {
+        logger.info("Given the runtime metrics registered with the platform MBean server");
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName("org.ldaniels528.javapc:type=IbmPcMetrics");
+        metrics.recordRepaint();
+
+        logger.info("When the metrics are queried via JMX");
+        final long repaints = (Long) server.getAttribute(name, "VideoRepaints");
+        final String json = (String) server.invoke(name, "toJSON", new Object[0], new String[0]);
+        logger.info(format("\tJSON: %s", json));
+
+        logger.info("Then the JMX view should reflect the metrics");
+        assertTrue(repaints >= 1);
+        assertTrue(json.startsWith("{\"instructions\":{\"count\":"));
+        assertTrue(json.contains("\"decodeCache\":{\"hits\":"));
+        assertTrue(json.contains("\"basic\":{\"statements\":"));
+    }
+
+    private long getInterruptCount(final String interruptNo) {
+        final Long count = metrics.getInterruptCounts().get(interruptNo);
+        return (count != null) ? count : 0L;
+    }
+
+}
@@ -0,0 +1,141 @@
+package org.ldaniels528.javapc.ibmpc.system;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramArguments;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramContext;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplay;
+import org.ldaniels528.javapc.ibmpc.devices.display.modes.cga.CGAGraphicsMode320x200;
+import org.ldaniels528.javapc.jbasic.gwbasic.GwBasicEnvironment;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicRuntime;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static org.junit.Assert.*;
+import static org.ldaniels528.javapc.ibmpc.devices.display.IbmPcColors.COLORS_16;
+import static org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayModes.CGA_320X200X4;
+
+/**
+ * System Pool Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcSystemPoolTest {
+    private final Logger logger = Logger.getLogger(getClass());
+
+    @Test
+    public void testConcurrentPrograms() throws Exception {
+        logger.info("Given 32 .COM programs, each printing its own job number");
+        final List<IbmPcSystemJob<IbmPcSystem, String>> jobs = new ArrayList<>();
+        for (int n = 0; n < 32; n++) {
+            final byte[] code = createProgram(format("JOB %02d$", n));
+            jobs.add((system, screen) -> {
+                final int segment = 0x13F0;
+                system.getRandomAccessMemory().setBytes(segment, 0x100, code, code.length);
+                system.getCPU().execute(system, new ProgramContext(segment, segment, 0x100, new ProgramArguments[0]));
+                return screen.getTextLine(0).trim();
+            });
+        }
+
+        logger.info("When they are run on a pool of 4 threads");
+        final List<Future<String>> results;
+        try (final IbmPcSystemPool<IbmPcSystem> pool = IbmPcSystemFactory.getSystemPool(4)) {
+            results = pool.submitAll(jobs);
+            assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        logger.info("Then each machine's screen should show only its own output");
+        for (int n = 0; n < results.size(); n++) {
+            assertEquals(format("JOB %02d", n), results.get(n).get());
+        }
+    }
+
+    @Test
+    public void testConcurrentGraphicsModes() throws Exception {
+        logger.info("Given 16 machines in CGA 320x200 mode, alternating between the two palettes");
+        final List<IbmPcSystemJob<IbmPcSystem, int[]>> jobs = new ArrayList<>();
+        for (int n = 0; n < 16; n++) {
+            final int palette = n & 1;
+            jobs.add((system, screen) -> {
+                final IbmPcDisplay display = system.getDisplay();
+                display.setDisplayMode(CGA_320X200X4);
+                ((CGAGraphicsMode320x200) display.getDisplayMode()).selectPalette(display.getContext(), palette);
+                for (int x = 0; x < 4; x++) {
+                    display.writePixel(x, 0, x);
+                }
+
+                // render repeatedly, so that the machines' frames interleave
+                for (int frame = 0; frame < 50; frame++) {
+                    display.update();
+                }
+                final int[] pixels = screen.getPixels();
+                return new int[]{pixels[0], pixels[1], pixels[2], pixels[3]};
+            });
+        }
+
+        logger.info("When they are rendered concurrently on a pool of 4 threads");
+        final List<Future<int[]>> results;
+        try (final IbmPcSystemPool<IbmPcSystem> pool = IbmPcSystemFactory.getSystemPool(4)) {
+            results = pool.submitAll(jobs);
+            assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        logger.info("Then each machine's screen should use only its own palette");
+        final int[][] expected = {
+                {COLORS_16[0].getRGB(), COLORS_16[2].getRGB(), COLORS_16[4].getRGB(), COLORS_16[6].getRGB()},
+                {COLORS_16[0].getRGB(), COLORS_16[3].getRGB(), COLORS_16[5].getRGB(), COLORS_16[15].getRGB()}
+        };
+        for (int n = 0; n < results.size(); n++) {
+            assertArrayEquals(format("machine #%d", n), expected[n & 1], results.get(n).get());
+        }
+    }
+
+    @Test
+    public void testConcurrentBasicEnvironments() throws Exception {
+        logger.info("Given a pool of GWBASIC environments");
+        try (final IbmPcSystemPool<GwBasicEnvironment> pool = new IbmPcSystemPool<>(2, GwBasicEnvironment::new)) {
+            logger.info("When each evaluates a different PRINT statement");
+            final List<Future<String>> results = new ArrayList<>();
+            for (int n = 1; n <= 4; n++) {
+                final int value = n;
+                results.add(pool.submit((environment, screen) -> {
+                    GwBasicRuntime.getInstance().evaluate(environment.getProgram(), new GwBasicStatement(format("PRINT %d*7", value)));
+                    return screen.getTextLine(0).trim();
+                }));
+            }
+
+            logger.info("Then each environment should print its own result");
+            for (int n = 1; n <= 4; n++) {
+                final String line = results.get(n - 1).get();
+                logger.info(format("\tenvironment #%d: '%s'", n, line));
+                assertEquals(String.valueOf(n * 7), line);
+            }
+        }
+    }
+
+    /**
+     * Creates a .COM program which prints the given ($-terminated) message, then terminates
+     *
+     * @param message the given message
+     * @return the program's code
+     */
+    private static byte[] createProgram(final String message) {
+        final int address = 0x100 + 9;
+        final byte[] prologue = {
+                (byte) 0xBA, (byte) address, (byte) (address >> 8),    // MOV DX, message
+                (byte) 0xB4, 0x09,                                     // MOV AH, 09h
+                (byte) 0xCD, 0x21,                                     // INT 21h
+                (byte) 0xCD, 0x20                                      // INT 20h
+        };
+        final byte[] code = new byte[prologue.length + message.length()];
+        System.arraycopy(prologue, 0, code, 0, prologue.length);
+        System.arraycopy(message.getBytes(), 0, code, prologue.length, message.length());
+        return code;
+    }
+
+}
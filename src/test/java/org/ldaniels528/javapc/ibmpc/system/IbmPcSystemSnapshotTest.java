@@ -0,0 +1,159 @@
+package org.ldaniels528.javapc.ibmpc.system;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.I8086;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramArguments;
+import org.ldaniels528.javapc.ibmpc.devices.cpu.ProgramContext;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcDisplay;
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameBuffer;
+import org.ldaniels528.javapc.ibmpc.devices.display.modes.cga.CGAGraphicsMode320x200;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcMemorySnapshot;
+import org.ldaniels528.javapc.ibmpc.devices.memory.IbmPcRandomAccessMemory;
+import org.ldaniels528.javapc.ibmpc.devices.ports.IbmPcHardwarePorts;
+import org.ldaniels528.javapc.ibmpc.devices.ports.IbmPcIntervalTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static org.junit.Assert.*;
+import static org.ldaniels528.javapc.ibmpc.devices.display.modes.IbmPcDisplayModes.CGA_320X200X4;
+
+/**
+ * System Snapshot Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class IbmPcSystemSnapshotTest {
+    private static final int SEGMENT = 0x13F0;
+    private final Logger logger = Logger.getLogger(getClass());
+
+    @Test
+    public void testUnmodifiedPagesAreShared() throws Exception {
+        logger.info("Given a snapshot of a machine");
+        final IbmPcSystem system = IbmPcSystemFactory.getHeadlessIBMPCjr(new IbmPcFrameBuffer());
+        final IbmPcRandomAccessMemory memory = system.getRandomAccessMemory();
+        final IbmPcMemorySnapshot first = system.snapshot().getMemory();
+        assertEquals(0, memory.getDirtyPageCount());
+
+        logger.info("When a single page of memory is modified, and another snapshot is taken");
+        memory.setByte(SEGMENT, 0x0100, 0x55);
+        assertEquals(1, memory.getDirtyPageCount());
+        final IbmPcMemorySnapshot second = system.snapshot().getMemory();
+
+        logger.info("Then all other pages should be shared with the first snapshot");
+        assertEquals(first.getPageCount() - 1, second.getSharedPageCount(first));
+    }
+
+    @Test
+    public void testRestore() throws Exception {
+        logger.info("Given a snapshot of a machine");
+        final IbmPcSystem system = IbmPcSystemFactory.getHeadlessIBMPCjr(new IbmPcFrameBuffer());
+        final I8086 cpu = system.getCPU();
+        final IbmPcRandomAccessMemory memory = system.getRandomAccessMemory();
+        cpu.AX.set(0x1234);
+        final int character = memory.getByte(0xB800, 0x0000);
+        final IbmPcSystemSnapshot snapshot = system.snapshot();
+
+        logger.info("When its registers, memory and clock are modified, and the snapshot is restored");
+        cpu.AX.set(0xFFFF);
+        memory.setByte(SEGMENT, 0x0100, 0x55);
+        memory.setByte(0xB800, 0x0000, 'X');
+        cpu.getClock().advance(1000);
+        system.restore(snapshot);
+
+        logger.info("Then the machine's state should be that of the snapshot");
+        assertEquals(0x1234, cpu.AX.get());
+        assertEquals(0, memory.getByte(SEGMENT, 0x0100));
+        assertEquals(character, memory.getByte(0xB800, 0x0000));
+        assertEquals(snapshot.getCycles(), cpu.getClock().getCycles());
+        assertEquals(0, memory.getDirtyPageCount());
+    }
+
+    @Test
+    public void testRestorePaletteAndPorts() throws Exception {
+        logger.info("Given a snapshot of a machine in CGA 320x200 mode");
+        final IbmPcSystem system = IbmPcSystemFactory.getHeadlessIBMPCjr(new IbmPcFrameBuffer());
+        final IbmPcDisplay display = system.getDisplay();
+        final IbmPcHardwarePorts ports = system.getHardwarePorts();
+        final IbmPcIntervalTimer timer = (IbmPcIntervalTimer) ports.getHandler(0x42);
+        display.setDisplayMode(CGA_320X200X4);
+        final int palette = display.getContext().palette;
+        final int mask = ports.in8(0x21);
+        final int count = timer.getCount(2);
+        final IbmPcSystemSnapshot snapshot = system.snapshot();
+
+        logger.info("When the palette, interrupt mask, timer, keyboard and an unassigned port are modified");
+        ((CGAGraphicsMode320x200) display.getDisplayMode()).selectPalette(display.getContext(), 0);
+        ports.out8(0x21, mask ^ 0xFF);
+        ports.out8(0x43, 0xB0);
+        ports.out8(0x42, 0xE8);
+        ports.out8(0x42, 0x03);
+        ports.out8(0x64, 0xAA);
+        ports.out8(0x300, 0x12);
+        logger.info(format("	palette: %d, mask: %02X, count: %04X", display.getContext().palette, ports.in8(0x21), timer.getCount(2)));
+
+        logger.info("And the snapshot is restored");
+        system.restore(snapshot);
+
+        logger.info("Then the palette and the devices' state should be that of the snapshot");
+        assertEquals(palette, display.getContext().palette);
+        assertEquals(mask, ports.in8(0x21));
+        assertEquals(count, timer.getCount(2));
+        assertEquals(0, ports.in8(0x64) & 0x01);
+        assertEquals(0xFF, ports.in8(0x300));
+    }
+
+    @Test
+    public void testForkedPool() throws Exception {
+        logger.info("Given a golden machine with a program loaded into memory");
+        final IbmPcSystem golden = IbmPcSystemFactory.getHeadlessIBMPCjr(new IbmPcFrameBuffer());
+        final byte[] code = createProgram("FORKED$");
+        golden.getRandomAccessMemory().setBytes(SEGMENT, 0x100, code, code.length);
+        final IbmPcSystemSnapshot snapshot = golden.snapshot();
+
+        logger.info("When jobs modifying the machine are run on a pool restoring the golden snapshot");
+        final List<Future<String>> results = new ArrayList<>();
+        try (final IbmPcSystemPool<IbmPcSystem> pool = IbmPcSystemFactory.getSystemPool(2, snapshot)) {
+            for (int n = 0; n < 8; n++) {
+                results.add(pool.submit((system, screen) -> {
+                    final IbmPcRandomAccessMemory memory = system.getRandomAccessMemory();
+                    final int marker = memory.getByte(SEGMENT, 0x0200);
+                    memory.setByte(SEGMENT, 0x0200, 0xFF);
+                    system.getCPU().execute(system, new ProgramContext(SEGMENT, SEGMENT, 0x100, new ProgramArguments[0]));
+                    return format("%s:%02X", screen.getTextLine(0).trim(), marker);
+                }));
+            }
+            assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        logger.info("Then each job should begin from the golden machine's state");
+        for (final Future<String> result : results) {
+            assertEquals("FORKED:00", result.get());
+        }
+    }
+
+    /**
+     * Creates a .COM program which prints the given ($-terminated) message, then terminates
+     *
+     * @param message the given message
+     * @return the program's code
+     */
+    private static byte[] createProgram(final String message) {
+        final int address = 0x100 + 9;
+        final byte[] prologue = {
+                (byte) 0xBA, (byte) address, (byte) (address >> 8),    // MOV DX, message
+                (byte) 0xB4, 0x09,                                     // MOV AH, 09h
+                (byte) 0xCD, 0x21,                                     // INT 21h
+                (byte) 0xCD, 0x20                                      // INT 20h
+        };
+        final byte[] code = new byte[prologue.length + message.length()];
+        System.arraycopy(prologue, 0, code, 0, prologue.length);
+        System.arraycopy(message.getBytes(), 0, code, prologue.length, message.length());
+        return code;
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.ldaniels528.javapc.jbasic.gwbasic.program;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
+import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleVariableReference;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.commands.GwBasicCommand;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicTestPrograms.createProgram;
+
+/**
+ * GWBASIC Compile Cache Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class GwBasicCompileCacheTest {
+    private final Logger logger = Logger.getLogger(getClass());
+    private final GwBasicCompiler compiler = GwBasicCompiler.getInstance();
+
+    @Test
+    public void testUnchangedProgram() throws Exception {
+        logger.info("Given a program which has been compiled and executed");
+        final GwBasicProgram program = createProgram(
+                "10 DATA 3, 4",
+                "20 READ A, B",
+                "30 FOR I = 1 TO 10",
+                "40 FOR J = 1 TO A: X = X + B: NEXT J",
+                "50 NEXT I");
+        final GwBasicCompileCache cache = program.getCompileCache();
+        final GwBasicCompiledCode compiledCodeA = compile(program, cache);
+        compiledCodeA.execute();
+
+        logger.info("When the program is compiled and executed again");
+        final GwBasicCompiledCode compiledCodeB = compile(program, cache);
+        compiledCodeB.execute();
+
+        logger.info("Then the opCodes of every statement should have been reused");
+        assertEquals(5, cache.getHits());
+        assertEquals(5, cache.getMisses());
+        final GwBasicCommand[] commandsA = compiledCodeA.getCommands();
+        final GwBasicCommand[] commandsB = compiledCodeB.getCommands();
+        assertEquals(commandsA.length, commandsB.length);
+        for (int n = 0; n < commandsA.length; n++) {
+            assertSame(commandsA[n], commandsB[n]);
+        }
+
+        logger.info("And both runs should have produced the same results");
+        assertEquals(120, getValue(compiledCodeA, "X"));
+        assertEquals(120, getValue(compiledCodeB, "X"));
+    }
+
+    @Test
+    public void testChangedStatement() throws Exception {
+        logger.info("Given a program which has been compiled and executed");
+        final GwBasicProgram program = createProgram(
+                "10 N = 0",
+                "20 N = N + 1",
+                "30 IF N < 5 THEN 20",
+                "40 FOR I = 1 TO N: Y = Y + I: NEXT I");
+        final GwBasicCompileCache cache = program.getCompileCache();
+        final GwBasicCompiledCode compiledCodeA = compile(program, cache);
+        compiledCodeA.execute();
+
+        logger.info("When a statement is changed, another is inserted, and the program is recompiled");
+        program.add(new GwBasicStatement(20, "N = N + 2"));
+        program.add(new GwBasicStatement(15, "Y = 100"));
+        final GwBasicCompiledCode compiledCodeB = compile(program, cache);
+        compiledCodeB.execute();
+
+        logger.info("Then only the changed and inserted statements should have been compiled");
+        assertEquals(3, cache.getHits());
+        assertEquals(6, cache.getMisses());
+        assertEquals(5, cache.size());
+        assertNotSame(compiledCodeA.getCommands()[1], compiledCodeB.getCommands()[2]);
+
+        logger.info("And the jump and loop targets should have been relinked");
+        assertEquals(5, getValue(compiledCodeA, "N"));
+        assertEquals(15, getValue(compiledCodeA, "Y"));
+        assertEquals(6, getValue(compiledCodeB, "N"));
+        assertEquals(121, getValue(compiledCodeB, "Y"));
+    }
+
+    private GwBasicCompiledCode compile(final GwBasicProgram program,
+                                        final GwBasicCompileCache cache) throws JBasicException {
+        return (GwBasicCompiledCode) compiler.compile(program, cache);
+    }
+
+    private static int getValue(final GwBasicCompiledCode compiledCode, final String name) {
+        return new SimpleVariableReference(name).getValue(compiledCode).toInteger();
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.ldaniels528.javapc.jbasic.gwbasic.program;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.jbasic.common.values.Variable;
+import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleVariableReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicTestPrograms.compile;
+
+/**
+ * GWBASIC Compiled Code Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class GwBasicCompiledCodeTest {
+    private final Logger logger = Logger.getLogger(getClass());
+
+    @Test
+    public void testVariableSlots() throws Exception {
+        logger.info("Given a program in which a variable and an array share a name");
+        final GwBasicCompiledCode compiledCode = compile(
+                "10 DIM A(5)",
+                "20 A = 3",
+                "30 A(1) = 7",
+                "40 X = A + A(1)");
+
+        logger.info("When the program is executed");
+        compiledCode.execute();
+
+        logger.info("Then the variable and the array should be distinct");
+        assertEquals(3, getValue(compiledCode, "A"));
+        assertEquals(10, getValue(compiledCode, "X"));
+    }
+
+    @Test
+    public void testErasedArray() throws Exception {
+        logger.info("Given a program which erases and re-dimensions an array");
+        final GwBasicCompiledCode compiledCode = compile(
+                "10 DIM A(5)",
+                "20 A(1) = 7",
+                "30 X = A(1)",
+                "40 ERASE A",
+                "50 DIM A(8)",
+                "60 A(7) = 4",
+                "70 Y = A(7)");
+
+        logger.info("When the program is executed");
+        compiledCode.execute();
+
+        logger.info("Then references to the array should resolve to the re-dimensioned array");
+        assertEquals(7, getValue(compiledCode, "X"));
+        assertEquals(4, getValue(compiledCode, "Y"));
+    }
+
+    @Test
+    public void testSharedReferences() throws Exception {
+        logger.info("Given two references to the same variable");
+        final GwBasicCompiledCode compiledCode = compile("10 N = 5");
+        final SimpleVariableReference referenceA = new SimpleVariableReference("N");
+        final SimpleVariableReference referenceB = new SimpleVariableReference("N");
+
+        logger.info("When the program is executed");
+        compiledCode.execute();
+        final Variable variable = referenceA.getVariable(compiledCode);
+
+        logger.info("Then both references should resolve to the same variable");
+        assertSame(variable, referenceB.getVariable(compiledCode));
+        assertSame(variable, referenceA.getVariable(compiledCode));
+        assertEquals(5, getValue(compiledCode, "N"));
+    }
+
+    private static int getValue(final GwBasicCompiledCode compiledCode, final String name) {
+        return new SimpleVariableReference(name).getValue(compiledCode).toInteger();
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.ldaniels528.javapc.jbasic.gwbasic.program;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleVariableReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicTestPrograms.compile;
+
+/**
+ * GWBASIC Linker Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class GwBasicLinkerTest {
+    private final Logger logger = Logger.getLogger(getClass());
+
+    @Test
+    public void testNestedLoops() throws Exception {
+        logger.info("Given a program containing nested FOR/NEXT loops");
+        final GwBasicCompiledCode compiledCode = compile(
+                "10 S = 0",
+                "20 FOR I = 1 TO 10",
+                "30 FOR J = 1 TO 5",
+                "40 S = S + J",
+                "50 NEXT J",
+                "60 NEXT",
+                "70 FOR K = 3 TO 1 STEP -1: T = T + K: NEXT K");
+
+        logger.info("When the program is executed");
+        compiledCode.execute();
+
+        logger.info("Then the loops should have iterated as expected");
+        assertEquals(150, getValue(compiledCode, "S"));
+        assertEquals(6, getValue(compiledCode, "T"));
+    }
+
+    @Test
+    public void testSubroutines() throws Exception {
+        logger.info("Given a program which calls subroutines from within a loop");
+        final GwBasicCompiledCode compiledCode = compile(
+                "10 FOR I = 1 TO 4",
+                "20 GOSUB 100",
+                "30 ON I GOSUB 200, 300",
+                "40 NEXT I",
+                "50 GOTO 400",
+                "100 S = S + I",
+                "110 RETURN",
+                "200 A = A + 1: RETURN",
+                "300 B = B + 1: RETURN",
+                "400 END");
+
+        logger.info("When the program is executed");
+        compiledCode.execute();
+
+        logger.info("Then each subroutine should have returned to its caller");
+        assertEquals(10, getValue(compiledCode, "S"));
+        assertEquals(1, getValue(compiledCode, "A"));
+        assertEquals(1, getValue(compiledCode, "B"));
+    }
+
+    @Test
+    public void testConditionalJumps() throws Exception {
+        logger.info("Given a program which loops via IF ... THEN <line>");
+        final GwBasicCompiledCode compiledCode = compile(
+                "10 N = 0",
+                "20 N = N + 1",
+                "30 IF N < 25 THEN 20 ELSE 40",
+                "40 M = N * 2");
+
+        logger.info("When the program is executed");
+        compiledCode.execute();
+
+        logger.info("Then the jumps should have been taken until the condition failed");
+        assertEquals(25, getValue(compiledCode, "N"));
+        assertEquals(50, getValue(compiledCode, "M"));
+    }
+
+    private static int getValue(final GwBasicCompiledCode compiledCode, final String name) {
+        return new SimpleVariableReference(name).getValue(compiledCode).toInteger();
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.ldaniels528.javapc.jbasic.gwbasic.program;
+
+import org.ldaniels528.javapc.ibmpc.devices.display.IbmPcFrameBuffer;
+import org.ldaniels528.javapc.jbasic.common.exceptions.JBasicException;
+import org.ldaniels528.javapc.jbasic.gwbasic.GwBasicEnvironment;
+
+/**
+ * GWBASIC Test Programs; builds programs from numbered lines of source code
+ * (e.g. "10 PRINT X") within a headless environment, for use by the tests
+ * and benchmarks of the compiler
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public final class GwBasicTestPrograms {
+
+    /**
+     * Private constructor
+     */
+    private GwBasicTestPrograms() {
+        super();
+    }
+
+    /**
+     * Creates a program within a new headless environment
+     *
+     * @param lines the given numbered lines of source code
+     * @return the {@link GwBasicProgram program}
+     */
+    public static GwBasicProgram createProgram(final String... lines) {
+        final GwBasicEnvironment environment = new GwBasicEnvironment(new IbmPcFrameBuffer());
+        final GwBasicProgram program = environment.getProgram();
+        for (final String line : lines) {
+            final int index = line.indexOf(' ');
+            program.add(new GwBasicStatement(Integer.parseInt(line.substring(0, index)), line.substring(index + 1)));
+        }
+        return program;
+    }
+
+    /**
+     * Creates and compiles a program within a new headless environment
+     *
+     * @param lines the given numbered lines of source code
+     * @return the {@link GwBasicCompiledCode compiled code}
+     * @throws JBasicException if the program could not be compiled
+     */
+    public static GwBasicCompiledCode compile(final String... lines) throws JBasicException {
+        return (GwBasicCompiledCode) GwBasicCompiler.getInstance().compile(createProgram(lines));
+    }
+
+}
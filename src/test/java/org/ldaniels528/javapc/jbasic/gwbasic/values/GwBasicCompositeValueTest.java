@@ -0,0 +1,161 @@
+package org.ldaniels528.javapc.jbasic.gwbasic.values;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.devices.memory.MemoryObject;
+import org.ldaniels528.javapc.jbasic.common.exceptions.DivisionByZeroException;
+import org.ldaniels528.javapc.jbasic.common.tokenizer.TokenIterator;
+import org.ldaniels528.javapc.jbasic.common.values.impl.SimpleVariableReference;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicCompiledCode;
+import org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicProgramSyntaxException;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.ldaniels528.javapc.jbasic.gwbasic.program.GwBasicTestPrograms.compile;
+
+/**
+ * GWBASIC Composite Value (Expression) Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class GwBasicCompositeValueTest {
+    private final Logger logger = Logger.getLogger(getClass());
+
+    @Test
+    public void testNumericPrecision() throws Exception {
+        logger.info("Given a program which assigns expressions to variables of each precision");
+        final GwBasicCompiledCode compiledCode = compile(
+                "10 A% = 7 / 2",
+                "20 B% = 0 - 1234",
+                "30 C! = 1 / 3",
+                "40 D# = 1 / 3",
+                "50 E = (A% + 1) * B% MOD 1000");
+
+        logger.info("When the program is executed");
+        compiledCode.execute();
+
+        logger.info("Then each variable should hold the result in its own precision");
+        assertEquals(3, getValue(compiledCode, "A%").toInteger());
+        assertEquals(-1234, getValue(compiledCode, "B%").toInteger());
+        assertEquals(1f / 3f, getValue(compiledCode, "C!").toDoublePrecision(), 0d);
+        assertEquals(1d / 3d, getValue(compiledCode, "D#").toDoublePrecision(), 0d);
+        assertEquals(-936, getValue(compiledCode, "E").toInteger());
+    }
+
+    @Test
+    public void testNumericLoop() throws Exception {
+        logger.info("Given a program which accumulates values within a loop");
+        final GwBasicCompiledCode compiledCode = compile(
+                "10 X = 0",
+                "20 FOR I = 1 TO 1000: X = I * 2 + X: NEXT I",
+                "30 FOR J# = 1 TO 0 STEP -0.25: Y = Y + J#: NEXT J#");
+
+        logger.info("When the program is executed");
+        compiledCode.execute();
+
+        logger.info("Then the loops should have produced the expected totals");
+        assertEquals(1001000, getValue(compiledCode, "X").toInteger());
+        assertEquals(1001, getValue(compiledCode, "I").toInteger());
+        assertEquals(2.5d, getValue(compiledCode, "Y").toDoublePrecision(), 0d);
+    }
+
+    @Test
+    public void testStringConcatenation() throws Exception {
+        logger.info("Given a program which concatenates strings");
+        final GwBasicCompiledCode compiledCode = compile(
+                "10 A$ = \"HELLO\"",
+                "20 B$ = A$ + \", \" + \"WORLD\"");
+
+        logger.info("When the program is executed");
+        compiledCode.execute();
+
+        logger.info("Then the string expression should have been evaluated");
+        assertEquals("HELLO, WORLD", getValue(compiledCode, "B$").toString());
+    }
+
+    @Test
+    public void testOperatorPrecedence() throws Exception {
+        logger.info("Given a program which relies upon operator precedence");
+        final GwBasicCompiledCode compiledCode = compile(
+                "10 X = 4",
+                "20 A = 2 + 3 * X",
+                "30 B = -2 ^ 2",
+                "40 C = 2 ^ -1 * X",
+                "50 D = 17 \\ X * 2",
+                "60 E = 2 + 19 MOD X - 1",
+                "70 F = -(X - 1) * (X + 1)",
+                "80 G = X - 3 - 1");
+
+        logger.info("When the program is executed");
+        compiledCode.execute();
+
+        logger.info("Then each expression should have been evaluated in GWBASIC order");
+        assertEquals(14, getValue(compiledCode, "A").toInteger());
+        assertEquals(-4, getValue(compiledCode, "B").toInteger());
+        assertEquals(2, getValue(compiledCode, "C").toInteger());
+        assertEquals(2, getValue(compiledCode, "D").toInteger());
+        assertEquals(4, getValue(compiledCode, "E").toInteger());
+        assertEquals(-15, getValue(compiledCode, "F").toInteger());
+        assertEquals(0, getValue(compiledCode, "G").toInteger());
+    }
+
+    @Test
+    public void testRelationalAndLogicalOperators() throws Exception {
+        logger.info("Given a program which combines relational and logical operators");
+        final GwBasicCompiledCode compiledCode = compile(
+                "10 X = 5: Y$ = \"A\"",
+                "20 A = X <= 5 AND Y$ = \"A\"",
+                "30 B = X >= 6 OR Y$ <> \"A\"",
+                "40 C = NOT X > 6",
+                "50 D = 12 AND 10 OR 1",
+                "60 E = 6 XOR 3",
+                "70 IF X <= 5 AND Y$ = \"A\" THEN F = 1 ELSE F = 2",
+                "80 IF X > 5 OR Y$ > \"B\" THEN G = 1 ELSE G = 2");
+
+        logger.info("When the program is executed");
+        compiledCode.execute();
+
+        logger.info("Then true conditions should yield -1 and false conditions 0");
+        assertEquals(-1, getValue(compiledCode, "A").toInteger());
+        assertEquals(0, getValue(compiledCode, "B").toInteger());
+        assertEquals(-1, getValue(compiledCode, "C").toInteger());
+        assertEquals(9, getValue(compiledCode, "D").toInteger());
+        assertEquals(5, getValue(compiledCode, "E").toInteger());
+        assertEquals(1, getValue(compiledCode, "F").toInteger());
+        assertEquals(2, getValue(compiledCode, "G").toInteger());
+    }
+
+    @Test
+    public void testConstantFolding() throws Exception {
+        logger.info("Given an expression which contains constant sub-expressions");
+        final GwBasicCompositeValue value = new GwBasicCompositeValue(
+                new TokenIterator(asList("2", "*", "3", "+", "X", "*", "(", "8", "/", "4", ")")));
+
+        logger.info("Then the constant sub-expressions should have been folded");
+        assertEquals("(6.0 + (X * 2.0))", value.toString());
+    }
+
+    @Test
+    public void testIntegerDivisionByZero() throws Exception {
+        logger.info("Given a program which performs an integer division by zero");
+        final GwBasicCompiledCode compiledCode = compile("10 X = 7 \\ 0");
+
+        logger.info("When the program is executed");
+        Throwable cause = null;
+        try {
+            compiledCode.execute();
+        } catch (GwBasicProgramSyntaxException e) {
+            cause = e;
+            while (cause.getCause() != null) cause = cause.getCause();
+        }
+
+        logger.info("Then a division by zero error should have occurred");
+        assertTrue(cause instanceof DivisionByZeroException);
+    }
+
+    private static MemoryObject getValue(final GwBasicCompiledCode compiledCode, final String name) {
+        return new SimpleVariableReference(name).getValue(compiledCode);
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.ldaniels528.javapc.msdos.storage;
+
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldaniels528.javapc.ibmpc.exceptions.IbmPcException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * MS-DOS File Handle Test Suite
+ *
+ * @author lawrence.daniels@gmail.com
+ */
+public class MsDosFileHandleTest {
+    private final Logger logger = Logger.getLogger(getClass());
+    private File file;
+
+    @Before
+    public void setup() throws IOException {
+        file = File.createTempFile("handle", ".dat");
+    }
+
+    @After
+    public void teardown() {
+        file.delete();
+    }
+
+    @Test
+    public void testSmallRecords() throws IbmPcException, IOException {
+        logger.info("Given a newly created file");
+        final MsDosFileHandle handle = new MsDosFileHandle(file, 1);
+        handle.create();
+
+        logger.info("When 10,000 three-byte records are written and read back");
+        for (int n = 0; n < 10000; n++) {
+            handle.write(new byte[]{(byte) n, (byte) (n >> 8), (byte) 0xFF});
+        }
+        assertEquals(0, handle.seek(MsDosFileHandle.SEEK_SET, 0));
+        final ByteBuffer record = ByteBuffer.allocate(3);
+        int errors = 0;
+        for (int n = 0; n < 10000; n++) {
+            record.clear();
+            assertEquals(3, handle.read(record));
+            if (record.get(0) != (byte) n || record.get(1) != (byte) (n >> 8)) errors++;
+        }
+        logger.info(format("\tposition: %d", handle.getPosition()));
+
+        logger.info("Then each record should be read as written, and the end of file reached");
+        assertEquals(0, errors);
+        record.clear();
+        assertEquals(0, handle.read(record));
+        handle.close();
+        assertEquals(30000, file.length());
+    }
+
+    @Test
+    public void testLargeWriteAfterRead() throws IbmPcException, IOException {
+        logger.info("Given a file of 5,000 zeros, whose first bytes have been read ahead");
+        Files.write(file.toPath(), new byte[5000]);
+        final MsDosFileHandle handle = new MsDosFileHandle(file, 1);
+        handle.open(MsDosFileAccessMode.decode(0x02));
+        assertEquals(16, handle.read(ByteBuffer.allocate(16)));
+
+        logger.info("When 5,000 bytes of 41h are written over the start of the file");
+        handle.seek(MsDosFileHandle.SEEK_SET, 0);
+        final byte[] data = new byte[5000];
+        Arrays.fill(data, (byte) 0x41);
+        handle.write(data);
+
+        logger.info("Then reading the start of the file should return the new data");
+        handle.seek(MsDosFileHandle.SEEK_SET, 0);
+        final ByteBuffer buffer = ByteBuffer.allocate(16);
+        assertEquals(16, handle.read(buffer));
+        logger.info(format("	first byte: %02X", buffer.get(0)));
+        for (int n = 0; n < 16; n++) {
+            assertEquals(0x41, buffer.get(n));
+        }
+        handle.close();
+    }
+
+    @Test
+    public void testSeekAndTruncate() throws IbmPcException, IOException {
+        logger.info("Given a file containing the bytes 0-9");
+        Files.write(file.toPath(), new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+        final MsDosFileHandle handle = new MsDosFileHandle(file, 1);
+        handle.open(MsDosFileAccessMode.decode(0x02));
+
+        logger.info("When seeking 3 bytes before the end of the file and overwriting a byte");
+        assertEquals(7, handle.seek(MsDosFileHandle.SEEK_END, -3));
+        handle.write(new byte[]{42});
+
+        logger.info("Then reading from the current position should see the remaining original bytes");
+        final ByteBuffer buffer = ByteBuffer.allocate(4);
+        assertEquals(2, handle.read(buffer));
+        assertEquals(8, buffer.get(0));
+
+        logger.info("And truncating at position 5 should leave the first 5 bytes");
+        handle.seek(MsDosFileHandle.SEEK_SET, 5);
+        handle.truncate();
+        handle.close();
+        assertArrayEquals(new byte[]{0, 1, 2, 3, 4}, Files.readAllBytes(file.toPath()));
+    }
+
+}